@@ -0,0 +1,85 @@
+#!/usr/bin/env bash
+# Cost of logging on a query-heavy read workload: the default configuration (every statement at
+# DEBUG, bind values at TRACE, show-sql on, written synchronously to the console) against the
+# prod-logging profile (async JSON, SQL and request lines sampled, no bind values). Each variant
+# starts the packaged jar on a fresh H2 database with its output redirected to a file, creates a set
+# of clients with one contract each, warms up, then lists their active contracts repeatedly; every
+# such request runs its queries, nothing is served from the response cache. Reported per variant:
+# process CPU time (user + system, from /proc) per request, throughput and log bytes per request.
+#
+# Usage: scripts/logging-benchmark.sh [clients] [rounds] [parallel]
+#   clients   clients created, each listed once per round (default 200)
+#   rounds    measured passes over those clients (default 20)
+#   parallel  concurrent connections (default 16)
+# Requires a built jar: mvn package -DskipTests (JAR=path/to.jar benchmarks another build)
+set -euo pipefail
+
+CLIENTS=${1:-200}
+ROUNDS=${2:-20}
+PARALLEL=${3:-16}
+PORT=18082
+BASE="http://localhost:${PORT}/api"
+
+cd "$(dirname "$0")/.."
+JAR=${JAR:-$(ls target/insurance-api-*.jar | grep -v original | head -1)}
+TICKS=$(getconf CLK_TCK)
+
+cpu_ms() {
+  awk -v ticks="$TICKS" '{ printf "%d", ($14 + $15) * 1000 / ticks }' "/proc/$1/stat"
+}
+
+create_clients() {
+  local i id
+  for i in $(seq "$CLIENTS"); do
+    id=$(curl -fs -H 'Content-Type: application/json' "${BASE}/clients/persons" -d "{
+      \"clientType\": \"PERSON\", \"firstName\": \"Load\", \"lastName\": \"Bench\",
+      \"email\": \"bench-${i}@example.com\", \"phone\": \"+41791234567\",
+      \"birthDate\": \"1990-01-01\"}" | sed -E 's/.*"id":([0-9]+).*/\1/')
+    curl -fs -o /dev/null -H 'Content-Type: application/json' "${BASE}/clients/${id}/contracts" \
+      -d '{"costAmount": 100.00}'
+    printf 'url = "%s"\noutput = "/dev/null"\n' "${BASE}/clients/${id}/contracts"
+  done
+}
+
+send_round() {
+  curl -s --no-progress-meter --parallel --parallel-max "$PARALLEL" -K "$1" 2> /dev/null
+}
+
+run_variant() {
+  local name=$1 workdir pid start_cpu start_ms start_bytes cpu wall bytes requests
+  shift
+  workdir=$(mktemp -d)
+  java -jar "$JAR" \
+    --server.port="$PORT" \
+    --spring.datasource.url="jdbc:h2:file:${workdir}/db" \
+    --insurance.journal.directory="${workdir}/journal" \
+    --insurance.audit.spill-directory="${workdir}/audit-spill" \
+    "$@" > "${workdir}/app.log" 2>&1 &
+  pid=$!
+  until curl -fs -o /dev/null "${BASE}/clients"; do
+    sleep 0.2
+  done
+  create_clients > "${workdir}/urls"
+
+  # Warm-up: JIT and connection pool, same request mix as the measured part
+  for _ in $(seq 5); do send_round "${workdir}/urls"; done
+
+  start_cpu=$(cpu_ms "$pid")
+  start_ms=$(date +%s%3N)
+  start_bytes=$(stat -c %s "${workdir}/app.log")
+  for _ in $(seq "$ROUNDS"); do send_round "${workdir}/urls"; done
+  cpu=$(($(cpu_ms "$pid") - start_cpu))
+  wall=$(($(date +%s%3N) - start_ms))
+  bytes=$(($(stat -c %s "${workdir}/app.log") - start_bytes))
+  requests=$((CLIENTS * ROUNDS))
+
+  kill "$pid" && wait "$pid" 2> /dev/null || true
+  rm -rf "$workdir"
+  awk -v name="$name" -v cpu="$cpu" -v wall="$wall" -v n="$requests" -v bytes="$bytes" 'BEGIN {
+    printf "%-16s %7d requests   %6.1f us cpu/request   %7.0f requests/s   %6.0f log bytes/request\n",
+      name, n, cpu * 1000 / n, n * 1000 / wall, bytes / n }'
+}
+
+# The request log is new with prod-logging, so it is left out of the baseline
+run_variant "current" --spring.jpa.show-sql=true --insurance.request-log.enabled=false
+run_variant "prod-logging" --spring.profiles.active=prod-logging
@@ -0,0 +1,67 @@
+#!/usr/bin/env bash
+# CPU spent by the service on 404-heavy traffic, with and without the missing-id cache
+# (insurance.not-found-cache). Each variant starts the packaged jar on a fresh H2 database, warms
+# up, then requests a fixed set of nonexistent client ids repeatedly, as a scanner or a client with
+# stale ids would. The process CPU time (user + system, from /proc) over the measured rounds is
+# reported per request. SQL logging is off in both variants so it does not dominate the numbers.
+#
+# Usage: scripts/not-found-benchmark.sh [ids] [rounds] [parallel]
+#   ids       distinct missing ids per round (default 500)
+#   rounds    measured passes over those ids (default 20)
+#   parallel  concurrent connections (default 16)
+# Requires a built jar: mvn package -DskipTests (JAR=path/to.jar benchmarks another build)
+set -euo pipefail
+
+IDS=${1:-500}
+ROUNDS=${2:-20}
+PARALLEL=${3:-16}
+PORT=18081
+FIRST_ID=100000000
+LAST_ID=$((FIRST_ID + IDS - 1))
+URL="http://localhost:${PORT}/api/clients/[${FIRST_ID}-${LAST_ID}]"
+
+cd "$(dirname "$0")/.."
+JAR=${JAR:-$(ls target/insurance-api-*.jar | grep -v original | head -1)}
+TICKS=$(getconf CLK_TCK)
+
+cpu_ms() {
+  awk -v ticks="$TICKS" '{ printf "%d", ($14 + $15) * 1000 / ticks }' "/proc/$1/stat"
+}
+
+send_round() {
+  curl -s --no-progress-meter --parallel --parallel-max "$PARALLEL" -o /dev/null "$URL" 2> /dev/null
+}
+
+run_variant() {
+  local name=$1 enabled=$2 workdir pid start_cpu start_ms cpu wall requests
+  workdir=$(mktemp -d)
+  java -jar "$JAR" \
+    --server.port="$PORT" \
+    --spring.datasource.url="jdbc:h2:file:${workdir}/db" \
+    --logging.level.org.hibernate.SQL=WARN \
+    --logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN \
+    --insurance.not-found-cache.enabled="$enabled" > "${workdir}/app.log" 2>&1 &
+  pid=$!
+  until curl -fs -o /dev/null "http://localhost:${PORT}/api/clients"; do
+    sleep 0.2
+  done
+
+  # Warm-up: JIT and connection pool, same request mix as the measured part
+  for _ in $(seq 5); do send_round; done
+
+  start_cpu=$(cpu_ms "$pid")
+  start_ms=$(date +%s%3N)
+  for _ in $(seq "$ROUNDS"); do send_round; done
+  cpu=$(($(cpu_ms "$pid") - start_cpu))
+  wall=$(($(date +%s%3N) - start_ms))
+  requests=$((IDS * ROUNDS))
+
+  kill "$pid" && wait "$pid" 2> /dev/null || true
+  rm -rf "$workdir"
+  awk -v name="$name" -v cpu="$cpu" -v wall="$wall" -v n="$requests" 'BEGIN {
+    printf "%-16s %7d requests   cpu %6d ms   %6.1f us cpu/request   %7.0f requests/s\n",
+      name, n, cpu, cpu * 1000 / n, n * 1000 / wall }'
+}
+
+run_variant "cache disabled" false
+run_variant "cache enabled" true
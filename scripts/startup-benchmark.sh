@@ -0,0 +1,59 @@
+#!/usr/bin/env bash
+# Time-to-first-successful-request of the regular image (Dockerfile) against the AOT + AppCDS
+# image (Dockerfile.cds) and the GraalVM native executable (Dockerfile.native). Each run starts a
+# fresh container on the embedded H2 database and polls GET /api/clients until it answers 200; the
+# wall time from `docker run` to that answer is reported, with the container memory at that point.
+#
+# Usage: scripts/startup-benchmark.sh [runs] [cpus]
+#   runs  number of cold starts per image (default 10)
+#   cpus  CPU quota per container, startup is CPU bound (default 2)
+set -euo pipefail
+
+RUNS=${1:-10}
+CPUS=${2:-2}
+PORT=18080
+URL="http://localhost:${PORT}/api/clients"
+
+cd "$(dirname "$0")/.."
+
+docker build -q -t insurance-api:baseline -f Dockerfile . > /dev/null
+docker build -q -t insurance-api:cds -f Dockerfile.cds . > /dev/null
+docker build -q -t insurance-api:native -f Dockerfile.native . > /dev/null
+
+now_ms() {
+  date +%s%3N
+}
+
+# Container memory in MB as reported by docker stats, sampled right after the first 200
+memory_mb() {
+  docker stats --no-stream --format '{{.MemUsage}}' "$1" | awk '{
+    v = $1; unit = v; gsub(/[0-9.]/, "", unit); sub(/[A-Za-z]+$/, "", v)
+    if (unit == "GiB") v *= 1024; else if (unit == "KiB") v /= 1024
+    printf "%d", v }'
+}
+
+time_to_first_request() {
+  local image=$1 start container
+  start=$(now_ms)
+  container=$(docker run -d --rm --cpus "$CPUS" -m 1g -p "${PORT}:8080" "$image")
+  until curl -fs -o /dev/null "$URL"; do
+    sleep 0.02
+  done
+  echo "$(($(now_ms) - start)) $(memory_mb "$container")"
+  docker stop -t 2 "$container" > /dev/null
+}
+
+summarize() {
+  sort -n | awk '{ v[NR] = $1; sum += $1; mem += $2 }
+    END { printf "min %6d ms   median %6d ms   mean %6d ms   max %6d ms   memory %5d MB\n",
+          v[1], v[int((NR + 1) / 2)], sum / NR, v[NR], mem / NR }'
+}
+
+for image in baseline cds native; do
+  # One unmeasured start so image layers are in the page cache for every variant
+  time_to_first_request "insurance-api:${image}" > /dev/null
+  printf "%-9s" "$image"
+  for _ in $(seq "$RUNS"); do
+    time_to_first_request "insurance-api:${image}"
+  done | summarize
+done
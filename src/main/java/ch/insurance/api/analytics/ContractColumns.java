@@ -0,0 +1,279 @@
+package ch.insurance.api.analytics;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import ch.insurance.api.collection.LongIntMap;
+import ch.insurance.api.domain.Client.ClientType;
+import ch.insurance.api.money.Money;
+import ch.insurance.api.money.MoneySum;
+
+/**
+ * The contract book held as columns of primitives, one array per attribute and one array index per
+ * contract: client id, start and end as epoch days, cost in cents and the client type as a byte. A
+ * scan touches only the columns it needs, sequentially, with no per-row objects. The scan loops
+ * turn their conditions into sign-bit masks instead of branches, so their speed does not depend on
+ * how the rows mix and C2 is free to vectorize them; the histogram and daily-total loops still
+ * scatter into their buckets one row at a time.
+ *
+ * <p>Costs are summed with plain long adds: every scan first checks that no sum over all rows can
+ * overflow, given the largest cost ever stored. Scans share a read lock, writes take the write
+ * lock. A contract keeps its row for good: ending one only moves its end day.
+ */
+public final class ContractColumns {
+
+  /** End day of contracts without an end date; days must stay strictly between ±2^30. */
+  public static final int OPEN_END = 1 << 30;
+
+  public static final byte UNKNOWN_CLIENT_TYPE = 0;
+
+  private static final ClientType[] CLIENT_TYPES = ClientType.values();
+
+  private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+  private final LongIntMap rowsByContractId;
+  private final LongIntMap clientTypesByClientId;
+
+  private long[] clientIds;
+  private int[] startDays;
+  private int[] endDays;
+  private long[] costCents;
+  private byte[] clientTypes;
+  private int size;
+  // Never lowered when a cost is replaced, so the overflow check stays conservative
+  private long largestCost;
+
+  public ContractColumns(int initialCapacity) {
+    int capacity = Math.max(16, initialCapacity);
+    this.rowsByContractId = new LongIntMap(capacity);
+    this.clientTypesByClientId = new LongIntMap(capacity);
+    this.clientIds = new long[capacity];
+    this.startDays = new int[capacity];
+    this.endDays = new int[capacity];
+    this.costCents = new long[capacity];
+    this.clientTypes = new byte[capacity];
+  }
+
+  public static int epochDay(LocalDate date) {
+    if (date == null) {
+      return OPEN_END;
+    }
+    long day = date.toEpochDay();
+    if (day <= -OPEN_END || day >= OPEN_END) {
+      throw new IllegalArgumentException("Date " + date + " is out of range");
+    }
+    return (int) day;
+  }
+
+  public static byte clientTypeCode(ClientType type) {
+    return (byte) (type.ordinal() + 1);
+  }
+
+  // Null for UNKNOWN_CLIENT_TYPE: contracts whose client was never seen, e.g. already deleted
+  public static ClientType clientType(byte code) {
+    return code == UNKNOWN_CLIENT_TYPE ? null : CLIENT_TYPES[code - 1];
+  }
+
+  public static int clientTypeCodes() {
+    return CLIENT_TYPES.length + 1;
+  }
+
+  /** Client types are fixed at creation, so each client is only ever put once. */
+  public void putClient(long clientId, ClientType type) {
+    lock.writeLock().lock();
+    try {
+      clientTypesByClientId.put(clientId, clientTypeCode(type));
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /** Adds the contract or replaces its row. */
+  public void put(long contractId, long clientId, int startDay, int endDay, long cents) {
+    put(contractId, clientId, startDay, endDay, cents, true);
+  }
+
+  /**
+   * Adds the contract unless it already has a row: a row written by the change feed is newer than
+   * the one a startup load read before it.
+   */
+  public void putIfAbsent(long contractId, long clientId, int startDay, int endDay, long cents) {
+    put(contractId, clientId, startDay, endDay, cents, false);
+  }
+
+  private void put(
+      long contractId, long clientId, int startDay, int endDay, long cents, boolean replace) {
+    lock.writeLock().lock();
+    try {
+      int row = rowsByContractId.get(contractId);
+      if (row == LongIntMap.MISSING) {
+        row = size;
+        if (row == clientIds.length) {
+          grow();
+        }
+        rowsByContractId.put(contractId, row);
+        size++;
+      } else if (!replace) {
+        return;
+      }
+      int type = clientTypesByClientId.get(clientId);
+      clientIds[row] = clientId;
+      startDays[row] = startDay;
+      endDays[row] = endDay;
+      costCents[row] = cents;
+      largestCost = Math.max(largestCost, Math.absExact(cents));
+      clientTypes[row] = type == LongIntMap.MISSING ? UNKNOWN_CLIENT_TYPE : (byte) type;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  private void grow() {
+    int capacity = clientIds.length * 2;
+    clientIds = Arrays.copyOf(clientIds, capacity);
+    startDays = Arrays.copyOf(startDays, capacity);
+    endDays = Arrays.copyOf(endDays, capacity);
+    costCents = Arrays.copyOf(costCents, capacity);
+    clientTypes = Arrays.copyOf(clientTypes, capacity);
+  }
+
+  public int size() {
+    lock.readLock().lock();
+    try {
+      return size;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  private void checkSumsFit() {
+    if (!Money.sumFits(size, largestCost)) {
+      throw new ArithmeticException("Contract costs are too large to total in a long");
+    }
+  }
+
+  /**
+   * Contracts in force on the day, started on or before it and ending after it, per client type.
+   */
+  public Totals[] totalsByClientType(int day) {
+    lock.readLock().lock();
+    try {
+      checkSumsFit();
+      Totals[] totals = new Totals[clientTypeCodes()];
+      for (int type = 0; type < totals.length; type++) {
+        totals[type] = activeTotals(day, (byte) type);
+      }
+      return totals;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  private Totals activeTotals(int day, byte type) {
+    int[] start = startDays;
+    int[] end = endDays;
+    long[] cost = costCents;
+    byte[] types = clientTypes;
+    int rows = size;
+    long contracts = 0;
+    long cents = 0;
+    for (int i = 0; i < rows; i++) {
+      // All ones when start <= day < end and the type matches: each term is negative exactly then
+      int mask = ((start[i] - day - 1) & (day - end[i]) & ((types[i] ^ type) - 1)) >> 31;
+      contracts -= mask;
+      cents += cost[i] & mask;
+    }
+    return new Totals(contracts, cents);
+  }
+
+  /**
+   * Contracts in force on each day from the first to the last, both included. Every row adds its
+   * cost on the day it enters the range and takes it back on the day it leaves, so one pass and a
+   * running sum cover the whole range.
+   */
+  public Totals[] dailyTotals(int firstDay, int lastDay) {
+    int days = lastDay - firstDay + 1;
+    if (days < 1) {
+      throw new IllegalArgumentException("The range must end on or after its first day");
+    }
+    // Index days is past the range: rows that do not overlap it land there and are ignored
+    long[] contractDeltas = new long[days + 1];
+    long[] centDeltas = new long[days + 1];
+    lock.readLock().lock();
+    try {
+      checkSumsFit();
+      int[] start = startDays;
+      int[] end = endDays;
+      long[] cost = costCents;
+      int rows = size;
+      for (int i = 0; i < rows; i++) {
+        int from = Math.max(start[i], firstDay) - firstDay;
+        int to = Math.min(end[i], lastDay + 1) - firstDay;
+        int overlaps = (from - to) >> 31;
+        from = (from & overlaps) | (days & ~overlaps);
+        to = (to & overlaps) | (days & ~overlaps);
+        contractDeltas[from]++;
+        contractDeltas[to]--;
+        centDeltas[from] += cost[i];
+        centDeltas[to] -= cost[i];
+      }
+    } finally {
+      lock.readLock().unlock();
+    }
+    Totals[] totals = new Totals[days];
+    MoneySum inForce = new MoneySum();
+    for (int day = 0; day < days; day++) {
+      inForce.adjust(centDeltas[day], contractDeltas[day]);
+      totals[day] = new Totals(inForce.count(), inForce.total());
+    }
+    return totals;
+  }
+
+  /**
+   * Costs of the contracts in force on the day in equal-width buckets between the lowest and the
+   * highest cost. Fewer buckets come back when the range does not divide further.
+   */
+  public CostHistogram costHistogram(int day, int buckets) {
+    if (buckets < 1) {
+      throw new IllegalArgumentException("At least one bucket is needed");
+    }
+    lock.readLock().lock();
+    try {
+      int[] start = startDays;
+      int[] end = endDays;
+      long[] cost = costCents;
+      int rows = size;
+      long contracts = 0;
+      long min = Long.MAX_VALUE;
+      long max = Long.MIN_VALUE;
+      for (int i = 0; i < rows; i++) {
+        int mask = ((start[i] - day - 1) & (day - end[i])) >> 31;
+        contracts -= mask;
+        min = Math.min(min, (cost[i] & mask) | (Long.MAX_VALUE & ~mask));
+        max = Math.max(max, (cost[i] & mask) | (Long.MIN_VALUE & ~mask));
+      }
+      if (contracts == 0) {
+        return new CostHistogram(0, 0, 0, 0, new long[0]);
+      }
+
+      long width = Math.max(1, Math.ceilDiv(max - min + 1, buckets));
+      int used = (int) ((max - min) / width) + 1;
+      // Index used collects the rows not in force
+      long[] counts = new long[used + 1];
+      for (int i = 0; i < rows; i++) {
+        int mask = ((start[i] - day - 1) & (day - end[i])) >> 31;
+        int bucket = (int) ((cost[i] - min) / width);
+        counts[(bucket & mask) | (used & ~mask)]++;
+      }
+      return new CostHistogram(contracts, min, max, width, Arrays.copyOf(counts, used));
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  public record Totals(long contracts, long cents) {}
+
+  /** Bucket i holds costs from {@code minCents + i * widthCents}, inclusive, to the next bound. */
+  public record CostHistogram(
+      long contracts, long minCents, long maxCents, long widthCents, long[] counts) {}
+}
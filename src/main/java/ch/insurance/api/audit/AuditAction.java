@@ -0,0 +1,7 @@
+package ch.insurance.api.audit;
+
+public enum AuditAction {
+  CREATE,
+  UPDATE,
+  DELETE
+}
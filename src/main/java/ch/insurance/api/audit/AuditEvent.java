@@ -0,0 +1,16 @@
+package ch.insurance.api.audit;
+
+import java.time.Instant;
+
+/**
+ * One audited mutation. Before and after are response DTOs captured by the write path, or JSON
+ * trees read back from a spill file, and are rendered to JSON by the writer thread.
+ */
+public record AuditEvent(
+    Instant occurredAt,
+    String actor,
+    AuditAction action,
+    String entityType,
+    long entityId,
+    Object before,
+    Object after) {}
@@ -0,0 +1,85 @@
+package ch.insurance.api.audit;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded lock-free queue for many producers and one consumer. Every slot carries a sequence
+ * number: a producer claims the slot whose sequence equals its position with a CAS on the tail,
+ * stores the item and bumps the sequence to publish it; the consumer takes it once the sequence
+ * says so and hands the slot back one lap ahead. A full buffer fails the offer instead of waiting,
+ * leaving the backpressure decision to the caller.
+ */
+class AuditRingBuffer<T> {
+
+  private final int mask;
+  private final AtomicReferenceArray<T> items;
+  private final AtomicLongArray sequences;
+  private final AtomicLong tail = new AtomicLong();
+  // Written by the consumer only, read by the depth gauge
+  private final AtomicLong head = new AtomicLong();
+
+  AuditRingBuffer(int capacity) {
+    if (capacity < 1 || capacity > 1 << 30) {
+      throw new IllegalArgumentException("Capacity must be between 1 and 2^30");
+    }
+    // A single slot could not tell a published item from a free slot one lap later
+    int size = Math.max(2, Integer.highestOneBit(capacity - 1) << 1);
+    this.mask = size - 1;
+    this.items = new AtomicReferenceArray<>(size);
+    this.sequences = new AtomicLongArray(size);
+    for (int i = 0; i < size; i++) {
+      sequences.set(i, i);
+    }
+  }
+
+  boolean offer(T item) {
+    long position = tail.get();
+    while (true) {
+      int index = (int) position & mask;
+      long gap = sequences.get(index) - position;
+      if (gap == 0) {
+        if (tail.compareAndSet(position, position + 1)) {
+          items.lazySet(index, item);
+          sequences.set(index, position + 1);
+          return true;
+        }
+        position = tail.get();
+      } else if (gap < 0) {
+        // The consumer has not freed this slot from the previous lap yet
+        return false;
+      } else {
+        position = tail.get();
+      }
+    }
+  }
+
+  // Single consumer only
+  int drainTo(List<T> target, int maxItems) {
+    long position = head.get();
+    int drained = 0;
+    while (drained < maxItems) {
+      int index = (int) position & mask;
+      if (sequences.get(index) != position + 1) {
+        break;
+      }
+      target.add(items.get(index));
+      items.lazySet(index, null);
+      sequences.set(index, position + mask + 1);
+      position++;
+      drained++;
+    }
+    head.lazySet(position);
+    return drained;
+  }
+
+  int size() {
+    return (int) Math.max(0, tail.get() - head.get());
+  }
+
+  int capacity() {
+    return mask + 1;
+  }
+}
@@ -0,0 +1,405 @@
+package ch.insurance.api.audit;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionOperations;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+
+import ch.insurance.api.concurrent.WriterThread;
+import ch.insurance.api.config.AuditProperties;
+import ch.insurance.api.config.AuditProperties.Backpressure;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Writes audit records off the request path. Request threads offer records to a lock-free ring
+ * buffer and return; one writer thread drains it and inserts a batch per transaction. When the
+ * buffer is full the configured backpressure applies: wait a bounded time for room, drop the
+ * record, or append it to a spill file that the writer replays once the buffer runs dry. On
+ * shutdown the writer empties the buffer before it exits; spill files are kept for the next start.
+ */
+@Slf4j
+@Component
+public class AuditTrail {
+
+  static final String INSERT_SQL =
+      "INSERT INTO audit_log (occurred_at, actor, action, entity_type, entity_id, before_state,"
+          + " after_state) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+  private static final String SPILL_SUFFIX = ".jsonl";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionOperations transactionOperations;
+  private final ObjectMapper objectMapper;
+  private final ObjectReader spillReader;
+  private final AuditProperties properties;
+  private final AuditRingBuffer<AuditEvent> buffer;
+
+  private final Counter written;
+  private final Counter dropped;
+  private final Counter spilled;
+  private final Counter blocked;
+  private final DistributionSummary batchSizes;
+
+  private final WriterThread writer = new WriterThread("audit-writer");
+  private volatile boolean stopped;
+
+  private final ReentrantLock spillLock = new ReentrantLock();
+  private BufferedWriter spillOut;
+  private int spillFiles;
+  private volatile boolean spillPending;
+  private long nextReplayAt = System.nanoTime();
+
+  public AuditTrail(
+      JdbcTemplate jdbcTemplate,
+      TransactionOperations transactionOperations,
+      ObjectMapper objectMapper,
+      AuditProperties properties,
+      MeterRegistry registry) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.transactionOperations = transactionOperations;
+    this.objectMapper = objectMapper;
+    // Keeps amounts such as 1500.50 exactly as they were rendered
+    this.spillReader =
+        objectMapper
+            .reader()
+            .with(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS)
+            .with(JsonNodeFactory.withExactBigDecimals(true));
+    this.properties = properties;
+    this.buffer = new AuditRingBuffer<>(properties.getCapacity());
+
+    this.written =
+        Counter.builder("insurance.audit.written")
+            .description("Audit records inserted into audit_log")
+            .register(registry);
+    this.dropped =
+        Counter.builder("insurance.audit.dropped")
+            .description("Audit records lost to backpressure or write failures")
+            .register(registry);
+    this.spilled =
+        Counter.builder("insurance.audit.spilled")
+            .description("Audit records written to a spill file")
+            .register(registry);
+    this.blocked =
+        Counter.builder("insurance.audit.blocked")
+            .description("Times a request thread waited for room in the audit buffer")
+            .register(registry);
+    this.batchSizes =
+        DistributionSummary.builder("insurance.audit.batch.size")
+            .description("Audit records inserted per transaction")
+            .register(registry);
+    Gauge.builder("insurance.audit.queue.depth", buffer, AuditRingBuffer::size)
+        .description("Audit records waiting for the writer")
+        .register(registry);
+    Gauge.builder("insurance.audit.queue.capacity", buffer, AuditRingBuffer::capacity)
+        .register(registry);
+  }
+
+  @PostConstruct
+  void start() throws IOException {
+    if (!properties.isEnabled()) {
+      return;
+    }
+    Path spillDirectory = properties.getSpillDirectory();
+    if (Files.isDirectory(spillDirectory)) {
+      try (Stream<Path> files = Files.list(spillDirectory)) {
+        spillPending = files.anyMatch(AuditTrail::isSpillFile);
+      }
+    }
+    writer.start(this::writeLoop);
+  }
+
+  @PreDestroy
+  void stop() throws InterruptedException {
+    stopped = true;
+    if (!writer.stop(properties.getShutdownTimeout())) {
+      log.warn("Audit writer still busy at shutdown with {} records queued", buffer.size());
+    }
+    closeSpill();
+  }
+
+  /** Hands the record to the writer; never touches the database on the calling thread. */
+  public void record(AuditEvent event) {
+    if (!properties.isEnabled()) {
+      return;
+    }
+    if (!stopped && buffer.offer(event)) {
+      return;
+    }
+    switch (properties.getBackpressure()) {
+      case BLOCK -> awaitRoom(event);
+      case DROP -> dropped.increment();
+      case SPILL -> spill(List.of(event));
+    }
+  }
+
+  int queued() {
+    return buffer.size();
+  }
+
+  private void awaitRoom(AuditEvent event) {
+    blocked.increment();
+    long deadline = System.nanoTime() + properties.getBlockTimeout().toNanos();
+    while (!stopped && System.nanoTime() - deadline < 0) {
+      LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(100));
+      if (buffer.offer(event)) {
+        return;
+      }
+    }
+    dropped.increment();
+  }
+
+  private void writeLoop() {
+    int batchSize = properties.getBatchSize();
+    long pollNanos = properties.getPollInterval().toNanos();
+    List<AuditEvent> batch = new ArrayList<>(batchSize);
+    while (writer.isRunning() || buffer.size() > 0) {
+      try {
+        if (buffer.drainTo(batch, batchSize) > 0) {
+          write(batch);
+          batch.clear();
+        } else if (!replaySpill()) {
+          LockSupport.parkNanos(pollNanos);
+        }
+      } catch (RuntimeException e) {
+        log.error("Audit writer loop failed", e);
+        batch.clear();
+      }
+    }
+  }
+
+  private void write(List<AuditEvent> batch) {
+    while (true) {
+      try {
+        transactionOperations.executeWithoutResult(status -> insert(batch));
+        written.increment(batch.size());
+        batchSizes.record(batch.size());
+        return;
+      } catch (RuntimeException e) {
+        if (properties.getBackpressure() == Backpressure.SPILL) {
+          log.warn("Could not write {} audit records, spilling them", batch.size(), e);
+          spill(batch);
+          return;
+        }
+        if (!writer.isRunning()) {
+          log.error("Could not write {} audit records before shutdown", batch.size(), e);
+          dropped.increment(batch.size());
+          return;
+        }
+        // The buffer fills meanwhile, so request threads feel the outage through backpressure
+        log.warn("Could not write {} audit records, retrying", batch.size(), e);
+        LockSupport.parkNanos(properties.getRetryDelay().toNanos());
+      }
+    }
+  }
+
+  private void insert(List<AuditEvent> events) {
+    List<Object[]> rows = new ArrayList<>(events.size());
+    for (AuditEvent event : events) {
+      rows.add(
+          new Object[] {
+            Timestamp.from(event.occurredAt()),
+            event.actor(),
+            event.action().name(),
+            event.entityType(),
+            event.entityId(),
+            toJson(event.before()),
+            toJson(event.after())
+          });
+    }
+    jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+  }
+
+  private String toJson(Object state) {
+    if (state == null) {
+      return null;
+    }
+    if (state instanceof JsonNode node) {
+      return node.toString();
+    }
+    try {
+      return objectMapper.writeValueAsString(state);
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Could not render audited state", e);
+    }
+  }
+
+  private void spill(List<AuditEvent> events) {
+    spillLock.lock();
+    try {
+      if (spillOut == null) {
+        Files.createDirectories(properties.getSpillDirectory());
+        Path file =
+            properties
+                .getSpillDirectory()
+                .resolve(
+                    String.format(
+                        "audit-%013d-%06d%s",
+                        System.currentTimeMillis(), spillFiles++, SPILL_SUFFIX));
+        spillOut = Files.newBufferedWriter(file, StandardOpenOption.CREATE_NEW);
+      }
+      for (AuditEvent event : events) {
+        spillOut.write(spillLine(event));
+        spillOut.newLine();
+      }
+      spillOut.flush();
+      spilled.increment(events.size());
+      spillPending = true;
+    } catch (IOException | RuntimeException e) {
+      log.error("Could not spill {} audit records", events.size(), e);
+      dropped.increment(events.size());
+    } finally {
+      spillLock.unlock();
+    }
+  }
+
+  // Replays one file per call, oldest first, each in a single transaction; the writer only gets
+  // here when the buffer is empty
+  private boolean replaySpill() {
+    if (!spillPending || System.nanoTime() - nextReplayAt < 0) {
+      return false;
+    }
+    Path file;
+    spillLock.lock();
+    try {
+      // Files are only ever appended to under the lock, so every file listed here is complete
+      closeSpill();
+      try (Stream<Path> files = Files.list(properties.getSpillDirectory())) {
+        file = files.filter(AuditTrail::isSpillFile).sorted().findFirst().orElse(null);
+      }
+      if (file == null) {
+        spillPending = false;
+        return false;
+      }
+    } catch (IOException e) {
+      log.warn("Could not list audit spill files", e);
+      nextReplayAt = System.nanoTime() + properties.getRetryDelay().toNanos();
+      return false;
+    } finally {
+      spillLock.unlock();
+    }
+
+    try {
+      List<AuditEvent> events = readSpillFile(file);
+      int batchSize = properties.getBatchSize();
+      transactionOperations.executeWithoutResult(
+          status -> {
+            for (int from = 0; from < events.size(); from += batchSize) {
+              insert(events.subList(from, Math.min(from + batchSize, events.size())));
+            }
+          });
+      Files.delete(file);
+      written.increment(events.size());
+      log.info("Replayed {} spilled audit records from {}", events.size(), file.getFileName());
+      return true;
+    } catch (IOException | RuntimeException e) {
+      log.warn("Could not replay audit spill file {}, retrying later", file, e);
+      nextReplayAt = System.nanoTime() + properties.getRetryDelay().toNanos();
+      return false;
+    }
+  }
+
+  private String spillLine(AuditEvent event) throws IOException {
+    StringWriter line = new StringWriter();
+    try (JsonGenerator json = objectMapper.getFactory().createGenerator(line)) {
+      json.writeStartObject();
+      json.writeStringField("occurredAt", event.occurredAt().toString());
+      json.writeStringField("actor", event.actor());
+      json.writeStringField("action", event.action().name());
+      json.writeStringField("entityType", event.entityType());
+      json.writeNumberField("entityId", event.entityId());
+      writeState(json, "before", toJson(event.before()));
+      writeState(json, "after", toJson(event.after()));
+      json.writeEndObject();
+    }
+    return line.toString();
+  }
+
+  private static void writeState(JsonGenerator json, String field, String state)
+      throws IOException {
+    json.writeFieldName(field);
+    if (state == null) {
+      json.writeNull();
+    } else {
+      json.writeRawValue(state);
+    }
+  }
+
+  private List<AuditEvent> readSpillFile(Path file) throws IOException {
+    List<AuditEvent> events = new ArrayList<>();
+    for (String line : Files.readAllLines(file)) {
+      if (line.isBlank()) {
+        continue;
+      }
+      JsonNode node;
+      try {
+        node = spillReader.readTree(line);
+      } catch (JsonProcessingException e) {
+        // A line cut short by a crash while spilling
+        log.warn("Skipping unreadable audit record in {}", file.getFileName());
+        continue;
+      }
+      events.add(
+          new AuditEvent(
+              Instant.parse(node.get("occurredAt").asText()),
+              node.get("actor").asText(),
+              AuditAction.valueOf(node.get("action").asText()),
+              node.get("entityType").asText(),
+              node.get("entityId").asLong(),
+              state(node.get("before")),
+              state(node.get("after"))));
+    }
+    return events;
+  }
+
+  private static JsonNode state(JsonNode node) {
+    return node == null || node.isNull() ? null : node;
+  }
+
+  private void closeSpill() {
+    spillLock.lock();
+    try {
+      if (spillOut != null) {
+        spillOut.close();
+        spillOut = null;
+      }
+    } catch (IOException e) {
+      log.warn("Could not close the audit spill file", e);
+      spillOut = null;
+    } finally {
+      spillLock.unlock();
+    }
+  }
+
+  private static boolean isSpillFile(Path path) {
+    return path.getFileName().toString().endsWith(SPILL_SUFFIX);
+  }
+}
@@ -0,0 +1,86 @@
+package ch.insurance.api.collection;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing map from long keys to int values with linear probing, so millions of entries cost
+ * two primitive arrays instead of a boxed node each. Every long but {@link Long#MIN_VALUE} can be a
+ * key. Not thread-safe: owners guard it with their own lock. There is no removal; owners that need
+ * one store {@link #MISSING} as the value.
+ */
+public final class LongIntMap {
+
+  public static final int MISSING = -1;
+
+  private static final long EMPTY = Long.MIN_VALUE;
+
+  private long[] keys;
+  private int[] values;
+  private int mask;
+  private int size;
+
+  public LongIntMap(int expectedSize) {
+    allocate(Math.max(16, Integer.highestOneBit(Math.max(1, expectedSize) * 2 - 1) << 1));
+  }
+
+  /** The value, or MISSING if the key was never put. */
+  public int get(long key) {
+    for (int slot = slot(key); ; slot = (slot + 1) & mask) {
+      long current = keys[slot];
+      if (current == key) {
+        return values[slot];
+      }
+      if (current == EMPTY) {
+        return MISSING;
+      }
+    }
+  }
+
+  public void put(long key, int value) {
+    if (key == EMPTY) {
+      throw new IllegalArgumentException("Key " + key + " is reserved");
+    }
+    // Kept at most half full, so probe runs stay short
+    if (size * 2 >= keys.length) {
+      resize(keys.length * 2);
+    }
+    int slot = slot(key);
+    while (keys[slot] != EMPTY && keys[slot] != key) {
+      slot = (slot + 1) & mask;
+    }
+    if (keys[slot] == EMPTY) {
+      keys[slot] = key;
+      size++;
+    }
+    values[slot] = value;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  private int slot(long key) {
+    // Ids are sequential: spread them so neighbours do not cluster in one probe run
+    long hash = key * 0x9E3779B97F4A7C15L;
+    return (int) (hash ^ (hash >>> 32)) & mask;
+  }
+
+  private void resize(int capacity) {
+    long[] oldKeys = keys;
+    int[] oldValues = values;
+    allocate(capacity);
+    size = 0;
+    for (int i = 0; i < oldKeys.length; i++) {
+      if (oldKeys[i] != EMPTY) {
+        put(oldKeys[i], oldValues[i]);
+      }
+    }
+  }
+
+  private void allocate(int capacity) {
+    keys = new long[capacity];
+    Arrays.fill(keys, EMPTY);
+    values = new int[capacity];
+    mask = capacity - 1;
+  }
+}
@@ -0,0 +1,41 @@
+package ch.insurance.api.concurrent;
+
+import java.time.Duration;
+
+/**
+ * The single daemon thread behind a write-behind queue. Its loop keeps going while {@link
+ * #isRunning()} or while its queue still holds work, so whatever was accepted before {@link #stop}
+ * is still written; stop only waits a bounded time for that, and a loop still busy afterwards is
+ * left to die with the JVM.
+ */
+public final class WriterThread {
+
+  private final String name;
+
+  private volatile boolean running;
+  private Thread thread;
+
+  public WriterThread(String name) {
+    this.name = name;
+  }
+
+  public void start(Runnable loop) {
+    running = true;
+    thread = Thread.ofPlatform().name(name).daemon().start(loop);
+  }
+
+  /** False before start and from stop on; the loop then only drains what is left. */
+  public boolean isRunning() {
+    return running;
+  }
+
+  /** Returns false when the loop had not finished draining within the timeout. */
+  public boolean stop(Duration timeout) throws InterruptedException {
+    running = false;
+    if (thread == null) {
+      return true;
+    }
+    thread.join(timeout.toMillis());
+    return !thread.isAlive();
+  }
+}
@@ -0,0 +1,22 @@
+package ch.insurance.api.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties(prefix = "insurance.analytics")
+public class AnalyticsProperties {
+
+  private boolean enabled = true;
+
+  // Rows allocated up front; the columns double when full
+  private int initialCapacity = 1 << 16;
+
+  private int loadFetchSize = 10_000;
+
+  // Per GET /api/analytics/contracts/daily-totals call
+  private int maxDays = 3_660;
+
+  private int maxBuckets = 1_000;
+}
@@ -0,0 +1,46 @@
+package ch.insurance.api.config;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties(prefix = "insurance.audit")
+public class AuditProperties {
+
+  private boolean enabled = true;
+
+  // Records waiting for the writer; rounded up to a power of two
+  private int capacity = 8192;
+
+  // Rows inserted per transaction
+  private int batchSize = 256;
+
+  // How long the writer sleeps when there is nothing to write
+  private Duration pollInterval = Duration.ofMillis(10);
+
+  // What a request thread does when the buffer is full
+  private Backpressure backpressure = Backpressure.BLOCK;
+
+  // Longest a request thread waits for room under BLOCK before the record is dropped
+  private Duration blockTimeout = Duration.ofSeconds(1);
+
+  // Overflow under SPILL, and batches the database rejected, are written here and replayed
+  private Path spillDirectory = Path.of("./data/audit-spill");
+
+  private Duration retryDelay = Duration.ofSeconds(1);
+
+  // Request header naming the user behind a change; writes outside a request are "system"
+  private String actorHeader = "X-Actor";
+
+  private Duration shutdownTimeout = Duration.ofSeconds(10);
+
+  public enum Backpressure {
+    BLOCK,
+    DROP,
+    SPILL
+  }
+}
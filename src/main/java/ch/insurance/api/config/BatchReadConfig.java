@@ -0,0 +1,8 @@
+package ch.insurance.api.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(BatchReadProperties.class)
+public class BatchReadConfig {}
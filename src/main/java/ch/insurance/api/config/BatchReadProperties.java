@@ -0,0 +1,13 @@
+package ch.insurance.api.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties(prefix = "insurance.batch-reads")
+public class BatchReadProperties {
+
+  // Distinct ids per multi-get call, all bound into a single IN list
+  private int maxIds = 100;
+}
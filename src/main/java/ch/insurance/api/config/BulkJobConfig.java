@@ -0,0 +1,21 @@
+package ch.insurance.api.config;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(BulkJobProperties.class)
+public class BulkJobConfig {
+
+  // Fixed pool of virtual threads: cheap to block on JDBC, but bounded so a burst of
+  // submissions cannot take every pooled connection away from the HTTP path.
+  @Bean(destroyMethod = "shutdownNow")
+  public ExecutorService bulkJobExecutor(BulkJobProperties properties) {
+    return Executors.newFixedThreadPool(
+        properties.getMaxConcurrentJobs(), Thread.ofVirtual().name("bulk-job-", 0).factory());
+  }
+}
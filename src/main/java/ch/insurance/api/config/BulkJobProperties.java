@@ -0,0 +1,22 @@
+package ch.insurance.api.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties(prefix = "insurance.jobs")
+public class BulkJobProperties {
+
+  private int maxConcurrentJobs = 2;
+
+  private int defaultChunkSize = 100;
+
+  private boolean resumeOnStartup = true;
+
+  // A running job is taken over by another instance once its owner has not renewed the lease for
+  // this long; it is renewed before every chunk, so a chunk must finish well within it
+  private Duration leaseDuration = Duration.ofMinutes(2);
+}
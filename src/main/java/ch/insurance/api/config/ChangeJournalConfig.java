@@ -0,0 +1,41 @@
+package ch.insurance.api.config;
+
+import java.io.IOException;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import ch.insurance.api.journal.ChangeJournal;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+
+@Configuration
+@EnableConfigurationProperties(ChangeJournalProperties.class)
+@ConditionalOnProperty(prefix = "insurance.journal", name = "enabled")
+@RequiredArgsConstructor
+public class ChangeJournalConfig {
+
+  private final ObjectProvider<ChangeJournal> changeJournal;
+
+  @Bean(destroyMethod = "close")
+  public ChangeJournal changeJournal(ChangeJournalProperties properties, MeterRegistry registry)
+      throws IOException {
+    return new ChangeJournal(
+        properties.getDirectory(),
+        Math.toIntExact(properties.getSegmentSize().toBytes()),
+        properties.getMaxSize().toBytes(),
+        properties.getRetention(),
+        registry);
+  }
+
+  @Scheduled(fixedDelayString = "${insurance.journal.flush-interval:PT1S}")
+  public void flushJournal() {
+    ChangeJournal journal = changeJournal.getObject();
+    journal.flush();
+    journal.enforceRetention();
+  }
+}
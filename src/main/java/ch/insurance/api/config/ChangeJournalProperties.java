@@ -0,0 +1,32 @@
+package ch.insurance.api.config;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties(prefix = "insurance.journal")
+public class ChangeJournalProperties {
+
+  private boolean enabled = false;
+
+  private Path directory = Path.of("./data/journal");
+
+  // Mapped whole while it is being written; a record must fit in one segment
+  private DataSize segmentSize = DataSize.ofMegabytes(64);
+
+  // Oldest segments are deleted once the journal is larger than this or older than the retention
+  private DataSize maxSize = DataSize.ofGigabytes(1);
+
+  private Duration retention = Duration.ofDays(7);
+
+  // Mapped pages are forced to disk this often, and on rollover and shutdown
+  private Duration flushInterval = Duration.ofSeconds(1);
+
+  // Upper bound for one consumer read
+  private DataSize maxReadSize = DataSize.ofMegabytes(16);
+}
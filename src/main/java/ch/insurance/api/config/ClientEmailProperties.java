@@ -0,0 +1,20 @@
+package ch.insurance.api.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties(prefix = "insurance.clients.email")
+public class ClientEmailProperties {
+
+  // Answer definite misses from memory; when off every check goes to the database
+  private boolean filterEnabled = true;
+
+  // The filter is sized for the larger of this and twice the client count at startup
+  private long expectedInsertions = 1_000_000;
+
+  private double falsePositiveRate = 0.01;
+
+  private int rebuildPageSize = 10_000;
+}
@@ -0,0 +1,19 @@
+package ch.insurance.api.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties(prefix = "insurance.clients.search")
+public class ClientSearchProperties {
+
+  private int defaultLimit = 20;
+
+  private int maxLimit = 100;
+
+  // Share of the query trigrams a client must contain; lower tolerates more typos
+  private double minSimilarity = 0.5;
+
+  private int rebuildPageSize = 5_000;
+}
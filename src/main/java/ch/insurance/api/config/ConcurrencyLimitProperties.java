@@ -0,0 +1,51 @@
+package ch.insurance.api.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties(prefix = "insurance.concurrency-limit")
+public class ConcurrencyLimitProperties {
+
+  private boolean enabled = true;
+
+  private String pathPattern = "/api/**";
+
+  private Duration retryAfter = Duration.ofSeconds(1);
+
+  private Limit read = new Limit(100, 20, 1000);
+
+  private Limit write = new Limit(40, 10, 400);
+
+  @Data
+  public static class Limit {
+
+    private int initialLimit;
+
+    private int minLimit;
+
+    private int maxLimit;
+
+    // Latency increase over the long-term baseline that is tolerated before backing off
+    private double rttTolerance = 1.5;
+
+    private double smoothing = 0.2;
+
+    // Number of samples averaged into the long-term RTT baseline
+    private int longWindow = 600;
+
+    // How often the samples gathered since the last update are folded into the limit
+    private Duration updateInterval = Duration.ofMillis(100);
+
+    public Limit() {}
+
+    public Limit(int initialLimit, int minLimit, int maxLimit) {
+      this.initialLimit = initialLimit;
+      this.minLimit = minLimit;
+      this.maxLimit = maxLimit;
+    }
+  }
+}
@@ -0,0 +1,20 @@
+package ch.insurance.api.config;
+
+import java.time.Period;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties(prefix = "insurance.contracts.archive")
+public class ContractArchiveProperties {
+
+  private boolean enabled = true;
+
+  // Contracts that ended longer ago than this leave the contracts table
+  private Period retention = Period.ofYears(1);
+
+  // Rows moved per transaction
+  private int chunkSize = 500;
+}
@@ -0,0 +1,15 @@
+package ch.insurance.api.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties(prefix = "insurance.contracts.expiry")
+public class ContractExpiryProperties {
+
+  private boolean enabled = true;
+
+  // Rows flipped per transaction
+  private int chunkSize = 1000;
+}
@@ -0,0 +1,23 @@
+package ch.insurance.api.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties(prefix = "insurance.contracts.group-commit")
+public class ContractGroupCommitProperties {
+
+  private boolean enabled = false;
+
+  private int maxBatchSize = 64;
+
+  // How long the first queued request may wait for others to join its commit
+  private Duration maxDelay = Duration.ofMillis(5);
+
+  private int queueCapacity = 10_000;
+
+  private Duration timeout = Duration.ofSeconds(30);
+}
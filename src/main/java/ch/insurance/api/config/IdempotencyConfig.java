@@ -0,0 +1,32 @@
+package ch.insurance.api.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import ch.insurance.api.repository.IdempotencyRecordRepository;
+import ch.insurance.api.service.DatabaseIdempotencyStore;
+import ch.insurance.api.service.IdempotencyStore;
+import ch.insurance.api.service.InMemoryIdempotencyStore;
+
+@Configuration
+@EnableConfigurationProperties(IdempotencyProperties.class)
+public class IdempotencyConfig {
+
+  @Bean
+  @ConditionalOnProperty(prefix = "insurance.idempotency", name = "store", havingValue = "database")
+  public IdempotencyStore databaseIdempotencyStore(IdempotencyRecordRepository repository) {
+    return new DatabaseIdempotencyStore(repository);
+  }
+
+  @Bean
+  @ConditionalOnProperty(
+      prefix = "insurance.idempotency",
+      name = "store",
+      havingValue = "memory",
+      matchIfMissing = true)
+  public IdempotencyStore inMemoryIdempotencyStore(IdempotencyProperties properties) {
+    return new InMemoryIdempotencyStore(properties.getMaxEntries());
+  }
+}
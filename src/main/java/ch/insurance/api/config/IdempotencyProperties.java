@@ -0,0 +1,36 @@
+package ch.insurance.api.config;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties(prefix = "insurance.idempotency")
+public class IdempotencyProperties {
+
+  private boolean enabled = true;
+
+  private StoreType store = StoreType.MEMORY;
+
+  private int maxEntries = 10_000;
+
+  private Duration ttl = Duration.ofHours(24);
+
+  // How long a duplicate waits for the first execution before giving up with 409
+  private Duration inFlightTimeout = Duration.ofSeconds(30);
+
+  // Keyed bodies are buffered for fingerprinting and replay; larger ones are refused with 413
+  private DataSize maxBodySize = DataSize.ofKilobytes(64);
+
+  private List<String> paths =
+      List.of("/api/clients/persons", "/api/clients/companies", "/api/clients/*/contracts");
+
+  public enum StoreType {
+    MEMORY,
+    DATABASE
+  }
+}
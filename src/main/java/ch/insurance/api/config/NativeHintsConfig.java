@@ -0,0 +1,153 @@
+package ch.insurance.api.config;
+
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.List;
+
+import org.springframework.aop.SpringProxy;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.core.DecoratingProxy;
+import org.springframework.data.projection.TargetAware;
+
+import ch.insurance.api.domain.ArchivedContract;
+import ch.insurance.api.domain.AuditRecord;
+import ch.insurance.api.domain.BulkJob;
+import ch.insurance.api.domain.BulkJobError;
+import ch.insurance.api.domain.Client;
+import ch.insurance.api.domain.Company;
+import ch.insurance.api.domain.Contract;
+import ch.insurance.api.domain.IdempotencyRecord;
+import ch.insurance.api.domain.Person;
+import ch.insurance.api.dto.BatchItem;
+import ch.insurance.api.dto.BulkJobErrorResponse;
+import ch.insurance.api.dto.BulkJobRequest;
+import ch.insurance.api.dto.BulkJobResponse;
+import ch.insurance.api.dto.ClientResponse;
+import ch.insurance.api.dto.ClientSearchResult;
+import ch.insurance.api.dto.ClientUpdateRequest;
+import ch.insurance.api.dto.CompanyRequest;
+import ch.insurance.api.dto.ContractCostUpdateRequest;
+import ch.insurance.api.dto.ContractRepricingItem;
+import ch.insurance.api.dto.ContractRequest;
+import ch.insurance.api.dto.ContractResponse;
+import ch.insurance.api.dto.ContractTerminationItem;
+import ch.insurance.api.dto.ContractTotalsResponse;
+import ch.insurance.api.dto.CostBucket;
+import ch.insurance.api.dto.CostDistributionResponse;
+import ch.insurance.api.dto.PersonRequest;
+import ch.insurance.api.dto.TotalCostResponse;
+import ch.insurance.api.exception.ErrorResponse;
+import ch.insurance.api.logging.JsonLogEncoder;
+import ch.insurance.api.logging.SamplingTurboFilter;
+import ch.insurance.api.repository.ClientEmailView;
+
+/**
+ * Runtime hints for the native image (-Pnative) that Spring AOT cannot derive from bean definitions
+ * and controller signatures. Registering a type twice is harmless, so the lists are complete rather
+ * than minimal.
+ */
+@Configuration
+@ImportRuntimeHints(NativeHintsConfig.InsuranceRuntimeHints.class)
+public class NativeHintsConfig {
+
+  static final List<Class<?>> ENTITIES =
+      List.of(
+          Client.class,
+          Person.class,
+          Company.class,
+          Contract.class,
+          ArchivedContract.class,
+          AuditRecord.class,
+          BulkJob.class,
+          BulkJobError.class,
+          IdempotencyRecord.class);
+
+  static final List<Class<?>> JSON_TYPES =
+      List.of(
+          PersonRequest.class,
+          CompanyRequest.class,
+          ClientUpdateRequest.class,
+          ClientResponse.class,
+          ClientSearchResult.class,
+          ContractRequest.class,
+          ContractCostUpdateRequest.class,
+          ContractResponse.class,
+          TotalCostResponse.class,
+          ContractTotalsResponse.class,
+          CostDistributionResponse.class,
+          CostBucket.class,
+          BatchItem.class,
+          BulkJobRequest.class,
+          BulkJobResponse.class,
+          BulkJobErrorResponse.class,
+          ContractRepricingItem.class,
+          ContractTerminationItem.class,
+          ErrorResponse.class);
+
+  static final List<Class<?>> TIMED_JDBC_TYPES =
+      List.of(Connection.class, Statement.class, PreparedStatement.class, CallableStatement.class);
+
+  // Instantiated and configured by name from logback-spring.xml
+  static final List<Class<?>> LOGGING_TYPES =
+      List.of(JsonLogEncoder.class, SamplingTurboFilter.class);
+
+  static final List<String> JDBC_DRIVERS = List.of("org.h2.Driver", "org.postgresql.Driver");
+
+  static class InsuranceRuntimeHints implements RuntimeHintsRegistrar {
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+      // Hibernate instantiates the JOINED subclasses through their no-arg constructors and reads
+      // the fields directly; the Lombok builders are compile-time only and need nothing
+      for (Class<?> entity : ENTITIES) {
+        hints
+            .reflection()
+            .registerType(
+                entity,
+                MemberCategory.DECLARED_FIELDS,
+                MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                MemberCategory.INVOKE_DECLARED_METHODS);
+      }
+
+      // Bulk job items are bound with treeToValue and filters write ErrorResponse directly, none of
+      // which shows up in a controller signature; springdoc also introspects every DTO for the spec
+      BindingReflectionHintsRegistrar bindings = new BindingReflectionHintsRegistrar();
+      bindings.registerReflectionHints(hints.reflection(), JSON_TYPES.toArray(Class<?>[]::new));
+
+      // Interface projection returned by ClientRepository.findEmailsAfter
+      hints
+          .proxies()
+          .registerJdkProxy(
+              ClientEmailView.class, TargetAware.class, SpringProxy.class, DecoratingProxy.class);
+
+      // StatementTimingDataSource proxies connections and each kind of statement
+      for (Class<?> type : TIMED_JDBC_TYPES) {
+        hints.proxies().registerJdkProxy(type);
+      }
+
+      for (Class<?> type : LOGGING_TYPES) {
+        hints
+            .reflection()
+            .registerType(
+                type,
+                MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS,
+                MemberCategory.INVOKE_PUBLIC_METHODS);
+      }
+
+      // Hikari loads spring.datasource.driver-class-name by name
+      for (String driver : JDBC_DRIVERS) {
+        hints
+            .reflection()
+            .registerType(TypeReference.of(driver), MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+      }
+    }
+  }
+}
@@ -0,0 +1,35 @@
+package ch.insurance.api.config;
+
+import java.util.Map;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.env.EnvironmentPostProcessor;
+import org.springframework.core.NativeDetector;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.MapPropertySource;
+
+/**
+ * Turns the Hibernate second-level cache off inside a native image. Ehcache binds ehcache.xml
+ * through JAXB, which is not covered by the native hints, so the native build trades the cache for
+ * its smaller footprint. The JVM builds are unaffected.
+ */
+public class NativeImageEnvironmentPostProcessor implements EnvironmentPostProcessor {
+
+  static final String PROPERTY_SOURCE_NAME = "insuranceNativeImage";
+
+  @Override
+  public void postProcessEnvironment(
+      ConfigurableEnvironment environment, SpringApplication application) {
+    if (!NativeDetector.inNativeImage()) {
+      return;
+    }
+    environment
+        .getPropertySources()
+        .addFirst(
+            new MapPropertySource(
+                PROPERTY_SOURCE_NAME,
+                Map.of(
+                    "spring.jpa.properties.hibernate.cache.use_second_level_cache", "false",
+                    "spring.jpa.properties.hibernate.cache.use_query_cache", "false")));
+  }
+}
@@ -0,0 +1,35 @@
+package ch.insurance.api.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import ch.insurance.api.service.MissingIdCache;
+import io.micrometer.core.instrument.MeterRegistry;
+
+@Configuration
+@EnableConfigurationProperties(NotFoundCacheProperties.class)
+public class NotFoundCacheConfig {
+
+  @Bean
+  public MissingIdCache missingClientIds(
+      NotFoundCacheProperties properties, MeterRegistry registry) {
+    return missingIdCache("client", properties, registry);
+  }
+
+  @Bean
+  public MissingIdCache missingContractIds(
+      NotFoundCacheProperties properties, MeterRegistry registry) {
+    return missingIdCache("contract", properties, registry);
+  }
+
+  private static MissingIdCache missingIdCache(
+      String resource, NotFoundCacheProperties properties, MeterRegistry registry) {
+    return new MissingIdCache(
+        resource,
+        properties.isEnabled(),
+        properties.getTtl(),
+        properties.getMaxEntries(),
+        registry);
+  }
+}
@@ -0,0 +1,20 @@
+package ch.insurance.api.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties(prefix = "insurance.not-found-cache")
+public class NotFoundCacheProperties {
+
+  private boolean enabled = true;
+
+  // Bounds how long an id created through another instance can still answer 404 here
+  private Duration ttl = Duration.ofSeconds(5);
+
+  // Per resource
+  private int maxEntries = 100_000;
+}
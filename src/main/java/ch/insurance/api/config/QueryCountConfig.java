@@ -0,0 +1,41 @@
+package ch.insurance.api.config;
+
+import jakarta.persistence.EntityManagerFactory;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import ch.insurance.api.querycount.QueryCountListener;
+
+@Configuration
+@EnableConfigurationProperties(QueryCountProperties.class)
+@ConditionalOnProperty(prefix = "insurance.query-count", name = "enabled")
+public class QueryCountConfig {
+
+  private final QueryCountListener listener = new QueryCountListener();
+
+  @Bean
+  public HibernatePropertiesCustomizer queryCountStatementInspector() {
+    return hibernateProperties ->
+        hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, listener);
+  }
+
+  // Registered once the session factory exists, as the sharding setup owns the integrator hook
+  @Bean
+  public SmartInitializingSingleton queryCountEventListeners(
+      EntityManagerFactory entityManagerFactory) {
+    return () ->
+        listener.register(
+            entityManagerFactory
+                .unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class));
+  }
+}
@@ -0,0 +1,18 @@
+package ch.insurance.api.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties(prefix = "insurance.query-count")
+public class QueryCountProperties {
+
+  private boolean enabled = true;
+
+  // Buffers each response to add X-Query-Count, X-Entity-Load-Count and X-Lazy-Load-Count
+  private boolean headers = false;
+
+  // Requests running more statements than this are logged as likely N+1 selects
+  private int warnThreshold = 20;
+}
@@ -0,0 +1,76 @@
+package ch.insurance.api.config;
+
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import ch.insurance.api.datasource.ReplicaRoutingDataSource;
+import lombok.RequiredArgsConstructor;
+
+@Configuration
+@EnableConfigurationProperties(ReplicaRoutingProperties.class)
+@ConditionalOnProperty(prefix = "insurance.datasource.routing", name = "enabled")
+@RequiredArgsConstructor
+public class ReplicaRoutingConfig {
+
+  private final ObjectProvider<ReplicaRoutingDataSource> replicaRoutingDataSource;
+
+  // Bound to spring.datasource.hikari the way Boot binds its own pool, so pool sizing and
+  // timeouts configured there still apply to the primary
+  @Bean
+  @ConfigurationProperties("spring.datasource.hikari")
+  public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+    HikariDataSource primary =
+        dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    primary.setPoolName("primary");
+    return primary;
+  }
+
+  @Bean(destroyMethod = "close")
+  public ReplicaRoutingDataSource replicaRoutingDataSource(
+      HikariDataSource primaryDataSource, ReplicaRoutingProperties routingProperties) {
+    List<DataSource> replicas =
+        routingProperties.getReplicas().stream().map(ReplicaRoutingConfig::replica).toList();
+    return new ReplicaRoutingDataSource(primaryDataSource, replicas);
+  }
+
+  @Bean
+  @Primary
+  public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+    return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+  }
+
+  @Scheduled(fixedDelayString = "${insurance.datasource.routing.health-check-interval:PT10S}")
+  public void checkReplicas() {
+    replicaRoutingDataSource.getObject().checkReplicas();
+  }
+
+  private static DataSource replica(ReplicaRoutingProperties.Replica settings) {
+    HikariDataSource replica = new HikariDataSource();
+    replica.setJdbcUrl(settings.getUrl());
+    replica.setUsername(settings.getUsername());
+    replica.setPassword(settings.getPassword());
+    if (settings.getDriverClassName() != null) {
+      replica.setDriverClassName(settings.getDriverClassName());
+    }
+    replica.setMaximumPoolSize(settings.getMaximumPoolSize());
+    replica.setReadOnly(true);
+    replica.setPoolName("replica-" + Math.abs(settings.getUrl().hashCode()));
+    // Let the health check, not startup, decide whether an unreachable replica is usable
+    replica.setInitializationFailTimeout(-1);
+    return replica;
+  }
+}
@@ -0,0 +1,37 @@
+package ch.insurance.api.config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties(prefix = "insurance.datasource.routing")
+public class ReplicaRoutingProperties {
+
+  private boolean enabled = false;
+
+  // Reads from a caller that wrote less than this long ago go to the primary
+  private Duration readYourWritesWindow = Duration.ofSeconds(2);
+
+  private Duration healthCheckInterval = Duration.ofSeconds(10);
+
+  private List<Replica> replicas = new ArrayList<>();
+
+  @Data
+  public static class Replica {
+
+    private String url;
+
+    private String username;
+
+    private String password;
+
+    private String driverClassName;
+
+    private int maximumPoolSize = 10;
+  }
+}
@@ -0,0 +1,17 @@
+package ch.insurance.api.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties(prefix = "insurance.request-log")
+public class RequestLogProperties {
+
+  private boolean enabled = true;
+
+  // Requests taking at least this long are logged at WARN, exempt from sampling
+  private Duration slowThreshold = Duration.ofSeconds(1);
+}
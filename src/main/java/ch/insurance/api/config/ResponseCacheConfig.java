@@ -0,0 +1,65 @@
+package ch.insurance.api.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import ch.insurance.api.dto.ClientResponse;
+import ch.insurance.api.dto.ContractResponse;
+import ch.insurance.api.json.SerializedResponseCache;
+import io.micrometer.core.instrument.MeterRegistry;
+
+@Configuration
+@EnableConfigurationProperties(ResponseCacheProperties.class)
+public class ResponseCacheConfig {
+
+  @Bean
+  public SerializedResponseCache<ClientResponse> clientResponseCache(
+      ResponseCacheProperties properties,
+      ObjectProvider<ReplicaRoutingProperties> routing,
+      ObjectMapper objectMapper,
+      MeterRegistry registry) {
+    return responseCache(
+        "client", ClientResponse.class, properties, routing, objectMapper, registry);
+  }
+
+  @Bean
+  public SerializedResponseCache<ContractResponse> contractResponseCache(
+      ResponseCacheProperties properties,
+      ObjectProvider<ReplicaRoutingProperties> routing,
+      ObjectMapper objectMapper,
+      MeterRegistry registry) {
+    return responseCache(
+        "contract", ContractResponse.class, properties, routing, objectMapper, registry);
+  }
+
+  // Rendered by the application's ObjectMapper, so a cached document is byte for byte what the
+  // controller would have written. With replica routing, a read shortly after a write may still
+  // see the old row on a replica: such loads are kept out of the cache for the same window the
+  // primary is pinned for.
+  private static <T> SerializedResponseCache<T> responseCache(
+      String resource,
+      Class<T> type,
+      ResponseCacheProperties properties,
+      ObjectProvider<ReplicaRoutingProperties> routing,
+      ObjectMapper objectMapper,
+      MeterRegistry registry) {
+    ReplicaRoutingProperties routingProperties = routing.getIfAvailable();
+    Duration quarantine =
+        routingProperties != null ? routingProperties.getReadYourWritesWindow() : Duration.ZERO;
+    return new SerializedResponseCache<>(
+        resource,
+        properties.isEnabled(),
+        objectMapper.writerFor(type),
+        properties.getMaxSize().toBytes(),
+        Math.toIntExact(properties.getSlabSize().toBytes()),
+        properties.getTtl(),
+        quarantine,
+        registry);
+  }
+}
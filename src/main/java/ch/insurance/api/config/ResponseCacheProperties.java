@@ -0,0 +1,24 @@
+package ch.insurance.api.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties(prefix = "insurance.response-cache")
+public class ResponseCacheProperties {
+
+  private boolean enabled = true;
+
+  // Direct memory per resource, allocated one slab at a time as entries arrive
+  private DataSize maxSize = DataSize.ofMegabytes(32);
+
+  // Multiple of 8KB, the largest document cached
+  private DataSize slabSize = DataSize.ofMegabytes(1);
+
+  // Bounds how long a write through another instance can go unseen here
+  private Duration ttl = Duration.ofSeconds(30);
+}
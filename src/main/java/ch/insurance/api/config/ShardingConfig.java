@@ -0,0 +1,69 @@
+package ch.insurance.api.config;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import ch.insurance.api.datasource.ShardRoutingAspect;
+import ch.insurance.api.datasource.ShardRoutingDataSource;
+import ch.insurance.api.datasource.ShardSchemaInitializer;
+
+@Configuration
+@EnableConfigurationProperties(ShardingProperties.class)
+@ConditionalOnProperty(prefix = "insurance.datasource.sharding", name = "enabled")
+public class ShardingConfig {
+
+  @Bean(destroyMethod = "close")
+  public ShardRoutingDataSource shardRoutingDataSource(
+      ShardingProperties properties,
+      @Value("${insurance.datasource.routing.enabled:false}") boolean replicaRouting) {
+    if (replicaRouting) {
+      throw new IllegalStateException("Sharding and replica routing cannot be enabled together");
+    }
+    List<ShardingProperties.Shard> settings = properties.getShards();
+    List<DataSource> shards =
+        IntStream.range(0, settings.size()).mapToObj(i -> shard(i, settings.get(i))).toList();
+    return new ShardRoutingDataSource(shards);
+  }
+
+  @Bean
+  @Primary
+  public DataSource dataSource(ShardRoutingDataSource shardRoutingDataSource) {
+    return new LazyConnectionDataSourceProxy(shardRoutingDataSource);
+  }
+
+  @Bean
+  public ShardRoutingAspect shardRoutingAspect(ShardRoutingDataSource shardRoutingDataSource) {
+    return new ShardRoutingAspect(shardRoutingDataSource);
+  }
+
+  @Bean
+  public ShardSchemaInitializer shardSchemaInitializer(
+      ShardRoutingDataSource shardRoutingDataSource) {
+    return new ShardSchemaInitializer(shardRoutingDataSource);
+  }
+
+  private static DataSource shard(int index, ShardingProperties.Shard settings) {
+    HikariDataSource shard = new HikariDataSource();
+    shard.setJdbcUrl(settings.getUrl());
+    shard.setUsername(settings.getUsername());
+    shard.setPassword(settings.getPassword());
+    if (settings.getDriverClassName() != null) {
+      shard.setDriverClassName(settings.getDriverClassName());
+    }
+    shard.setMaximumPoolSize(settings.getMaximumPoolSize());
+    shard.setPoolName("shard-" + index);
+    return shard;
+  }
+}
@@ -0,0 +1,36 @@
+package ch.insurance.api.config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties(prefix = "insurance.datasource.sharding")
+public class ShardingProperties {
+
+  private boolean enabled = false;
+
+  // In order: a shard's position is part of every id it generates, so the list can only grow
+  // after existing rows have been moved to where their ids point
+  private List<Shard> shards = new ArrayList<>();
+
+  // Threads per shard for queries that fan out to every shard
+  private int fanOutThreadsPerShard = 4;
+
+  @Data
+  public static class Shard {
+
+    private String url;
+
+    private String username;
+
+    private String password;
+
+    private String driverClassName;
+
+    private int maximumPoolSize = 10;
+  }
+}
@@ -0,0 +1,35 @@
+package ch.insurance.api.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import ch.insurance.api.dto.ClientResponse;
+import ch.insurance.api.dto.TotalCostResponse;
+import ch.insurance.api.service.SingleFlight;
+import io.micrometer.core.instrument.MeterRegistry;
+
+@Configuration
+public class SingleFlightConfig {
+
+  @Bean
+  public SingleFlight<Long, ClientResponse> clientByIdSingleFlight(
+      PlatformTransactionManager transactionManager, MeterRegistry registry) {
+    return new SingleFlight<>("client-by-id", readOnly(transactionManager), registry);
+  }
+
+  @Bean
+  public SingleFlight<Long, TotalCostResponse> totalCostSingleFlight(
+      PlatformTransactionManager transactionManager, MeterRegistry registry) {
+    return new SingleFlight<>("total-cost", readOnly(transactionManager), registry);
+  }
+
+  // The shared load runs in its own read-only transaction, opened only by the leading caller,
+  // so waiting callers do not each hold a pooled connection.
+  private static TransactionTemplate readOnly(PlatformTransactionManager transactionManager) {
+    TransactionTemplate template = new TransactionTemplate(transactionManager);
+    template.setReadOnly(true);
+    return template;
+  }
+}
@@ -0,0 +1,48 @@
+package ch.insurance.api.config;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import ch.insurance.api.sqlstats.SqlStatistics;
+import ch.insurance.api.sqlstats.SqlStatisticsEndpoint;
+import ch.insurance.api.sqlstats.StatementTimingDataSource;
+
+@Configuration
+@EnableConfigurationProperties(SqlStatisticsProperties.class)
+@ConditionalOnProperty(prefix = "insurance.sql-stats", name = "enabled")
+public class SqlStatisticsConfig {
+
+  static final String DATA_SOURCE_BEAN = "dataSource";
+
+  @Bean
+  public SqlStatistics sqlStatistics(SqlStatisticsProperties properties) {
+    return new SqlStatistics(properties);
+  }
+
+  @Bean
+  public SqlStatisticsEndpoint sqlStatisticsEndpoint(SqlStatistics sqlStatistics) {
+    return new SqlStatisticsEndpoint(sqlStatistics);
+  }
+
+  // Only the primary dataSource is wrapped: with routing or sharding it sits above the pools, and
+  // wrapping those as well would time every statement twice
+  @Bean
+  public static BeanPostProcessor statementTimingPostProcessor(
+      ObjectProvider<SqlStatistics> sqlStatistics) {
+    return new BeanPostProcessor() {
+      @Override
+      public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && DATA_SOURCE_BEAN.equals(beanName)) {
+          return new StatementTimingDataSource(dataSource, sqlStatistics.getObject());
+        }
+        return bean;
+      }
+    };
+  }
+}
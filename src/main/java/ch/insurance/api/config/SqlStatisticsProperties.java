@@ -0,0 +1,28 @@
+package ch.insurance.api.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties(prefix = "insurance.sql-stats")
+public class SqlStatisticsProperties {
+
+  private boolean enabled = true;
+
+  // Entries per list in /actuator/sqlstats
+  private int topK = 10;
+
+  // Statement shapes tracked at once; counts of shapes beyond this are estimates
+  private int trackedStatements = 200;
+
+  // Executions at least this long are logged and keep their bind values
+  private Duration slowThreshold = Duration.ofMillis(200);
+
+  // Bind values can hold personal data: only turn this on where the logs may keep it, e.g. in dev
+  private boolean captureParameters = false;
+
+  private int maxParameterLength = 100;
+}
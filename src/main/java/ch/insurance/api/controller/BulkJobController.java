@@ -0,0 +1,108 @@
+package ch.insurance.api.controller;
+
+import java.net.URI;
+import java.util.List;
+
+import jakarta.validation.Valid;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import ch.insurance.api.dto.BulkJobErrorResponse;
+import ch.insurance.api.dto.BulkJobRequest;
+import ch.insurance.api.dto.BulkJobResponse;
+import ch.insurance.api.service.BulkJobService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+
+@Tag(
+    name = "Jobs",
+    description = "API for running bulk imports, repricing and terminations asynchronously")
+@RestController
+@RequestMapping("/api/jobs")
+@RequiredArgsConstructor
+public class BulkJobController {
+
+  private final BulkJobService bulkJobService;
+
+  @Operation(
+      summary = "Submit a bulk job",
+      description =
+          "Queues a bulk job and returns immediately; items are processed in chunked transactions")
+  @ApiResponses(
+      value = {
+        @ApiResponse(
+            responseCode = "202",
+            description = "Job accepted",
+            content = @Content(schema = @Schema(implementation = BulkJobResponse.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid input")
+      })
+  @PostMapping(
+      consumes = MediaType.APPLICATION_JSON_VALUE,
+      produces = MediaType.APPLICATION_JSON_VALUE)
+  public ResponseEntity<BulkJobResponse> submitJob(@Valid @RequestBody BulkJobRequest request) {
+    BulkJobResponse response = bulkJobService.submitJob(request);
+    return ResponseEntity.accepted()
+        .location(URI.create("/api/jobs/" + response.getId()))
+        .body(response);
+  }
+
+  @Operation(
+      summary = "Get job progress",
+      description = "Retrieves the status and progress of a job")
+  @ApiResponses(
+      value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Job found",
+            content = @Content(schema = @Schema(implementation = BulkJobResponse.class))),
+        @ApiResponse(responseCode = "404", description = "Job not found")
+      })
+  @GetMapping(value = "/{jobId}", produces = MediaType.APPLICATION_JSON_VALUE)
+  public ResponseEntity<BulkJobResponse> getJob(
+      @Parameter(description = "ID of the job", required = true) @PathVariable Long jobId) {
+    return ResponseEntity.ok(bulkJobService.getJob(jobId));
+  }
+
+  @Operation(
+      summary = "Cancel a job",
+      description =
+          "Cancels a pending job immediately or stops a running job after its current chunk")
+  @ApiResponses(
+      value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Cancellation recorded",
+            content = @Content(schema = @Schema(implementation = BulkJobResponse.class))),
+        @ApiResponse(responseCode = "404", description = "Job not found")
+      })
+  @PostMapping(value = "/{jobId}/cancel", produces = MediaType.APPLICATION_JSON_VALUE)
+  public ResponseEntity<BulkJobResponse> cancelJob(
+      @Parameter(description = "ID of the job", required = true) @PathVariable Long jobId) {
+    return ResponseEntity.ok(bulkJobService.cancelJob(jobId));
+  }
+
+  @Operation(
+      summary = "Get job error report",
+      description = "Lists the items that failed, with their position in the submitted list")
+  @ApiResponses(
+      value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Per-item errors",
+            content = @Content(schema = @Schema(implementation = BulkJobErrorResponse.class))),
+        @ApiResponse(responseCode = "404", description = "Job not found")
+      })
+  @GetMapping(value = "/{jobId}/errors", produces = MediaType.APPLICATION_JSON_VALUE)
+  public ResponseEntity<List<BulkJobErrorResponse>> getJobErrors(
+      @Parameter(description = "ID of the job", required = true) @PathVariable Long jobId) {
+    return ResponseEntity.ok(bulkJobService.getJobErrors(jobId));
+  }
+}
@@ -0,0 +1,79 @@
+package ch.insurance.api.controller;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import ch.insurance.api.config.ChangeJournalProperties;
+import ch.insurance.api.journal.ChangeJournal;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+
+@Tag(name = "Changes", description = "API for consuming the journal of client and contract changes")
+@RestController
+@RequestMapping("/api/changes")
+@ConditionalOnProperty(prefix = "insurance.journal", name = "enabled")
+@RequiredArgsConstructor
+public class ChangeJournalController {
+
+  static final String NEXT_OFFSET_HEADER = "Journal-Next-Offset";
+  static final String END_OFFSET_HEADER = "Journal-End-Offset";
+
+  private final ChangeJournal changeJournal;
+  private final ChangeJournalProperties properties;
+
+  @Operation(
+      summary = "Read changes",
+      description =
+          "Returns raw journal records from the offset on, whole records only; continue from the"
+              + " offset in the Journal-Next-Offset header. An empty body means the consumer is"
+              + " caught up")
+  @ApiResponses(
+      value = {
+        @ApiResponse(responseCode = "200", description = "Records, possibly none"),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Offset no longer retained or not the start of a record")
+      })
+  @GetMapping
+  public void readChanges(
+      @Parameter(description = "Offset to read from, the oldest retained record if omitted")
+          @RequestParam(required = false)
+          Long offset,
+      @Parameter(description = "Upper bound for the body size in bytes")
+          @RequestParam(required = false)
+          Integer maxBytes,
+      HttpServletResponse response)
+      throws IOException {
+    int maxReadSize = Math.toIntExact(properties.getMaxReadSize().toBytes());
+    int limit = maxBytes != null ? Math.min(maxBytes, maxReadSize) : maxReadSize;
+    if (limit <= 0) {
+      throw new IllegalArgumentException("maxBytes must be positive");
+    }
+    try (ChangeJournal.Slice slice =
+        changeJournal.read(offset != null ? offset : changeJournal.startOffset(), limit)) {
+      response.setStatus(HttpStatus.OK.value());
+      response.setContentType(MediaType.APPLICATION_OCTET_STREAM_VALUE);
+      response.setContentLength(slice.length());
+      response.setHeader(NEXT_OFFSET_HEADER, Long.toString(slice.nextOffset()));
+      response.setHeader(END_OFFSET_HEADER, Long.toString(changeJournal.endOffset()));
+      // Not zero-copy: the servlet API hides the socket, so transferTo falls back to copying
+      // through a buffer. The records still go out as stored, with no decoding or per-record
+      // objects
+      slice.transferTo(Channels.newChannel(response.getOutputStream()));
+    }
+  }
+}
@@ -1,7 +1,9 @@
 package ch.insurance.api.controller;
 
+import java.io.IOException;
 import java.util.List;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 
 import org.springframework.http.HttpStatus;
@@ -9,10 +11,13 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import ch.insurance.api.dto.BatchItem;
 import ch.insurance.api.dto.ClientResponse;
+import ch.insurance.api.dto.ClientSearchResult;
 import ch.insurance.api.dto.ClientUpdateRequest;
 import ch.insurance.api.dto.CompanyRequest;
 import ch.insurance.api.dto.PersonRequest;
+import ch.insurance.api.json.SerializedResponseCache;
 import ch.insurance.api.service.ClientService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -30,6 +35,7 @@ import lombok.RequiredArgsConstructor;
 public class ClientController {
 
   private final ClientService clientService;
+  private final SerializedResponseCache<ClientResponse> clientResponseCache;
 
   @Operation(
       summary = "Create a new person client",
@@ -40,7 +46,8 @@ public class ClientController {
             responseCode = "201",
             description = "Person client created successfully",
             content = @Content(schema = @Schema(implementation = ClientResponse.class))),
-        @ApiResponse(responseCode = "400", description = "Invalid input")
+        @ApiResponse(responseCode = "400", description = "Invalid input"),
+        @ApiResponse(responseCode = "409", description = "Email already used by another client")
       })
   @PostMapping(
       value = "/persons",
@@ -70,7 +77,8 @@ public class ClientController {
             responseCode = "201",
             description = "Company client created successfully",
             content = @Content(schema = @Schema(implementation = ClientResponse.class))),
-        @ApiResponse(responseCode = "400", description = "Invalid input")
+        @ApiResponse(responseCode = "400", description = "Invalid input"),
+        @ApiResponse(responseCode = "409", description = "Email already used by another client")
       })
   @PostMapping(
       value = "/companies",
@@ -106,11 +114,64 @@ public class ClientController {
   public ResponseEntity<ClientResponse> getClient(
       @Parameter(description = "ID of the client to retrieve", required = true, example = "1")
           @PathVariable
-          Long id) {
+          Long id,
+      HttpServletResponse servletResponse)
+      throws IOException {
+    // A null entity tells Spring MVC the response has been written
+    if (clientResponseCache.writeTo(id, servletResponse)) {
+      return null;
+    }
     ClientResponse response = clientService.getClientById(id);
     return ResponseEntity.ok(response);
   }
 
+  @Operation(
+      summary = "Get client by email",
+      description = "Retrieves a client by its email address, which is unique across clients")
+  @ApiResponses(
+      value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Client found",
+            content = @Content(schema = @Schema(implementation = ClientResponse.class))),
+        @ApiResponse(responseCode = "404", description = "Client not found")
+      })
+  @GetMapping(value = "/by-email", produces = MediaType.APPLICATION_JSON_VALUE)
+  public ResponseEntity<ClientResponse> getClientByEmail(
+      @Parameter(description = "Email of the client", required = true, example = "john@example.com")
+          @RequestParam
+          String email) {
+    ClientResponse response = clientService.getClientByEmail(email);
+    return ResponseEntity.ok(response);
+  }
+
+  @Operation(
+      summary = "Search clients",
+      description =
+          "Ranked prefix and typo-tolerant search over person names, company names and"
+              + " identifiers, and emails")
+  @ApiResponses(
+      value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Best matches first",
+            content = @Content(schema = @Schema(implementation = ClientSearchResult.class))),
+        @ApiResponse(responseCode = "400", description = "Query too short")
+      })
+  @GetMapping(value = "/search", produces = MediaType.APPLICATION_JSON_VALUE)
+  public ResponseEntity<List<ClientSearchResult>> searchClients(
+      @Parameter(
+              description = "Search text, at least 2 characters",
+              required = true,
+              example = "mull")
+          @RequestParam
+          String q,
+      @Parameter(description = "Maximum number of results", example = "20")
+          @RequestParam(required = false)
+          Integer limit) {
+    return ResponseEntity.ok(clientService.searchClients(q, limit));
+  }
+
   @Operation(
       summary = "Get all clients",
       description = "Retrieves a list of all clients in the system")
@@ -124,6 +185,24 @@ public class ClientController {
     return ResponseEntity.ok(responses);
   }
 
+  @Operation(
+      summary = "Get clients by IDs",
+      description =
+          "Retrieves several clients in one call. Each requested ID yields one item, in request"
+              + " order, holding either the client or a 404 status and message")
+  @ApiResponses(
+      value = {
+        @ApiResponse(responseCode = "200", description = "One item per distinct ID"),
+        @ApiResponse(responseCode = "400", description = "No IDs or too many IDs")
+      })
+  @GetMapping(params = "ids", produces = MediaType.APPLICATION_JSON_VALUE)
+  public ResponseEntity<List<BatchItem<ClientResponse>>> getClientsByIds(
+      @Parameter(description = "Comma-separated client IDs", required = true, example = "1,2,3")
+          @RequestParam
+          List<Long> ids) {
+    return ResponseEntity.ok(clientService.getClientsByIds(ids));
+  }
+
   @Operation(
       summary = "Update client information",
       description = "Updates the information of an existing client")
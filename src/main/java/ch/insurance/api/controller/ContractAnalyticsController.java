@@ -0,0 +1,104 @@
+package ch.insurance.api.controller;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import ch.insurance.api.dto.ContractTotalsResponse;
+import ch.insurance.api.dto.CostDistributionResponse;
+import ch.insurance.api.service.ContractAnalyticsService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+
+@Tag(
+    name = "Contract analytics",
+    description = "API for aggregates over the whole contract book, archived contracts included")
+@RestController
+@RequestMapping(value = "/api/analytics/contracts", produces = MediaType.APPLICATION_JSON_VALUE)
+@ConditionalOnProperty(prefix = "insurance.analytics", name = "enabled")
+@RequiredArgsConstructor
+public class ContractAnalyticsController {
+
+  private final ContractAnalyticsService contractAnalyticsService;
+
+  @Operation(
+      summary = "Get totals by client type",
+      description =
+          "Counts the contracts in force on a day and sums their costs, per client type of their"
+              + " holder")
+  @ApiResponses(
+      value = {
+        @ApiResponse(responseCode = "200", description = "One entry per client type"),
+        @ApiResponse(responseCode = "503", description = "Still loading after startup")
+      })
+  @GetMapping("/totals")
+  public ResponseEntity<List<ContractTotalsResponse>> getTotalsByClientType(
+      @Parameter(description = "Day to evaluate, today if omitted", example = "2024-06-30")
+          @RequestParam(required = false)
+          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+          LocalDate date) {
+    return ResponseEntity.ok(
+        contractAnalyticsService.getTotalsByClientType(date != null ? date : LocalDate.now()));
+  }
+
+  @Operation(
+      summary = "Get daily totals",
+      description =
+          "Counts the contracts in force and sums their costs for every day of a range, both ends"
+              + " included")
+  @ApiResponses(
+      value = {
+        @ApiResponse(responseCode = "200", description = "One entry per day"),
+        @ApiResponse(responseCode = "400", description = "Reversed or too long range"),
+        @ApiResponse(responseCode = "503", description = "Still loading after startup")
+      })
+  @GetMapping("/daily-totals")
+  public ResponseEntity<List<ContractTotalsResponse>> getDailyTotals(
+      @Parameter(description = "First day", required = true, example = "2024-01-01")
+          @RequestParam
+          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+          LocalDate from,
+      @Parameter(description = "Last day", required = true, example = "2024-12-31")
+          @RequestParam
+          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+          LocalDate to) {
+    return ResponseEntity.ok(contractAnalyticsService.getDailyTotals(from, to));
+  }
+
+  @Operation(
+      summary = "Get cost distribution",
+      description =
+          "Splits the costs of the contracts in force on a day into equal-width buckets between"
+              + " the lowest and the highest cost")
+  @ApiResponses(
+      value = {
+        @ApiResponse(responseCode = "200", description = "Distribution, no buckets if none"),
+        @ApiResponse(responseCode = "400", description = "Bucket count out of range"),
+        @ApiResponse(responseCode = "503", description = "Still loading after startup")
+      })
+  @GetMapping("/cost-distribution")
+  public ResponseEntity<CostDistributionResponse> getCostDistribution(
+      @Parameter(description = "Day to evaluate, today if omitted", example = "2024-06-30")
+          @RequestParam(required = false)
+          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+          LocalDate date,
+      @Parameter(description = "Number of buckets", example = "10")
+          @RequestParam(defaultValue = "10")
+          int buckets) {
+    return ResponseEntity.ok(
+        contractAnalyticsService.getCostDistribution(
+            date != null ? date : LocalDate.now(), buckets));
+  }
+}
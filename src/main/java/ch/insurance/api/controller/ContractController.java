@@ -1,8 +1,11 @@
 package ch.insurance.api.controller;
 
+import java.io.IOException;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 
 import org.springframework.format.annotation.DateTimeFormat;
@@ -11,10 +14,13 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import ch.insurance.api.dto.BatchItem;
 import ch.insurance.api.dto.ContractCostUpdateRequest;
 import ch.insurance.api.dto.ContractRequest;
 import ch.insurance.api.dto.ContractResponse;
 import ch.insurance.api.dto.TotalCostResponse;
+import ch.insurance.api.json.SerializedResponseCache;
+import ch.insurance.api.service.ContractBatchWriter;
 import ch.insurance.api.service.ContractService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -32,6 +38,8 @@ import lombok.RequiredArgsConstructor;
 public class ContractController {
 
   private final ContractService contractService;
+  private final ContractBatchWriter contractBatchWriter;
+  private final SerializedResponseCache<ContractResponse> contractResponseCache;
 
   @Operation(
       summary = "Get contract by ID",
@@ -47,11 +55,35 @@ public class ContractController {
   @GetMapping(value = "/contracts/{contractId}", produces = MediaType.APPLICATION_JSON_VALUE)
   public ResponseEntity<ContractResponse> getContract(
       @Parameter(description = "ID of the contract to be retrieved", required = true) @PathVariable
-          Long contractId) {
+          Long contractId,
+      HttpServletResponse servletResponse)
+      throws IOException {
+    // A null entity tells Spring MVC the response has been written
+    if (contractResponseCache.writeTo(contractId, servletResponse)) {
+      return null;
+    }
     ContractResponse response = contractService.getContract(contractId);
     return ResponseEntity.ok(response);
   }
 
+  @Operation(
+      summary = "Get contracts by IDs",
+      description =
+          "Retrieves several contracts in one call. Each requested ID yields one item, in request"
+              + " order, holding either the contract or a 404 status and message")
+  @ApiResponses(
+      value = {
+        @ApiResponse(responseCode = "200", description = "One item per distinct ID"),
+        @ApiResponse(responseCode = "400", description = "No IDs or too many IDs")
+      })
+  @GetMapping(value = "/contracts", produces = MediaType.APPLICATION_JSON_VALUE)
+  public ResponseEntity<List<BatchItem<ContractResponse>>> getContractsByIds(
+      @Parameter(description = "Comma-separated contract IDs", required = true, example = "1,2,3")
+          @RequestParam
+          List<Long> ids) {
+    return ResponseEntity.ok(contractService.getContractsByIds(ids));
+  }
+
   @Operation(
       summary = "Get active contracts",
       description =
@@ -73,7 +105,22 @@ public class ContractController {
               example = "2023-01-01T00:00:00")
           @RequestParam(required = false)
           @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
-          LocalDateTime modifiedAfter) {
+          LocalDateTime modifiedAfter,
+      @Parameter(
+              description =
+                  "Optional date: returns the contracts that were active on that day instead,"
+                      + " including archived ones",
+              required = false,
+              example = "2020-06-30")
+          @RequestParam(required = false)
+          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+          LocalDate asOf) {
+    if (asOf != null) {
+      if (modifiedAfter != null) {
+        throw new IllegalArgumentException("asOf and modifiedAfter cannot be combined");
+      }
+      return ResponseEntity.ok(contractService.getContractsActiveOn(clientId, asOf));
+    }
     List<ContractResponse> responses = contractService.getActiveContracts(clientId, modifiedAfter);
     return ResponseEntity.ok(responses);
   }
@@ -98,6 +145,24 @@ public class ContractController {
     return ResponseEntity.ok(response);
   }
 
+  @Operation(
+      summary = "Get total costs of several clients",
+      description =
+          "Calculates the total cost of active contracts for each requested client in one call."
+              + " Unknown clients yield an item with a 404 status and message")
+  @ApiResponses(
+      value = {
+        @ApiResponse(responseCode = "200", description = "One item per distinct client ID"),
+        @ApiResponse(responseCode = "400", description = "No IDs or too many IDs")
+      })
+  @GetMapping(value = "/contracts/total-costs", produces = MediaType.APPLICATION_JSON_VALUE)
+  public ResponseEntity<List<BatchItem<TotalCostResponse>>> getTotalCosts(
+      @Parameter(description = "Comma-separated client IDs", required = true, example = "1,2,3")
+          @RequestParam
+          List<Long> clientIds) {
+    return ResponseEntity.ok(contractService.getTotalCosts(clientIds));
+  }
+
   @Operation(
       summary = "Create a new contract",
       description = "Creates a new insurance contract for a client")
@@ -119,7 +184,7 @@ public class ContractController {
           @PathVariable
           Long clientId,
       @Valid @RequestBody ContractRequest request) {
-    ContractResponse response = contractService.createContract(clientId, request);
+    ContractResponse response = contractBatchWriter.createContract(clientId, request);
     return ResponseEntity.status(HttpStatus.CREATED).body(response);
   }
 
@@ -0,0 +1,20 @@
+package ch.insurance.api.datasource;
+
+public final class ReplicaRoutingContext {
+
+  private static final ThreadLocal<Boolean> PRIMARY_FORCED = new ThreadLocal<>();
+
+  private ReplicaRoutingContext() {}
+
+  public static void forcePrimary() {
+    PRIMARY_FORCED.set(Boolean.TRUE);
+  }
+
+  public static boolean isPrimaryForced() {
+    return PRIMARY_FORCED.get() != null;
+  }
+
+  public static void clear() {
+    PRIMARY_FORCED.remove();
+  }
+}
@@ -0,0 +1,129 @@
+package ch.insurance.api.datasource;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Sends connections for read-only transactions to a healthy replica (round-robin) and everything
+ * else to the primary. Must sit behind a LazyConnectionDataSourceProxy: the transaction manager
+ * asks for a connection before it publishes the read-only flag.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractDataSource implements Closeable {
+
+  private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+  private final DataSource primary;
+  private final List<ReplicaTarget> replicas;
+  private final AtomicInteger nextReplica = new AtomicInteger();
+
+  public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas) {
+    this.primary = primary;
+    this.replicas = replicas.stream().map(ReplicaTarget::new).toList();
+  }
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    ReplicaTarget replica = selectReplica();
+    if (replica == null) {
+      return primary.getConnection();
+    }
+    try {
+      return replica.dataSource.getConnection();
+    } catch (SQLException ex) {
+      markUnhealthy(replica, ex);
+      return primary.getConnection();
+    }
+  }
+
+  @Override
+  public Connection getConnection(String username, String password) throws SQLException {
+    ReplicaTarget replica = selectReplica();
+    if (replica == null) {
+      return primary.getConnection(username, password);
+    }
+    try {
+      return replica.dataSource.getConnection(username, password);
+    } catch (SQLException ex) {
+      markUnhealthy(replica, ex);
+      return primary.getConnection(username, password);
+    }
+  }
+
+  public void checkReplicas() {
+    for (ReplicaTarget replica : replicas) {
+      try (Connection connection = replica.dataSource.getConnection()) {
+        boolean valid = connection.isValid(VALIDATION_TIMEOUT_SECONDS);
+        if (valid && !replica.healthy) {
+          log.info("Replica {} is back in rotation", replicas.indexOf(replica));
+        }
+        replica.healthy = valid;
+      } catch (SQLException ex) {
+        markUnhealthy(replica, ex);
+      }
+    }
+  }
+
+  public long getHealthyReplicaCount() {
+    return replicas.stream().filter(replica -> replica.healthy).count();
+  }
+
+  @Override
+  public void close() throws IOException {
+    closeIfPossible(primary);
+    for (ReplicaTarget replica : replicas) {
+      closeIfPossible(replica.dataSource);
+    }
+  }
+
+  private ReplicaTarget selectReplica() {
+    if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+        || ReplicaRoutingContext.isPrimaryForced()) {
+      return null;
+    }
+    int size = replicas.size();
+    int start = Math.floorMod(nextReplica.getAndIncrement(), Math.max(size, 1));
+    for (int i = 0; i < size; i++) {
+      ReplicaTarget candidate = replicas.get((start + i) % size);
+      if (candidate.healthy) {
+        return candidate;
+      }
+    }
+    return null;
+  }
+
+  private void markUnhealthy(ReplicaTarget replica, SQLException cause) {
+    if (replica.healthy) {
+      log.warn(
+          "Replica {} taken out of rotation: {}", replicas.indexOf(replica), cause.getMessage());
+    }
+    replica.healthy = false;
+  }
+
+  private static void closeIfPossible(DataSource dataSource) throws IOException {
+    if (dataSource instanceof Closeable closeable) {
+      closeable.close();
+    }
+  }
+
+  private static final class ReplicaTarget {
+
+    private final DataSource dataSource;
+    private volatile boolean healthy = true;
+
+    private ReplicaTarget(DataSource dataSource) {
+      this.dataSource = dataSource;
+    }
+  }
+}
@@ -0,0 +1,26 @@
+package ch.insurance.api.datasource;
+
+public final class ShardContext {
+
+  private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+  private ShardContext() {}
+
+  // Connections taken without a shard go to the first one, which also holds the unsharded tables
+  public static int current() {
+    Integer shard = CURRENT.get();
+    return shard != null ? shard : 0;
+  }
+
+  public static Integer get() {
+    return CURRENT.get();
+  }
+
+  public static void set(Integer shard) {
+    if (shard == null) {
+      CURRENT.remove();
+    } else {
+      CURRENT.set(shard);
+    }
+  }
+}
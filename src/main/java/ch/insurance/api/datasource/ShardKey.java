@@ -0,0 +1,14 @@
+package ch.insurance.api.datasource;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks the client or contract id that decides which shard a service method runs on. Both kinds of
+ * id carry their shard, see {@link ShardRoutingDataSource#shardOf(long)}.
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ShardKey {}
@@ -0,0 +1,57 @@
+package ch.insurance.api.datasource;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+// Outermost advice, so the shard is chosen before a transaction or single-flight load starts
+@Aspect
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ShardRoutingAspect {
+
+  private final ShardRoutingDataSource routing;
+  private final Map<Method, Integer> keyPositions = new ConcurrentHashMap<>();
+
+  public ShardRoutingAspect(ShardRoutingDataSource routing) {
+    this.routing = routing;
+  }
+
+  @Around(
+      "execution(* ch.insurance.api.service..*(.., @ch.insurance.api.datasource.ShardKey (*), ..))")
+  public Object route(ProceedingJoinPoint joinPoint) throws Throwable {
+    Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+    int position = keyPositions.computeIfAbsent(method, ShardRoutingAspect::keyPosition);
+    // A missing id fails validation further down; it has no shard to go to
+    if (!(joinPoint.getArgs()[position] instanceof Long id)) {
+      return joinPoint.proceed();
+    }
+
+    Integer previous = ShardContext.get();
+    ShardContext.set(routing.shardOf(id));
+    try {
+      return joinPoint.proceed();
+    } finally {
+      ShardContext.set(previous);
+    }
+  }
+
+  private static int keyPosition(Method method) {
+    Annotation[][] annotations = method.getParameterAnnotations();
+    for (int i = 0; i < annotations.length; i++) {
+      for (Annotation annotation : annotations[i]) {
+        if (annotation instanceof ShardKey) {
+          return i;
+        }
+      }
+    }
+    throw new IllegalStateException("No @ShardKey parameter on " + method);
+  }
+}
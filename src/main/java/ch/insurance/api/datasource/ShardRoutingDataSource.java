@@ -0,0 +1,61 @@
+package ch.insurance.api.datasource;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+/**
+ * Hands out connections to the shard selected in {@link ShardContext}. Clients and contracts are
+ * spread over the shards by id: each shard generates ids congruent to its index modulo the shard
+ * count, so the id alone says where a row lives and a client's contracts, created on its shard,
+ * live next to it. Must sit behind a LazyConnectionDataSourceProxy so that a transaction binds to
+ * the shard of its first statement rather than to the one current when it began.
+ */
+public class ShardRoutingDataSource extends AbstractDataSource implements Closeable {
+
+  private final List<DataSource> shards;
+
+  public ShardRoutingDataSource(List<DataSource> shards) {
+    if (shards.isEmpty()) {
+      throw new IllegalArgumentException("At least one shard is required");
+    }
+    this.shards = List.copyOf(shards);
+  }
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    return shard(ShardContext.current()).getConnection();
+  }
+
+  @Override
+  public Connection getConnection(String username, String password) throws SQLException {
+    return shard(ShardContext.current()).getConnection(username, password);
+  }
+
+  public int shardOf(long id) {
+    return Math.floorMod(id, shards.size());
+  }
+
+  public int getShardCount() {
+    return shards.size();
+  }
+
+  public DataSource shard(int index) {
+    return shards.get(index);
+  }
+
+  @Override
+  public void close() throws IOException {
+    for (DataSource shard : shards) {
+      if (shard instanceof Closeable closeable) {
+        closeable.close();
+      }
+    }
+  }
+}
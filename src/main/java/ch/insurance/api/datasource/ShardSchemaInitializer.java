@@ -0,0 +1,106 @@
+package ch.insurance.api.datasource;
+
+import java.util.List;
+import java.util.Map;
+
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.jpa.boot.internal.EntityManagerFactoryBuilderImpl;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+import org.hibernate.tool.schema.spi.SchemaManagementToolCoordinator;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Prepares every shard before the application serves requests. Hibernate only applies the
+ * configured schema action to the first shard, so it is repeated here for the others; then each
+ * shard's client and contract identities are set to step by the shard count from an offset equal to
+ * its index. A shard holding a row whose id maps elsewhere, such as a database that was in use
+ * before sharding, fails the startup: routing by id would not find that row.
+ */
+@Slf4j
+public class ShardSchemaInitializer
+    implements Integrator, HibernatePropertiesCustomizer, SmartInitializingSingleton {
+
+  static final List<String> SHARDED_TABLES = List.of("clients", "contracts");
+
+  private final ShardRoutingDataSource routing;
+
+  private Metadata metadata;
+  private SessionFactoryImplementor sessionFactory;
+
+  public ShardSchemaInitializer(ShardRoutingDataSource routing) {
+    this.routing = routing;
+  }
+
+  @Override
+  public void customize(Map<String, Object> hibernateProperties) {
+    hibernateProperties.put(
+        EntityManagerFactoryBuilderImpl.INTEGRATOR_PROVIDER,
+        (IntegratorProvider) () -> List.of(this));
+  }
+
+  @Override
+  public void integrate(
+      Metadata metadata,
+      BootstrapContext bootstrapContext,
+      SessionFactoryImplementor sessionFactory) {
+    this.metadata = metadata;
+    this.sessionFactory = sessionFactory;
+  }
+
+  @Override
+  public void disintegrate(
+      SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {}
+
+  @Override
+  public void afterSingletonsInstantiated() {
+    int shardCount = routing.getShardCount();
+    for (int shard = 1; shard < shardCount; shard++) {
+      Integer previous = ShardContext.get();
+      ShardContext.set(shard);
+      try {
+        SchemaManagementToolCoordinator.process(
+            metadata, sessionFactory.getServiceRegistry(), sessionFactory.getProperties(), a -> {});
+      } finally {
+        ShardContext.set(previous);
+      }
+    }
+    for (int shard = 0; shard < shardCount; shard++) {
+      JdbcTemplate jdbcTemplate = new JdbcTemplate(routing.shard(shard));
+      for (String table : SHARDED_TABLES) {
+        interleaveIds(jdbcTemplate, table, shard, shardCount);
+      }
+    }
+    log.info("{} shards ready", shardCount);
+  }
+
+  static void interleaveIds(JdbcTemplate jdbcTemplate, String table, int shard, int shardCount) {
+    Long misplaced =
+        jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM " + table + " WHERE MOD(id, ?) <> ?",
+            Long.class,
+            shardCount,
+            shard);
+    if (misplaced != null && misplaced > 0) {
+      throw new IllegalStateException(
+          misplaced + " rows of " + table + " on shard " + shard + " have ids of other shards");
+    }
+    Long maxId =
+        jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+    long next = maxId + 1 + Math.floorMod(shard - (maxId + 1), (long) shardCount);
+    jdbcTemplate.execute(
+        "ALTER TABLE "
+            + table
+            + " ALTER COLUMN id SET INCREMENT BY "
+            + shardCount
+            + " RESTART WITH "
+            + next);
+  }
+}
@@ -0,0 +1,51 @@
+package ch.insurance.api.domain;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import jakarta.persistence.*;
+
+import org.hibernate.annotations.Immutable;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+// Contracts that ended before the retention window, moved out of the hot table by ContractArchiver.
+// Rows keep their original id; client_id has no foreign key so archived history outlives clients.
+@Entity
+@Immutable
+@Table(
+    name = "contracts_archive",
+    indexes = {@Index(name = "idx_archive_client_id", columnList = "client_id")})
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ArchivedContract {
+
+  @Id private Long id;
+
+  @Column(name = "client_id", nullable = false)
+  private Long clientId;
+
+  @Column(name = "start_date", nullable = false)
+  private LocalDate startDate;
+
+  @Column(name = "end_date", nullable = false)
+  private LocalDate endDate;
+
+  @Column(name = "cost_amount", nullable = false, precision = 19, scale = 2)
+  private BigDecimal costAmount;
+
+  @Column(name = "last_modified_date", nullable = false)
+  private LocalDateTime lastModifiedDate;
+
+  @Column(name = "created_at", nullable = false)
+  private LocalDateTime createdAt;
+
+  @Column(name = "archived_at", nullable = false)
+  private LocalDateTime archivedAt;
+}
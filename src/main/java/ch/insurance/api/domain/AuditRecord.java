@@ -0,0 +1,54 @@
+package ch.insurance.api.domain;
+
+import java.time.Instant;
+
+import jakarta.persistence.*;
+
+import org.hibernate.Length;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// Rows are inserted in batches by AuditTrail; the mapping defines the table
+@Entity
+@Table(
+    name = "audit_log",
+    indexes = {
+      @Index(name = "idx_audit_entity", columnList = "entity_type, entity_id"),
+      @Index(name = "idx_audit_occurred_at", columnList = "occurred_at")
+    })
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AuditRecord {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  @Column(name = "occurred_at", nullable = false, updatable = false)
+  private Instant occurredAt;
+
+  @Column(name = "actor", nullable = false, updatable = false)
+  private String actor;
+
+  @Column(name = "action", nullable = false, updatable = false, length = 16)
+  private String action;
+
+  @Column(name = "entity_type", nullable = false, updatable = false, length = 32)
+  private String entityType;
+
+  @Column(name = "entity_id", nullable = false, updatable = false)
+  private Long entityId;
+
+  @Column(name = "before_state", updatable = false, length = Length.LONG32)
+  private String beforeState;
+
+  @Column(name = "after_state", updatable = false, length = Length.LONG32)
+  private String afterState;
+}
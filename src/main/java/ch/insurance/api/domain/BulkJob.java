@@ -0,0 +1,107 @@
+package ch.insurance.api.domain;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.*;
+
+import org.hibernate.Length;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Entity
+@Table(
+    name = "bulk_jobs",
+    indexes = {@Index(name = "idx_bulk_job_status", columnList = "status")})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkJob {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  @Enumerated(EnumType.STRING)
+  @Column(name = "job_type", nullable = false, updatable = false)
+  private JobType jobType;
+
+  @Enumerated(EnumType.STRING)
+  @Column(name = "status", nullable = false)
+  private JobStatus status;
+
+  // JSON array of the submitted items, replayed from processedItems on resume
+  @Column(name = "payload", nullable = false, updatable = false, length = Length.LONG32)
+  private String payload;
+
+  @Column(name = "total_items", nullable = false, updatable = false)
+  private int totalItems;
+
+  @Column(name = "chunk_size", nullable = false, updatable = false)
+  private int chunkSize;
+
+  // Index of the first item not yet covered by a committed chunk
+  @Column(name = "processed_items", nullable = false)
+  private int processedItems;
+
+  @Column(name = "failed_items", nullable = false)
+  private int failedItems;
+
+  @Column(name = "cancel_requested", nullable = false)
+  private boolean cancelRequested;
+
+  // Instance currently running the job, and until when; see BulkJobService#runJob
+  @Column(name = "lease_owner", length = 64)
+  private String leaseOwner;
+
+  @Column(name = "lease_expires_at")
+  private LocalDateTime leaseExpiresAt;
+
+  @Column(name = "created_at", nullable = false, updatable = false)
+  private LocalDateTime createdAt;
+
+  @Column(name = "updated_at", nullable = false)
+  private LocalDateTime updatedAt;
+
+  @Column(name = "completed_at")
+  private LocalDateTime completedAt;
+
+  @PrePersist
+  protected void onCreate() {
+    LocalDateTime now = LocalDateTime.now();
+    createdAt = now;
+    updatedAt = now;
+    if (status == null) {
+      status = JobStatus.PENDING;
+    }
+  }
+
+  @PreUpdate
+  protected void onUpdate() {
+    updatedAt = LocalDateTime.now();
+  }
+
+  public enum JobType {
+    PERSON_IMPORT,
+    COMPANY_IMPORT,
+    CONTRACT_REPRICING,
+    CONTRACT_TERMINATION
+  }
+
+  public enum JobStatus {
+    PENDING,
+    RUNNING,
+    COMPLETED,
+    CANCELLED,
+    FAILED;
+
+    public boolean isTerminal() {
+      return this == COMPLETED || this == CANCELLED || this == FAILED;
+    }
+  }
+}
@@ -0,0 +1,44 @@
+package ch.insurance.api.domain;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.*;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Entity
+@Table(
+    name = "bulk_job_errors",
+    indexes = {@Index(name = "idx_bulk_job_error_job_id", columnList = "job_id")})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkJobError {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  @Column(name = "job_id", nullable = false, updatable = false)
+  private Long jobId;
+
+  @Column(name = "item_index", nullable = false, updatable = false)
+  private int itemIndex;
+
+  @Column(name = "message", nullable = false, updatable = false, length = 1000)
+  private String message;
+
+  @Column(name = "created_at", nullable = false, updatable = false)
+  private LocalDateTime createdAt;
+
+  @PrePersist
+  protected void onCreate() {
+    createdAt = LocalDateTime.now();
+  }
+}
@@ -8,18 +8,27 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotNull;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 @Entity
 @Table(
     name = "contracts",
     indexes = {
       @Index(name = "idx_client_id", columnList = "client_id"),
+      @Index(name = "idx_contract_client_status", columnList = "client_id, status"),
       @Index(name = "idx_contract_id", columnList = "id")
     })
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "contracts")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -30,8 +39,11 @@ public class Contract {
   @GeneratedValue(strategy = GenerationType.IDENTITY)
   private Long id;
 
+  // Left out of equals, hashCode and toString: touching the lazy proxy there would load the client
   @ManyToOne(fetch = FetchType.LAZY, optional = false)
   @JoinColumn(name = "client_id", nullable = false)
+  @EqualsAndHashCode.Exclude
+  @ToString.Exclude
   private Client client;
 
   @NotNull(message = "Start date is required")
@@ -41,6 +53,13 @@ public class Contract {
   @Column(name = "end_date")
   private LocalDate endDate;
 
+  // Follows endDate on every write; contracts that run out on their own are flipped by
+  // ContractExpirySweeper. The default only fills rows that predate the column
+  @Enumerated(EnumType.STRING)
+  @ColumnDefault("'ACTIVE'")
+  @Column(name = "status", nullable = false, length = 16)
+  private ContractStatus status;
+
   @NotNull(message = "Cost amount is required")
   @DecimalMin(value = "0.01", message = "Cost amount must be positive")
   @Column(name = "cost_amount", nullable = false, precision = 19, scale = 2)
@@ -59,15 +78,16 @@ public class Contract {
     }
     createdAt = LocalDateTime.now();
     lastModifiedDate = LocalDateTime.now();
+    status = ContractStatus.of(endDate, LocalDate.now());
   }
 
   @PreUpdate
   protected void onUpdate() {
     lastModifiedDate = LocalDateTime.now();
+    status = ContractStatus.of(endDate, LocalDate.now());
   }
 
   public boolean isActive() {
-    LocalDate today = LocalDate.now();
-    return endDate == null || endDate.isAfter(today);
+    return ContractStatus.of(endDate, LocalDate.now()) == ContractStatus.ACTIVE;
   }
 }
@@ -0,0 +1,13 @@
+package ch.insurance.api.domain;
+
+import java.time.LocalDate;
+
+// Top-level so JPQL can name the constants as literals
+public enum ContractStatus {
+  ACTIVE,
+  EXPIRED;
+
+  public static ContractStatus of(LocalDate endDate, LocalDate day) {
+    return endDate == null || endDate.isAfter(day) ? ACTIVE : EXPIRED;
+  }
+}
@@ -0,0 +1,47 @@
+package ch.insurance.api.domain;
+
+import java.time.Instant;
+
+import jakarta.persistence.*;
+
+import org.hibernate.Length;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Entity
+@Table(
+    name = "idempotency_keys",
+    indexes = {@Index(name = "idx_idempotency_expires_at", columnList = "expires_at")})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class IdempotencyRecord {
+
+  @Id
+  @Column(name = "idempotency_key", length = 512)
+  private String idempotencyKey;
+
+  @Column(name = "fingerprint", nullable = false, length = 64)
+  private String fingerprint;
+
+  @Column(name = "status", nullable = false)
+  private int status;
+
+  @Column(name = "content_type")
+  private String contentType;
+
+  @Column(name = "location")
+  private String location;
+
+  @Column(name = "body", nullable = false, length = Length.LONG32)
+  private byte[] body;
+
+  @Column(name = "expires_at", nullable = false)
+  private Instant expiresAt;
+}
@@ -0,0 +1,19 @@
+package ch.insurance.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// One entry of a multi-get response: the resource, or the reason it could not be returned
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BatchItem<T> {
+
+  private Long id;
+  private int status;
+  private T data;
+  private String error;
+}
@@ -0,0 +1,19 @@
+package ch.insurance.api.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkJobErrorResponse {
+
+  private Integer itemIndex;
+  private String message;
+  private LocalDateTime createdAt;
+}
@@ -0,0 +1,34 @@
+package ch.insurance.api.dto;
+
+import java.util.List;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import ch.insurance.api.domain.BulkJob;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkJobRequest {
+
+  @NotNull(message = "Job type is required")
+  private BulkJob.JobType jobType;
+
+  @Min(value = 1, message = "Chunk size must be at least 1")
+  @Max(value = 1000, message = "Chunk size must be at most 1000")
+  private Integer chunkSize;
+
+  // PersonRequest, CompanyRequest, ContractRepricingItem or ContractTerminationItem per job type
+  @NotEmpty(message = "At least one item is required")
+  private List<JsonNode> items;
+}
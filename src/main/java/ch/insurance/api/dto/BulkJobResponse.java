@@ -0,0 +1,27 @@
+package ch.insurance.api.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkJobResponse {
+
+  private Long id;
+  private String jobType;
+  private String status;
+  private Integer totalItems;
+  private Integer processedItems;
+  private Integer failedItems;
+  private Integer chunkSize;
+  private Boolean cancelRequested;
+  private LocalDateTime createdAt;
+  private LocalDateTime updatedAt;
+  private LocalDateTime completedAt;
+}
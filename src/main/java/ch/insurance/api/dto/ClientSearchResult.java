@@ -0,0 +1,19 @@
+package ch.insurance.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ClientSearchResult {
+
+  private Long id;
+  private String clientType;
+  private String name;
+  private String email;
+  private double score;
+}
@@ -0,0 +1,25 @@
+package ch.insurance.api.dto;
+
+import java.math.BigDecimal;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ContractRepricingItem {
+
+  @NotNull(message = "Contract id is required")
+  private Long contractId;
+
+  @NotNull(message = "Cost amount is required")
+  @DecimalMin(value = "0.01", message = "Cost amount must be positive")
+  private BigDecimal costAmount;
+}
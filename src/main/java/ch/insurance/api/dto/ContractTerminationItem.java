@@ -0,0 +1,18 @@
+package ch.insurance.api.dto;
+
+import jakarta.validation.constraints.NotNull;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ContractTerminationItem {
+
+  @NotNull(message = "Contract id is required")
+  private Long contractId;
+}
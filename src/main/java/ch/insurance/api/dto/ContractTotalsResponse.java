@@ -0,0 +1,22 @@
+package ch.insurance.api.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ContractTotalsResponse {
+
+  private LocalDate date;
+  // Only for totals split by client type; UNKNOWN for contracts of deleted clients
+  private String clientType;
+  private Long activeContracts;
+  private BigDecimal totalCost;
+}
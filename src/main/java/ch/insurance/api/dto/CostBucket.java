@@ -0,0 +1,20 @@
+package ch.insurance.api.dto;
+
+import java.math.BigDecimal;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Costs from minCost, inclusive, up to maxCost, exclusive
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CostBucket {
+
+  private BigDecimal minCost;
+  private BigDecimal maxCost;
+  private Long contracts;
+}
@@ -0,0 +1,23 @@
+package ch.insurance.api.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CostDistributionResponse {
+
+  private LocalDate date;
+  private Long activeContracts;
+  private BigDecimal minCost;
+  private BigDecimal maxCost;
+  private List<CostBucket> buckets;
+}
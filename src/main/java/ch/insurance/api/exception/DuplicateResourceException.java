@@ -0,0 +1,12 @@
+package ch.insurance.api.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.CONFLICT)
+public class DuplicateResourceException extends RuntimeException {
+
+  public DuplicateResourceException(String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,16 @@
+package ch.insurance.api.exception;
+
+import org.springframework.http.HttpStatus;
+
+import lombok.Getter;
+
+@Getter
+public class IdempotencyException extends RuntimeException {
+
+  private final HttpStatus status;
+
+  public IdempotencyException(HttpStatus status, String message) {
+    super(message);
+    this.status = status;
+  }
+}
@@ -3,14 +3,28 @@ package ch.insurance.api.exception;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.ResponseStatus;
 
+// A client error, not a fault: no stack trace is captured, and the message is only formatted when
+// the handler asks for it. Both add up when scanners request ids that do not exist.
 @ResponseStatus(HttpStatus.NOT_FOUND)
 public class ResourceNotFoundException extends RuntimeException {
 
+  private final String resource;
+  private final Long id;
+
   public ResourceNotFoundException(String message) {
-    super(message);
+    super(message, null, false, false);
+    this.resource = null;
+    this.id = null;
   }
 
   public ResourceNotFoundException(String resource, Long id) {
-    super(String.format("%s not found with id: %d", resource, id));
+    super(null, null, false, false);
+    this.resource = resource;
+    this.id = id;
+  }
+
+  @Override
+  public String getMessage() {
+    return resource != null ? resource + " not found with id: " + id : super.getMessage();
   }
 }
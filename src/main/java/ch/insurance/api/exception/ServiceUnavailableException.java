@@ -0,0 +1,14 @@
+package ch.insurance.api.exception;
+
+// The request could not be served right now and changed nothing, so it can be retried as is: an
+// in-memory model still loading after startup, or a write that timed out before it was made
+public class ServiceUnavailableException extends RuntimeException {
+
+  public ServiceUnavailableException(String message) {
+    super(message);
+  }
+
+  public ServiceUnavailableException(String message, Throwable cause) {
+    super(message, cause);
+  }
+}
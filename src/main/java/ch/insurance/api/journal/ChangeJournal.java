@@ -0,0 +1,438 @@
+package ch.insurance.api.journal;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Append-only log of client and contract changes for downstream consumers, kept in memory-mapped
+ * segment files. Each record is laid out as
+ *
+ * <pre>
+ * length   int   bytes that follow
+ * crc      int   CRC32C of the bytes after it
+ * time     long  epoch millis of the append
+ * type     byte  {@link ChangeType} code
+ * id       long  entity id
+ * payload        entity JSON
+ * </pre>
+ *
+ * <p>Offsets are byte positions in the whole journal and are never reused; a segment file is named
+ * after the offset of its first record. The active segment is mapped at full size and appended to
+ * under a lock. When a record no longer fits, the segment is forced, truncated to its records and a
+ * new one started, and whole old segments are deleted by size and age. On startup each segment is
+ * scanned up to the first record whose checksum fails, which drops a write torn by a crash.
+ *
+ * <p>Consumers read by offset: {@link #read} picks whole records from one segment and {@link
+ * Slice#transferTo} hands them over with {@link FileChannel#transferTo}. The kernel performs that
+ * from the page cache without a heap copy only when the target is itself a file or socket channel;
+ * any other target, such as a wrapped servlet output stream, gets the bytes copied through a
+ * buffer. A slice holds a reference on its segment until it is closed, so retention can retire a
+ * segment while it is being read: the file is closed and deleted once its last reader is done.
+ */
+@Slf4j
+public class ChangeJournal implements Closeable {
+
+  static final int HEADER_SIZE = 25;
+  private static final int LENGTH_SIZE = Integer.BYTES;
+  private static final String SUFFIX = ".journal";
+
+  private final Path directory;
+  private final int segmentSize;
+  private final long maxBytes;
+  private final long retentionMillis;
+  private final LongSupplier clock;
+
+  private final ConcurrentSkipListMap<Long, Segment> segments = new ConcurrentSkipListMap<>();
+  private final ReentrantLock writeLock = new ReentrantLock();
+  private volatile Segment active;
+
+  private final Counter appends;
+
+  public ChangeJournal(
+      Path directory, int segmentSize, long maxBytes, Duration retention, MeterRegistry registry)
+      throws IOException {
+    this(directory, segmentSize, maxBytes, retention, registry, System::currentTimeMillis);
+  }
+
+  ChangeJournal(
+      Path directory,
+      int segmentSize,
+      long maxBytes,
+      Duration retention,
+      MeterRegistry registry,
+      LongSupplier clock)
+      throws IOException {
+    if (segmentSize <= HEADER_SIZE) {
+      throw new IllegalArgumentException("Segment size must exceed the record header");
+    }
+    if (maxBytes < segmentSize) {
+      throw new IllegalArgumentException("Journal size must hold at least one segment");
+    }
+    this.directory = directory;
+    this.segmentSize = segmentSize;
+    this.maxBytes = maxBytes;
+    this.retentionMillis = retention.toMillis();
+    this.clock = clock;
+
+    Files.createDirectories(directory);
+    recover();
+
+    this.appends =
+        Counter.builder("insurance.journal.appends")
+            .description("Change records appended to the journal")
+            .register(registry);
+    Gauge.builder("insurance.journal.size", this, journal -> journal.size())
+        .baseUnit("bytes")
+        .description("Records held by the journal")
+        .register(registry);
+    Gauge.builder("insurance.journal.segments", segments, Map::size).register(registry);
+  }
+
+  /**
+   * Appends one record and makes it visible to readers.
+   *
+   * @return the offset of the record
+   */
+  public long append(ChangeType type, long entityId, byte[] payload) {
+    int recordSize = HEADER_SIZE + payload.length;
+    if (recordSize > segmentSize) {
+      throw new IllegalArgumentException(
+          "Change record of " + recordSize + " bytes does not fit in a journal segment");
+    }
+    writeLock.lock();
+    try {
+      Segment segment = active;
+      if (segment.size + recordSize > segment.buffer.capacity()) {
+        segment = roll();
+      }
+      int position = segment.size;
+      long timestamp = clock.getAsLong();
+      MappedByteBuffer buffer = segment.buffer;
+      buffer.putInt(position, recordSize - LENGTH_SIZE);
+      buffer.putLong(position + 8, timestamp);
+      buffer.put(position + 16, type.code());
+      buffer.putLong(position + 17, entityId);
+      buffer.put(position + HEADER_SIZE, payload);
+      buffer.putInt(position + 4, checksum(buffer, position, recordSize));
+      segment.lastTimestamp = timestamp;
+      // Publishes the record to readers
+      segment.size = position + recordSize;
+      appends.increment();
+      return segment.baseOffset + position;
+    } catch (IOException e) {
+      throw new UncheckedIOException("Could not roll the change journal", e);
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  /**
+   * Whole records from the given offset up to maxBytes, and at least one record if there is any, so
+   * an oversized record cannot stall a consumer. A slice never spans segments; consumers carry on
+   * from {@link Slice#nextOffset()}.
+   */
+  public Slice read(long offset, int maxBytes) {
+    long start = startOffset();
+    long end = endOffset();
+    if (offset < start || offset > end) {
+      throw outsideJournal(offset, start, end);
+    }
+    // Retention may have retired the segment since the bounds were read
+    Map.Entry<Long, Segment> entry = segments.floorEntry(offset);
+    if (entry == null || !entry.getValue().retain()) {
+      throw outsideJournal(offset, startOffset(), endOffset());
+    }
+    Segment segment = entry.getValue();
+    try {
+      int from = (int) (offset - segment.baseOffset);
+      int size = segment.size;
+      if (from < size && recordEnd(segment.buffer, from, size) < 0) {
+        throw new IllegalArgumentException("Offset " + offset + " is not the start of a record");
+      }
+      int to = from;
+      while (to < size) {
+        int next = to + LENGTH_SIZE + segment.buffer.getInt(to);
+        if (next - from > maxBytes && to > from) {
+          break;
+        }
+        to = next;
+      }
+      return new Slice(segment, from, to - from, segment.baseOffset + to);
+    } catch (RuntimeException e) {
+      segment.release();
+      throw e;
+    }
+  }
+
+  private static IllegalArgumentException outsideJournal(long offset, long start, long end) {
+    return new IllegalArgumentException(
+        "Offset " + offset + " is outside the journal, which holds " + start + " to " + end);
+  }
+
+  public long startOffset() {
+    return segments.firstKey();
+  }
+
+  public long endOffset() {
+    Segment segment = active;
+    return segment.baseOffset + segment.size;
+  }
+
+  long size() {
+    return endOffset() - startOffset();
+  }
+
+  int segmentCount() {
+    return segments.size();
+  }
+
+  // Records survive a process crash as soon as they are appended; this covers a machine crash
+  public void flush() {
+    active.buffer.force();
+  }
+
+  /**
+   * Retires the oldest segments while the journal is too large or they are past retention. Their
+   * files are deleted as soon as no slice still reads them.
+   */
+  public void enforceRetention() {
+    writeLock.lock();
+    try {
+      long cutoff = clock.getAsLong() - retentionMillis;
+      while (segments.size() > 1) {
+        Segment oldest = segments.firstEntry().getValue();
+        if (size() <= maxBytes && oldest.lastTimestamp >= cutoff) {
+          return;
+        }
+        segments.remove(oldest.baseOffset);
+        oldest.retired = true;
+        oldest.release();
+        log.info("Retired change journal segment {}", oldest.path.getFileName());
+      }
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    writeLock.lock();
+    try {
+      flush();
+      segments.values().forEach(Segment::release);
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  private Segment roll() throws IOException {
+    Segment sealed = active;
+    sealed.buffer.force();
+    sealed.channel.truncate(sealed.size);
+    Segment next = createSegment(sealed.baseOffset + sealed.size);
+    segments.put(next.baseOffset, next);
+    active = next;
+    enforceRetention();
+    return next;
+  }
+
+  private void recover() throws IOException {
+    List<Path> files;
+    try (Stream<Path> listing = Files.list(directory)) {
+      // Zero-padded names sort in offset order
+      files =
+          listing.filter(path -> path.getFileName().toString().endsWith(SUFFIX)).sorted().toList();
+    }
+    for (int i = 0; i < files.size(); i++) {
+      Path path = files.get(i);
+      boolean last = i == files.size() - 1;
+      Segment segment = openSegment(path, last);
+      if (!last && segment.size != segment.buffer.capacity()) {
+        throw new IllegalStateException(
+            "Change journal segment " + path + " is damaged at position " + segment.size);
+      }
+      segments.put(segment.baseOffset, segment);
+    }
+    if (segments.isEmpty()) {
+      segments.put(0L, createSegment(0L));
+    }
+    active = segments.lastEntry().getValue();
+    log.info(
+        "Change journal holds offsets {} to {} in {} segments",
+        startOffset(),
+        endOffset(),
+        segments.size());
+  }
+
+  private Segment createSegment(long baseOffset) throws IOException {
+    Path path = directory.resolve(String.format("%020d%s", baseOffset, SUFFIX));
+    FileChannel channel =
+        FileChannel.open(
+            path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    return new Segment(
+        baseOffset, path, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize));
+  }
+
+  // Only the newest segment is mapped for writing; sealed ones were truncated to their records
+  private Segment openSegment(Path path, boolean active) throws IOException {
+    String name = path.getFileName().toString();
+    long baseOffset = Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+    Segment segment;
+    if (active) {
+      FileChannel channel =
+          FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+      int capacity = (int) Math.max(segmentSize, channel.size());
+      segment =
+          new Segment(
+              baseOffset, path, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity));
+    } else {
+      FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+      segment =
+          new Segment(
+              baseOffset,
+              path,
+              channel,
+              channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+    }
+    int position = 0;
+    int end;
+    while ((end = recordEnd(segment.buffer, position, segment.buffer.capacity())) > 0) {
+      segment.lastTimestamp = segment.buffer.getLong(position + 8);
+      position = end;
+    }
+    segment.size = position;
+    return segment;
+  }
+
+  // End of the record at the position, or -1 where no intact record starts
+  private static int recordEnd(ByteBuffer buffer, int position, int limit) {
+    if (position + HEADER_SIZE > limit) {
+      return -1;
+    }
+    int length = buffer.getInt(position);
+    if (length < HEADER_SIZE - LENGTH_SIZE || length > limit - position - LENGTH_SIZE) {
+      return -1;
+    }
+    int recordSize = LENGTH_SIZE + length;
+    if (buffer.getInt(position + 4) != checksum(buffer, position, recordSize)) {
+      return -1;
+    }
+    return position + recordSize;
+  }
+
+  private static int checksum(ByteBuffer buffer, int position, int recordSize) {
+    CRC32C crc = new CRC32C();
+    crc.update(buffer.slice(position + 8, recordSize - 8));
+    return (int) crc.getValue();
+  }
+
+  /**
+   * Records of one segment, ready to be transferred to a consumer. Must be closed, which lets go of
+   * the segment.
+   */
+  public static final class Slice implements Closeable {
+
+    private final Segment segment;
+    private final long position;
+    private final int length;
+    private final long nextOffset;
+    private boolean closed;
+
+    private Slice(Segment segment, long position, int length, long nextOffset) {
+      this.segment = segment;
+      this.position = position;
+      this.length = length;
+      this.nextOffset = nextOffset;
+    }
+
+    public int length() {
+      return length;
+    }
+
+    public long nextOffset() {
+      return nextOffset;
+    }
+
+    public void transferTo(WritableByteChannel target) throws IOException {
+      long sent = 0;
+      while (sent < length) {
+        sent += segment.channel.transferTo(position + sent, length - sent, target);
+      }
+    }
+
+    @Override
+    public void close() {
+      if (!closed) {
+        closed = true;
+        segment.release();
+      }
+    }
+  }
+
+  private static final class Segment {
+
+    final long baseOffset;
+    final Path path;
+    final FileChannel channel;
+    final MappedByteBuffer buffer;
+    volatile int size;
+    volatile long lastTimestamp;
+    volatile boolean retired;
+    // One for the journal while the segment is listed, one per open slice
+    private final AtomicInteger references = new AtomicInteger(1);
+
+    Segment(long baseOffset, Path path, FileChannel channel, MappedByteBuffer buffer) {
+      this.baseOffset = baseOffset;
+      this.path = path;
+      this.channel = channel;
+      this.buffer = buffer;
+    }
+
+    boolean retain() {
+      int current;
+      do {
+        current = references.get();
+        if (current == 0) {
+          return false;
+        }
+      } while (!references.compareAndSet(current, current + 1));
+      return true;
+    }
+
+    void release() {
+      if (references.decrementAndGet() != 0) {
+        return;
+      }
+      try {
+        channel.close();
+        if (retired) {
+          Files.deleteIfExists(path);
+        }
+      } catch (IOException e) {
+        log.warn("Could not close or delete change journal segment {}", path.getFileName(), e);
+      }
+    }
+  }
+}
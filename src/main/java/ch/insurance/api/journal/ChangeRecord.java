@@ -0,0 +1,31 @@
+package ch.insurance.api.journal;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One journal entry as a consumer sees it. The payload is the JSON the API returns for the entity
+ * after the change, empty for a deleted client.
+ */
+public record ChangeRecord(
+    long offset, long timestamp, ChangeType type, long entityId, byte[] payload) {
+
+  /** Decodes records read from the journal, the first one starting at the given offset. */
+  public static List<ChangeRecord> decode(long offset, ByteBuffer buffer) {
+    List<ChangeRecord> records = new ArrayList<>();
+    int first = buffer.position();
+    while (buffer.remaining() >= ChangeJournal.HEADER_SIZE) {
+      int start = buffer.position();
+      int length = buffer.getInt();
+      buffer.getInt(); // checksum, verified by the journal when it was written and recovered
+      long timestamp = buffer.getLong();
+      ChangeType type = ChangeType.of(buffer.get());
+      long entityId = buffer.getLong();
+      byte[] payload = new byte[length - ChangeJournal.HEADER_SIZE + Integer.BYTES];
+      buffer.get(payload);
+      records.add(new ChangeRecord(offset + start - first, timestamp, type, entityId, payload));
+    }
+    return records;
+  }
+}
@@ -0,0 +1,30 @@
+package ch.insurance.api.journal;
+
+// Stored as its code in one byte: existing codes must never be renumbered
+public enum ChangeType {
+  CLIENT_CREATED(1),
+  CLIENT_UPDATED(2),
+  CLIENT_DELETED(3),
+  CONTRACT_CREATED(4),
+  CONTRACT_UPDATED(5),
+  CONTRACT_ENDED(6);
+
+  private final byte code;
+
+  ChangeType(int code) {
+    this.code = (byte) code;
+  }
+
+  public byte code() {
+    return code;
+  }
+
+  public static ChangeType of(byte code) {
+    for (ChangeType type : values()) {
+      if (type.code == code) {
+        return type;
+      }
+    }
+    throw new IllegalArgumentException("Unknown change type " + code);
+  }
+}
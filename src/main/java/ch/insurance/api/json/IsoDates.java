@@ -0,0 +1,76 @@
+package ch.insurance.api.json;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+/**
+ * Writes java.time values as the ISO-8601 text DateTimeFormatter.ISO_LOCAL_DATE(_TIME) produces,
+ * through a per-thread char buffer instead of a formatted String per value. Years outside 0000-9999
+ * need a sign and are left to the regular serializers.
+ */
+final class IsoDates {
+
+  private static final ThreadLocal<char[]> BUFFER = ThreadLocal.withInitial(() -> new char[32]);
+
+  private IsoDates() {}
+
+  static boolean supports(int year) {
+    return year >= 0 && year <= 9999;
+  }
+
+  static void write(JsonGenerator gen, LocalDate date) throws IOException {
+    char[] buffer = BUFFER.get();
+    int length = appendDate(buffer, 0, date.getYear(), date.getMonthValue(), date.getDayOfMonth());
+    gen.writeString(buffer, 0, length);
+  }
+
+  static void write(JsonGenerator gen, LocalDateTime dateTime) throws IOException {
+    char[] buffer = BUFFER.get();
+    int pos =
+        appendDate(
+            buffer, 0, dateTime.getYear(), dateTime.getMonthValue(), dateTime.getDayOfMonth());
+    buffer[pos++] = 'T';
+    pos = appendTwoDigits(buffer, pos, dateTime.getHour());
+    buffer[pos++] = ':';
+    pos = appendTwoDigits(buffer, pos, dateTime.getMinute());
+    buffer[pos++] = ':';
+    pos = appendTwoDigits(buffer, pos, dateTime.getSecond());
+
+    // Fraction of up to nine digits without trailing zeros, omitted when zero
+    int nano = dateTime.getNano();
+    if (nano != 0) {
+      buffer[pos++] = '.';
+      int digits = 9;
+      while (nano % 10 == 0) {
+        nano /= 10;
+        digits--;
+      }
+      for (int i = pos + digits - 1; i >= pos; i--) {
+        buffer[i] = (char) ('0' + nano % 10);
+        nano /= 10;
+      }
+      pos += digits;
+    }
+    gen.writeString(buffer, 0, pos);
+  }
+
+  private static int appendDate(char[] buffer, int pos, int year, int month, int day) {
+    buffer[pos++] = (char) ('0' + year / 1000);
+    buffer[pos++] = (char) ('0' + year / 100 % 10);
+    buffer[pos++] = (char) ('0' + year / 10 % 10);
+    buffer[pos++] = (char) ('0' + year % 10);
+    buffer[pos++] = '-';
+    pos = appendTwoDigits(buffer, pos, month);
+    buffer[pos++] = '-';
+    return appendTwoDigits(buffer, pos, day);
+  }
+
+  private static int appendTwoDigits(char[] buffer, int pos, int value) {
+    buffer[pos] = (char) ('0' + value / 10);
+    buffer[pos + 1] = (char) ('0' + value % 10);
+    return pos + 2;
+  }
+}
@@ -0,0 +1,172 @@
+package ch.insurance.api.json;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import org.springframework.boot.jackson.JsonComponent;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import ch.insurance.api.dto.ClientResponse;
+import ch.insurance.api.dto.ClientSearchResult;
+import ch.insurance.api.dto.ContractResponse;
+
+/**
+ * Hand-written writers for the response DTOs returned in bulk (contract lists, search results,
+ * client reads). They replace Jackson's reflective bean serializers: no property introspection, no
+ * per-property writer objects, field names pre-encoded once. The output matches the bean
+ * serializers under the application's settings: properties in declaration order, null properties
+ * omitted (default-property-inclusion: non_null), ISO-8601 dates. A field added to one of these
+ * DTOs must be added here as well; ResponseSerializersTest compares both outputs.
+ */
+@JsonComponent
+public class ResponseSerializers {
+
+  private static final SerializableString ID = new SerializedString("id");
+  private static final SerializableString CLIENT_ID = new SerializedString("clientId");
+  private static final SerializableString CLIENT_TYPE = new SerializedString("clientType");
+  private static final SerializableString START_DATE = new SerializedString("startDate");
+  private static final SerializableString END_DATE = new SerializedString("endDate");
+  private static final SerializableString COST_AMOUNT = new SerializedString("costAmount");
+  private static final SerializableString CREATED_AT = new SerializedString("createdAt");
+  private static final SerializableString UPDATED_AT = new SerializedString("updatedAt");
+  private static final SerializableString EMAIL = new SerializedString("email");
+  private static final SerializableString PHONE = new SerializedString("phone");
+  private static final SerializableString FIRST_NAME = new SerializedString("firstName");
+  private static final SerializableString LAST_NAME = new SerializedString("lastName");
+  private static final SerializableString BIRTH_DATE = new SerializedString("birthDate");
+  private static final SerializableString COMPANY_NAME = new SerializedString("companyName");
+  private static final SerializableString COMPANY_IDENTIFIER =
+      new SerializedString("companyIdentifier");
+  private static final SerializableString NAME = new SerializedString("name");
+  private static final SerializableString SCORE = new SerializedString("score");
+
+  public static class ContractResponseSerializer extends StdSerializer<ContractResponse> {
+
+    public ContractResponseSerializer() {
+      super(ContractResponse.class);
+    }
+
+    @Override
+    public void serialize(ContractResponse value, JsonGenerator gen, SerializerProvider provider)
+        throws IOException {
+      gen.writeStartObject(value);
+      writeLong(gen, ID, value.getId());
+      writeLong(gen, CLIENT_ID, value.getClientId());
+      writeDate(gen, provider, START_DATE, value.getStartDate());
+      writeDate(gen, provider, END_DATE, value.getEndDate());
+      writeDecimal(gen, COST_AMOUNT, value.getCostAmount());
+      writeDateTime(gen, provider, CREATED_AT, value.getCreatedAt());
+      gen.writeEndObject();
+    }
+  }
+
+  public static class ClientResponseSerializer extends StdSerializer<ClientResponse> {
+
+    public ClientResponseSerializer() {
+      super(ClientResponse.class);
+    }
+
+    @Override
+    public void serialize(ClientResponse value, JsonGenerator gen, SerializerProvider provider)
+        throws IOException {
+      gen.writeStartObject(value);
+      writeLong(gen, ID, value.getId());
+      writeString(gen, CLIENT_TYPE, value.getClientType());
+      writeString(gen, EMAIL, value.getEmail());
+      writeString(gen, PHONE, value.getPhone());
+      writeDateTime(gen, provider, CREATED_AT, value.getCreatedAt());
+      writeDateTime(gen, provider, UPDATED_AT, value.getUpdatedAt());
+      writeString(gen, FIRST_NAME, value.getFirstName());
+      writeString(gen, LAST_NAME, value.getLastName());
+      writeDate(gen, provider, BIRTH_DATE, value.getBirthDate());
+      writeString(gen, COMPANY_NAME, value.getCompanyName());
+      writeString(gen, COMPANY_IDENTIFIER, value.getCompanyIdentifier());
+      gen.writeEndObject();
+    }
+  }
+
+  public static class ClientSearchResultSerializer extends StdSerializer<ClientSearchResult> {
+
+    public ClientSearchResultSerializer() {
+      super(ClientSearchResult.class);
+    }
+
+    @Override
+    public void serialize(ClientSearchResult value, JsonGenerator gen, SerializerProvider provider)
+        throws IOException {
+      gen.writeStartObject(value);
+      writeLong(gen, ID, value.getId());
+      writeString(gen, CLIENT_TYPE, value.getClientType());
+      writeString(gen, NAME, value.getName());
+      writeString(gen, EMAIL, value.getEmail());
+      gen.writeFieldName(SCORE);
+      gen.writeNumber(value.getScore());
+      gen.writeEndObject();
+    }
+  }
+
+  private static void writeLong(JsonGenerator gen, SerializableString name, Long value)
+      throws IOException {
+    if (value != null) {
+      gen.writeFieldName(name);
+      gen.writeNumber(value);
+    }
+  }
+
+  private static void writeString(JsonGenerator gen, SerializableString name, String value)
+      throws IOException {
+    if (value != null) {
+      gen.writeFieldName(name);
+      gen.writeString(value);
+    }
+  }
+
+  private static void writeDecimal(JsonGenerator gen, SerializableString name, BigDecimal value)
+      throws IOException {
+    if (value != null) {
+      gen.writeFieldName(name);
+      gen.writeNumber(value);
+    }
+  }
+
+  private static void writeDate(
+      JsonGenerator gen, SerializerProvider provider, SerializableString name, LocalDate value)
+      throws IOException {
+    if (value != null) {
+      gen.writeFieldName(name);
+      if (isoText(provider, value.getYear())) {
+        IsoDates.write(gen, value);
+      } else {
+        provider.defaultSerializeValue(value, gen);
+      }
+    }
+  }
+
+  private static void writeDateTime(
+      JsonGenerator gen, SerializerProvider provider, SerializableString name, LocalDateTime value)
+      throws IOException {
+    if (value != null) {
+      gen.writeFieldName(name);
+      if (isoText(provider, value.getYear())) {
+        IsoDates.write(gen, value);
+      } else {
+        provider.defaultSerializeValue(value, gen);
+      }
+    }
+  }
+
+  // Formatting dates accounted for most of the allocation per DTO. Any mapper not configured for
+  // ISO text dates goes through its registered java.time serializers instead.
+  private static boolean isoText(SerializerProvider provider, int year) {
+    return !provider.isEnabled(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+        && IsoDates.supports(year);
+  }
+}
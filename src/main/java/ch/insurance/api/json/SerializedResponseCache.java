@@ -0,0 +1,353 @@
+package ch.insurance.api.json;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongSupplier;
+
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Serialized JSON of single-resource reads, stored outside the heap so hot entries add nothing to
+ * GC work. Memory is a bounded set of direct-buffer slabs, each carved into chunks of one
+ * power-of-two size class (128 B to 8 KiB); larger documents are not cached. A slab is assigned to
+ * a size class the first time the class needs room and keeps it, and once every slab is assigned a
+ * class evicts its own chunks with the CLOCK algorithm.
+ *
+ * <p>Entries are keyed by id and stamped with the entity version they were rendered from, so a slow
+ * reader never replaces a newer document. Writers invalidate after commit; a load that started
+ * before an invalidation, or within the replica lag allowance before it, is not cached, see {@link
+ * #loadStamp()}. Invalidation only reaches this instance's cache: a write through another instance
+ * shows up here once the entry expires, a time-to-live after the load it came from.
+ */
+public class SerializedResponseCache<T> {
+
+  private static final int MIN_CHUNK_SHIFT = 7;
+  private static final int MAX_CHUNK_SHIFT = 13;
+  private static final int MAX_DOCUMENT_SIZE = 1 << MAX_CHUNK_SHIFT;
+  private static final int STRIPES = 64;
+
+  private final boolean enabled;
+  private final ObjectWriter writer;
+  private final int slabSize;
+  private final long ttlNanos;
+  private final long quarantineNanos;
+  private final LongSupplier nanoClock;
+
+  private final int maxSlabs;
+  private int assignedSlabs;
+  private final SizeClass[] sizeClasses = new SizeClass[MAX_CHUNK_SHIFT - MIN_CHUNK_SHIFT + 1];
+  private final Map<Long, Entry> entries = new HashMap<>();
+  private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+  // Latest invalidation time per stripe of ids
+  private final AtomicLongArray invalidatedAt = new AtomicLongArray(STRIPES);
+  private final ThreadLocal<byte[]> copyBuffers =
+      ThreadLocal.withInitial(() -> new byte[MAX_DOCUMENT_SIZE]);
+
+  private final Counter hits;
+  private final Counter misses;
+  private final Counter evictions;
+
+  public SerializedResponseCache(
+      String resource,
+      boolean enabled,
+      ObjectWriter writer,
+      long maxBytes,
+      int slabSize,
+      Duration ttl,
+      Duration quarantine,
+      MeterRegistry registry) {
+    this(
+        resource, enabled, writer, maxBytes, slabSize, ttl, quarantine, registry, System::nanoTime);
+  }
+
+  SerializedResponseCache(
+      String resource,
+      boolean enabled,
+      ObjectWriter writer,
+      long maxBytes,
+      int slabSize,
+      Duration ttl,
+      Duration quarantine,
+      MeterRegistry registry,
+      LongSupplier nanoClock) {
+    if (slabSize < MAX_DOCUMENT_SIZE || slabSize % MAX_DOCUMENT_SIZE != 0) {
+      throw new IllegalArgumentException(
+          "Slab size must be a multiple of " + MAX_DOCUMENT_SIZE + " bytes");
+    }
+    if (maxBytes < slabSize || maxBytes / slabSize > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("Cache size must hold at least one slab");
+    }
+    this.enabled = enabled;
+    this.writer = writer;
+    this.slabSize = slabSize;
+    this.ttlNanos = ttl.toNanos();
+    this.quarantineNanos = quarantine.toNanos();
+    this.nanoClock = nanoClock;
+    this.maxSlabs = (int) (maxBytes / slabSize);
+    for (int i = 0; i < sizeClasses.length; i++) {
+      sizeClasses[i] = new SizeClass(1 << (MIN_CHUNK_SHIFT + i), slabSize);
+    }
+    // Everything that happened before construction counts as invalidated before any load
+    long start = nanoClock.getAsLong() - quarantineNanos - 1;
+    for (int i = 0; i < STRIPES; i++) {
+      invalidatedAt.set(i, start);
+    }
+
+    this.hits =
+        Counter.builder("insurance.response_cache.hits")
+            .tag("resource", resource)
+            .description("Reads answered with cached JSON bytes")
+            .register(registry);
+    this.misses =
+        Counter.builder("insurance.response_cache.misses")
+            .tag("resource", resource)
+            .register(registry);
+    this.evictions =
+        Counter.builder("insurance.response_cache.evictions")
+            .tag("resource", resource)
+            .register(registry);
+    Gauge.builder("insurance.response_cache.entries", entries, Map::size)
+        .tag("resource", resource)
+        .register(registry);
+    Gauge.builder("insurance.response_cache.off_heap", this, cache -> cache.offHeapBytes())
+        .tag("resource", resource)
+        .baseUnit("bytes")
+        .description("Direct memory held by assigned slabs")
+        .register(registry);
+  }
+
+  /**
+   * Writes the cached document for the id as a 200 response.
+   *
+   * @return false on a miss, with the response left untouched
+   */
+  public boolean writeTo(long id, HttpServletResponse response) throws IOException {
+    if (!enabled) {
+      return false;
+    }
+    byte[] buffer = copyBuffers.get();
+    int length = read(id, buffer);
+    if (length < 0) {
+      misses.increment();
+      return false;
+    }
+    hits.increment();
+    response.setStatus(HttpStatus.OK.value());
+    response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+    response.setContentLength(length);
+    response.getOutputStream().write(buffer, 0, length);
+    return true;
+  }
+
+  // Read before the database load and handed back to put
+  public long loadStamp() {
+    return nanoClock.getAsLong();
+  }
+
+  // Entities carry a last-modified timestamp rather than a version column
+  public static long versionOf(LocalDateTime modifiedAt) {
+    if (modifiedAt == null) {
+      return 0L;
+    }
+    return modifiedAt.toEpochSecond(ZoneOffset.UTC) * 1_000_000_000L + modifiedAt.getNano();
+  }
+
+  public void put(long id, long version, long loadStamp, T value) {
+    if (!enabled) {
+      return;
+    }
+    byte[] json;
+    try {
+      json = writer.writeValueAsBytes(value);
+    } catch (JsonProcessingException e) {
+      // The regular response path serializes the same value and reports the failure
+      return;
+    }
+    if (json.length > MAX_DOCUMENT_SIZE) {
+      return;
+    }
+
+    lock.writeLock().lock();
+    try {
+      // A write committed while the load ran, or a replica may not have applied it yet
+      if (invalidatedAt.get(stripe(id)) - (loadStamp - quarantineNanos) >= 0) {
+        return;
+      }
+      Entry existing = entries.get(id);
+      if (existing != null) {
+        if (existing.version() >= version && !isExpired(existing)) {
+          return;
+        }
+        remove(id, existing);
+      }
+      SizeClass sizeClass = sizeClasses[sizeClassOf(json.length)];
+      int position = allocate(sizeClass);
+      if (position < 0) {
+        return;
+      }
+      sizeClass.slab(position).put(sizeClass.offset(position), json);
+      sizeClass.owners[position] = id;
+      entries.put(id, new Entry(sizeClass, position, json.length, version, loadStamp + ttlNanos));
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  public void invalidate(long id) {
+    if (!enabled) {
+      return;
+    }
+    long now = nanoClock.getAsLong();
+    invalidatedAt.accumulateAndGet(stripe(id), now, (last, next) -> next - last > 0 ? next : last);
+    lock.writeLock().lock();
+    try {
+      Entry existing = entries.get(id);
+      if (existing != null) {
+        remove(id, existing);
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  int size() {
+    return entries.size();
+  }
+
+  long offHeapBytes() {
+    return (long) assignedSlabs * slabSize;
+  }
+
+  // Copies under the read lock so a concurrent eviction cannot reuse the chunk mid-copy
+  private int read(long id, byte[] buffer) {
+    lock.readLock().lock();
+    try {
+      Entry entry = entries.get(id);
+      // An expired entry stays until put replaces it or the clock evicts it
+      if (entry == null || isExpired(entry)) {
+        return -1;
+      }
+      SizeClass sizeClass = entry.sizeClass();
+      // Racy by design: a lost update only costs the entry one extra turn of the clock
+      sizeClass.referenced[entry.position()] = true;
+      sizeClass
+          .slab(entry.position())
+          .get(sizeClass.offset(entry.position()), buffer, 0, entry.length());
+      return entry.length();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  private boolean isExpired(Entry entry) {
+    return nanoClock.getAsLong() - entry.expiresAt() >= 0;
+  }
+
+  private int allocate(SizeClass sizeClass) {
+    if (sizeClass.freeCount == 0) {
+      if (assignedSlabs < maxSlabs) {
+        sizeClass.addSlab(ByteBuffer.allocateDirect(slabSize));
+        assignedSlabs++;
+      } else if (sizeClass.slabCount == 0) {
+        return -1;
+      } else {
+        return evict(sizeClass);
+      }
+    }
+    return sizeClass.free[--sizeClass.freeCount];
+  }
+
+  // Every chunk of the class is in use here, so the hand finds a victim within two turns
+  private int evict(SizeClass sizeClass) {
+    int capacity = sizeClass.slabCount * sizeClass.chunksPerSlab;
+    while (true) {
+      int position = sizeClass.hand;
+      sizeClass.hand = (position + 1) % capacity;
+      if (sizeClass.referenced[position]) {
+        sizeClass.referenced[position] = false;
+      } else {
+        entries.remove(sizeClass.owners[position]);
+        evictions.increment();
+        return position;
+      }
+    }
+  }
+
+  private void remove(long id, Entry entry) {
+    entries.remove(id);
+    SizeClass sizeClass = entry.sizeClass();
+    sizeClass.referenced[entry.position()] = false;
+    sizeClass.free[sizeClass.freeCount++] = entry.position();
+  }
+
+  private static int sizeClassOf(int length) {
+    int shift = 32 - Integer.numberOfLeadingZeros(Math.max(length, 1) - 1);
+    return Math.max(shift, MIN_CHUNK_SHIFT) - MIN_CHUNK_SHIFT;
+  }
+
+  private static int stripe(long id) {
+    return (int) (id ^ (id >>> 32)) & (STRIPES - 1);
+  }
+
+  private record Entry(
+      SizeClass sizeClass, int position, int length, long version, long expiresAt) {}
+
+  // Chunk positions run across the class's slabs in assignment order
+  private static final class SizeClass {
+
+    final int chunkSize;
+    final int chunksPerSlab;
+    ByteBuffer[] slabs = new ByteBuffer[0];
+    int slabCount;
+    long[] owners = new long[0];
+    boolean[] referenced = new boolean[0];
+    int[] free = new int[0];
+    int freeCount;
+    int hand;
+
+    SizeClass(int chunkSize, int slabSize) {
+      this.chunkSize = chunkSize;
+      this.chunksPerSlab = slabSize / chunkSize;
+    }
+
+    void addSlab(ByteBuffer slab) {
+      int first = slabCount * chunksPerSlab;
+      int capacity = first + chunksPerSlab;
+      slabs = Arrays.copyOf(slabs, slabCount + 1);
+      slabs[slabCount++] = slab;
+      owners = Arrays.copyOf(owners, capacity);
+      referenced = Arrays.copyOf(referenced, capacity);
+      free = Arrays.copyOf(free, capacity);
+      // Pushed in reverse so chunks are handed out front to back
+      for (int position = capacity - 1; position >= first; position--) {
+        free[freeCount++] = position;
+      }
+    }
+
+    ByteBuffer slab(int position) {
+      return slabs[position / chunksPerSlab];
+    }
+
+    int offset(int position) {
+      return (position % chunksPerSlab) * chunkSize;
+    }
+  }
+}
@@ -0,0 +1,82 @@
+package ch.insurance.api.logging;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.Map;
+
+import org.slf4j.event.KeyValuePair;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.IThrowableProxy;
+import ch.qos.logback.classic.spi.ThrowableProxyUtil;
+import ch.qos.logback.core.encoder.EncoderBase;
+
+/**
+ * One JSON object per line: timestamp, level, logger, thread, the formatted message, MDC entries
+ * and key-value pairs added through the SLF4J fluent API as top-level fields, and the stack trace.
+ * Runs on the async appender's worker, off the request threads.
+ */
+public class JsonLogEncoder extends EncoderBase<ILoggingEvent> {
+
+  private static final byte[] NO_BYTES = new byte[0];
+
+  private final JsonFactory jsonFactory = new JsonFactory();
+
+  @Override
+  public byte[] headerBytes() {
+    return NO_BYTES;
+  }
+
+  @Override
+  public byte[] encode(ILoggingEvent event) {
+    ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+    try (JsonGenerator json = jsonFactory.createGenerator(out)) {
+      json.writeStartObject();
+      json.writeStringField("timestamp", Instant.ofEpochMilli(event.getTimeStamp()).toString());
+      json.writeStringField("level", event.getLevel().toString());
+      json.writeStringField("logger", event.getLoggerName());
+      json.writeStringField("thread", event.getThreadName());
+      json.writeStringField("message", event.getFormattedMessage());
+      for (Map.Entry<String, String> entry : event.getMDCPropertyMap().entrySet()) {
+        json.writeStringField(entry.getKey(), entry.getValue());
+      }
+      if (event.getKeyValuePairs() != null) {
+        for (KeyValuePair pair : event.getKeyValuePairs()) {
+          json.writeFieldName(pair.key);
+          writeValue(json, pair.value);
+        }
+      }
+      IThrowableProxy throwable = event.getThrowableProxy();
+      if (throwable != null) {
+        json.writeStringField("exception", ThrowableProxyUtil.asString(throwable));
+      }
+      json.writeEndObject();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    out.write('\n');
+    return out.toByteArray();
+  }
+
+  private static void writeValue(JsonGenerator json, Object value) throws IOException {
+    if (value instanceof Integer || value instanceof Long) {
+      json.writeNumber(((Number) value).longValue());
+    } else if (value instanceof Boolean bool) {
+      json.writeBoolean(bool);
+    } else if (value == null) {
+      json.writeNull();
+    } else {
+      json.writeString(value.toString());
+    }
+  }
+
+  @Override
+  public byte[] footerBytes() {
+    return NO_BYTES;
+  }
+}
@@ -0,0 +1,58 @@
+package ch.insurance.api.logging;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Marker;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+
+/**
+ * Lets one in {@code rate} events below WARN through for the loggers under {@code loggerPrefix};
+ * warnings and errors always pass. Runs before an event is built, so a dropped statement costs
+ * neither message formatting nor a queue slot. {@code isDebugEnabled()} and the like are answered
+ * as usual rather than sampled: Hibernate checks twice per statement, once itself and once in JBoss
+ * Logging, so sampling there would compound. What a caller prepares ahead of logging is therefore
+ * still paid for, which is why prod-logging turns off Hibernate's SQL formatting. Events logged
+ * through the SLF4J fluent API never reach turbo filters and are not sampled.
+ */
+public class SamplingTurboFilter extends TurboFilter {
+
+  private final AtomicLong events = new AtomicLong();
+
+  private String loggerPrefix;
+  private int rate = 1;
+
+  public void setLoggerPrefix(String loggerPrefix) {
+    this.loggerPrefix = loggerPrefix;
+  }
+
+  public void setRate(int rate) {
+    this.rate = rate;
+  }
+
+  @Override
+  public void start() {
+    if (loggerPrefix == null || rate < 1) {
+      addError("SamplingTurboFilter needs a loggerPrefix and a rate of at least 1");
+      return;
+    }
+    super.start();
+  }
+
+  @Override
+  public FilterReply decide(
+      Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+    // A null format is an isXxxEnabled() check rather than an event
+    if (!isStarted()
+        || rate == 1
+        || format == null
+        || level.isGreaterOrEqual(Level.WARN)
+        || !logger.getName().startsWith(loggerPrefix)) {
+      return FilterReply.NEUTRAL;
+    }
+    return events.getAndIncrement() % rate == 0 ? FilterReply.NEUTRAL : FilterReply.DENY;
+  }
+}
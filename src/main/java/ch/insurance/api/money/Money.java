@@ -0,0 +1,50 @@
+package ch.insurance.api.money;
+
+import java.math.BigDecimal;
+
+/**
+ * Fixed-point money as a plain {@code long} of minor units (cents), for aggregation paths where a
+ * {@code BigDecimal} per value would dominate the cost. Amounts cross the API and the database as
+ * {@code BigDecimal} with two decimals; conversion is exact both ways and refuses anything that
+ * would lose a fraction of a cent. Arithmetic throws {@link ArithmeticException} on overflow
+ * instead of wrapping around.
+ */
+public final class Money {
+
+  /** Decimals of {@code contracts.cost_amount}. */
+  public static final int SCALE = 2;
+
+  private Money() {}
+
+  /**
+   * @throws ArithmeticException if the amount has fractions of a cent or does not fit in a long
+   */
+  public static long toMinor(BigDecimal amount) {
+    return amount.movePointRight(SCALE).longValueExact();
+  }
+
+  public static BigDecimal toAmount(long minor) {
+    return BigDecimal.valueOf(minor, SCALE);
+  }
+
+  public static long add(long minor, long other) {
+    return Math.addExact(minor, other);
+  }
+
+  public static long subtract(long minor, long other) {
+    return Math.subtractExact(minor, other);
+  }
+
+  public static long multiply(long minor, long factor) {
+    return Math.multiplyExact(minor, factor);
+  }
+
+  /**
+   * Whether any sum of up to {@code terms} values, none larger in magnitude than {@code
+   * largestMagnitude}, fits in a long. Loops that pass this check up front can add with plain
+   * {@code +=}, which keeps them free of the overflow branch.
+   */
+  public static boolean sumFits(long terms, long largestMagnitude) {
+    return terms == 0 || largestMagnitude <= Long.MAX_VALUE / terms;
+  }
+}
@@ -0,0 +1,47 @@
+package ch.insurance.api.money;
+
+import java.math.BigDecimal;
+
+/**
+ * Running total of minor units and the number of values added, with overflow-checked adds. Meant to
+ * be reused across millions of adds: nothing is allocated until the total is converted back to an
+ * amount.
+ */
+public final class MoneySum {
+
+  private long count;
+  private long total;
+
+  public void add(long minor) {
+    total = Math.addExact(total, minor);
+    count++;
+  }
+
+  // Net change from a difference array: moves the total without counting a value
+  public void adjust(long minor, long countDelta) {
+    total = Math.addExact(total, minor);
+    count += countDelta;
+  }
+
+  public void add(MoneySum other) {
+    total = Math.addExact(total, other.total);
+    count += other.count;
+  }
+
+  public long count() {
+    return count;
+  }
+
+  public long total() {
+    return total;
+  }
+
+  public BigDecimal toAmount() {
+    return Money.toAmount(total);
+  }
+
+  public void reset() {
+    count = 0;
+    total = 0;
+  }
+}
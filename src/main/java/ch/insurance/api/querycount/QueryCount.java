@@ -0,0 +1,7 @@
+package ch.insurance.api.querycount;
+
+/** What Hibernate did on one thread between {@link QueryCounter#begin} and its end. */
+public record QueryCount(int statements, int entityLoads, int lazyInitializations) {
+
+  public static final QueryCount NONE = new QueryCount(0, 0, 0);
+}
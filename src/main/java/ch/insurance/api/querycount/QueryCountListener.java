@@ -0,0 +1,54 @@
+package ch.insurance.api.querycount;
+
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.InitializeCollectionEvent;
+import org.hibernate.event.spi.InitializeCollectionEventListener;
+import org.hibernate.event.spi.LoadEvent;
+import org.hibernate.event.spi.LoadEventListener;
+import org.hibernate.event.spi.PostLoadEvent;
+import org.hibernate.event.spi.PostLoadEventListener;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Feeds {@link QueryCounter}. Every statement Hibernate prepares passes the inspector, including
+ * each batch once; plain JDBC work bypasses it. An entity load is any entity built from a row or a
+ * second-level cache entry. A lazy initialization is a proxy or collection loaded on first access,
+ * the access pattern behind N+1 selects.
+ */
+public class QueryCountListener
+    implements StatementInspector,
+        PostLoadEventListener,
+        LoadEventListener,
+        InitializeCollectionEventListener {
+
+  public void register(EventListenerRegistry registry) {
+    registry.appendListeners(EventType.POST_LOAD, this);
+    registry.appendListeners(EventType.LOAD, this);
+    registry.appendListeners(EventType.INIT_COLLECTION, this);
+  }
+
+  @Override
+  public String inspect(String sql) {
+    QueryCounter.statement();
+    return sql;
+  }
+
+  @Override
+  public void onPostLoad(PostLoadEvent event) {
+    QueryCounter.entityLoad();
+  }
+
+  @Override
+  public void onLoad(LoadEvent event, LoadType loadType) {
+    // Proxies load themselves as IMMEDIATE_LOAD; find and eager associations use other types
+    if (loadType == LoadEventListener.IMMEDIATE_LOAD) {
+      QueryCounter.lazyInitialization();
+    }
+  }
+
+  @Override
+  public void onInitializeCollection(InitializeCollectionEvent event) {
+    QueryCounter.lazyInitialization();
+  }
+}
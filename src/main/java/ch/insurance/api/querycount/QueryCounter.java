@@ -0,0 +1,60 @@
+package ch.insurance.api.querycount;
+
+/**
+ * Tallies the statements, entity loads and lazy initializations Hibernate performs on the current
+ * thread, fed by {@link QueryCountListener}. Outside a counted scope a hook costs one thread-local
+ * read. Work handed to other threads, such as shard fan-out or the audit writer, is not counted.
+ */
+public final class QueryCounter {
+
+  private static final ThreadLocal<Tally> CURRENT = new ThreadLocal<>();
+
+  private QueryCounter() {}
+
+  public static void begin() {
+    CURRENT.set(new Tally());
+  }
+
+  public static QueryCount current() {
+    Tally tally = CURRENT.get();
+    return tally != null ? tally.snapshot() : QueryCount.NONE;
+  }
+
+  public static QueryCount end() {
+    QueryCount count = current();
+    CURRENT.remove();
+    return count;
+  }
+
+  static void statement() {
+    Tally tally = CURRENT.get();
+    if (tally != null) {
+      tally.statements++;
+    }
+  }
+
+  static void entityLoad() {
+    Tally tally = CURRENT.get();
+    if (tally != null) {
+      tally.entityLoads++;
+    }
+  }
+
+  static void lazyInitialization() {
+    Tally tally = CURRENT.get();
+    if (tally != null) {
+      tally.lazyInitializations++;
+    }
+  }
+
+  private static final class Tally {
+
+    private int statements;
+    private int entityLoads;
+    private int lazyInitializations;
+
+    private QueryCount snapshot() {
+      return new QueryCount(statements, entityLoads, lazyInitializations);
+    }
+  }
+}
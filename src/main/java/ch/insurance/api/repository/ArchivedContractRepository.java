@@ -0,0 +1,20 @@
+package ch.insurance.api.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import ch.insurance.api.domain.ArchivedContract;
+
+@Repository
+public interface ArchivedContractRepository extends JpaRepository<ArchivedContract, Long> {
+
+  @Query(
+      "SELECT a FROM ArchivedContract a WHERE a.clientId = :clientId AND a.startDate <= :asOf AND a.endDate > :asOf")
+  List<ArchivedContract> findContractsActiveOn(
+      @Param("clientId") Long clientId, @Param("asOf") LocalDate asOf);
+}
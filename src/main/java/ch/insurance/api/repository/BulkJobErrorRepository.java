@@ -0,0 +1,14 @@
+package ch.insurance.api.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import ch.insurance.api.domain.BulkJobError;
+
+@Repository
+public interface BulkJobErrorRepository extends JpaRepository<BulkJobError, Long> {
+
+  List<BulkJobError> findByJobIdOrderByItemIndexAsc(Long jobId);
+}
@@ -0,0 +1,76 @@
+package ch.insurance.api.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import ch.insurance.api.domain.BulkJob;
+
+@Repository
+public interface BulkJobRepository extends JpaRepository<BulkJob, Long> {
+
+  List<BulkJob> findByStatusIn(Collection<BulkJob.JobStatus> statuses);
+
+  @Query(
+      "SELECT j.id FROM BulkJob j WHERE j.status = RUNNING AND (j.leaseExpiresAt IS NULL OR j.leaseExpiresAt < :now)")
+  List<Long> findAbandoned(@Param("now") LocalDateTime now);
+
+  // Takes a pending job, or a running one whose owner stopped renewing its lease. Never one this
+  // instance owns: its worker may only be late, and would renew the lease next chunk
+  @Modifying(clearAutomatically = true)
+  @Query(
+      "UPDATE BulkJob j SET j.status = RUNNING, j.leaseOwner = :owner, j.leaseExpiresAt = :until, j.updatedAt = :now WHERE j.id = :id AND (j.status = PENDING OR (j.status = RUNNING AND (j.leaseExpiresAt IS NULL OR j.leaseExpiresAt < :now) AND (j.leaseOwner IS NULL OR j.leaseOwner <> :owner)))")
+  int claim(
+      @Param("id") Long id,
+      @Param("owner") String owner,
+      @Param("now") LocalDateTime now,
+      @Param("until") LocalDateTime until);
+
+  @Modifying(clearAutomatically = true)
+  @Query(
+      "UPDATE BulkJob j SET j.leaseExpiresAt = :until WHERE j.id = :id AND j.leaseOwner = :owner AND j.status = RUNNING")
+  int renewLease(
+      @Param("id") Long id, @Param("owner") String owner, @Param("until") LocalDateTime until);
+
+  @Query("SELECT j.cancelRequested FROM BulkJob j WHERE j.id = :id")
+  boolean isCancelRequested(@Param("id") Long id);
+
+  @Modifying(clearAutomatically = true)
+  @Query(
+      "UPDATE BulkJob j SET j.status = :status, j.updatedAt = :now WHERE j.id = :id AND j.status IN :expected")
+  int updateStatus(
+      @Param("id") Long id,
+      @Param("expected") Collection<BulkJob.JobStatus> expected,
+      @Param("status") BulkJob.JobStatus status,
+      @Param("now") LocalDateTime now);
+
+  @Modifying(clearAutomatically = true)
+  @Query(
+      "UPDATE BulkJob j SET j.status = :status, j.completedAt = :now, j.updatedAt = :now WHERE j.id = :id AND j.leaseOwner = :owner")
+  int complete(
+      @Param("id") Long id,
+      @Param("owner") String owner,
+      @Param("status") BulkJob.JobStatus status,
+      @Param("now") LocalDateTime now);
+
+  // Counts progress only while the caller still owns the job; the caller rolls back on 0
+  @Modifying(clearAutomatically = true)
+  @Query(
+      "UPDATE BulkJob j SET j.processedItems = j.processedItems + :processed, j.failedItems = j.failedItems + :failed, j.updatedAt = :now WHERE j.id = :id AND j.leaseOwner = :owner")
+  int recordProgress(
+      @Param("id") Long id,
+      @Param("owner") String owner,
+      @Param("processed") int processed,
+      @Param("failed") int failed,
+      @Param("now") LocalDateTime now);
+
+  @Modifying(clearAutomatically = true)
+  @Query("UPDATE BulkJob j SET j.cancelRequested = true, j.updatedAt = :now WHERE j.id = :id")
+  int requestCancellation(@Param("id") Long id, @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,8 @@
+package ch.insurance.api.repository;
+
+public interface ClientEmailView {
+
+  Long getId();
+
+  String getEmail();
+}
@@ -1,8 +1,13 @@
 package ch.insurance.api.repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import ch.insurance.api.domain.Client;
@@ -13,4 +18,12 @@ public interface ClientRepository extends JpaRepository<Client, Long> {
   Optional<Client> findByEmail(String email);
 
   boolean existsByEmail(String email);
+
+  @Query("SELECT c.id FROM Client c WHERE c.id IN :ids")
+  List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+  @Query("SELECT c.id AS id, c.email AS email FROM Client c WHERE c.id > :afterId ORDER BY c.id")
+  List<ClientEmailView> findEmailsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+  List<Client> findByIdGreaterThanOrderByIdAsc(Long afterId, Pageable pageable);
 }
@@ -3,39 +3,65 @@ package ch.insurance.api.repository;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
+import jakarta.persistence.QueryHint;
+
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import ch.insurance.api.domain.Contract;
+import ch.insurance.api.dto.TotalCostResponse;
 
 @Repository
 public interface ContractRepository extends JpaRepository<Contract, Long> {
 
+  // Active-contract queries seek idx_contract_client_status on the status; the end-date check only
+  // filters the contracts that ran out since the last ContractExpirySweeper run
+
+  // Only cached when hibernate.cache.use_query_cache is on; any contract write through Hibernate,
+  // or through CacheInvalidation for plain JDBC writes, invalidates the cached results
+  @QueryHints({
+    @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+    @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "active-contracts")
+  })
   @Query(
-      "SELECT c FROM Contract c WHERE c.client.id = :clientId AND (c.endDate IS NULL OR c.endDate > :currentDate)")
+      "SELECT c FROM Contract c WHERE c.client.id = :clientId AND c.status = ch.insurance.api.domain.ContractStatus.ACTIVE AND (c.endDate IS NULL OR c.endDate > :currentDate)")
   List<Contract> findActiveContractsByClientId(
       @Param("clientId") Long clientId, @Param("currentDate") LocalDate currentDate);
 
   @Query(
-      "SELECT c FROM Contract c WHERE c.client.id = :clientId AND (c.endDate IS NULL OR c.endDate > :currentDate) AND c.lastModifiedDate >= :modifiedAfter")
+      "SELECT c FROM Contract c WHERE c.client.id = :clientId AND c.status = ch.insurance.api.domain.ContractStatus.ACTIVE AND (c.endDate IS NULL OR c.endDate > :currentDate) AND c.lastModifiedDate >= :modifiedAfter")
   List<Contract> findActiveContractsByClientIdAndModifiedAfter(
       @Param("clientId") Long clientId,
       @Param("currentDate") LocalDate currentDate,
       @Param("modifiedAfter") LocalDateTime modifiedAfter);
 
   @Query(
-      "SELECT COALESCE(SUM(c.costAmount), 0) FROM Contract c WHERE c.client.id = :clientId AND (c.endDate IS NULL OR c.endDate > :currentDate)")
+      "SELECT c FROM Contract c WHERE c.client.id = :clientId AND c.startDate <= :asOf AND (c.endDate IS NULL OR c.endDate > :asOf)")
+  List<Contract> findContractsActiveOn(
+      @Param("clientId") Long clientId, @Param("asOf") LocalDate asOf);
+
+  @Query(
+      "SELECT COALESCE(SUM(c.costAmount), 0) FROM Contract c WHERE c.client.id = :clientId AND c.status = ch.insurance.api.domain.ContractStatus.ACTIVE AND (c.endDate IS NULL OR c.endDate > :currentDate)")
   BigDecimal sumActiveContractsCostByClientId(
       @Param("clientId") Long clientId, @Param("currentDate") LocalDate currentDate);
 
   @Query(
-      "SELECT COUNT(c) FROM Contract c WHERE c.client.id = :clientId AND (c.endDate IS NULL OR c.endDate > :currentDate)")
+      "SELECT COUNT(c) FROM Contract c WHERE c.client.id = :clientId AND c.status = ch.insurance.api.domain.ContractStatus.ACTIVE AND (c.endDate IS NULL OR c.endDate > :currentDate)")
   Long countActiveContractsByClientId(
       @Param("clientId") Long clientId, @Param("currentDate") LocalDate currentDate);
 
+  // One row per existing client, zero totals included; ids that match no client are absent
+  @Query(
+      "SELECT new ch.insurance.api.dto.TotalCostResponse(cl.id, COALESCE(SUM(c.costAmount), 0), COUNT(c)) FROM Client cl LEFT JOIN Contract c ON c.client = cl AND c.status = ch.insurance.api.domain.ContractStatus.ACTIVE AND (c.endDate IS NULL OR c.endDate > :currentDate) WHERE cl.id IN :clientIds GROUP BY cl.id")
+  List<TotalCostResponse> sumActiveContractsCostByClientIds(
+      @Param("clientIds") Collection<Long> clientIds, @Param("currentDate") LocalDate currentDate);
+
   List<Contract> findByClientId(Long clientId);
 }
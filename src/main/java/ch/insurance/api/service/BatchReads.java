@@ -0,0 +1,45 @@
+package ch.insurance.api.service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.http.HttpStatus;
+
+import ch.insurance.api.dto.BatchItem;
+import ch.insurance.api.exception.ResourceNotFoundException;
+
+// Shared by the multi-get reads: one item per distinct requested id, in request order
+final class BatchReads {
+
+  private BatchReads() {}
+
+  static List<Long> distinctIds(List<Long> ids, int maxIds) {
+    LinkedHashSet<Long> distinct = new LinkedHashSet<>(ids);
+    distinct.remove(null);
+    if (distinct.isEmpty()) {
+      throw new IllegalArgumentException("At least one id is required");
+    }
+    if (distinct.size() > maxIds) {
+      throw new IllegalArgumentException("At most " + maxIds + " ids can be requested at once");
+    }
+    return new ArrayList<>(distinct);
+  }
+
+  static <T> List<BatchItem<T>> items(List<Long> ids, Map<Long, T> found, String resource) {
+    List<BatchItem<T>> items = new ArrayList<>(ids.size());
+    for (Long id : ids) {
+      T value = found.get(id);
+      items.add(
+          value != null
+              ? BatchItem.<T>builder().id(id).status(HttpStatus.OK.value()).data(value).build()
+              : BatchItem.<T>builder()
+                  .id(id)
+                  .status(HttpStatus.NOT_FOUND.value())
+                  .error(new ResourceNotFoundException(resource, id).getMessage())
+                  .build());
+    }
+    return items;
+  }
+}
@@ -0,0 +1,388 @@
+package ch.insurance.api.service;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import ch.insurance.api.config.BulkJobProperties;
+import ch.insurance.api.domain.BulkJob;
+import ch.insurance.api.domain.BulkJobError;
+import ch.insurance.api.dto.BulkJobErrorResponse;
+import ch.insurance.api.dto.BulkJobRequest;
+import ch.insurance.api.dto.BulkJobResponse;
+import ch.insurance.api.dto.CompanyRequest;
+import ch.insurance.api.dto.ContractCostUpdateRequest;
+import ch.insurance.api.dto.ContractRepricingItem;
+import ch.insurance.api.dto.ContractTerminationItem;
+import ch.insurance.api.dto.PersonRequest;
+import ch.insurance.api.exception.ResourceNotFoundException;
+import ch.insurance.api.repository.BulkJobErrorRepository;
+import ch.insurance.api.repository.BulkJobRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BulkJobService {
+
+  private static final Set<BulkJob.JobStatus> UNFINISHED =
+      EnumSet.of(BulkJob.JobStatus.PENDING, BulkJob.JobStatus.RUNNING);
+
+  private static final int MAX_ERROR_MESSAGE_LENGTH = 1000;
+
+  private final BulkJobRepository bulkJobRepository;
+  private final BulkJobErrorRepository bulkJobErrorRepository;
+  private final ClientService clientService;
+  private final ContractService contractService;
+  private final Shards shards;
+  private final TransactionTemplate transactionTemplate;
+  private final ExecutorService bulkJobExecutor;
+  private final BulkJobProperties properties;
+  private final ObjectMapper objectMapper;
+  private final Validator validator;
+
+  // Names this instance in the lease of the jobs it runs
+  private final String instanceId = UUID.randomUUID().toString();
+
+  private volatile boolean stopping;
+
+  // Not transactional on purpose: the job row must be committed before a worker looks it up.
+  public BulkJobResponse submitJob(BulkJobRequest request) {
+    String payload;
+    try {
+      payload = objectMapper.writeValueAsString(request.getItems());
+    } catch (JsonProcessingException e) {
+      throw new IllegalArgumentException("Job items could not be serialized", e);
+    }
+
+    BulkJob job =
+        BulkJob.builder()
+            .jobType(request.getJobType())
+            .status(BulkJob.JobStatus.PENDING)
+            .payload(payload)
+            .totalItems(request.getItems().size())
+            .chunkSize(
+                request.getChunkSize() != null
+                    ? request.getChunkSize()
+                    : properties.getDefaultChunkSize())
+            .build();
+
+    BulkJob savedJob = bulkJobRepository.save(job);
+    schedule(savedJob.getId());
+    return mapToResponse(savedJob);
+  }
+
+  @Transactional(readOnly = true)
+  public BulkJobResponse getJob(Long jobId) {
+    return mapToResponse(findJob(jobId));
+  }
+
+  @Transactional(readOnly = true)
+  public List<BulkJobErrorResponse> getJobErrors(Long jobId) {
+    findJob(jobId);
+    return bulkJobErrorRepository.findByJobIdOrderByItemIndexAsc(jobId).stream()
+        .map(this::mapToResponse)
+        .collect(Collectors.toList());
+  }
+
+  @Transactional
+  public BulkJobResponse cancelJob(Long jobId) {
+    BulkJob job = findJob(jobId);
+
+    if (!job.getStatus().isTerminal()) {
+      LocalDateTime now = LocalDateTime.now();
+      bulkJobRepository.requestCancellation(jobId, now);
+      // A job no worker has claimed yet can be cancelled right away; a running one stops at
+      // the next chunk boundary.
+      bulkJobRepository.updateStatus(
+          jobId, EnumSet.of(BulkJob.JobStatus.PENDING), BulkJob.JobStatus.CANCELLED, now);
+      job = findJob(jobId);
+    }
+
+    return mapToResponse(job);
+  }
+
+  // Every instance offers itself for all unfinished jobs; runJob's claim lets only one take each
+  @EventListener(ApplicationReadyEvent.class)
+  public void resumeUnfinishedJobs() {
+    if (!properties.isResumeOnStartup()) {
+      return;
+    }
+    bulkJobRepository.findByStatusIn(UNFINISHED).forEach(job -> schedule(job.getId()));
+  }
+
+  // Running jobs of an instance that died stop renewing their lease; another one picks them up
+  @Scheduled(fixedDelayString = "${insurance.jobs.lease-duration:PT2M}")
+  public void resumeAbandonedJobs() {
+    if (!properties.isResumeOnStartup() || stopping) {
+      return;
+    }
+    bulkJobRepository.findAbandoned(LocalDateTime.now()).forEach(this::schedule);
+  }
+
+  @PreDestroy
+  public void stop() throws InterruptedException {
+    // Let running workers commit their current chunk and give up their lease; unfinished jobs
+    // resume on the next startup or on another instance.
+    stopping = true;
+    bulkJobExecutor.shutdown();
+    bulkJobExecutor.awaitTermination(30, TimeUnit.SECONDS);
+  }
+
+  /**
+   * Runs the job if this instance can claim it: a pending job, or a running one whose lease has
+   * expired. The lease is renewed before every chunk, and a worker that finds it taken over stops
+   * without touching the job again. A chunk commits its progress only while its worker still owns
+   * the job, in the same transaction as its items, so a chunk that outlasts the lease is rolled
+   * back rather than written twice. Items of the chunk in flight when an owner dies run again under
+   * the next one, as they do after a restart.
+   */
+  void runJob(Long jobId) {
+    LocalDateTime now = LocalDateTime.now();
+    Integer claimed =
+        transactionTemplate.execute(
+            status ->
+                bulkJobRepository.claim(
+                    jobId, instanceId, now, now.plus(properties.getLeaseDuration())));
+    if (claimed == null || claimed == 0) {
+      return;
+    }
+
+    try {
+      BulkJob job = transactionTemplate.execute(status -> findJob(jobId));
+      List<JsonNode> items = readItems(job.getPayload());
+      int index = job.getProcessedItems();
+
+      while (index < items.size()) {
+        if (stopping) {
+          releaseLease(jobId);
+          return;
+        }
+        if (bulkJobRepository.isCancelRequested(jobId)) {
+          finishJob(jobId, BulkJob.JobStatus.CANCELLED);
+          return;
+        }
+        if (!renewLease(jobId)) {
+          log.warn("Bulk job {} was taken over by another instance", jobId);
+          return;
+        }
+        int end = Math.min(index + job.getChunkSize(), items.size());
+        processChunk(job, items, index, end);
+        index = end;
+      }
+
+      finishJob(jobId, BulkJob.JobStatus.COMPLETED);
+    } catch (LeaseLostException ex) {
+      log.warn("Bulk job {} was taken over by another instance mid-chunk", jobId);
+    } catch (RuntimeException ex) {
+      if (stopping) {
+        releaseLease(jobId);
+        return;
+      }
+      log.error("Bulk job {} failed", jobId, ex);
+      finishJob(jobId, BulkJob.JobStatus.FAILED);
+    }
+  }
+
+  private void schedule(Long jobId) {
+    bulkJobExecutor.execute(() -> runJob(jobId));
+  }
+
+  private void processChunk(BulkJob job, List<JsonNode> items, int start, int end) {
+    if (shards.count() > 1) {
+      for (int i = start; i < end; i++) {
+        processItemAlone(job, items.get(i), i);
+      }
+      return;
+    }
+    try {
+      transactionTemplate.executeWithoutResult(
+          status -> {
+            for (int i = start; i < end; i++) {
+              processItem(job.getJobType(), items.get(i));
+            }
+            recordProgress(job.getId(), end - start, 0);
+          });
+    } catch (LeaseLostException lost) {
+      throw lost;
+    } catch (RuntimeException chunkFailure) {
+      // The whole chunk was rolled back; replay it item by item so one bad item does not
+      // discard the good ones, and record which items failed.
+      for (int i = start; i < end; i++) {
+        processItemAlone(job, items.get(i), i);
+      }
+    }
+  }
+
+  private void processItemAlone(BulkJob job, JsonNode item, int itemIndex) {
+    try {
+      if (shards.count() > 1) {
+        // The item commits on its client's shard and the job row lives on the first one, so no
+        // transaction covers both: an item may run twice if the job stops or loses its lease in
+        // between
+        processItem(job.getJobType(), item);
+        transactionTemplate.executeWithoutResult(status -> recordProgress(job.getId(), 1, 0));
+        return;
+      }
+      transactionTemplate.executeWithoutResult(
+          status -> {
+            processItem(job.getJobType(), item);
+            recordProgress(job.getId(), 1, 0);
+          });
+    } catch (LeaseLostException lost) {
+      throw lost;
+    } catch (RuntimeException itemFailure) {
+      transactionTemplate.executeWithoutResult(
+          status -> {
+            bulkJobErrorRepository.save(
+                BulkJobError.builder()
+                    .jobId(job.getId())
+                    .itemIndex(itemIndex)
+                    .message(describe(itemFailure))
+                    .build());
+            recordProgress(job.getId(), 1, 1);
+          });
+    }
+  }
+
+  private void processItem(BulkJob.JobType jobType, JsonNode item) {
+    switch (jobType) {
+      case PERSON_IMPORT -> clientService.createPerson(readItem(item, PersonRequest.class));
+      case COMPANY_IMPORT -> clientService.createCompany(readItem(item, CompanyRequest.class));
+      case CONTRACT_REPRICING -> {
+        ContractRepricingItem repricing = readItem(item, ContractRepricingItem.class);
+        contractService.updateContractCost(
+            repricing.getContractId(),
+            ContractCostUpdateRequest.builder().costAmount(repricing.getCostAmount()).build());
+      }
+      case CONTRACT_TERMINATION ->
+          contractService.deleteContract(
+              readItem(item, ContractTerminationItem.class).getContractId());
+    }
+  }
+
+  private <T> T readItem(JsonNode item, Class<T> type) {
+    T value;
+    try {
+      value = objectMapper.treeToValue(item, type);
+    } catch (JsonProcessingException e) {
+      throw new IllegalArgumentException("Malformed item: " + e.getOriginalMessage());
+    }
+
+    Set<ConstraintViolation<T>> violations = validator.validate(value);
+    if (!violations.isEmpty()) {
+      throw new IllegalArgumentException(
+          violations.stream()
+              .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+              .sorted()
+              .collect(Collectors.joining(", ")));
+    }
+    return value;
+  }
+
+  private List<JsonNode> readItems(String payload) {
+    try {
+      return objectMapper.readerForListOf(JsonNode.class).readValue(payload);
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Stored job payload is unreadable", e);
+    }
+  }
+
+  // Joins the transaction of the chunk's items, which rolls back with it once the lease is gone
+  private void recordProgress(Long jobId, int processed, int failed) {
+    if (bulkJobRepository.recordProgress(jobId, instanceId, processed, failed, LocalDateTime.now())
+        == 0) {
+      throw new LeaseLostException();
+    }
+  }
+
+  private boolean renewLease(Long jobId) {
+    Integer renewed =
+        transactionTemplate.execute(
+            status ->
+                bulkJobRepository.renewLease(
+                    jobId, instanceId, LocalDateTime.now().plus(properties.getLeaseDuration())));
+    return renewed != null && renewed > 0;
+  }
+
+  // Expires the lease now, so the next instance to look can resume the job without waiting
+  private void releaseLease(Long jobId) {
+    try {
+      transactionTemplate.executeWithoutResult(
+          status -> bulkJobRepository.renewLease(jobId, instanceId, LocalDateTime.now()));
+    } catch (RuntimeException ex) {
+      log.warn("Could not release the lease of bulk job {}", jobId, ex);
+    }
+  }
+
+  // Only the lease owner finishes the job, so a worker that lost it cannot overwrite the outcome
+  private void finishJob(Long jobId, BulkJob.JobStatus status) {
+    transactionTemplate.executeWithoutResult(
+        tx -> bulkJobRepository.complete(jobId, instanceId, status, LocalDateTime.now()));
+  }
+
+  private BulkJob findJob(Long jobId) {
+    return bulkJobRepository
+        .findById(jobId)
+        .orElseThrow(() -> new ResourceNotFoundException("Job", jobId));
+  }
+
+  private String describe(RuntimeException ex) {
+    String message = ex.getMessage() != null ? ex.getMessage() : ex.getClass().getSimpleName();
+    return message.length() > MAX_ERROR_MESSAGE_LENGTH
+        ? message.substring(0, MAX_ERROR_MESSAGE_LENGTH)
+        : message;
+  }
+
+  private BulkJobResponse mapToResponse(BulkJob job) {
+    return BulkJobResponse.builder()
+        .id(job.getId())
+        .jobType(job.getJobType().name())
+        .status(job.getStatus().name())
+        .totalItems(job.getTotalItems())
+        .processedItems(job.getProcessedItems())
+        .failedItems(job.getFailedItems())
+        .chunkSize(job.getChunkSize())
+        .cancelRequested(job.isCancelRequested())
+        .createdAt(job.getCreatedAt())
+        .updatedAt(job.getUpdatedAt())
+        .completedAt(job.getCompletedAt())
+        .build();
+  }
+
+  private BulkJobErrorResponse mapToResponse(BulkJobError error) {
+    return BulkJobErrorResponse.builder()
+        .itemIndex(error.getItemIndex())
+        .message(error.getMessage())
+        .createdAt(error.getCreatedAt())
+        .build();
+  }
+
+  private static class LeaseLostException extends RuntimeException {
+
+    LeaseLostException() {
+      super("The job was taken over by another instance", null, false, false);
+    }
+  }
+}
@@ -0,0 +1,39 @@
+package ch.insurance.api.service;
+
+import jakarta.persistence.EntityManager;
+
+import org.hibernate.cache.spi.TimestampsCache;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import lombok.RequiredArgsConstructor;
+
+// Plain JDBC writes bypass Hibernate, so cached query results over the tables they touch must be
+// invalidated by hand. This follows Hibernate's own protocol for native updates: the tables are
+// flagged as being written until the transaction ends, then stamped with its completion time, so
+// a result read before the write can neither be cached meanwhile nor served afterwards.
+@Component
+@RequiredArgsConstructor
+public class CacheInvalidation {
+
+  private final EntityManager entityManager;
+
+  public void invalidateQueriesOnCompletion(String... tables) {
+    if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+      throw new IllegalStateException("Query cache invalidation requires a transaction");
+    }
+    SharedSessionContractImplementor session =
+        entityManager.unwrap(SharedSessionContractImplementor.class);
+    TimestampsCache timestamps = session.getFactory().getCache().getTimestampsCache();
+    timestamps.preInvalidate(tables, session);
+    TransactionSynchronizationManager.registerSynchronization(
+        new TransactionSynchronization() {
+          @Override
+          public void afterCompletion(int status) {
+            timestamps.invalidate(tables, session);
+          }
+        });
+  }
+}
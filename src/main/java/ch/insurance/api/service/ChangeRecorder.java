@@ -0,0 +1,137 @@
+package ch.insurance.api.service;
+
+import java.time.Instant;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import ch.insurance.api.audit.AuditAction;
+import ch.insurance.api.audit.AuditEvent;
+import ch.insurance.api.audit.AuditTrail;
+import ch.insurance.api.config.AuditProperties;
+import ch.insurance.api.journal.ChangeJournal;
+import ch.insurance.api.journal.ChangeType;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Reports each client and contract write to the change journal, the audit trail and the contract
+ * analytics. All are fed after commit, so none sees a change that rolled back; a crash between the
+ * commit and the hand-off loses that change's records. The journal payload is rendered inside the
+ * transaction, audited states are rendered later by the audit writer.
+ */
+@Slf4j
+@Component
+public class ChangeRecorder {
+
+  static final String SYSTEM_ACTOR = "system";
+  static final String ANONYMOUS_ACTOR = "anonymous";
+
+  private static final byte[] NO_PAYLOAD = new byte[0];
+
+  private final ChangeJournal journal;
+  private final AuditTrail auditTrail;
+  private final ObjectMapper objectMapper;
+  private final AuditProperties auditProperties;
+  private final ContractAnalyticsService analytics;
+
+  public ChangeRecorder(
+      ObjectProvider<ChangeJournal> journal,
+      AuditTrail auditTrail,
+      ObjectMapper objectMapper,
+      AuditProperties auditProperties,
+      ObjectProvider<ContractAnalyticsService> analytics) {
+    this.journal = journal.getIfAvailable();
+    this.analytics = analytics.getIfAvailable();
+    this.auditTrail = auditTrail;
+    this.objectMapper = objectMapper;
+    this.auditProperties = auditProperties;
+  }
+
+  /**
+   * @param before the entity as it was, null for a creation
+   * @param after the entity as it is now, null for a deletion
+   */
+  public void record(ChangeType type, long entityId, Object before, Object after) {
+    record(type, entityId, before, after, currentActor());
+  }
+
+  // For writes carried out on another thread than the request's, see ContractBatchWriter
+  void record(ChangeType type, long entityId, Object before, Object after, String actor) {
+    byte[] payload = journal != null ? payload(type, entityId, after) : null;
+    AuditEvent event =
+        auditProperties.isEnabled()
+            ? new AuditEvent(
+                Instant.now(), actor, auditAction(type), entityType(type), entityId, before, after)
+            : null;
+    if (payload == null && event == null && analytics == null) {
+      return;
+    }
+    AfterCommit.run(
+        () -> {
+          if (event != null) {
+            auditTrail.record(event);
+          }
+          if (analytics != null) {
+            try {
+              analytics.apply(type, after);
+            } catch (RuntimeException e) {
+              log.error("Could not apply {} {} to the contract analytics", type, entityId, e);
+            }
+          }
+          if (payload != null) {
+            try {
+              journal.append(type, entityId, payload);
+            } catch (RuntimeException e) {
+              // The change is committed: failing the request now would only invite a retry
+              log.error("Could not journal {} {}", type, entityId, e);
+            }
+          }
+        });
+  }
+
+  private byte[] payload(ChangeType type, long entityId, Object after) {
+    if (after == null) {
+      return NO_PAYLOAD;
+    }
+    try {
+      return objectMapper.writeValueAsBytes(after);
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Could not render " + type + " " + entityId, e);
+    }
+  }
+
+  String currentActor() {
+    RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+    if (attributes instanceof ServletRequestAttributes servletAttributes) {
+      String actor = servletAttributes.getRequest().getHeader(auditProperties.getActorHeader());
+      if (actor != null && !actor.isBlank()) {
+        return actor;
+      }
+      return ANONYMOUS_ACTOR;
+    }
+    // Bulk jobs and scheduled work run outside any request
+    return SYSTEM_ACTOR;
+  }
+
+  private static AuditAction auditAction(ChangeType type) {
+    return switch (type) {
+      case CLIENT_CREATED, CONTRACT_CREATED -> AuditAction.CREATE;
+      case CLIENT_UPDATED, CONTRACT_UPDATED -> AuditAction.UPDATE;
+      // Ending a contract is what DELETE /api/contracts/{contractId} does
+      case CLIENT_DELETED, CONTRACT_ENDED -> AuditAction.DELETE;
+    };
+  }
+
+  private static String entityType(ChangeType type) {
+    return switch (type) {
+      case CLIENT_CREATED, CLIENT_UPDATED, CLIENT_DELETED -> "Client";
+      case CONTRACT_CREATED, CONTRACT_UPDATED, CONTRACT_ENDED -> "Contract";
+    };
+  }
+}
@@ -0,0 +1,128 @@
+package ch.insurance.api.service;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import ch.insurance.api.config.ClientEmailProperties;
+import ch.insurance.api.repository.ClientEmailView;
+import ch.insurance.api.repository.ClientRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+// Negative cache for client emails: the filter only lets a lookup or uniqueness check skip the
+// query when the email was never seen. It is per instance, so with several instances a
+// just-created email may read as missing on the others until their next restart. What finally
+// rejects a duplicate is the unique index on clients.email, and each shard's index only sees its
+// own rows: creates go to the shard their email hashes to, so two creates of one email always meet
+// there, but a client keeps its shard when its email changes, so with sharding an email change
+// racing a create or another change to the same email can leave both in place.
+@Slf4j
+@Service
+public class ClientEmailIndex {
+
+  private final ClientRepository clientRepository;
+  private final Shards shards;
+  private final ClientEmailProperties properties;
+  private final Counter skippedLookups;
+
+  // Null until the startup rebuild has gone through every client: until then all checks hit the DB
+  private volatile BloomFilter filter;
+  private volatile BloomFilter building;
+
+  public ClientEmailIndex(
+      ClientRepository clientRepository,
+      Shards shards,
+      ClientEmailProperties properties,
+      MeterRegistry registry) {
+    this.clientRepository = clientRepository;
+    this.shards = shards;
+    this.properties = properties;
+    this.skippedLookups =
+        Counter.builder("insurance.clients.email_filter.skipped")
+            .description("Email lookups answered as absent without a database query")
+            .register(registry);
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void rebuild() {
+    if (!properties.isFilterEnabled()) {
+      return;
+    }
+    long clients =
+        shards.fanOut(shard -> List.of(clientRepository.count())).stream()
+            .mapToLong(Long::longValue)
+            .sum();
+    BloomFilter next =
+        new BloomFilter(
+            Math.max(properties.getExpectedInsertions(), clients * 2),
+            properties.getFalsePositiveRate());
+    // Emails committed from here on are added by the write path, older ones by the scan below
+    building = next;
+
+    AtomicLong loaded = new AtomicLong();
+    shards.forEach(shard -> loaded.addAndGet(load(next)));
+
+    filter = next;
+    building = null;
+    log.info(
+        "Client email filter ready: {} emails, {} bits, {} hashes",
+        loaded.get(),
+        next.getBitCount(),
+        next.getHashCount());
+  }
+
+  private long load(BloomFilter next) {
+    long afterId = 0;
+    long loaded = 0;
+    List<ClientEmailView> page;
+    do {
+      page =
+          clientRepository.findEmailsAfter(
+              afterId, PageRequest.ofSize(properties.getRebuildPageSize()));
+      for (ClientEmailView client : page) {
+        next.put(client.getEmail());
+        afterId = client.getId();
+      }
+      loaded += page.size();
+    } while (page.size() == properties.getRebuildPageSize());
+    return loaded;
+  }
+
+  public boolean mightExist(String email) {
+    BloomFilter current = filter;
+    if (current == null || current.mightContain(email)) {
+      return true;
+    }
+    skippedLookups.increment();
+    return false;
+  }
+
+  public boolean exists(String email) {
+    return mightExist(email)
+        && !shards
+            .fanOut(shard -> clientRepository.existsByEmail(email) ? List.of(shard) : List.of())
+            .isEmpty();
+  }
+
+  // Deferred to commit so that a rolled-back insert does not leave a stale positive behind
+  public void add(String email) {
+    AfterCommit.run(() -> put(email));
+  }
+
+  private void put(String email) {
+    BloomFilter current = filter;
+    if (current != null) {
+      current.put(email);
+    }
+    BloomFilter next = building;
+    if (next != null) {
+      next.put(email);
+    }
+  }
+}
@@ -0,0 +1,549 @@
+package ch.insurance.api.service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import ch.insurance.api.collection.LongIntMap;
+import ch.insurance.api.config.ClientSearchProperties;
+import ch.insurance.api.domain.Client;
+import ch.insurance.api.domain.Company;
+import ch.insurance.api.domain.Person;
+import ch.insurance.api.dto.ClientSearchResult;
+import ch.insurance.api.repository.ClientRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-process search over person names, company names and identifiers, and emails. Every token is
+ * cut into trigrams, with a leading boundary marker so that a prefix matches, and each trigram
+ * keeps a sorted int[] of document ordinals, found through a primitive map with no per-trigram
+ * objects. A query merges the posting lists of its trigrams, keeps the clients that share enough of
+ * them, and ranks exact and prefix token matches first.
+ */
+@Slf4j
+@Service
+public class ClientSearchIndex {
+
+  private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+  private static final Pattern SEPARATORS = Pattern.compile("[^\\p{Alnum}]+");
+  private static final char BOUNDARY = '^';
+  private static final int MIN_TERM_LENGTH = 2;
+  private static final int INITIAL_CAPACITY = 1024;
+  private static final Client.ClientType[] TYPES = Client.ClientType.values();
+
+  private final ClientRepository clientRepository;
+  private final Shards shards;
+  private final ClientSearchProperties properties;
+  private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+  // Everything below is guarded by lock. Ordinals are append-only: an update appends a new
+  // document and kills the old one, and compaction renumbers once dead documents dominate.
+  // Trigram -> posting list number; list n is the first postingSizes[n] ordinals of postingDocs[n]
+  private LongIntMap postingLists = new LongIntMap(INITIAL_CAPACITY);
+  private int[][] postingDocs = new int[INITIAL_CAPACITY][];
+  private int[] postingSizes = new int[INITIAL_CAPACITY];
+  private int gramCount;
+  private LongIntMap ordinals = new LongIntMap(INITIAL_CAPACITY);
+  private long[] ids = new long[INITIAL_CAPACITY];
+  private byte[] types = new byte[INITIAL_CAPACITY];
+  private String[] names = new String[INITIAL_CAPACITY];
+  private String[] emails = new String[INITIAL_CAPACITY];
+  private String[] texts = new String[INITIAL_CAPACITY];
+  private int size;
+  private int dead;
+  private boolean rebuilding;
+  private final Set<Long> removedDuringRebuild = new HashSet<>();
+
+  public ClientSearchIndex(
+      ClientRepository clientRepository,
+      Shards shards,
+      ClientSearchProperties properties,
+      MeterRegistry registry) {
+    this.clientRepository = clientRepository;
+    this.shards = shards;
+    this.properties = properties;
+    Gauge.builder("insurance.clients.search.documents", this, ClientSearchIndex::getDocumentCount)
+        .description("Clients held by the in-memory search index")
+        .register(registry);
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void rebuild() {
+    withWriteLock(
+        () -> {
+          rebuilding = true;
+          removedDuringRebuild.clear();
+        });
+
+    shards.forEach(shard -> load(properties.getRebuildPageSize()));
+
+    withWriteLock(
+        () -> {
+          rebuilding = false;
+          removedDuringRebuild.clear();
+          trimPostings();
+        });
+    log.info("Client search index ready: {} clients, {} trigrams", getDocumentCount(), gramCount);
+  }
+
+  private void load(int pageSize) {
+    long afterId = 0;
+    List<Client> page;
+    do {
+      page =
+          clientRepository.findByIdGreaterThanOrderByIdAsc(afterId, PageRequest.ofSize(pageSize));
+      List<Document> documents = page.stream().map(Document::of).toList();
+      withWriteLock(
+          () -> {
+            for (Document document : documents) {
+              // Writes committed meanwhile are newer than this page: never overwrite them
+              if (!removedDuringRebuild.contains(document.id())) {
+                upsert(document, false);
+              }
+            }
+          });
+      if (!page.isEmpty()) {
+        afterId = page.get(page.size() - 1).getId();
+      }
+    } while (page.size() == pageSize);
+  }
+
+  public void index(Client client) {
+    Document document = Document.of(client);
+    AfterCommit.run(() -> withWriteLock(() -> upsert(document, true)));
+  }
+
+  public void remove(Long clientId) {
+    AfterCommit.run(() -> withWriteLock(() -> delete(clientId)));
+  }
+
+  public List<ClientSearchResult> search(String query, Integer limit) {
+    List<String> terms = terms(query == null ? "" : query);
+    if (terms.isEmpty()) {
+      throw new IllegalArgumentException(
+          "Search query must contain at least " + MIN_TERM_LENGTH + " letters or digits");
+    }
+    int topK =
+        Math.max(
+            1,
+            Math.min(
+                limit != null ? limit : properties.getDefaultLimit(), properties.getMaxLimit()));
+    long[] grams = grams(terms);
+    int needed = Math.max(1, (int) Math.ceil(properties.getMinSimilarity() * grams.length));
+
+    // Prefix and exact-token probes for the re-ranking step; texts are stored space-delimited
+    String[] prefixes = terms.stream().map(term -> " " + term).toArray(String[]::new);
+    String[] exact = terms.stream().map(term -> " " + term + " ").toArray(String[]::new);
+    int[] termGrams =
+        terms.stream().mapToInt(term -> grams(List.of(term)).length).sorted().toArray();
+    boolean disjointTerms = Arrays.stream(termGrams).sum() == grams.length;
+
+    ReentrantReadWriteLock.ReadLock readLock = lock.readLock();
+    readLock.lock();
+    try {
+      int[] lists = new int[grams.length];
+      int listCount = 0;
+      for (long gram : grams) {
+        int list = postingLists.get(gram);
+        if (list != LongIntMap.MISSING) {
+          lists[listCount++] = list;
+        }
+      }
+      if (listCount < needed) {
+        return List.of();
+      }
+
+      PriorityQueue<Hit> top = new PriorityQueue<>(topK + 1, Hit.WORST_FIRST);
+      SearchBuffer buffer = BUFFERS.get().ensureCapacity(size);
+      int[] counts = buffer.counts;
+      try {
+        // How many query trigrams each client shares, touching only the clients that have any
+        int touched = 0;
+        for (int l = 0; l < listCount; l++) {
+          int[] docs = postingDocs[lists[l]];
+          int docCount = postingSizes[lists[l]];
+          for (int i = 0; i < docCount; i++) {
+            int ordinal = docs[i];
+            if (counts[ordinal]++ == 0) {
+              touched = buffer.touch(touched, ordinal);
+            }
+          }
+        }
+
+        // Visit candidates from the most shared trigrams down and stop as soon as no remaining
+        // candidate can beat the current top K, whatever its token bonus
+        int[] byCount = buffer.sortByCount(touched, listCount);
+        int[] levelStart = buffer.levelStart;
+        levels:
+        for (int shared = listCount; shared >= needed; shared--) {
+          double similarity = (double) shared / grams.length;
+          double bound = similarity + maxTokenBonus(shared, termGrams, disjointTerms);
+          for (int i = levelStart[shared]; i < levelStart[shared + 1]; i++) {
+            if (top.size() == topK && bound <= top.peek().score()) {
+              break levels;
+            }
+            int ordinal = byCount[i];
+            if (texts[ordinal] == null) {
+              continue;
+            }
+            double score = similarity + tokenBonus(texts[ordinal], prefixes, exact);
+            if (top.size() < topK) {
+              top.add(new Hit(ordinal, score));
+            } else if (score > top.peek().score()) {
+              top.poll();
+              top.add(new Hit(ordinal, score));
+            }
+          }
+        }
+      } finally {
+        buffer.reset();
+      }
+
+      List<ClientSearchResult> results = new ArrayList<>(top.size());
+      while (!top.isEmpty()) {
+        Hit hit = top.poll();
+        results.add(
+            ClientSearchResult.builder()
+                .id(ids[hit.ordinal()])
+                .clientType(TYPES[types[hit.ordinal()]].name())
+                .name(names[hit.ordinal()])
+                .email(emails[hit.ordinal()])
+                .score(Math.round(hit.score() * 1000) / 1000d)
+                .build());
+      }
+      return results.reversed();
+    } finally {
+      readLock.unlock();
+    }
+  }
+
+  public int getDocumentCount() {
+    ReentrantReadWriteLock.ReadLock readLock = lock.readLock();
+    readLock.lock();
+    try {
+      return size - dead;
+    } finally {
+      readLock.unlock();
+    }
+  }
+
+  // Up to one extra point: a full token match counts twice as much as a prefix match
+  private static double tokenBonus(String text, String[] prefixes, String[] exact) {
+    double bonus = 0;
+    for (int i = 0; i < prefixes.length; i++) {
+      if (text.contains(exact[i])) {
+        bonus += 1;
+      } else if (text.contains(prefixes[i])) {
+        bonus += 0.5;
+      }
+    }
+    return bonus / prefixes.length;
+  }
+
+  // A term can only match a token, fully or as a prefix, if the client shares all its trigrams:
+  // with `shared` trigrams at most the cheapest terms can be covered. Overlapping terms share
+  // trigrams, which breaks that count, so they get the loose bound of one full point.
+  private static double maxTokenBonus(int shared, int[] sortedTermGrams, boolean disjointTerms) {
+    if (!disjointTerms) {
+      return 1;
+    }
+    int covered = 0;
+    int used = 0;
+    for (int termGrams : sortedTermGrams) {
+      if (used + termGrams > shared) {
+        break;
+      }
+      used += termGrams;
+      covered++;
+    }
+    return (double) covered / sortedTermGrams.length;
+  }
+
+  private void upsert(Document document, boolean replace) {
+    int existing = ordinals.get(document.id());
+    if (existing != LongIntMap.MISSING) {
+      if (!replace) {
+        return;
+      }
+      kill(existing);
+    }
+    if (rebuilding && replace) {
+      removedDuringRebuild.remove(document.id());
+    }
+    int ordinal = append(document);
+    ordinals.put(document.id(), ordinal);
+    addPostings(ordinal, document.text());
+
+    if (dead > INITIAL_CAPACITY && dead > size / 2) {
+      compact();
+    }
+  }
+
+  private void delete(Long clientId) {
+    int existing = ordinals.get(clientId);
+    if (existing != LongIntMap.MISSING) {
+      kill(existing);
+      ordinals.put(clientId, LongIntMap.MISSING);
+    }
+    if (rebuilding) {
+      removedDuringRebuild.add(clientId);
+    }
+  }
+
+  private int append(Document document) {
+    if (size == ids.length) {
+      int capacity = size + (size >> 1);
+      ids = Arrays.copyOf(ids, capacity);
+      types = Arrays.copyOf(types, capacity);
+      names = Arrays.copyOf(names, capacity);
+      emails = Arrays.copyOf(emails, capacity);
+      texts = Arrays.copyOf(texts, capacity);
+    }
+    ids[size] = document.id();
+    types[size] = (byte) document.type().ordinal();
+    names[size] = document.name();
+    emails[size] = document.email();
+    texts[size] = document.text();
+    return size++;
+  }
+
+  private void addPostings(int ordinal, String text) {
+    for (long gram : grams(Arrays.asList(text.strip().split(" ")))) {
+      int list = postingLists.get(gram);
+      if (list == LongIntMap.MISSING) {
+        list = newPostingList(gram);
+      }
+      int[] docs = postingDocs[list];
+      int docCount = postingSizes[list];
+      // Ordinals only grow, so appending keeps the list sorted
+      if (docCount > 0 && docs[docCount - 1] == ordinal) {
+        continue;
+      }
+      if (docCount == docs.length) {
+        docs = Arrays.copyOf(docs, docCount + (docCount >> 1) + 1);
+        postingDocs[list] = docs;
+      }
+      docs[docCount] = ordinal;
+      postingSizes[list] = docCount + 1;
+    }
+  }
+
+  private int newPostingList(long gram) {
+    if (gramCount == postingDocs.length) {
+      int capacity = gramCount + (gramCount >> 1);
+      postingDocs = Arrays.copyOf(postingDocs, capacity);
+      postingSizes = Arrays.copyOf(postingSizes, capacity);
+    }
+    postingDocs[gramCount] = new int[4];
+    postingLists.put(gram, gramCount);
+    return gramCount++;
+  }
+
+  private void trimPostings() {
+    for (int list = 0; list < gramCount; list++) {
+      if (postingDocs[list].length != postingSizes[list]) {
+        postingDocs[list] = Arrays.copyOf(postingDocs[list], postingSizes[list]);
+      }
+    }
+  }
+
+  private void kill(int ordinal) {
+    names[ordinal] = null;
+    emails[ordinal] = null;
+    texts[ordinal] = null;
+    dead++;
+  }
+
+  // Renumbers live documents densely and rebuilds the postings without the dead ordinals
+  private void compact() {
+    int live = size - dead;
+    long[] oldIds = ids;
+    byte[] oldTypes = types;
+    String[] oldNames = names;
+    String[] oldEmails = emails;
+    String[] oldTexts = texts;
+    int oldSize = size;
+
+    int capacity = Math.max(INITIAL_CAPACITY, live + (live >> 1));
+    ids = new long[capacity];
+    types = new byte[capacity];
+    names = new String[capacity];
+    emails = new String[capacity];
+    texts = new String[capacity];
+    int grams = Math.max(INITIAL_CAPACITY, gramCount);
+    postingLists = new LongIntMap(grams);
+    postingDocs = new int[grams][];
+    postingSizes = new int[grams];
+    gramCount = 0;
+    ordinals = new LongIntMap(capacity);
+    size = 0;
+    dead = 0;
+
+    for (int i = 0; i < oldSize; i++) {
+      if (oldTexts[i] != null) {
+        Document document =
+            new Document(oldIds[i], TYPES[oldTypes[i]], oldNames[i], oldEmails[i], oldTexts[i]);
+        int ordinal = append(document);
+        ordinals.put(document.id(), ordinal);
+        addPostings(ordinal, document.text());
+      }
+    }
+    trimPostings();
+  }
+
+  private void withWriteLock(Runnable action) {
+    ReentrantReadWriteLock.WriteLock writeLock = lock.writeLock();
+    writeLock.lock();
+    try {
+      action.run();
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  static String normalize(String value) {
+    String decomposed = Normalizer.normalize(value, Normalizer.Form.NFD);
+    return MARKS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+  }
+
+  static List<String> terms(String value) {
+    return Arrays.stream(SEPARATORS.split(normalize(value)))
+        .filter(term -> term.length() >= MIN_TERM_LENGTH)
+        .distinct()
+        .toList();
+  }
+
+  // Distinct trigrams of "^token", packed as three 16-bit chars in one long
+  static long[] grams(List<String> terms) {
+    int count = 0;
+    for (String term : terms) {
+      count += Math.max(0, term.length() - 1);
+    }
+    long[] grams = new long[count];
+    int n = 0;
+    for (String term : terms) {
+      for (int i = 0; i + 1 < term.length(); i++) {
+        char first = i == 0 ? BOUNDARY : term.charAt(i - 1);
+        grams[n++] = ((long) first << 32) | ((long) term.charAt(i) << 16) | term.charAt(i + 1);
+      }
+    }
+    Arrays.sort(grams, 0, n);
+    int distinct = 0;
+    for (int i = 0; i < n; i++) {
+      if (distinct == 0 || grams[distinct - 1] != grams[i]) {
+        grams[distinct++] = grams[i];
+      }
+    }
+    return Arrays.copyOf(grams, distinct);
+  }
+
+  record Document(long id, Client.ClientType type, String name, String email, String text) {
+
+    static Document of(Client client) {
+      StringBuilder searchable = new StringBuilder(client.getEmail());
+      String name;
+      if (client instanceof Person person) {
+        name = person.getName();
+        searchable.append(' ').append(name);
+      } else if (client instanceof Company company) {
+        name = company.getDisplayName();
+        searchable
+            .append(' ')
+            .append(company.getCompanyName())
+            .append(' ')
+            .append(company.getCompanyIdentifier());
+      } else {
+        name = null;
+      }
+      String text = " " + String.join(" ", terms(searchable.toString())) + " ";
+      Client.ClientType type =
+          client.getClientType() != null
+              ? client.getClientType()
+              : client instanceof Company ? Client.ClientType.COMPANY : Client.ClientType.PERSON;
+      return new Document(client.getId(), type, name, client.getEmail(), text);
+    }
+  }
+
+  private record Hit(int ordinal, double score) {
+
+    static final Comparator<Hit> WORST_FIRST =
+        Comparator.comparingDouble(Hit::score)
+            .thenComparing(Hit::ordinal, Comparator.reverseOrder());
+  }
+
+  private static final ThreadLocal<SearchBuffer> BUFFERS =
+      ThreadLocal.withInitial(SearchBuffer::new);
+
+  // Per-thread scratch arrays so a query allocates nothing proportional to the index size
+  private static final class SearchBuffer {
+
+    private int[] counts = new int[0];
+    private int[] touched = new int[256];
+    private int[] sorted = new int[256];
+    private int[] levelStart = new int[0];
+    private int touchedCount;
+
+    SearchBuffer ensureCapacity(int documents) {
+      if (counts.length < documents) {
+        counts = new int[documents + (documents >> 2)];
+      }
+      return this;
+    }
+
+    int touch(int index, int ordinal) {
+      if (index == touched.length) {
+        touched = Arrays.copyOf(touched, index * 2);
+      }
+      touched[index] = ordinal;
+      touchedCount = index + 1;
+      return touchedCount;
+    }
+
+    // Counting sort of the touched ordinals by shared trigram count; levelStart[c] is where
+    // the clients sharing exactly c trigrams begin
+    int[] sortByCount(int touchedSize, int maxCount) {
+      if (levelStart.length < maxCount + 2) {
+        levelStart = new int[maxCount + 2];
+      } else {
+        Arrays.fill(levelStart, 0);
+      }
+      if (sorted.length < touchedSize) {
+        sorted = new int[touched.length];
+      }
+      for (int i = 0; i < touchedSize; i++) {
+        levelStart[counts[touched[i]] + 1]++;
+      }
+      for (int c = 1; c < maxCount + 2; c++) {
+        levelStart[c] += levelStart[c - 1];
+      }
+      int[] next = Arrays.copyOf(levelStart, maxCount + 1);
+      for (int i = 0; i < touchedSize; i++) {
+        int ordinal = touched[i];
+        sorted[next[counts[ordinal]]++] = ordinal;
+      }
+      return sorted;
+    }
+
+    void reset() {
+      for (int i = 0; i < touchedCount; i++) {
+        counts[touched[i]] = 0;
+      }
+      touchedCount = 0;
+    }
+  }
+}
@@ -3,20 +3,31 @@ package ch.insurance.api.service;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import ch.insurance.api.config.BatchReadProperties;
+import ch.insurance.api.datasource.ShardKey;
 import ch.insurance.api.domain.Client;
 import ch.insurance.api.domain.Company;
 import ch.insurance.api.domain.Contract;
 import ch.insurance.api.domain.Person;
+import ch.insurance.api.dto.BatchItem;
 import ch.insurance.api.dto.ClientResponse;
+import ch.insurance.api.dto.ClientSearchResult;
 import ch.insurance.api.dto.ClientUpdateRequest;
 import ch.insurance.api.dto.CompanyRequest;
+import ch.insurance.api.dto.ContractResponse;
 import ch.insurance.api.dto.PersonRequest;
+import ch.insurance.api.exception.DuplicateResourceException;
 import ch.insurance.api.exception.ResourceNotFoundException;
+import ch.insurance.api.journal.ChangeType;
+import ch.insurance.api.json.SerializedResponseCache;
 import ch.insurance.api.repository.ClientRepository;
 import ch.insurance.api.repository.ContractRepository;
 import lombok.RequiredArgsConstructor;
@@ -27,6 +38,15 @@ public class ClientService {
 
   private final ClientRepository clientRepository;
   private final ContractRepository contractRepository;
+  private final SingleFlight<Long, ClientResponse> clientByIdSingleFlight;
+  private final ClientEmailIndex clientEmailIndex;
+  private final ClientSearchIndex clientSearchIndex;
+  private final MissingIdCache missingClientIds;
+  private final SerializedResponseCache<ClientResponse> clientResponseCache;
+  private final SerializedResponseCache<ContractResponse> contractResponseCache;
+  private final BatchReadProperties batchReadProperties;
+  private final Shards shards;
+  private final ChangeRecorder changeRecorder;
 
   @Transactional
   public ClientResponse createPerson(PersonRequest request) {
@@ -39,9 +59,9 @@ public class ClientService {
             .phone(request.getPhone())
             .build();
 
-    Person savedPerson = clientRepository.save(person);
+    Person savedPerson = saveNewClient(person);
 
-    return mapToResponse(savedPerson);
+    return recordCreated(mapToResponse(savedPerson));
   }
 
   @Transactional
@@ -54,33 +74,78 @@ public class ClientService {
             .phone(request.getPhone())
             .build();
 
-    Company savedCompany = clientRepository.save(company);
+    Company savedCompany = saveNewClient(company);
 
-    return mapToResponse(savedCompany);
+    return recordCreated(mapToResponse(savedCompany));
   }
 
-  @Transactional(readOnly = true)
-  public ClientResponse getClientById(Long id) {
-    Client client =
-        clientRepository
-            .findById(id)
-            .orElseThrow(() -> new ResourceNotFoundException("Client", id));
-    return mapToResponse(client);
+  // Runs its read-only transaction inside the single-flight layer, see SingleFlightConfig
+  public ClientResponse getClientById(@ShardKey Long id) {
+    if (missingClientIds.isKnownMissing(id)) {
+      throw new ResourceNotFoundException("Client", id);
+    }
+    return clientByIdSingleFlight.execute(
+        id,
+        () -> {
+          long version = missingClientIds.version(id);
+          long loadStamp = clientResponseCache.loadStamp();
+          Client client = clientRepository.findById(id).orElse(null);
+          if (client == null) {
+            missingClientIds.markMissing(id, version);
+            throw new ResourceNotFoundException("Client", id);
+          }
+          ClientResponse response = mapToResponse(client);
+          clientResponseCache.put(
+              id, SerializedResponseCache.versionOf(client.getUpdatedAt()), loadStamp, response);
+          return response;
+        });
+  }
+
+  // One query per shard holding any of the ids
+  public List<BatchItem<ClientResponse>> getClientsByIds(List<Long> ids) {
+    List<Long> distinctIds = BatchReads.distinctIds(ids, batchReadProperties.getMaxIds());
+    Map<Integer, List<Long>> idsByShard = shards.groupByShard(distinctIds);
+    Map<Long, ClientResponse> found =
+        shards
+            .fanOut(
+                shard ->
+                    clientRepository.findAllById(idsByShard.getOrDefault(shard, List.of())).stream()
+                        .map(this::mapToResponse)
+                        .toList())
+            .stream()
+            .collect(Collectors.toMap(ClientResponse::getId, Function.identity()));
+    return BatchReads.items(distinctIds, found, "Client");
+  }
+
+  // No surrounding transaction: a filter miss answers without borrowing a connection at all
+  public ClientResponse getClientByEmail(String email) {
+    if (!clientEmailIndex.mightExist(email)) {
+      throw clientNotFound(email);
+    }
+    return shards
+        .fanOut(
+            shard -> clientRepository.findByEmail(email).map(this::mapToResponse).stream().toList())
+        .stream()
+        .findFirst()
+        .orElseThrow(() -> clientNotFound(email));
+  }
+
+  public List<ClientSearchResult> searchClients(String query, Integer limit) {
+    return clientSearchIndex.search(query, limit);
   }
 
-  @Transactional(readOnly = true)
   public List<ClientResponse> getAllClients() {
-    return clientRepository.findAll().stream()
-        .map(this::mapToResponse)
-        .collect(Collectors.toList());
+    return shards.fanOut(
+        shard -> clientRepository.findAll().stream().map(this::mapToResponse).toList());
   }
 
   @Transactional
-  public ClientResponse updateClient(Long id, ClientUpdateRequest request) {
+  public ClientResponse updateClient(@ShardKey Long id, ClientUpdateRequest request) {
     Client client =
         clientRepository
             .findById(id)
             .orElseThrow(() -> new ResourceNotFoundException("Client", id));
+    ClientResponse before = mapToResponse(client);
 
     if (client.getClientType().equals(Client.ClientType.PERSON)
         && client instanceof Person person) {
@@ -100,8 +165,10 @@ public class ClientService {
       company.setCompanyName(newCompanyName);
     }
 
-    if (request.getEmail() != null) {
+    if (request.getEmail() != null && !request.getEmail().equals(client.getEmail())) {
+      ensureEmailAvailable(request.getEmail());
       client.setEmail(request.getEmail());
+      clientEmailIndex.add(request.getEmail());
     }
     if (request.getPhone() != null) {
       client.setPhone(request.getPhone());
@@ -120,11 +187,15 @@ public class ClientService {
     }
 
     Client updatedClient = clientRepository.save(client);
-    return mapToResponse(updatedClient);
+    clientSearchIndex.index(updatedClient);
+    AfterCommit.run(() -> clientResponseCache.invalidate(id));
+    ClientResponse response = mapToResponse(updatedClient);
+    changeRecorder.record(ChangeType.CLIENT_UPDATED, id, before, response);
+    return response;
   }
 
   @Transactional
-  public void deleteClient(Long id) {
+  public void deleteClient(@ShardKey Long id) {
     Client client =
         clientRepository
             .findById(id)
@@ -135,13 +206,58 @@ public class ClientService {
 
     contracts.forEach(
         contract -> {
-          if (contract.getEndDate() == null || contract.getEndDate().isAfter(currentDate)) {
+          if (contract.isActive()) {
+            ContractResponse before = ContractService.mapToResponse(contract);
             contract.setEndDate(currentDate);
             contractRepository.save(contract);
+            AfterCommit.run(() -> contractResponseCache.invalidate(contract.getId()));
+            changeRecorder.record(
+                ChangeType.CONTRACT_ENDED,
+                contract.getId(),
+                before,
+                ContractService.mapToResponse(contract));
           }
         });
 
     clientRepository.delete(client);
+    clientSearchIndex.remove(id);
+    AfterCommit.run(() -> clientResponseCache.invalidate(id));
+    changeRecorder.record(ChangeType.CLIENT_DELETED, id, mapToResponse(client), null);
+  }
+
+  private ClientResponse recordCreated(ClientResponse response) {
+    changeRecorder.record(ChangeType.CLIENT_CREATED, response.getId(), null, response);
+    return response;
+  }
+
+  private <T extends Client> T saveNewClient(T client) {
+    ensureEmailAvailable(client.getEmail());
+    T savedClient;
+    try {
+      savedClient =
+          shards.on(shards.shardForEmail(client.getEmail()), () -> clientRepository.save(client));
+    } catch (DataIntegrityViolationException e) {
+      // Lost a race against a concurrent insert of the same email
+      throw duplicateEmail(client.getEmail());
+    }
+    clientEmailIndex.add(client.getEmail());
+    clientSearchIndex.index(savedClient);
+    AfterCommit.run(() -> missingClientIds.invalidate(savedClient.getId()));
+    return savedClient;
+  }
+
+  private void ensureEmailAvailable(String email) {
+    if (clientEmailIndex.exists(email)) {
+      throw duplicateEmail(email);
+    }
+  }
+
+  private static DuplicateResourceException duplicateEmail(String email) {
+    return new DuplicateResourceException("Client already exists with email: " + email);
+  }
+
+  private static ResourceNotFoundException clientNotFound(String email) {
+    return new ResourceNotFoundException("Client not found with email: " + email);
   }
 
   private ClientResponse mapToResponse(Client client) {
@@ -0,0 +1,226 @@
+package ch.insurance.api.service;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import ch.insurance.api.analytics.ContractColumns;
+import ch.insurance.api.analytics.ContractColumns.CostHistogram;
+import ch.insurance.api.analytics.ContractColumns.Totals;
+import ch.insurance.api.config.AnalyticsProperties;
+import ch.insurance.api.domain.Client.ClientType;
+import ch.insurance.api.dto.ClientResponse;
+import ch.insurance.api.dto.ContractResponse;
+import ch.insurance.api.dto.ContractTotalsResponse;
+import ch.insurance.api.dto.CostBucket;
+import ch.insurance.api.dto.CostDistributionResponse;
+import ch.insurance.api.exception.ServiceUnavailableException;
+import ch.insurance.api.journal.ChangeType;
+import ch.insurance.api.money.Money;
+import ch.insurance.api.money.MoneySum;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Portfolio-wide aggregates answered from ContractColumns instead of the database. The columns are
+ * loaded from both contract tables once the application is ready and then follow the committed
+ * changes ChangeRecorder hands over, so they are per instance: writes made through other instances
+ * only show up here after a restart.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(prefix = "insurance.analytics", name = "enabled")
+public class ContractAnalyticsService {
+
+  static final String CLIENTS_SQL = "SELECT id, client_type FROM clients";
+
+  // Archived contracts stay part of the book
+  static final String CONTRACTS_SQL =
+      "SELECT id, client_id, start_date, end_date, cost_amount FROM contracts UNION ALL SELECT id,"
+          + " client_id, start_date, end_date, cost_amount FROM contracts_archive";
+
+  private static final String UNKNOWN_CLIENT_TYPE = "UNKNOWN";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate readOnlyTransaction;
+  private final Shards shards;
+  private final AnalyticsProperties properties;
+  private final ContractColumns columns;
+
+  // Queries are refused until the startup load has gone through every shard
+  private volatile boolean loaded;
+
+  public ContractAnalyticsService(
+      JdbcTemplate jdbcTemplate,
+      PlatformTransactionManager transactionManager,
+      Shards shards,
+      AnalyticsProperties properties,
+      MeterRegistry registry) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+    this.readOnlyTransaction.setReadOnly(true);
+    this.shards = shards;
+    this.properties = properties;
+    this.columns = new ContractColumns(properties.getInitialCapacity());
+    Gauge.builder("insurance.analytics.contracts", columns, ContractColumns::size)
+        .description("Contracts held in the columnar analytics store")
+        .register(registry);
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void load() {
+    long started = System.nanoTime();
+    MoneySum book = new MoneySum();
+    // Changes committed from here on are applied as they come, so the load only fills gaps
+    shards.forEach(
+        shard ->
+            readOnlyTransaction.executeWithoutResult(
+                status -> {
+                  stream(CLIENTS_SQL, this::loadClient);
+                  stream(CONTRACTS_SQL, rs -> loadContract(rs, book));
+                }));
+    loaded = true;
+    log.info(
+        "Contract analytics ready: {} contracts worth {} loaded in {} ms",
+        book.count(),
+        book.toAmount(),
+        (System.nanoTime() - started) / 1_000_000);
+  }
+
+  private void stream(String sql, RowCallbackHandler handler) {
+    jdbcTemplate.query(
+        connection -> {
+          PreparedStatement statement = connection.prepareStatement(sql);
+          // Streams the rows on drivers that would otherwise buffer the whole result
+          statement.setFetchSize(properties.getLoadFetchSize());
+          return statement;
+        },
+        handler);
+  }
+
+  private void loadClient(ResultSet rs) throws SQLException {
+    columns.putClient(rs.getLong(1), ClientType.valueOf(rs.getString(2)));
+  }
+
+  private void loadContract(ResultSet rs, MoneySum book) throws SQLException {
+    long cost = Money.toMinor(rs.getBigDecimal(5));
+    columns.putIfAbsent(
+        rs.getLong(1),
+        rs.getLong(2),
+        ContractColumns.epochDay(rs.getObject(3, LocalDate.class)),
+        ContractColumns.epochDay(rs.getObject(4, LocalDate.class)),
+        cost);
+    book.add(cost);
+  }
+
+  /** Called by ChangeRecorder once the change is committed. */
+  public void apply(ChangeType type, Object after) {
+    switch (type) {
+      case CLIENT_CREATED -> {
+        ClientResponse client = (ClientResponse) after;
+        columns.putClient(client.getId(), ClientType.valueOf(client.getClientType()));
+      }
+      case CONTRACT_CREATED, CONTRACT_UPDATED, CONTRACT_ENDED -> {
+        ContractResponse contract = (ContractResponse) after;
+        columns.put(
+            contract.getId(),
+            contract.getClientId(),
+            ContractColumns.epochDay(contract.getStartDate()),
+            ContractColumns.epochDay(contract.getEndDate()),
+            Money.toMinor(contract.getCostAmount()));
+      }
+      // Client types never change, and a deleted client's contracts stay in the book
+      case CLIENT_UPDATED, CLIENT_DELETED -> {}
+    }
+  }
+
+  public List<ContractTotalsResponse> getTotalsByClientType(LocalDate date) {
+    ensureLoaded();
+    Totals[] totals = columns.totalsByClientType(ContractColumns.epochDay(date));
+    List<ContractTotalsResponse> responses = new ArrayList<>(totals.length);
+    for (int code = 0; code < totals.length; code++) {
+      ClientType clientType = ContractColumns.clientType((byte) code);
+      if (clientType == null && totals[code].contracts() == 0) {
+        continue;
+      }
+      ContractTotalsResponse response = totals(date, totals[code]);
+      response.setClientType(clientType != null ? clientType.name() : UNKNOWN_CLIENT_TYPE);
+      responses.add(response);
+    }
+    return responses;
+  }
+
+  public List<ContractTotalsResponse> getDailyTotals(LocalDate from, LocalDate to) {
+    if (to.isBefore(from)) {
+      throw new IllegalArgumentException("to must not be before from");
+    }
+    int firstDay = ContractColumns.epochDay(from);
+    int lastDay = ContractColumns.epochDay(to);
+    if (lastDay - firstDay + 1 > properties.getMaxDays()) {
+      throw new IllegalArgumentException(
+          "At most " + properties.getMaxDays() + " days can be requested at once");
+    }
+    ensureLoaded();
+    Totals[] totals = columns.dailyTotals(firstDay, lastDay);
+    List<ContractTotalsResponse> responses = new ArrayList<>(totals.length);
+    for (int day = 0; day < totals.length; day++) {
+      responses.add(totals(from.plusDays(day), totals[day]));
+    }
+    return responses;
+  }
+
+  public CostDistributionResponse getCostDistribution(LocalDate date, int buckets) {
+    if (buckets < 1 || buckets > properties.getMaxBuckets()) {
+      throw new IllegalArgumentException(
+          "buckets must be between 1 and " + properties.getMaxBuckets());
+    }
+    ensureLoaded();
+    CostHistogram histogram = columns.costHistogram(ContractColumns.epochDay(date), buckets);
+    List<CostBucket> costBuckets = new ArrayList<>(histogram.counts().length);
+    for (int bucket = 0; bucket < histogram.counts().length; bucket++) {
+      long lowerCents =
+          Money.add(histogram.minCents(), Money.multiply(histogram.widthCents(), bucket));
+      costBuckets.add(
+          CostBucket.builder()
+              .minCost(Money.toAmount(lowerCents))
+              .maxCost(Money.toAmount(Money.add(lowerCents, histogram.widthCents())))
+              .contracts(histogram.counts()[bucket])
+              .build());
+    }
+    boolean empty = histogram.contracts() == 0;
+    return CostDistributionResponse.builder()
+        .date(date)
+        .activeContracts(histogram.contracts())
+        .minCost(empty ? null : Money.toAmount(histogram.minCents()))
+        .maxCost(empty ? null : Money.toAmount(histogram.maxCents()))
+        .buckets(costBuckets)
+        .build();
+  }
+
+  private void ensureLoaded() {
+    if (!loaded) {
+      throw new ServiceUnavailableException("Contract analytics are still loading");
+    }
+  }
+
+  private static ContractTotalsResponse totals(LocalDate date, Totals totals) {
+    return ContractTotalsResponse.builder()
+        .date(date)
+        .activeContracts(totals.contracts())
+        .totalCost(Money.toAmount(totals.cents()))
+        .build();
+  }
+}
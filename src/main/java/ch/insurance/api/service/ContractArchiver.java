@@ -0,0 +1,135 @@
+package ch.insurance.api.service;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import jakarta.persistence.EntityManagerFactory;
+
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import ch.insurance.api.config.ContractArchiveProperties;
+import ch.insurance.api.domain.Contract;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Moves contracts that ended before the retention window from {@code contracts} to {@code
+ * contracts_archive}, so active-contract queries and their indexes only cover live rows. Each chunk
+ * is copied and deleted in one transaction with its rows locked, so a run that stops midway leaves
+ * every contract in exactly one table and the next run carries on from there. Reads by id and as-of
+ * reads fall through to the archive, see ContractService.
+ */
+@Slf4j
+@Service
+public class ContractArchiver {
+
+  static final String SELECT_EXPIRED_SQL =
+      "SELECT id FROM contracts WHERE end_date < :cutoff AND id > :afterId ORDER BY id"
+          + " LIMIT :limit FOR UPDATE";
+
+  static final String COPY_SQL =
+      "INSERT INTO contracts_archive (id, client_id, start_date, end_date, cost_amount,"
+          + " last_modified_date, created_at, archived_at) SELECT id, client_id, start_date,"
+          + " end_date, cost_amount, last_modified_date, created_at, :archivedAt FROM contracts"
+          + " WHERE id IN (:ids)";
+
+  static final String DELETE_SQL = "DELETE FROM contracts WHERE id IN (:ids)";
+
+  private final NamedParameterJdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private final EntityManagerFactory entityManagerFactory;
+  private final Shards shards;
+  private final ContractArchiveProperties properties;
+  private final Counter archived;
+
+  public ContractArchiver(
+      NamedParameterJdbcTemplate jdbcTemplate,
+      TransactionTemplate transactionTemplate,
+      EntityManagerFactory entityManagerFactory,
+      Shards shards,
+      ContractArchiveProperties properties,
+      MeterRegistry registry) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.transactionTemplate = transactionTemplate;
+    this.entityManagerFactory = entityManagerFactory;
+    this.shards = shards;
+    this.properties = properties;
+    this.archived =
+        Counter.builder("insurance.contracts.archived")
+            .description("Expired contracts moved to the archive table")
+            .register(registry);
+  }
+
+  @Scheduled(
+      initialDelayString = "${insurance.contracts.archive.initial-delay:PT1M}",
+      fixedDelayString = "${insurance.contracts.archive.interval:PT1H}")
+  public void archiveExpired() {
+    if (!properties.isEnabled()) {
+      return;
+    }
+    LocalDate cutoff = LocalDate.now().minus(properties.getRetention());
+    try {
+      int moved = archiveEndedBefore(cutoff);
+      if (moved > 0) {
+        log.info("Archived {} contracts that ended before {}", moved, cutoff);
+      }
+    } catch (RuntimeException e) {
+      // Another instance may be archiving the same rows; whatever committed stays archived
+      log.warn("Contract archiving stopped, resuming on the next run", e);
+    }
+  }
+
+  public int archiveEndedBefore(LocalDate cutoff) {
+    AtomicInteger total = new AtomicInteger();
+    shards.forEach(shard -> total.addAndGet(archiveShard(cutoff)));
+    return total.get();
+  }
+
+  private int archiveShard(LocalDate cutoff) {
+    int total = 0;
+    long afterId = 0;
+    while (true) {
+      long from = afterId;
+      List<Long> ids = transactionTemplate.execute(status -> moveChunk(cutoff, from));
+      if (ids.isEmpty()) {
+        return total;
+      }
+      total += ids.size();
+      archived.increment(ids.size());
+      // Second-level cache entries would otherwise still answer for the deleted rows
+      ids.forEach(id -> entityManagerFactory.getCache().evict(Contract.class, id));
+      if (ids.size() < properties.getChunkSize()) {
+        return total;
+      }
+      afterId = ids.get(ids.size() - 1);
+    }
+  }
+
+  // Cached active-contract query results need no invalidation: an expired contract is never in one
+  private List<Long> moveChunk(LocalDate cutoff, long afterId) {
+    List<Long> ids =
+        jdbcTemplate.queryForList(
+            SELECT_EXPIRED_SQL,
+            Map.of(
+                "cutoff", Date.valueOf(cutoff),
+                "afterId", afterId,
+                "limit", properties.getChunkSize()),
+            Long.class);
+    if (ids.isEmpty()) {
+      return ids;
+    }
+    jdbcTemplate.update(
+        COPY_SQL, Map.of("ids", ids, "archivedAt", Timestamp.valueOf(LocalDateTime.now())));
+    jdbcTemplate.update(DELETE_SQL, Map.of("ids", ids));
+    return ids;
+  }
+}
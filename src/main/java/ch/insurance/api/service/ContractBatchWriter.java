@@ -0,0 +1,396 @@
+package ch.insurance.api.service;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import ch.insurance.api.concurrent.WriterThread;
+import ch.insurance.api.config.ContractGroupCommitProperties;
+import ch.insurance.api.domain.ContractStatus;
+import ch.insurance.api.dto.ContractRequest;
+import ch.insurance.api.dto.ContractResponse;
+import ch.insurance.api.exception.ResourceNotFoundException;
+import ch.insurance.api.exception.ServiceUnavailableException;
+import ch.insurance.api.journal.ChangeType;
+import ch.insurance.api.repository.ClientRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Group commit for contract creation: concurrent requests are queued and a single writer thread
+ * inserts them together, one transaction and one JDBC batch per group, instead of paying a commit
+ * per request. Each caller still gets its own contract or its own error back.
+ *
+ * <p>A queued request belongs to whichever side claims it first: the writer, when it takes the
+ * request into a batch, or its caller, when the caller gives up waiting. A caller that times out
+ * before the writer took its request withdraws it and gets a 503: nothing was written, so the
+ * request can safely be retried. Once the writer has it, the caller waits for the commit to finish,
+ * so it never has to guess whether its contract exists.
+ */
+@Slf4j
+@Service
+public class ContractBatchWriter {
+
+  static final String INSERT_SQL =
+      "INSERT INTO contracts (client_id, start_date, end_date, status, cost_amount,"
+          + " last_modified_date, created_at) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+  private final ContractService contractService;
+  private final ClientRepository clientRepository;
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private final CacheInvalidation cacheInvalidation;
+  private final MissingIdCache missingContractIds;
+  private final Shards shards;
+  private final ChangeRecorder changeRecorder;
+  private final ContractGroupCommitProperties properties;
+  private final BlockingQueue<PendingContract> queue;
+  private final DistributionSummary batchSizes;
+  private final Counter fallbacks;
+
+  private final WriterThread writer = new WriterThread("contract-group-commit");
+
+  public ContractBatchWriter(
+      ContractService contractService,
+      ClientRepository clientRepository,
+      JdbcTemplate jdbcTemplate,
+      TransactionTemplate transactionTemplate,
+      CacheInvalidation cacheInvalidation,
+      MissingIdCache missingContractIds,
+      Shards shards,
+      ChangeRecorder changeRecorder,
+      ContractGroupCommitProperties properties,
+      MeterRegistry registry) {
+    this.contractService = contractService;
+    this.clientRepository = clientRepository;
+    this.jdbcTemplate = jdbcTemplate;
+    this.transactionTemplate = transactionTemplate;
+    this.cacheInvalidation = cacheInvalidation;
+    this.missingContractIds = missingContractIds;
+    this.shards = shards;
+    this.changeRecorder = changeRecorder;
+    this.properties = properties;
+    this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+    this.batchSizes =
+        DistributionSummary.builder("insurance.contracts.group_commit.batch.size")
+            .description("Contracts inserted per commit")
+            .register(registry);
+    this.fallbacks =
+        Counter.builder("insurance.contracts.group_commit.fallback")
+            .description("Creations written one by one because the queue was full")
+            .register(registry);
+    Gauge.builder("insurance.contracts.group_commit.queued", queue, BlockingQueue::size)
+        .register(registry);
+  }
+
+  @PostConstruct
+  void start() {
+    if (!properties.isEnabled()) {
+      return;
+    }
+    writer.start(this::drainLoop);
+  }
+
+  @PreDestroy
+  void stop() throws InterruptedException {
+    if (!writer.stop(properties.getTimeout())) {
+      log.warn("Contract group commit still busy at shutdown with {} queued", queue.size());
+    }
+  }
+
+  public ContractResponse createContract(Long clientId, ContractRequest request) {
+    // Inside a caller's transaction the insert must commit or roll back with it
+    if (!writer.isRunning() || TransactionSynchronizationManager.isActualTransactionActive()) {
+      return contractService.createContract(clientId, request);
+    }
+
+    PendingContract pending =
+        new PendingContract(
+            clientId,
+            request,
+            changeRecorder.currentActor(),
+            new AtomicBoolean(),
+            new CompletableFuture<>());
+    if (!queue.offer(pending)) {
+      fallbacks.increment();
+      return contractService.createContract(clientId, request);
+    }
+    // stop() may have come in between: the writer could have drained the queue for the last time
+    // before the offer, so a request nobody took yet is written here instead
+    if (!writer.isRunning() && withdraw(pending)) {
+      return contractService.createContract(clientId, request);
+    }
+    return await(pending);
+  }
+
+  private ContractResponse await(PendingContract pending) {
+    CompletableFuture<ContractResponse> result = pending.result();
+    try {
+      return result.get(properties.getTimeout().toMillis(), TimeUnit.MILLISECONDS);
+    } catch (ExecutionException e) {
+      throw failure(e.getCause());
+    } catch (TimeoutException e) {
+      if (withdraw(pending)) {
+        throw new ServiceUnavailableException(
+            "Timed out waiting for the group commit; the contract was not created", e);
+      }
+      // Already being written: its outcome is known once that commit finishes
+      try {
+        return result.join();
+      } catch (CompletionException failed) {
+        throw failure(failed.getCause());
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while waiting for the contract", e);
+    }
+  }
+
+  private boolean withdraw(PendingContract pending) {
+    if (!pending.claim()) {
+      return false;
+    }
+    queue.remove(pending);
+    return true;
+  }
+
+  private static RuntimeException failure(Throwable cause) {
+    if (cause instanceof RuntimeException runtime) {
+      return runtime;
+    }
+    return new IllegalStateException("Contract creation failed", cause);
+  }
+
+  private void drainLoop() {
+    long maxDelayNanos = properties.getMaxDelay().toNanos();
+    int maxBatchSize = properties.getMaxBatchSize();
+
+    while (writer.isRunning() || !queue.isEmpty()) {
+      try {
+        PendingContract first = queue.poll(100, TimeUnit.MILLISECONDS);
+        if (first == null) {
+          continue;
+        }
+
+        List<PendingContract> batch = new ArrayList<>(maxBatchSize);
+        batch.add(first);
+        long deadline = System.nanoTime() + maxDelayNanos;
+        while (batch.size() < maxBatchSize) {
+          queue.drainTo(batch, maxBatchSize - batch.size());
+          long remaining = deadline - System.nanoTime();
+          if (batch.size() >= maxBatchSize || remaining <= 0) {
+            break;
+          }
+          PendingContract next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+          if (next == null) {
+            break;
+          }
+          batch.add(next);
+        }
+
+        // Callers that gave up meanwhile have withdrawn their requests
+        batch.removeIf(pending -> !pending.claim());
+        if (!batch.isEmpty()) {
+          write(batch);
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        break;
+      } catch (RuntimeException e) {
+        log.error("Contract group commit loop failed", e);
+      }
+    }
+
+    PendingContract leftover;
+    while ((leftover = queue.poll()) != null) {
+      if (leftover.claim()) {
+        leftover
+            .result()
+            .completeExceptionally(
+                new ServiceUnavailableException(
+                    "Application stopping; the contract was not created"));
+      }
+    }
+  }
+
+  void write(List<PendingContract> batch) {
+    if (shards.count() > 1) {
+      // A transaction stays on one shard, so each shard's contracts are committed as a group
+      batch.stream()
+          .collect(Collectors.groupingBy(pending -> shards.shardOf(pending.clientId())))
+          .forEach((shard, group) -> shards.on(shard, () -> writeGroup(group)));
+      return;
+    }
+    writeGroup(batch);
+  }
+
+  private void writeGroup(List<PendingContract> batch) {
+    batchSizes.record(batch.size());
+    try {
+      List<ContractResponse> responses = transactionTemplate.execute(status -> insert(batch));
+      for (int i = 0; i < batch.size(); i++) {
+        complete(batch.get(i), responses.get(i));
+      }
+    } catch (RuntimeException batchFailure) {
+      // One bad row must not fail its neighbours: replay the group one row per transaction
+      if (batch.size() == 1) {
+        batch.get(0).result().completeExceptionally(batchFailure);
+        return;
+      }
+      log.debug("Group commit of {} contracts failed, isolating rows", batch.size(), batchFailure);
+      for (PendingContract pending : batch) {
+        try {
+          complete(pending, transactionTemplate.execute(status -> insert(List.of(pending))).get(0));
+        } catch (RuntimeException e) {
+          pending.result().completeExceptionally(e);
+        }
+      }
+    }
+  }
+
+  // Returns one entry per pending request: a response, or null when that request was rejected
+  private List<ContractResponse> insert(List<PendingContract> batch) {
+    Set<Long> existingClients =
+        new HashSet<>(
+            clientRepository.findExistingIds(
+                batch.stream().map(PendingContract::clientId).collect(Collectors.toSet())));
+
+    LocalDateTime now = LocalDateTime.now();
+    List<ContractResponse> responses = new ArrayList<>(batch.size());
+    List<ContractResponse> accepted = new ArrayList<>(batch.size());
+    for (PendingContract pending : batch) {
+      ContractResponse response = validate(pending, existingClients, now);
+      responses.add(response);
+      if (response != null) {
+        accepted.add(response);
+      }
+    }
+    if (accepted.isEmpty()) {
+      return responses;
+    }
+
+    // The insert bypasses Hibernate: cached active-contract queries would not see the new rows
+    cacheInvalidation.invalidateQueriesOnCompletion("contracts");
+    List<Long> ids =
+        jdbcTemplate.execute(
+            (ConnectionCallback<List<Long>>)
+                connection -> {
+                  try (PreparedStatement statement =
+                      connection.prepareStatement(INSERT_SQL, new String[] {"id"})) {
+                    for (ContractResponse contract : accepted) {
+                      statement.setLong(1, contract.getClientId());
+                      statement.setDate(2, Date.valueOf(contract.getStartDate()));
+                      statement.setDate(
+                          3,
+                          contract.getEndDate() != null
+                              ? Date.valueOf(contract.getEndDate())
+                              : null);
+                      statement.setString(
+                          4, ContractStatus.of(contract.getEndDate(), now.toLocalDate()).name());
+                      statement.setBigDecimal(5, contract.getCostAmount());
+                      statement.setTimestamp(6, Timestamp.valueOf(now));
+                      statement.setTimestamp(7, Timestamp.valueOf(now));
+                      statement.addBatch();
+                    }
+                    statement.executeBatch();
+
+                    List<Long> generated = new ArrayList<>(accepted.size());
+                    try (ResultSet keys = statement.getGeneratedKeys()) {
+                      while (keys.next()) {
+                        generated.add(keys.getLong(1));
+                      }
+                    }
+                    return generated;
+                  }
+                });
+    if (ids == null || ids.size() != accepted.size()) {
+      throw new IllegalStateException("Driver did not return a generated key per batched row");
+    }
+    for (int i = 0; i < accepted.size(); i++) {
+      accepted.get(i).setId(ids.get(i));
+    }
+    for (int i = 0; i < batch.size(); i++) {
+      ContractResponse contract = responses.get(i);
+      if (contract != null) {
+        changeRecorder.record(
+            ChangeType.CONTRACT_CREATED, contract.getId(), null, contract, batch.get(i).actor());
+      }
+    }
+    AfterCommit.run(() -> ids.forEach(missingContractIds::invalidate));
+    return responses;
+  }
+
+  // Same checks as ContractService.createContract, minus the per-request client lookup
+  private ContractResponse validate(
+      PendingContract pending, Set<Long> existingClients, LocalDateTime now) {
+    ContractRequest request = pending.request();
+    if (!existingClients.contains(pending.clientId())) {
+      pending
+          .result()
+          .completeExceptionally(new ResourceNotFoundException("Client", pending.clientId()));
+      return null;
+    }
+    if (request.getStartDate() != null
+        && request.getEndDate() != null
+        && request.getEndDate().isBefore(request.getStartDate())) {
+      pending
+          .result()
+          .completeExceptionally(
+              new IllegalArgumentException("End date must be after or equal to start date"));
+      return null;
+    }
+    return ContractResponse.builder()
+        .clientId(pending.clientId())
+        .startDate(request.getStartDate() != null ? request.getStartDate() : now.toLocalDate())
+        .endDate(request.getEndDate())
+        .costAmount(request.getCostAmount())
+        .createdAt(now)
+        .build();
+  }
+
+  private static void complete(PendingContract pending, ContractResponse response) {
+    if (response != null) {
+      pending.result().complete(response);
+    }
+  }
+
+  record PendingContract(
+      Long clientId,
+      ContractRequest request,
+      String actor,
+      AtomicBoolean claimed,
+      CompletableFuture<ContractResponse> result) {
+
+    // True for the one side, writer or caller, that gets to decide what happens to the request
+    boolean claim() {
+      return claimed.compareAndSet(false, true);
+    }
+  }
+}
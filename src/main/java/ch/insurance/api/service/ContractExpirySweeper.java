@@ -0,0 +1,86 @@
+package ch.insurance.api.service;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import ch.insurance.api.config.ContractExpiryProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Flips contracts whose end date has been reached from ACTIVE to EXPIRED, so the status column
+ * keeps narrowing active-contract queries to live rows. Write paths set the status themselves; this
+ * only catches contracts that run out with time. Each chunk is a statement of its own, so a sweep
+ * that stops midway is simply finished by the next one.
+ */
+@Slf4j
+@Service
+public class ContractExpirySweeper {
+
+  static final String EXPIRE_SQL =
+      "UPDATE contracts SET status = 'EXPIRED' WHERE id IN (SELECT id FROM contracts WHERE status"
+          + " = 'ACTIVE' AND end_date <= :today ORDER BY id LIMIT :limit)";
+
+  private final NamedParameterJdbcTemplate jdbcTemplate;
+  private final Shards shards;
+  private final ContractExpiryProperties properties;
+  private final Counter expired;
+
+  public ContractExpirySweeper(
+      NamedParameterJdbcTemplate jdbcTemplate,
+      Shards shards,
+      ContractExpiryProperties properties,
+      MeterRegistry registry) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.shards = shards;
+    this.properties = properties;
+    this.expired =
+        Counter.builder("insurance.contracts.expired")
+            .description("Contracts flipped to EXPIRED by the sweeper")
+            .register(registry);
+  }
+
+  @Scheduled(cron = "${insurance.contracts.expiry.cron:0 0 0 * * *}")
+  public void sweep() {
+    if (!properties.isEnabled()) {
+      return;
+    }
+    LocalDate today = LocalDate.now();
+    try {
+      int flipped = expireEndedBy(today);
+      log.info("Marked {} contracts ending by {} as expired", flipped, today);
+    } catch (RuntimeException e) {
+      // Queries still check the end date, so a missed sweep only costs index selectivity
+      log.warn("Contract expiry sweep stopped, resuming on the next run", e);
+    }
+  }
+
+  // last_modified_date is left alone: the status is not part of the contract's representation.
+  // Cached entities may keep reading ACTIVE until reloaded, which every query tolerates
+  public int expireEndedBy(LocalDate day) {
+    AtomicInteger total = new AtomicInteger();
+    shards.forEach(shard -> total.addAndGet(expireShard(day)));
+    return total.get();
+  }
+
+  private int expireShard(LocalDate day) {
+    int total = 0;
+    while (true) {
+      int flipped =
+          jdbcTemplate.update(
+              EXPIRE_SQL, Map.of("today", Date.valueOf(day), "limit", properties.getChunkSize()));
+      total += flipped;
+      expired.increment(flipped);
+      if (flipped < properties.getChunkSize()) {
+        return total;
+      }
+    }
+  }
+}
@@ -3,19 +3,31 @@ package ch.insurance.api.service;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import ch.insurance.api.config.BatchReadProperties;
+import ch.insurance.api.datasource.ShardKey;
+import ch.insurance.api.domain.ArchivedContract;
 import ch.insurance.api.domain.Client;
 import ch.insurance.api.domain.Contract;
+import ch.insurance.api.dto.BatchItem;
 import ch.insurance.api.dto.ContractCostUpdateRequest;
 import ch.insurance.api.dto.ContractRequest;
 import ch.insurance.api.dto.ContractResponse;
 import ch.insurance.api.dto.TotalCostResponse;
 import ch.insurance.api.exception.ResourceNotFoundException;
+import ch.insurance.api.journal.ChangeType;
+import ch.insurance.api.json.SerializedResponseCache;
+import ch.insurance.api.repository.ArchivedContractRepository;
 import ch.insurance.api.repository.ClientRepository;
 import ch.insurance.api.repository.ContractRepository;
 import lombok.RequiredArgsConstructor;
@@ -25,10 +37,18 @@ import lombok.RequiredArgsConstructor;
 public class ContractService {
 
   private final ContractRepository contractRepository;
+  private final ArchivedContractRepository archivedContractRepository;
   private final ClientRepository clientRepository;
+  private final SingleFlight<Long, TotalCostResponse> totalCostSingleFlight;
+  private final MissingIdCache missingClientIds;
+  private final MissingIdCache missingContractIds;
+  private final SerializedResponseCache<ContractResponse> contractResponseCache;
+  private final BatchReadProperties batchReadProperties;
+  private final Shards shards;
+  private final ChangeRecorder changeRecorder;
 
   @Transactional
-  public ContractResponse createContract(Long clientId, ContractRequest request) {
+  public ContractResponse createContract(@ShardKey Long clientId, ContractRequest request) {
     Client client =
         clientRepository
             .findById(clientId)
@@ -49,25 +69,34 @@ public class ContractService {
     }
 
     Contract savedContract = contractRepository.save(contract);
-    return mapToResponse(savedContract);
+    AfterCommit.run(() -> missingContractIds.invalidate(savedContract.getId()));
+    ContractResponse response = mapToResponse(savedContract);
+    changeRecorder.record(ChangeType.CONTRACT_CREATED, response.getId(), null, response);
+    return response;
   }
 
   @Transactional
-  public ContractResponse updateContractCost(Long contractId, ContractCostUpdateRequest request) {
+  public ContractResponse updateContractCost(
+      @ShardKey Long contractId, ContractCostUpdateRequest request) {
     Contract contract =
         contractRepository
             .findById(contractId)
             .orElseThrow(() -> new ResourceNotFoundException("Contract", contractId));
+    ContractResponse before = mapToResponse(contract);
 
     contract.setCostAmount(request.getCostAmount());
     Contract updatedContract = contractRepository.save(contract);
+    AfterCommit.run(() -> contractResponseCache.invalidate(contractId));
 
-    return mapToResponse(updatedContract);
+    ContractResponse response = mapToResponse(updatedContract);
+    changeRecorder.record(ChangeType.CONTRACT_UPDATED, contractId, before, response);
+    return response;
   }
 
   @Transactional(readOnly = true)
-  public List<ContractResponse> getActiveContracts(Long clientId, LocalDateTime modifiedAfter) {
-    if (!clientRepository.existsById(clientId)) {
+  public List<ContractResponse> getActiveContracts(
+      @ShardKey Long clientId, LocalDateTime modifiedAfter) {
+    if (!clientExists(clientId)) {
       throw new ResourceNotFoundException("Client", clientId);
     }
 
@@ -82,37 +111,155 @@ public class ContractService {
       contracts = contractRepository.findActiveContractsByClientId(clientId, currentDate);
     }
 
-    return contracts.stream().map(this::mapToResponse).collect(Collectors.toList());
+    return contracts.stream().map(ContractService::mapToResponse).collect(Collectors.toList());
   }
 
+  // Contracts that ended before today may have been archived, see ContractArchiver. Each statement
+  // sees its own snapshot under read committed, and rows only move from contracts to the archive
+  // with their id, so reading contracts first never misses a row and the archive read drops the
+  // ones a concurrent archiving run moved in between.
   @Transactional(readOnly = true)
-  public TotalCostResponse getTotalCost(Long clientId) {
-    if (!clientRepository.existsById(clientId)) {
+  public List<ContractResponse> getContractsActiveOn(@ShardKey Long clientId, LocalDate asOf) {
+    if (!clientExists(clientId)) {
+      throw new ResourceNotFoundException("Client", clientId);
+    }
+
+    List<ContractResponse> contracts = new ArrayList<>();
+    Set<Long> seen = new HashSet<>();
+    for (Contract contract : contractRepository.findContractsActiveOn(clientId, asOf)) {
+      seen.add(contract.getId());
+      contracts.add(mapToResponse(contract));
+    }
+    if (asOf.isBefore(LocalDate.now())) {
+      for (ArchivedContract archived :
+          archivedContractRepository.findContractsActiveOn(clientId, asOf)) {
+        if (seen.add(archived.getId())) {
+          contracts.add(mapArchivedToResponse(archived));
+        }
+      }
+    }
+    return contracts;
+  }
+
+  // Runs its read-only transaction inside the single-flight layer, see SingleFlightConfig
+  public TotalCostResponse getTotalCost(@ShardKey Long clientId) {
+    if (missingClientIds.isKnownMissing(clientId)) {
       throw new ResourceNotFoundException("Client does not exist", clientId);
     }
+    return totalCostSingleFlight.execute(
+        clientId,
+        () -> {
+          if (!clientExists(clientId)) {
+            throw new ResourceNotFoundException("Client does not exist", clientId);
+          }
+
+          LocalDate currentDate = LocalDate.now();
+          BigDecimal totalCost =
+              contractRepository.sumActiveContractsCostByClientId(clientId, currentDate);
+          Long activeCount =
+              contractRepository.countActiveContractsByClientId(clientId, currentDate);
+
+          return TotalCostResponse.builder()
+              .clientId(clientId)
+              .totalCost(totalCost)
+              .activeContractsCount(activeCount)
+              .build();
+        });
+  }
+
+  // No surrounding transaction, so a known-missing id does not borrow a connection; the mapping
+  // only reads the client id, which the lazy proxy holds without loading
+  public ContractResponse getContract(@ShardKey Long contractId) {
+    if (missingContractIds.isKnownMissing(contractId)) {
+      throw new ResourceNotFoundException("Contract", contractId);
+    }
+    long version = missingContractIds.version(contractId);
+    long loadStamp = contractResponseCache.loadStamp();
+    Contract contract = contractRepository.findById(contractId).orElse(null);
+    if (contract != null) {
+      ContractResponse response = mapToResponse(contract);
+      contractResponseCache.put(
+          contractId,
+          SerializedResponseCache.versionOf(contract.getLastModifiedDate()),
+          loadStamp,
+          response);
+      return response;
+    }
+    // Archived rows never change again, so the cached document stays valid
+    ArchivedContract archived = archivedContractRepository.findById(contractId).orElse(null);
+    if (archived == null) {
+      missingContractIds.markMissing(contractId, version);
+      throw new ResourceNotFoundException("Contract", contractId);
+    }
+    ContractResponse response = mapArchivedToResponse(archived);
+    contractResponseCache.put(
+        contractId,
+        SerializedResponseCache.versionOf(archived.getLastModifiedDate()),
+        loadStamp,
+        response);
+    return response;
+  }
+
+  // One query per shard holding any of the ids, plus one on its archive for ids it lacks
+  public List<BatchItem<ContractResponse>> getContractsByIds(List<Long> contractIds) {
+    List<Long> distinctIds = BatchReads.distinctIds(contractIds, batchReadProperties.getMaxIds());
+    Map<Integer, List<Long>> idsByShard = shards.groupByShard(distinctIds);
+    Map<Long, ContractResponse> found =
+        shards.fanOut(shard -> findContracts(idsByShard.getOrDefault(shard, List.of()))).stream()
+            .collect(Collectors.toMap(ContractResponse::getId, Function.identity()));
+    return BatchReads.items(distinctIds, found, "Contract");
+  }
 
+  // Existence, sum and count of every client in one grouped query per shard
+  public List<BatchItem<TotalCostResponse>> getTotalCosts(List<Long> clientIds) {
+    List<Long> distinctIds = BatchReads.distinctIds(clientIds, batchReadProperties.getMaxIds());
+    Map<Integer, List<Long>> idsByShard = shards.groupByShard(distinctIds);
     LocalDate currentDate = LocalDate.now();
-    BigDecimal totalCost =
-        contractRepository.sumActiveContractsCostByClientId(clientId, currentDate);
-    Long activeCount = contractRepository.countActiveContractsByClientId(clientId, currentDate);
-
-    return TotalCostResponse.builder()
-        .clientId(clientId)
-        .totalCost(totalCost)
-        .activeContractsCount(activeCount)
-        .build();
+    Map<Long, TotalCostResponse> found =
+        shards
+            .fanOut(
+                shard -> {
+                  List<Long> ids = idsByShard.get(shard);
+                  return ids == null
+                      ? List.<TotalCostResponse>of()
+                      : contractRepository.sumActiveContractsCostByClientIds(ids, currentDate);
+                })
+            .stream()
+            .collect(Collectors.toMap(TotalCostResponse::getClientId, Function.identity()));
+    return BatchReads.items(distinctIds, found, "Client");
   }
 
-  @Transactional(readOnly = true)
-  public ContractResponse getContract(Long contractId) {
-    Contract contract =
-        contractRepository
-            .findById(contractId)
-            .orElseThrow(() -> new ResourceNotFoundException("Contract", contractId));
-    return mapToResponse(contract);
+  private List<ContractResponse> findContracts(List<Long> ids) {
+    if (ids.isEmpty()) {
+      return List.of();
+    }
+    List<ContractResponse> contracts = new ArrayList<>(ids.size());
+    contractRepository.findAllById(ids).stream()
+        .map(ContractService::mapToResponse)
+        .forEach(contracts::add);
+    if (contracts.size() < ids.size()) {
+      Set<Long> inHotTable =
+          contracts.stream().map(ContractResponse::getId).collect(Collectors.toSet());
+      archivedContractRepository
+          .findAllById(ids.stream().filter(id -> !inHotTable.contains(id)).toList())
+          .forEach(archived -> contracts.add(mapArchivedToResponse(archived)));
+    }
+    return contracts;
+  }
+
+  private boolean clientExists(Long clientId) {
+    if (missingClientIds.isKnownMissing(clientId)) {
+      return false;
+    }
+    long version = missingClientIds.version(clientId);
+    if (clientRepository.existsById(clientId)) {
+      return true;
+    }
+    missingClientIds.markMissing(clientId, version);
+    return false;
   }
 
-  private ContractResponse mapToResponse(Contract contract) {
+  static ContractResponse mapToResponse(Contract contract) {
     return ContractResponse.builder()
         .id(contract.getId())
         .clientId(contract.getClient() != null ? contract.getClient().getId() : null)
@@ -123,15 +270,29 @@ public class ContractService {
         .build();
   }
 
-  public void deleteContract(Long contractId) {
+  private static ContractResponse mapArchivedToResponse(ArchivedContract contract) {
+    return ContractResponse.builder()
+        .id(contract.getId())
+        .clientId(contract.getClientId())
+        .startDate(contract.getStartDate())
+        .endDate(contract.getEndDate())
+        .costAmount(contract.getCostAmount())
+        .createdAt(contract.getCreatedAt())
+        .build();
+  }
+
+  public void deleteContract(@ShardKey Long contractId) {
     Contract contract =
         contractRepository
             .findById(contractId)
             .orElseThrow(
                 () -> new ResourceNotFoundException("Contract not found with id: " + contractId));
+    ContractResponse before = mapToResponse(contract);
 
     LocalDate now = LocalDate.now();
     contract.setEndDate(now);
     contractRepository.save(contract);
+    AfterCommit.run(() -> contractResponseCache.invalidate(contractId));
+    changeRecorder.record(ChangeType.CONTRACT_ENDED, contractId, before, mapToResponse(contract));
   }
 }
@@ -0,0 +1,56 @@
+package ch.insurance.api.service;
+
+import java.time.Instant;
+import java.util.Optional;
+
+import org.springframework.transaction.annotation.Transactional;
+
+import ch.insurance.api.domain.IdempotencyRecord;
+import ch.insurance.api.repository.IdempotencyRecordRepository;
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+public class DatabaseIdempotencyStore implements IdempotencyStore {
+
+  private final IdempotencyRecordRepository repository;
+
+  @Override
+  @Transactional(readOnly = true)
+  public Optional<StoredResponse> find(String key) {
+    return repository
+        .findById(key)
+        .map(this::mapToStoredResponse)
+        .filter(response -> !response.isExpired(Instant.now()));
+  }
+
+  @Override
+  @Transactional
+  public void save(String key, StoredResponse response) {
+    repository.save(
+        IdempotencyRecord.builder()
+            .idempotencyKey(key)
+            .fingerprint(response.fingerprint())
+            .status(response.status())
+            .contentType(response.contentType())
+            .location(response.location())
+            .body(response.body())
+            .expiresAt(response.expiresAt())
+            .build());
+  }
+
+  @Override
+  @Transactional
+  public void purgeExpired() {
+    repository.deleteByExpiresAtBefore(Instant.now());
+  }
+
+  private StoredResponse mapToStoredResponse(IdempotencyRecord record) {
+    return new StoredResponse(
+        record.getFingerprint(),
+        record.getStatus(),
+        record.getContentType(),
+        record.getLocation(),
+        record.getBody(),
+        record.getExpiresAt());
+  }
+}
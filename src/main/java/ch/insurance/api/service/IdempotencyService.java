@@ -0,0 +1,106 @@
+package ch.insurance.api.service;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import ch.insurance.api.config.IdempotencyProperties;
+import ch.insurance.api.exception.IdempotencyException;
+import lombok.RequiredArgsConstructor;
+
+@Service
+@RequiredArgsConstructor
+public class IdempotencyService {
+
+  private final IdempotencyStore idempotencyStore;
+  private final IdempotencyProperties properties;
+
+  private final ConcurrentMap<String, CompletableFuture<StoredResponse>> inFlight =
+      new ConcurrentHashMap<>();
+
+  public <E extends Exception> Outcome execute(
+      String key, String fingerprint, Execution<E> execution) throws E {
+    Optional<StoredResponse> completed = findCompleted(key, fingerprint);
+    if (completed.isPresent()) {
+      return new Outcome(completed.get(), true);
+    }
+
+    CompletableFuture<StoredResponse> claim = new CompletableFuture<>();
+    CompletableFuture<StoredResponse> running = inFlight.putIfAbsent(key, claim);
+    if (running != null) {
+      return new Outcome(checkFingerprint(awaitFirstExecution(running), fingerprint), true);
+    }
+
+    try {
+      // The previous owner may have stored its response between our lookup and our claim
+      completed = findCompleted(key, fingerprint);
+      if (completed.isPresent()) {
+        claim.complete(completed.get());
+        return new Outcome(completed.get(), true);
+      }
+
+      StoredResponse response = execution.run(Instant.now().plus(properties.getTtl()));
+      if (HttpStatus.valueOf(response.status()).is2xxSuccessful()) {
+        idempotencyStore.save(key, response);
+      }
+      claim.complete(response);
+      return new Outcome(response, false);
+    } catch (Exception ex) {
+      claim.completeExceptionally(ex);
+      throw ex;
+    } finally {
+      inFlight.remove(key, claim);
+    }
+  }
+
+  @Scheduled(fixedDelayString = "${insurance.idempotency.purge-interval:PT5M}")
+  public void purgeExpired() {
+    idempotencyStore.purgeExpired();
+  }
+
+  private Optional<StoredResponse> findCompleted(String key, String fingerprint) {
+    return idempotencyStore.find(key).map(response -> checkFingerprint(response, fingerprint));
+  }
+
+  private StoredResponse checkFingerprint(StoredResponse response, String fingerprint) {
+    if (!response.fingerprint().equals(fingerprint)) {
+      throw new IdempotencyException(
+          HttpStatus.UNPROCESSABLE_ENTITY,
+          "Idempotency-Key was already used with a different request body");
+    }
+    return response;
+  }
+
+  private StoredResponse awaitFirstExecution(CompletableFuture<StoredResponse> running) {
+    try {
+      return running.get(properties.getInFlightTimeout().toMillis(), TimeUnit.MILLISECONDS);
+    } catch (TimeoutException e) {
+      throw new IdempotencyException(
+          HttpStatus.CONFLICT, "A request with this Idempotency-Key is still being processed");
+    } catch (ExecutionException e) {
+      throw new IdempotencyException(
+          HttpStatus.CONFLICT, "The original request with this Idempotency-Key failed; retry it");
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IdempotencyException(
+          HttpStatus.SERVICE_UNAVAILABLE, "Interrupted while waiting for the original request");
+    }
+  }
+
+  @FunctionalInterface
+  public interface Execution<E extends Exception> {
+
+    StoredResponse run(Instant expiresAt) throws E;
+  }
+
+  public record Outcome(StoredResponse response, boolean replayed) {}
+}
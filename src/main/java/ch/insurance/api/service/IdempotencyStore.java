@@ -0,0 +1,12 @@
+package ch.insurance.api.service;
+
+import java.util.Optional;
+
+public interface IdempotencyStore {
+
+  Optional<StoredResponse> find(String key);
+
+  void save(String key, StoredResponse response);
+
+  void purgeExpired();
+}
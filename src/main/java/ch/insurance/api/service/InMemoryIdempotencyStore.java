@@ -0,0 +1,47 @@
+package ch.insurance.api.service;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+public class InMemoryIdempotencyStore implements IdempotencyStore {
+
+  private final Map<String, StoredResponse> entries;
+
+  public InMemoryIdempotencyStore(int maxEntries) {
+    // Access-ordered so the least recently replayed key is evicted first once full
+    this.entries =
+        new LinkedHashMap<>(16, 0.75f, true) {
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<String, StoredResponse> eldest) {
+            return size() > maxEntries;
+          }
+        };
+  }
+
+  @Override
+  public synchronized Optional<StoredResponse> find(String key) {
+    StoredResponse response = entries.get(key);
+    if (response != null && response.isExpired(Instant.now())) {
+      entries.remove(key);
+      return Optional.empty();
+    }
+    return Optional.ofNullable(response);
+  }
+
+  @Override
+  public synchronized void save(String key, StoredResponse response) {
+    entries.put(key, response);
+  }
+
+  @Override
+  public synchronized void purgeExpired() {
+    Instant now = Instant.now();
+    entries.values().removeIf(response -> response.isExpired(now));
+  }
+
+  synchronized int size() {
+    return entries.size();
+  }
+}
@@ -0,0 +1,120 @@
+package ch.insurance.api.service;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Short-lived record of ids that were just looked up and not found, so repeated requests for them
+ * are answered without a database round trip. Creations invalidate their id after commit; a lookup
+ * that raced with a creation is not recorded, see {@link #version(long)}.
+ */
+public class MissingIdCache {
+
+  private static final int STRIPES = 64;
+
+  private final boolean enabled;
+  private final long ttlNanos;
+  private final int maxEntries;
+  private final LongSupplier nanoClock;
+  private final ConcurrentHashMap<Long, Long> expiries = new ConcurrentHashMap<>();
+  // Bumped by every invalidation of an id in the stripe
+  private final AtomicLongArray versions = new AtomicLongArray(STRIPES);
+  private final AtomicLong nextPurgeNanos;
+  private final Counter hits;
+
+  public MissingIdCache(
+      String resource, boolean enabled, Duration ttl, int maxEntries, MeterRegistry registry) {
+    this(resource, enabled, ttl, maxEntries, registry, System::nanoTime);
+  }
+
+  MissingIdCache(
+      String resource,
+      boolean enabled,
+      Duration ttl,
+      int maxEntries,
+      MeterRegistry registry,
+      LongSupplier nanoClock) {
+    this.enabled = enabled;
+    this.ttlNanos = ttl.toNanos();
+    this.maxEntries = maxEntries;
+    this.nanoClock = nanoClock;
+    this.nextPurgeNanos = new AtomicLong(nanoClock.getAsLong());
+    this.hits =
+        Counter.builder("insurance.lookups.missing_id_cache.hits")
+            .tag("resource", resource)
+            .description("Lookups answered as not found without querying the database")
+            .register(registry);
+    Gauge.builder("insurance.lookups.missing_id_cache.size", expiries, ConcurrentHashMap::size)
+        .tag("resource", resource)
+        .register(registry);
+  }
+
+  public boolean isKnownMissing(long id) {
+    if (!enabled) {
+      return false;
+    }
+    Long expiry = expiries.get(id);
+    if (expiry == null) {
+      return false;
+    }
+    if (expiry - nanoClock.getAsLong() <= 0) {
+      expiries.remove(id, expiry);
+      return false;
+    }
+    hits.increment();
+    return true;
+  }
+
+  // Read before the lookup and handed back to markMissing
+  public long version(long id) {
+    return versions.get(stripe(id));
+  }
+
+  public void markMissing(long id, long versionBeforeLookup) {
+    if (!enabled) {
+      return;
+    }
+    long now = nanoClock.getAsLong();
+    if (expiries.size() >= maxEntries && !purgeExpired(now)) {
+      return;
+    }
+    expiries.put(id, now + ttlNanos);
+    // The id was created while the lookup ran: the miss may already be stale
+    if (versions.get(stripe(id)) != versionBeforeLookup) {
+      expiries.remove(id);
+    }
+  }
+
+  public void invalidate(long id) {
+    if (!enabled) {
+      return;
+    }
+    versions.incrementAndGet(stripe(id));
+    expiries.remove(id);
+  }
+
+  int size() {
+    return expiries.size();
+  }
+
+  // Sweeps at most once per ttl so a full cache under a scan does not sweep on every miss
+  private boolean purgeExpired(long now) {
+    long next = nextPurgeNanos.get();
+    if (next - now > 0 || !nextPurgeNanos.compareAndSet(next, now + ttlNanos)) {
+      return false;
+    }
+    expiries.values().removeIf(expiry -> expiry - now <= 0);
+    return expiries.size() < maxEntries;
+  }
+
+  private static int stripe(long id) {
+    return (int) (id ^ (id >>> 32)) & (STRIPES - 1);
+  }
+}
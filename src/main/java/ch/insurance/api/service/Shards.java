@@ -0,0 +1,165 @@
+package ch.insurance.api.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+import jakarta.annotation.PreDestroy;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import ch.insurance.api.config.ShardingProperties;
+import ch.insurance.api.datasource.ShardContext;
+import ch.insurance.api.datasource.ShardRoutingDataSource;
+
+/**
+ * Entry point for work that is not pinned by a {@code @ShardKey}: placing new clients, running jobs
+ * shard by shard, and queries that fan out to every shard in parallel and merge. Without sharding
+ * there is a single shard and everything runs on the calling thread.
+ */
+@Component
+public class Shards {
+
+  private final ShardRoutingDataSource routing;
+  private final TransactionOperations readOnlyTransaction;
+  private final ExecutorService fanOutExecutor;
+
+  @Autowired
+  public Shards(
+      ObjectProvider<ShardRoutingDataSource> routing,
+      ObjectProvider<ShardingProperties> properties,
+      PlatformTransactionManager transactionManager) {
+    this(
+        routing.getIfAvailable(),
+        readOnly(transactionManager),
+        properties.getIfAvailable(ShardingProperties::new).getFanOutThreadsPerShard());
+  }
+
+  Shards(
+      ShardRoutingDataSource routing,
+      TransactionOperations readOnlyTransaction,
+      int fanOutThreadsPerShard) {
+    this.routing = routing;
+    this.readOnlyTransaction = readOnlyTransaction;
+    this.fanOutExecutor =
+        routing != null && routing.getShardCount() > 1
+            ? Executors.newFixedThreadPool(
+                routing.getShardCount() * fanOutThreadsPerShard,
+                Thread.ofPlatform().name("shard-fan-out-", 0).daemon().factory())
+            : null;
+  }
+
+  public int count() {
+    return routing != null ? routing.getShardCount() : 1;
+  }
+
+  public int shardOf(long id) {
+    return routing != null ? routing.shardOf(id) : 0;
+  }
+
+  /**
+   * Shard a new client is placed on, from a hash of its email: concurrent creates of the same email
+   * meet on one shard, where its unique index lets only one of them commit. The id the shard then
+   * generates keeps the client there, even if its email later changes.
+   */
+  public int shardForEmail(String email) {
+    return Math.floorMod(email.hashCode(), count());
+  }
+
+  public <T> T on(int shard, Supplier<T> task) {
+    Integer previous = ShardContext.get();
+    ShardContext.set(shard);
+    try {
+      return task.get();
+    } finally {
+      ShardContext.set(previous);
+    }
+  }
+
+  public void on(int shard, Runnable task) {
+    on(
+        shard,
+        () -> {
+          task.run();
+          return null;
+        });
+  }
+
+  public void forEach(IntConsumer task) {
+    for (int shard = 0; shard < count(); shard++) {
+      int current = shard;
+      on(current, () -> task.accept(current));
+    }
+  }
+
+  public Map<Integer, List<Long>> groupByShard(Collection<Long> ids) {
+    Map<Integer, List<Long>> groups = new HashMap<>();
+    for (Long id : ids) {
+      groups.computeIfAbsent(shardOf(id), shard -> new ArrayList<>()).add(id);
+    }
+    return groups;
+  }
+
+  /**
+   * Runs the query on every shard, each in its own read-only transaction, and concatenates the
+   * results in shard order. With a single shard it runs on the calling thread and joins the
+   * caller's transaction, if any.
+   */
+  public <T> List<T> fanOut(IntFunction<List<T>> query) {
+    if (fanOutExecutor == null) {
+      return readOnlyTransaction.execute(status -> query.apply(0));
+    }
+
+    List<Future<List<T>>> futures = new ArrayList<>(count());
+    for (int shard = 0; shard < count(); shard++) {
+      int current = shard;
+      futures.add(
+          fanOutExecutor.submit(
+              () -> on(current, () -> readOnlyTransaction.execute(s -> query.apply(current)))));
+    }
+    List<T> results = new ArrayList<>();
+    try {
+      for (Future<List<T>> future : futures) {
+        results.addAll(future.get());
+      }
+    } catch (ExecutionException e) {
+      futures.forEach(future -> future.cancel(true));
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw new IllegalStateException("Shard query failed", e.getCause());
+    } catch (InterruptedException e) {
+      futures.forEach(future -> future.cancel(true));
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while querying shards", e);
+    }
+    return results;
+  }
+
+  @PreDestroy
+  void stop() {
+    if (fanOutExecutor != null) {
+      fanOutExecutor.shutdownNow();
+    }
+  }
+
+  private static TransactionTemplate readOnly(PlatformTransactionManager transactionManager) {
+    TransactionTemplate template = new TransactionTemplate(transactionManager);
+    template.setReadOnly(true);
+    return template;
+  }
+}
@@ -0,0 +1,108 @@
+package ch.insurance.api.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import ch.insurance.api.datasource.ReplicaRoutingContext;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Collapses concurrent loads of the same key into one: the first caller runs the loader, callers
+ * arriving while it is in flight wait for and share its result (or exception). Callers pinned to
+ * the primary by read-your-writes only share loads among themselves: a load another caller runs may
+ * be served by a replica that has not caught up with their write yet.
+ */
+public class SingleFlight<K, V> {
+
+  private final TransactionOperations transaction;
+  private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+  private final ConcurrentMap<K, CompletableFuture<V>> inFlightOnPrimary =
+      new ConcurrentHashMap<>();
+  private final LongAdder requests = new LongAdder();
+  private final LongAdder coalesced = new LongAdder();
+
+  public SingleFlight() {
+    this(TransactionOperations.withoutTransaction());
+  }
+
+  public SingleFlight(TransactionOperations transaction) {
+    this.transaction = transaction;
+  }
+
+  public SingleFlight(String name, TransactionOperations transaction, MeterRegistry registry) {
+    this(transaction);
+    FunctionCounter.builder("insurance.singleflight.requests", requests, LongAdder::sum)
+        .tag("name", name)
+        .description("Loads requested through the single-flight layer")
+        .register(registry);
+    FunctionCounter.builder("insurance.singleflight.coalesced", coalesced, LongAdder::sum)
+        .tag("name", name)
+        .description("Loads served by joining a call already in flight")
+        .register(registry);
+    Gauge.builder("insurance.singleflight.coalescing.ratio", this, SingleFlight::coalescingRatio)
+        .tag("name", name)
+        .register(registry);
+    Gauge.builder("insurance.singleflight.inflight", this, SingleFlight::inFlightCount)
+        .tag("name", name)
+        .register(registry);
+  }
+
+  public V execute(K key, Supplier<V> loader) {
+    requests.increment();
+
+    // Inside a caller's transaction the result may include its uncommitted writes, which must
+    // not leak to other callers
+    if (TransactionSynchronizationManager.isActualTransactionActive()) {
+      return loader.get();
+    }
+
+    ConcurrentMap<K, CompletableFuture<V>> flights =
+        ReplicaRoutingContext.isPrimaryForced() ? inFlightOnPrimary : inFlight;
+    CompletableFuture<V> claim = new CompletableFuture<>();
+    CompletableFuture<V> running = flights.putIfAbsent(key, claim);
+    if (running != null) {
+      coalesced.increment();
+      return join(running);
+    }
+
+    try {
+      V value = transaction.execute(status -> loader.get());
+      claim.complete(value);
+      return value;
+    } catch (RuntimeException | Error ex) {
+      claim.completeExceptionally(ex);
+      throw ex;
+    } finally {
+      flights.remove(key, claim);
+    }
+  }
+
+  public double coalescingRatio() {
+    long total = requests.sum();
+    return total == 0 ? 0 : (double) coalesced.sum() / total;
+  }
+
+  private int inFlightCount() {
+    return inFlight.size() + inFlightOnPrimary.size();
+  }
+
+  private V join(CompletableFuture<V> running) {
+    try {
+      return running.join();
+    } catch (CompletionException ex) {
+      if (ex.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw ex;
+    }
+  }
+}
@@ -0,0 +1,16 @@
+package ch.insurance.api.service;
+
+import java.time.Instant;
+
+public record StoredResponse(
+    String fingerprint,
+    int status,
+    String contentType,
+    String location,
+    byte[] body,
+    Instant expiresAt) {
+
+  public boolean isExpired(Instant now) {
+    return !expiresAt.isAfter(now);
+  }
+}
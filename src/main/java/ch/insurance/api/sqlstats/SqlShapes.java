@@ -0,0 +1,43 @@
+package ch.insurance.api.sqlstats;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+// Reduces a statement to its shape: literals become ?, IN lists of any length become one, and
+// whitespace is collapsed, so executions differing only in values are counted together.
+final class SqlShapes {
+
+  private static final int MAX_CACHED = 10_000;
+
+  private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+  private static final Pattern NUMBER_LITERAL = Pattern.compile("(?<![\\w.])-?\\d+(?:\\.\\d+)?\\b");
+  private static final Pattern IN_LIST =
+      Pattern.compile("(?i)\\bin\\s*\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+  private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+  // Hibernate and the repositories issue a small set of distinct strings; keyed by the raw SQL
+  private static final Map<String, String> CACHE = new ConcurrentHashMap<>();
+
+  private SqlShapes() {}
+
+  static String of(String sql) {
+    String shape = CACHE.get(sql);
+    if (shape == null) {
+      shape = normalize(sql);
+      if (CACHE.size() >= MAX_CACHED) {
+        // Statements built with inlined values would otherwise grow the cache without bound
+        CACHE.clear();
+      }
+      CACHE.put(sql, shape);
+    }
+    return shape;
+  }
+
+  static String normalize(String sql) {
+    String shape = STRING_LITERAL.matcher(sql).replaceAll("?");
+    shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+    shape = WHITESPACE.matcher(shape).replaceAll(" ").strip();
+    return IN_LIST.matcher(shape).replaceAll("in (...)");
+  }
+}
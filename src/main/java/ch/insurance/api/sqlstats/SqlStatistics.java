@@ -0,0 +1,243 @@
+package ch.insurance.api.sqlstats;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.temporal.TemporalAccessor;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import ch.insurance.api.config.SqlStatisticsProperties;
+import ch.insurance.api.sqlstats.SqlStatisticsReport.Execution;
+import ch.insurance.api.sqlstats.SqlStatisticsReport.Shape;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Execution times per statement shape, fed by {@link StatementTimingDataSource}. Shapes are kept in
+ * a fixed-size table run as Space-Saving: a shape arriving when the table is full replaces the
+ * least frequent one and inherits its count, so the most frequent shapes stay in the table and
+ * memory stays bounded however many shapes go by. The slowest single executions are kept in a
+ * min-heap of the top K; executions over the slow threshold are logged with their parameters.
+ *
+ * <p>Every statement of the application passes through here, so recording takes no lock in the
+ * common case: a tracked shape only bumps its own striped counters. Admitting a new shape, which
+ * may evict another, and entering the slowest heap, once an execution beats its fastest entry, are
+ * the only steps that lock. An execution racing the eviction of its own shape can go uncounted; the
+ * Space-Saving counts are estimates past that point anyway.
+ */
+@Slf4j
+public class SqlStatistics {
+
+  private static final Comparator<Execution> BY_DURATION =
+      Comparator.comparingDouble(Execution::millis);
+
+  private final int topK;
+  private final int capacity;
+  private final long slowNanos;
+  private final boolean captureParameters;
+  private final int maxParameterLength;
+  private final Clock clock;
+
+  private final ConcurrentMap<String, Tracked> shapes = new ConcurrentHashMap<>();
+  private final LongAdder executions = new LongAdder();
+  private final Object admission = new Object();
+
+  // Guarded by itself; slowestFloor is its fastest entry once full, so most executions skip it
+  private final PriorityQueue<Execution> slowest = new PriorityQueue<>(BY_DURATION);
+  private volatile double slowestFloor = -1;
+
+  private volatile Instant since;
+
+  public SqlStatistics(SqlStatisticsProperties properties) {
+    this(properties, Clock.systemUTC());
+  }
+
+  SqlStatistics(SqlStatisticsProperties properties, Clock clock) {
+    if (properties.getTopK() < 1 || properties.getTrackedStatements() < properties.getTopK()) {
+      throw new IllegalArgumentException("Tracked statements must be at least top-k, which is > 0");
+    }
+    this.topK = properties.getTopK();
+    this.capacity = properties.getTrackedStatements();
+    this.slowNanos = properties.getSlowThreshold().toNanos();
+    this.captureParameters = properties.isCaptureParameters();
+    this.maxParameterLength = properties.getMaxParameterLength();
+    this.clock = clock;
+    this.since = clock.instant();
+  }
+
+  public boolean capturesParameters() {
+    return captureParameters;
+  }
+
+  /**
+   * @param parameters bind values at indexes 1 to parameterCount, as JDBC numbers them; only read
+   *     during the call
+   */
+  public void record(String sql, long nanos, Object[] parameters, int parameterCount) {
+    String shape = SqlShapes.of(sql);
+    Execution slow = null;
+    if (nanos >= slowNanos) {
+      slow = execution(shape, nanos, render(parameters, parameterCount));
+      log.warn("Slow statement ({} ms): {} with {}", slow.millis(), sql, slow.parameters());
+    }
+    executions.increment();
+    Tracked tracked = shapes.get(shape);
+    if (tracked == null) {
+      tracked = admit(shape);
+    }
+    tracked.record(nanos, slow);
+
+    double millis = toMillis(nanos);
+    if (millis > slowestFloor) {
+      synchronized (slowest) {
+        if (slowest.size() < topK || millis > slowest.peek().millis()) {
+          slowest.add(slow != null ? slow : execution(shape, nanos, null));
+          if (slowest.size() > topK) {
+            slowest.poll();
+          }
+          slowestFloor = slowest.size() < topK ? -1 : slowest.peek().millis();
+        }
+      }
+    }
+  }
+
+  private Tracked admit(String shape) {
+    synchronized (admission) {
+      Tracked tracked = shapes.get(shape);
+      if (tracked != null) {
+        return tracked;
+      }
+      long inherited = 0;
+      if (shapes.size() >= capacity) {
+        // Rare once the working set of shapes is in the table, so a scan is good enough
+        Tracked evicted =
+            shapes.values().stream().min(Comparator.comparingLong(Tracked::count)).orElseThrow();
+        shapes.remove(evicted.shape);
+        inherited = evicted.count();
+      }
+      tracked = new Tracked(shape, inherited);
+      shapes.put(shape, tracked);
+      return tracked;
+    }
+  }
+
+  public SqlStatisticsReport report() {
+    List<Shape> all = shapes.values().stream().map(Tracked::toShape).toList();
+    List<Execution> slowestFirst;
+    synchronized (slowest) {
+      slowestFirst = new ArrayList<>(slowest);
+    }
+    slowestFirst.sort(BY_DURATION.reversed());
+    return new SqlStatisticsReport(
+        since,
+        executions.sum(),
+        top(all, Comparator.comparingLong(Shape::count)),
+        top(all, Comparator.comparingDouble(Shape::totalMillis)),
+        slowestFirst);
+  }
+
+  public void reset() {
+    synchronized (admission) {
+      shapes.clear();
+    }
+    synchronized (slowest) {
+      slowest.clear();
+      slowestFloor = -1;
+    }
+    executions.reset();
+    since = clock.instant();
+  }
+
+  private List<Shape> top(List<Shape> shapes, Comparator<Shape> order) {
+    return shapes.stream().sorted(order.reversed()).limit(topK).toList();
+  }
+
+  private Execution execution(String shape, long nanos, List<String> parameters) {
+    return new Execution(shape, toMillis(nanos), clock.instant(), parameters);
+  }
+
+  private List<String> render(Object[] parameters, int parameterCount) {
+    if (!captureParameters) {
+      return null;
+    }
+    if (parameterCount == 0) {
+      return List.of();
+    }
+    return Arrays.stream(parameters, 1, parameterCount + 1).map(this::render).toList();
+  }
+
+  private String render(Object value) {
+    if (value == null) {
+      return "null";
+    }
+    if (value instanceof byte[] bytes) {
+      return "<" + bytes.length + " bytes>";
+    }
+    if (value instanceof CharSequence
+        || value instanceof Number
+        || value instanceof Boolean
+        || value instanceof Enum<?>
+        || value instanceof TemporalAccessor
+        || value instanceof Date) {
+      String text = value.toString();
+      return text.length() > maxParameterLength
+          ? text.substring(0, maxParameterLength) + "..."
+          : text;
+    }
+    // Streams, LOBs and arrays are not read just for the log
+    return "<" + value.getClass().getSimpleName() + ">";
+  }
+
+  private static double toMillis(long nanos) {
+    return nanos / 1_000_000.0;
+  }
+
+  private static final class Tracked {
+
+    private final String shape;
+    // Count inherited from the shape it evicted, which is also the error bound on its count
+    private final long error;
+    private final LongAdder observed = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+    private volatile Execution slowSample;
+
+    private Tracked(String shape, long error) {
+      this.shape = shape;
+      this.error = error;
+    }
+
+    private void record(long nanos, Execution slow) {
+      observed.increment();
+      totalNanos.add(nanos);
+      maxNanos.accumulate(nanos);
+      if (slow != null) {
+        slowSample = slow;
+      }
+    }
+
+    private long count() {
+      return error + observed.sum();
+    }
+
+    private Shape toShape() {
+      long executions = observed.sum();
+      double totalMillis = toMillis(totalNanos.sum());
+      return new Shape(
+          shape,
+          error + executions,
+          error,
+          totalMillis,
+          executions == 0 ? 0 : totalMillis / executions,
+          toMillis(maxNanos.get()),
+          slowSample);
+    }
+  }
+}
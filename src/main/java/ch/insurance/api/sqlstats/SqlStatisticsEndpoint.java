@@ -0,0 +1,25 @@
+package ch.insurance.api.sqlstats;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import lombok.RequiredArgsConstructor;
+
+// GET /actuator/sqlstats for the report, DELETE to start over, e.g. before a load test
+@Endpoint(id = "sqlstats")
+@RequiredArgsConstructor
+public class SqlStatisticsEndpoint {
+
+  private final SqlStatistics statistics;
+
+  @ReadOperation
+  public SqlStatisticsReport report() {
+    return statistics.report();
+  }
+
+  @DeleteOperation
+  public void reset() {
+    statistics.reset();
+  }
+}
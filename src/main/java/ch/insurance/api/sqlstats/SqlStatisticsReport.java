@@ -0,0 +1,29 @@
+package ch.insurance.api.sqlstats;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * What {@link SqlStatistics} saw since it was started or reset. Counts of statement shapes that
+ * entered the table after it was full are estimates: {@code count} is an upper bound and {@code
+ * count - countError} a lower one.
+ */
+public record SqlStatisticsReport(
+    Instant since,
+    long executions,
+    List<Shape> mostFrequent,
+    List<Shape> mostTime,
+    List<Execution> slowest) {
+
+  public record Shape(
+      String sql,
+      long count,
+      long countError,
+      double totalMillis,
+      double meanMillis,
+      double maxMillis,
+      Execution slowSample) {}
+
+  /** One execution; parameters are only kept for executions over the slow threshold. */
+  public record Execution(String sql, double millis, Instant at, List<String> parameters) {}
+}
@@ -0,0 +1,166 @@
+package ch.insurance.api.sqlstats;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * Hands out connections whose statements report each execute call, with its duration and the bind
+ * values last set, to {@link SqlStatistics}. Only the execute call is timed, not reading the result
+ * set. Unwrapping reaches the pool underneath, so pool metrics and health checks still find it.
+ */
+public class StatementTimingDataSource extends DelegatingDataSource {
+
+  private final SqlStatistics statistics;
+
+  public StatementTimingDataSource(DataSource target, SqlStatistics statistics) {
+    super(target);
+    this.statistics = statistics;
+  }
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    return timed(super.getConnection());
+  }
+
+  @Override
+  public Connection getConnection(String username, String password) throws SQLException {
+    return timed(super.getConnection(username, password));
+  }
+
+  private Connection timed(Connection connection) {
+    return (Connection)
+        Proxy.newProxyInstance(
+            Connection.class.getClassLoader(),
+            new Class<?>[] {Connection.class},
+            new ConnectionHandler(connection));
+  }
+
+  private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+    try {
+      return method.invoke(target, args);
+    } catch (InvocationTargetException e) {
+      throw e.getCause();
+    }
+  }
+
+  // Proxies are only equal to themselves; the target would not recognise one
+  private static Object identity(Object proxy, Method method, Object[] args, Object target) {
+    return switch (method.getName()) {
+      case "equals" -> proxy == args[0];
+      case "hashCode" -> System.identityHashCode(proxy);
+      default -> "Timed " + target;
+    };
+  }
+
+  private static boolean isIdentity(Method method) {
+    return switch (method.getName()) {
+      case "equals" -> method.getParameterCount() == 1;
+      case "hashCode", "toString" -> method.getParameterCount() == 0;
+      default -> false;
+    };
+  }
+
+  private final class ConnectionHandler implements InvocationHandler {
+
+    private final Connection target;
+
+    private ConnectionHandler(Connection target) {
+      this.target = target;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+      if (isIdentity(method)) {
+        return identity(proxy, method, args, target);
+      }
+      Object result = StatementTimingDataSource.invoke(target, method, args);
+      if (result instanceof Statement statement) {
+        // prepareStatement and prepareCall take the SQL first, createStatement gets it per call
+        String sql = method.getName().startsWith("prepare") ? (String) args[0] : null;
+        return Proxy.newProxyInstance(
+            Statement.class.getClassLoader(),
+            new Class<?>[] {statementType(statement)},
+            new StatementHandler(statement, sql));
+      }
+      return result;
+    }
+
+    private static Class<?> statementType(Statement statement) {
+      if (statement instanceof CallableStatement) {
+        return CallableStatement.class;
+      }
+      return statement instanceof PreparedStatement ? PreparedStatement.class : Statement.class;
+    }
+  }
+
+  private final class StatementHandler implements InvocationHandler {
+
+    private final Statement target;
+    private final String sql;
+    private String batchSql;
+    private Object[] parameters;
+    private int parameterCount;
+
+    private StatementHandler(Statement target, String sql) {
+      this.target = target;
+      this.sql = sql;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+      if (isIdentity(method)) {
+        return identity(proxy, method, args, target);
+      }
+      String name = method.getName();
+      if (name.startsWith("execute")) {
+        String executed =
+            args != null && args[0] instanceof String text ? text : sql != null ? sql : batchSql;
+        long start = System.nanoTime();
+        try {
+          return StatementTimingDataSource.invoke(target, method, args);
+        } finally {
+          if (executed != null) {
+            statistics.record(executed, System.nanoTime() - start, parameters, parameterCount);
+          }
+        }
+      }
+      if (name.startsWith("set")
+          && args != null
+          && args.length >= 2
+          && args[0] instanceof Integer index
+          && statistics.capturesParameters()) {
+        capture(index, name.equals("setNull") ? null : args[1]);
+      } else if (name.equals("clearParameters")) {
+        parameterCount = 0;
+      } else if (name.equals("addBatch") && args != null) {
+        batchSql = (String) args[0];
+      }
+      return StatementTimingDataSource.invoke(target, method, args);
+    }
+
+    private void capture(int index, Object value) {
+      if (parameters == null) {
+        parameters = new Object[Math.max(index + 1, 8)];
+      } else if (index >= parameters.length) {
+        parameters = Arrays.copyOf(parameters, Math.max(index + 1, parameters.length * 2));
+      }
+      if (index > parameterCount) {
+        Arrays.fill(parameters, parameterCount + 1, index, null);
+        parameterCount = index;
+      }
+      parameters[index] = value;
+    }
+  }
+}
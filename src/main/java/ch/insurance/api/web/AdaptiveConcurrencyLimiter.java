@@ -0,0 +1,169 @@
+package ch.insurance.api.web;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+import ch.insurance.api.config.ConcurrencyLimitProperties;
+
+/**
+ * Gradient-style concurrency limit: the limit follows the ratio between a long-term RTT baseline
+ * and recent latency, so it shrinks as soon as queueing inflates latency and grows back by roughly
+ * sqrt(limit) while latency stays at the baseline.
+ *
+ * <p>Releasing a permit only adds its sample to striped counters, so request threads never wait on
+ * each other. Once per update interval, the first releasing thread to notice folds the window's
+ * samples into the baseline and the limit; the others carry on.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+  private static final double MIN_GRADIENT = 0.5;
+  private static final double DROP_BACKOFF = 0.9;
+
+  private final ConcurrencyLimitProperties.Limit settings;
+  private final LongSupplier nanoClock;
+  private final long updateIntervalNanos;
+  private final AtomicInteger inFlight = new AtomicInteger();
+
+  // The current window, reset by each update
+  private final LongAdder windowSamples = new LongAdder();
+  private final LongAdder windowRttNanos = new LongAdder();
+  private final LongAdder saturatedSamples = new LongAdder();
+  private final LongAdder saturatedRttNanos = new LongAdder();
+  private final LongAdder drops = new LongAdder();
+
+  private final AtomicBoolean updating = new AtomicBoolean();
+  private volatile long lastUpdateNanos;
+
+  private volatile double limit;
+  // Only written by the thread holding updating
+  private volatile double longRttNanos;
+  private long samples;
+  private volatile long lastRttNanos;
+
+  public AdaptiveConcurrencyLimiter(ConcurrencyLimitProperties.Limit settings) {
+    this(settings, System::nanoTime);
+  }
+
+  AdaptiveConcurrencyLimiter(ConcurrencyLimitProperties.Limit settings, LongSupplier nanoClock) {
+    this.settings = settings;
+    this.nanoClock = nanoClock;
+    this.updateIntervalNanos = settings.getUpdateInterval().toNanos();
+    this.limit = settings.getInitialLimit();
+    this.lastUpdateNanos = nanoClock.getAsLong();
+  }
+
+  public Optional<Permit> tryAcquire() {
+    while (true) {
+      int current = inFlight.get();
+      if (current >= (int) limit) {
+        return Optional.empty();
+      }
+      if (inFlight.compareAndSet(current, current + 1)) {
+        return Optional.of(new Permit(nanoClock.getAsLong(), current + 1));
+      }
+    }
+  }
+
+  public int getLimit() {
+    return (int) limit;
+  }
+
+  public int getInFlight() {
+    return inFlight.get();
+  }
+
+  public double getBaselineRttMillis() {
+    return longRttNanos / 1_000_000d;
+  }
+
+  /** Average latency over the last update window. */
+  public double getLastRttMillis() {
+    return lastRttNanos / 1_000_000d;
+  }
+
+  private void onSample(long now, long rttNanos, int inFlightAtStart, boolean dropped) {
+    if (dropped) {
+      drops.increment();
+    } else {
+      windowSamples.increment();
+      windowRttNanos.add(rttNanos);
+      // Not enough load to tell whether a higher limit would hurt
+      if (inFlightAtStart >= limit / 2) {
+        saturatedSamples.increment();
+        saturatedRttNanos.add(rttNanos);
+      }
+    }
+
+    if (now - lastUpdateNanos >= updateIntervalNanos && updating.compareAndSet(false, true)) {
+      try {
+        if (now - lastUpdateNanos >= updateIntervalNanos) {
+          lastUpdateNanos = now;
+          update();
+        }
+      } finally {
+        updating.set(false);
+      }
+    }
+  }
+
+  private void update() {
+    long dropCount = drops.sumThenReset();
+    long count = windowSamples.sumThenReset();
+    long rttSum = windowRttNanos.sumThenReset();
+    long saturated = saturatedSamples.sumThenReset();
+    long saturatedRttSum = saturatedRttNanos.sumThenReset();
+
+    if (count > 0) {
+      double rttNanos = (double) rttSum / count;
+      lastRttNanos = (long) rttNanos;
+      // Exponential average whose warm-up phase is a plain mean, so the first samples count fully
+      samples += count;
+      double weight = Math.min(1, count * Math.max(1d / settings.getLongWindow(), 1d / samples));
+      longRttNanos = longRttNanos + (rttNanos - longRttNanos) * weight;
+
+      // After a sustained latency spike the baseline would stay inflated; let it decay back
+      if (longRttNanos / rttNanos > 2) {
+        longRttNanos *= 0.95;
+      }
+    }
+
+    // One backoff per window however many requests failed in it, since they share one cause
+    if (dropCount > 0) {
+      limit = clamp(limit * DROP_BACKOFF);
+      return;
+    }
+    if (saturated == 0) {
+      return;
+    }
+
+    double rttNanos = (double) saturatedRttSum / saturated;
+    double gradient =
+        Math.max(MIN_GRADIENT, Math.min(1.0, settings.getRttTolerance() * longRttNanos / rttNanos));
+    double target = limit * gradient + Math.sqrt(limit);
+    limit = clamp(limit * (1 - settings.getSmoothing()) + target * settings.getSmoothing());
+  }
+
+  private double clamp(double value) {
+    return Math.max(settings.getMinLimit(), Math.min(settings.getMaxLimit(), value));
+  }
+
+  public final class Permit {
+
+    private final long startNanos;
+    private final int inFlightAtStart;
+
+    private Permit(long startNanos, int inFlightAtStart) {
+      this.startNanos = startNanos;
+      this.inFlightAtStart = inFlightAtStart;
+    }
+
+    public void release(boolean dropped) {
+      inFlight.decrementAndGet();
+      long now = nanoClock.getAsLong();
+      onSample(now, Math.max(1, now - startNanos), inFlightAtStart, dropped);
+    }
+  }
+}
@@ -0,0 +1,169 @@
+package ch.insurance.api.web;
+
+import java.io.IOException;
+import java.sql.SQLTimeoutException;
+import java.sql.SQLTransientConnectionException;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.TimeoutException;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionTimedOutException;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.DispatcherServlet;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import ch.insurance.api.config.ConcurrencyLimitProperties;
+import ch.insurance.api.exception.ErrorResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Runs ahead of the other filters so shed requests never reach body buffering or the pool
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 100)
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+  private final ConcurrencyLimitProperties properties;
+  private final ObjectMapper objectMapper;
+  private final AdaptiveConcurrencyLimiter readLimiter;
+  private final AdaptiveConcurrencyLimiter writeLimiter;
+  private final Counter readRejections;
+  private final Counter writeRejections;
+
+  private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+  public ConcurrencyLimitFilter(
+      ConcurrencyLimitProperties properties, ObjectMapper objectMapper, MeterRegistry registry) {
+    this.properties = properties;
+    this.objectMapper = objectMapper;
+    this.readLimiter = new AdaptiveConcurrencyLimiter(properties.getRead());
+    this.writeLimiter = new AdaptiveConcurrencyLimiter(properties.getWrite());
+    this.readRejections = registerMetrics(registry, "read", readLimiter);
+    this.writeRejections = registerMetrics(registry, "write", writeLimiter);
+  }
+
+  @Override
+  protected boolean shouldNotFilter(HttpServletRequest request) {
+    return !properties.isEnabled()
+        || !pathMatcher.match(properties.getPathPattern(), request.getRequestURI());
+  }
+
+  @Override
+  protected void doFilterInternal(
+      HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+      throws ServletException, IOException {
+    boolean read =
+        HttpMethod.GET.matches(request.getMethod()) || HttpMethod.HEAD.matches(request.getMethod());
+    AdaptiveConcurrencyLimiter limiter = read ? readLimiter : writeLimiter;
+
+    Optional<AdaptiveConcurrencyLimiter.Permit> permit = limiter.tryAcquire();
+    if (permit.isEmpty()) {
+      (read ? readRejections : writeRejections).increment();
+      reject(request, response);
+      return;
+    }
+
+    boolean dropped = false;
+    try {
+      filterChain.doFilter(request, response);
+      dropped =
+          response.getStatus() == HttpStatus.GATEWAY_TIMEOUT.value()
+              || isOverload(request.getAttribute(DispatcherServlet.EXCEPTION_ATTRIBUTE));
+    } catch (IOException | ServletException | RuntimeException e) {
+      dropped = isOverload(e);
+      throw e;
+    } finally {
+      permit.get().release(dropped);
+    }
+  }
+
+  /**
+   * Only timeouts tell the limiter that the server is past its capacity: waiting for a pooled
+   * connection, a query, a transaction or a queued write. Other errors, such as a 503 because an
+   * in-memory model is still loading, say nothing about load and must not shrink the limit.
+   */
+  static boolean isOverload(Object failure) {
+    Throwable cause = failure instanceof Throwable throwable ? throwable : null;
+    while (cause != null) {
+      if (cause instanceof TimeoutException
+          || cause instanceof SQLTimeoutException
+          || cause instanceof SQLTransientConnectionException
+          || cause instanceof QueryTimeoutException
+          || cause instanceof TransactionTimedOutException) {
+        return true;
+      }
+      cause = cause.getCause();
+    }
+    return false;
+  }
+
+  AdaptiveConcurrencyLimiter getReadLimiter() {
+    return readLimiter;
+  }
+
+  AdaptiveConcurrencyLimiter getWriteLimiter() {
+    return writeLimiter;
+  }
+
+  private void reject(HttpServletRequest request, HttpServletResponse response) throws IOException {
+    ErrorResponse errorResponse =
+        ErrorResponse.builder()
+            .timestamp(LocalDateTime.now())
+            .status(HttpStatus.SERVICE_UNAVAILABLE.value())
+            .error(HttpStatus.SERVICE_UNAVAILABLE.getReasonPhrase())
+            .message("Server is overloaded, retry later")
+            .path(request.getRequestURI())
+            .build();
+
+    response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+    response.setHeader(
+        HttpHeaders.RETRY_AFTER,
+        String.valueOf(Math.max(1, properties.getRetryAfter().toSeconds())));
+    response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+    objectMapper.writeValue(response.getOutputStream(), errorResponse);
+  }
+
+  private static Counter registerMetrics(
+      MeterRegistry registry, String type, AdaptiveConcurrencyLimiter limiter) {
+    Gauge.builder("insurance.limiter.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+        .tag("type", type)
+        .description("Current adaptive concurrency limit")
+        .register(registry);
+    Gauge.builder("insurance.limiter.inflight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+        .tag("type", type)
+        .description("Requests currently holding a permit")
+        .register(registry);
+    Gauge.builder(
+            "insurance.limiter.rtt.baseline",
+            limiter,
+            AdaptiveConcurrencyLimiter::getBaselineRttMillis)
+        .tag("type", type)
+        .baseUnit("milliseconds")
+        .description("Long-term latency baseline the limit is measured against")
+        .register(registry);
+    Gauge.builder(
+            "insurance.limiter.rtt.last", limiter, AdaptiveConcurrencyLimiter::getLastRttMillis)
+        .tag("type", type)
+        .baseUnit("milliseconds")
+        .register(registry);
+    return Counter.builder("insurance.limiter.rejected")
+        .tag("type", type)
+        .description("Requests shed with 503")
+        .register(registry);
+  }
+}
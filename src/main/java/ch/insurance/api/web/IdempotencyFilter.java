@@ -0,0 +1,230 @@
+package ch.insurance.api.web;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import ch.insurance.api.config.IdempotencyProperties;
+import ch.insurance.api.exception.ErrorResponse;
+import ch.insurance.api.exception.IdempotencyException;
+import ch.insurance.api.service.IdempotencyService;
+import ch.insurance.api.service.StoredResponse;
+import lombok.RequiredArgsConstructor;
+
+@Component
+@RequiredArgsConstructor
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+  public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+  public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+  private static final int MAX_KEY_LENGTH = 255;
+
+  private final IdempotencyService idempotencyService;
+  private final IdempotencyProperties properties;
+  private final ObjectMapper objectMapper;
+
+  private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+  @Override
+  protected boolean shouldNotFilter(HttpServletRequest request) {
+    if (!properties.isEnabled()
+        || !HttpMethod.POST.matches(request.getMethod())
+        || request.getHeader(IDEMPOTENCY_KEY_HEADER) == null) {
+      return true;
+    }
+    String path = request.getRequestURI();
+    return properties.getPaths().stream().noneMatch(pattern -> pathMatcher.match(pattern, path));
+  }
+
+  @Override
+  protected void doFilterInternal(
+      HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+      throws ServletException, IOException {
+    String idempotencyKey = request.getHeader(IDEMPOTENCY_KEY_HEADER).strip();
+    if (idempotencyKey.isEmpty() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+      writeError(
+          request,
+          response,
+          HttpStatus.BAD_REQUEST,
+          "Idempotency-Key must be between 1 and " + MAX_KEY_LENGTH + " characters");
+      return;
+    }
+
+    long maxBodySize = properties.getMaxBodySize().toBytes();
+    CachedBodyRequest cachedRequest = CachedBodyRequest.read(request, maxBodySize);
+    if (cachedRequest == null) {
+      writeError(
+          request,
+          response,
+          HttpStatus.PAYLOAD_TOO_LARGE,
+          "Requests with an Idempotency-Key are limited to " + maxBodySize + " bytes");
+      return;
+    }
+    String key = request.getMethod() + " " + request.getRequestURI() + " " + idempotencyKey;
+    String fingerprint = cachedRequest.fingerprint;
+
+    IdempotencyService.Outcome outcome;
+    try {
+      outcome =
+          idempotencyService.<Exception>execute(
+              key,
+              fingerprint,
+              expiresAt -> {
+                ContentCachingResponseWrapper cachingResponse =
+                    new ContentCachingResponseWrapper(response);
+                filterChain.doFilter(cachedRequest, cachingResponse);
+                StoredResponse stored =
+                    new StoredResponse(
+                        fingerprint,
+                        cachingResponse.getStatus(),
+                        cachingResponse.getContentType(),
+                        cachingResponse.getHeader(HttpHeaders.LOCATION),
+                        cachingResponse.getContentAsByteArray(),
+                        expiresAt);
+                cachingResponse.copyBodyToResponse();
+                return stored;
+              });
+    } catch (IdempotencyException ex) {
+      writeError(request, response, ex.getStatus(), ex.getMessage());
+      return;
+    } catch (IOException | ServletException | RuntimeException ex) {
+      throw ex;
+    } catch (Exception ex) {
+      throw new ServletException(ex);
+    }
+
+    if (outcome.replayed()) {
+      replay(outcome.response(), response);
+    }
+  }
+
+  private void replay(StoredResponse stored, HttpServletResponse response) throws IOException {
+    response.setStatus(stored.status());
+    if (stored.contentType() != null) {
+      response.setContentType(stored.contentType());
+    }
+    if (stored.location() != null) {
+      response.setHeader(HttpHeaders.LOCATION, stored.location());
+    }
+    response.setHeader(REPLAYED_HEADER, "true");
+    response.setContentLength(stored.body().length);
+    response.getOutputStream().write(stored.body());
+  }
+
+  private void writeError(
+      HttpServletRequest request, HttpServletResponse response, HttpStatus status, String message)
+      throws IOException {
+    ErrorResponse errorResponse =
+        ErrorResponse.builder()
+            .timestamp(LocalDateTime.now())
+            .status(status.value())
+            .error(status.getReasonPhrase())
+            .message(message)
+            .path(request.getRequestURI())
+            .build();
+
+    response.setStatus(status.value());
+    response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+    objectMapper.writeValue(response.getOutputStream(), errorResponse);
+  }
+
+  private static MessageDigest sha256() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+  }
+
+  private static class CachedBodyRequest extends HttpServletRequestWrapper {
+
+    private final byte[] body;
+    private final String fingerprint;
+
+    private CachedBodyRequest(HttpServletRequest request, byte[] body, String fingerprint) {
+      super(request);
+      this.body = body;
+      this.fingerprint = fingerprint;
+    }
+
+    /**
+     * Buffers the body for the handler and digests it in the same pass, or returns null as soon as
+     * it is known to exceed maxBytes, without reading the rest.
+     */
+    static CachedBodyRequest read(HttpServletRequest request, long maxBytes) throws IOException {
+      long declared = request.getContentLengthLong();
+      if (declared > maxBytes) {
+        return null;
+      }
+      MessageDigest digest = sha256();
+      ByteArrayOutputStream body = new ByteArrayOutputStream(declared > 0 ? (int) declared : 256);
+      byte[] chunk = new byte[8192];
+      InputStream input = request.getInputStream();
+      for (int read; (read = input.read(chunk)) != -1; ) {
+        if (body.size() + read > maxBytes) {
+          return null;
+        }
+        digest.update(chunk, 0, read);
+        body.write(chunk, 0, read);
+      }
+      return new CachedBodyRequest(
+          request, body.toByteArray(), HexFormat.of().formatHex(digest.digest()));
+    }
+
+    @Override
+    public ServletInputStream getInputStream() {
+      ByteArrayInputStream input = new ByteArrayInputStream(body);
+      return new ServletInputStream() {
+        @Override
+        public boolean isFinished() {
+          return input.available() == 0;
+        }
+
+        @Override
+        public boolean isReady() {
+          return true;
+        }
+
+        @Override
+        public void setReadListener(ReadListener readListener) {
+          throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int read() {
+          return input.read();
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+          return input.read(b, off, len);
+        }
+      };
+    }
+  }
+}
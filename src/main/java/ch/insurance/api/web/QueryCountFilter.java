@@ -0,0 +1,71 @@
+package ch.insurance.api.web;
+
+import java.io.IOException;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import ch.insurance.api.config.QueryCountProperties;
+import ch.insurance.api.querycount.QueryCount;
+import ch.insurance.api.querycount.QueryCounter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+// Outermost, so the counts cover every filter that touches the database. The totals are left in
+// a request attribute for tests; headers need the body held back until they are known, which is
+// why they are meant for development only.
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(prefix = "insurance.query-count", name = "enabled")
+@RequiredArgsConstructor
+public class QueryCountFilter extends OncePerRequestFilter {
+
+  public static final String QUERY_COUNT_ATTRIBUTE = QueryCount.class.getName();
+  public static final String QUERY_COUNT_HEADER = "X-Query-Count";
+  public static final String ENTITY_LOAD_COUNT_HEADER = "X-Entity-Load-Count";
+  public static final String LAZY_LOAD_COUNT_HEADER = "X-Lazy-Load-Count";
+
+  private final QueryCountProperties properties;
+
+  @Override
+  protected void doFilterInternal(
+      HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+      throws ServletException, IOException {
+    ContentCachingResponseWrapper buffered =
+        properties.isHeaders() ? new ContentCachingResponseWrapper(response) : null;
+    QueryCount count;
+    QueryCounter.begin();
+    try {
+      filterChain.doFilter(request, buffered != null ? buffered : response);
+    } finally {
+      count = QueryCounter.end();
+      request.setAttribute(QUERY_COUNT_ATTRIBUTE, count);
+    }
+
+    if (count.statements() > properties.getWarnThreshold()) {
+      log.warn(
+          "{} {} ran {} statements, {} entity loads and {} lazy loads",
+          request.getMethod(),
+          request.getRequestURI(),
+          count.statements(),
+          count.entityLoads(),
+          count.lazyInitializations());
+    }
+    if (buffered != null) {
+      buffered.setHeader(QUERY_COUNT_HEADER, Integer.toString(count.statements()));
+      buffered.setHeader(ENTITY_LOAD_COUNT_HEADER, Integer.toString(count.entityLoads()));
+      buffered.setHeader(LAZY_LOAD_COUNT_HEADER, Integer.toString(count.lazyInitializations()));
+      buffered.copyBodyToResponse();
+    }
+  }
+}
@@ -0,0 +1,63 @@
+package ch.insurance.api.web;
+
+import java.io.IOException;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import ch.insurance.api.config.ReplicaRoutingProperties;
+import ch.insurance.api.datasource.ReplicaRoutingContext;
+import lombok.RequiredArgsConstructor;
+
+// Writers get the time of their mutation back in X-Last-Write; echoing it on later reads pins
+// them to the primary until replicas have had the read-your-writes window to catch up.
+@Component
+@ConditionalOnProperty(prefix = "insurance.datasource.routing", name = "enabled")
+@RequiredArgsConstructor
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+  public static final String LAST_WRITE_HEADER = "X-Last-Write";
+
+  private final ReplicaRoutingProperties properties;
+
+  @Override
+  protected void doFilterInternal(
+      HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+      throws ServletException, IOException {
+    long now = System.currentTimeMillis();
+    boolean write =
+        !HttpMethod.GET.matches(request.getMethod())
+            && !HttpMethod.HEAD.matches(request.getMethod());
+
+    if (write) {
+      response.setHeader(LAST_WRITE_HEADER, Long.toString(now));
+    } else if (wroteRecently(request.getHeader(LAST_WRITE_HEADER), now)) {
+      ReplicaRoutingContext.forcePrimary();
+    }
+
+    try {
+      filterChain.doFilter(request, response);
+    } finally {
+      ReplicaRoutingContext.clear();
+    }
+  }
+
+  private boolean wroteRecently(String lastWrite, long now) {
+    if (lastWrite == null) {
+      return false;
+    }
+    try {
+      return now - Long.parseLong(lastWrite.strip())
+          < properties.getReadYourWritesWindow().toMillis();
+    } catch (NumberFormatException e) {
+      return false;
+    }
+  }
+}
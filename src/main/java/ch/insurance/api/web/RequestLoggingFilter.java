@@ -0,0 +1,67 @@
+package ch.insurance.api.web;
+
+import java.io.IOException;
+import java.util.List;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.slf4j.MDC;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import ch.insurance.api.config.RequestLogProperties;
+import ch.insurance.api.querycount.QueryCounter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+// One line per request. Method and path sit in the MDC for the whole request, so every line logged
+// while serving it carries them; the outcome is added for the request line only. Server errors and
+// slow requests are logged at WARN, which sampling (see logback-spring.xml) never drops. Inside
+// QueryCountFilter, so the statements run so far are known.
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@ConditionalOnProperty(prefix = "insurance.request-log", name = "enabled")
+@RequiredArgsConstructor
+public class RequestLoggingFilter extends OncePerRequestFilter {
+
+  static final List<String> MDC_KEYS =
+      List.of("method", "path", "status", "durationMs", "statements");
+
+  private final RequestLogProperties properties;
+
+  @Override
+  protected void doFilterInternal(
+      HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+      throws ServletException, IOException {
+    long start = System.nanoTime();
+    int status = HttpServletResponse.SC_INTERNAL_SERVER_ERROR;
+    MDC.put("method", request.getMethod());
+    MDC.put("path", request.getRequestURI());
+    try {
+      filterChain.doFilter(request, response);
+      status = response.getStatus();
+    } finally {
+      long millis = (System.nanoTime() - start) / 1_000_000;
+      MDC.put("status", Integer.toString(status));
+      MDC.put("durationMs", Long.toString(millis));
+      MDC.put("statements", Integer.toString(QueryCounter.current().statements()));
+      String format = "{} {} {} in {} ms";
+      Object[] args = {request.getMethod(), request.getRequestURI(), status, millis};
+      if (millis >= properties.getSlowThreshold().toMillis()) {
+        log.warn(format + " (slow)", args);
+      } else if (status >= 500) {
+        log.warn(format, args);
+      } else {
+        log.info(format, args);
+      }
+      MDC_KEYS.forEach(MDC::remove);
+    }
+  }
+}
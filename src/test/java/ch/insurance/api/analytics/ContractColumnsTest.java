@@ -0,0 +1,161 @@
+package ch.insurance.api.analytics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.LocalDate;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import ch.insurance.api.analytics.ContractColumns.CostHistogram;
+import ch.insurance.api.analytics.ContractColumns.Totals;
+import ch.insurance.api.domain.Client.ClientType;
+
+class ContractColumnsTest {
+
+  private static final int DAY = ContractColumns.epochDay(LocalDate.of(2024, 6, 30));
+
+  private static final byte PERSON = ContractColumns.clientTypeCode(ClientType.PERSON);
+  private static final byte COMPANY = ContractColumns.clientTypeCode(ClientType.COMPANY);
+
+  @Test
+  void totalsByClientType_ShouldOnlyCountContractsInForceOnTheDay() {
+    // Given
+    ContractColumns columns = new ContractColumns(16);
+    columns.putClient(1, ClientType.PERSON);
+    columns.putClient(2, ClientType.COMPANY);
+    columns.put(10, 1, DAY - 10, ContractColumns.OPEN_END, 100_00);
+    columns.put(11, 1, DAY, DAY + 1, 50_25);
+    columns.put(12, 2, DAY - 10, DAY + 30, 1_000_00);
+    // Ended the day before, starts the day after, client never seen
+    columns.put(13, 1, DAY - 10, DAY, 7_00);
+    columns.put(14, 2, DAY + 1, ContractColumns.OPEN_END, 9_00);
+    columns.put(15, 3, DAY - 1, ContractColumns.OPEN_END, 3_00);
+
+    // When
+    Totals[] totals = columns.totalsByClientType(DAY);
+
+    // Then
+    assertThat(totals[PERSON]).isEqualTo(new Totals(2, 150_25));
+    assertThat(totals[COMPANY]).isEqualTo(new Totals(1, 1_000_00));
+    assertThat(totals[ContractColumns.UNKNOWN_CLIENT_TYPE]).isEqualTo(new Totals(1, 3_00));
+  }
+
+  @Test
+  void put_WhenContractIsKnown_ShouldReplaceItsRow() {
+    // Given
+    ContractColumns columns = new ContractColumns(16);
+    columns.putClient(1, ClientType.PERSON);
+    columns.put(10, 1, DAY - 10, ContractColumns.OPEN_END, 100_00);
+
+    // When
+    columns.put(10, 1, DAY - 10, DAY, 120_00);
+    columns.putIfAbsent(10, 1, DAY - 10, ContractColumns.OPEN_END, 100_00);
+
+    // Then
+    assertThat(columns.size()).isEqualTo(1);
+    assertThat(columns.totalsByClientType(DAY)[PERSON]).isEqualTo(new Totals(0, 0));
+    assertThat(columns.totalsByClientType(DAY - 1)[PERSON]).isEqualTo(new Totals(1, 120_00));
+  }
+
+  @Test
+  void scans_ShouldMatchRowByRowEvaluationAcrossGrowth() {
+    // Given more rows than the initial capacity, so the columns and the id index grow
+    Random random = new Random(42);
+    ContractColumns columns = new ContractColumns(16);
+    int rows = 20_000;
+    int[] starts = new int[rows];
+    int[] ends = new int[rows];
+    long[] costs = new long[rows];
+    for (int client = 0; client < 100; client++) {
+      columns.putClient(client, client % 2 == 0 ? ClientType.PERSON : ClientType.COMPANY);
+    }
+    for (int i = 0; i < rows; i++) {
+      starts[i] = DAY - 400 + random.nextInt(800);
+      ends[i] = random.nextInt(4) == 0 ? ContractColumns.OPEN_END : starts[i] + random.nextInt(400);
+      costs[i] = 1 + random.nextInt(500_000);
+      columns.put(1_000_000L + i, i % 100, starts[i], ends[i], costs[i]);
+    }
+    int first = DAY - 30;
+    int last = DAY + 30;
+
+    // When
+    Totals[] daily = columns.dailyTotals(first, last);
+    Totals[] byType = columns.totalsByClientType(DAY);
+    CostHistogram histogram = columns.costHistogram(DAY, 7);
+
+    // Then
+    for (int day = first; day <= last; day++) {
+      long contracts = 0;
+      long cents = 0;
+      for (int i = 0; i < rows; i++) {
+        if (starts[i] <= day && day < ends[i]) {
+          contracts++;
+          cents += costs[i];
+        }
+      }
+      assertThat(daily[day - first]).isEqualTo(new Totals(contracts, cents));
+    }
+    assertThat(byType[PERSON].contracts() + byType[COMPANY].contracts())
+        .isEqualTo(daily[DAY - first].contracts());
+    assertThat(byType[PERSON].cents() + byType[COMPANY].cents())
+        .isEqualTo(daily[DAY - first].cents());
+
+    long[] expected = new long[histogram.counts().length];
+    long min = Long.MAX_VALUE;
+    long max = Long.MIN_VALUE;
+    for (int i = 0; i < rows; i++) {
+      if (starts[i] <= DAY && DAY < ends[i]) {
+        min = Math.min(min, costs[i]);
+        max = Math.max(max, costs[i]);
+      }
+    }
+    for (int i = 0; i < rows; i++) {
+      if (starts[i] <= DAY && DAY < ends[i]) {
+        expected[(int) ((costs[i] - min) / histogram.widthCents())]++;
+      }
+    }
+    assertThat(histogram.minCents()).isEqualTo(min);
+    assertThat(histogram.maxCents()).isEqualTo(max);
+    assertThat(histogram.counts()).hasSize(7).containsExactly(expected);
+    assertThat(histogram.contracts()).isEqualTo(daily[DAY - first].contracts());
+  }
+
+  @Test
+  void costHistogram_WhenRangeIsNarrowerThanBuckets_ShouldReturnFewerBuckets() {
+    // Given
+    ContractColumns columns = new ContractColumns(16);
+    columns.put(1, 1, DAY, ContractColumns.OPEN_END, 10_00);
+    columns.put(2, 1, DAY, ContractColumns.OPEN_END, 10_01);
+
+    // When
+    CostHistogram histogram = columns.costHistogram(DAY, 10);
+
+    // Then
+    assertThat(histogram.widthCents()).isEqualTo(1);
+    assertThat(histogram.counts()).containsExactly(1, 1);
+    assertThat(columns.costHistogram(DAY - 1, 10).counts()).isEmpty();
+  }
+
+  @Test
+  void epochDay_ShouldRejectDatesTheColumnsCannotHold() {
+    assertThat(ContractColumns.epochDay(null)).isEqualTo(ContractColumns.OPEN_END);
+    assertThatThrownBy(() -> ContractColumns.epochDay(LocalDate.MAX))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void totalsByClientType_WhenCostsCouldOverflowTheSum_ShouldThrow() {
+    // Given
+    ContractColumns columns = new ContractColumns(16);
+    columns.put(1, 1, DAY, ContractColumns.OPEN_END, Long.MAX_VALUE / 2);
+    columns.put(2, 1, DAY, ContractColumns.OPEN_END, Long.MAX_VALUE / 2 + 1);
+    columns.put(3, 1, DAY, ContractColumns.OPEN_END, 1);
+
+    // When & Then
+    assertThatThrownBy(() -> columns.totalsByClientType(DAY))
+        .isInstanceOf(ArithmeticException.class);
+    assertThatThrownBy(() -> columns.dailyTotals(DAY, DAY)).isInstanceOf(ArithmeticException.class);
+  }
+}
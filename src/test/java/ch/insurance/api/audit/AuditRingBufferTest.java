@@ -0,0 +1,92 @@
+package ch.insurance.api.audit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+class AuditRingBufferTest {
+
+  @Test
+  void constructor_ShouldRoundCapacityUpToPowerOfTwo() {
+    assertThat(new AuditRingBuffer<>(1).capacity()).isEqualTo(2);
+    assertThat(new AuditRingBuffer<>(5).capacity()).isEqualTo(8);
+    assertThat(new AuditRingBuffer<>(8).capacity()).isEqualTo(8);
+  }
+
+  @Test
+  void offer_WhenFull_ShouldFailUntilConsumerFreesSlots() {
+    // Given
+    AuditRingBuffer<Integer> buffer = new AuditRingBuffer<>(4);
+    for (int i = 0; i < 4; i++) {
+      assertThat(buffer.offer(i)).isTrue();
+    }
+
+    // When
+    boolean overflow = buffer.offer(4);
+    List<Integer> drained = new ArrayList<>();
+    buffer.drainTo(drained, 2);
+
+    // Then
+    assertThat(overflow).isFalse();
+    assertThat(drained).containsExactly(0, 1);
+    assertThat(buffer.offer(4)).isTrue();
+    assertThat(buffer.offer(5)).isTrue();
+    assertThat(buffer.size()).isEqualTo(4);
+    drained.clear();
+    assertThat(buffer.drainTo(drained, 10)).isEqualTo(4);
+    assertThat(drained).containsExactly(2, 3, 4, 5);
+    assertThat(buffer.size()).isZero();
+  }
+
+  @Test
+  void drainTo_WithConcurrentProducers_ShouldDeliverEveryItemOnceInProducerOrder()
+      throws Exception {
+    // Given
+    int producers = 4;
+    int perProducer = 5_000;
+    AuditRingBuffer<long[]> buffer = new AuditRingBuffer<>(64);
+    ExecutorService executor = Executors.newFixedThreadPool(producers);
+    CountDownLatch start = new CountDownLatch(1);
+
+    // When
+    for (int p = 0; p < producers; p++) {
+      long producer = p;
+      executor.submit(
+          () -> {
+            start.await();
+            for (long i = 0; i < perProducer; i++) {
+              while (!buffer.offer(new long[] {producer, i})) {
+                Thread.yield();
+              }
+            }
+            return null;
+          });
+    }
+    start.countDown();
+    long[] nextPerProducer = new long[producers];
+    List<long[]> batch = new ArrayList<>();
+    int received = 0;
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+    while (received < producers * perProducer && System.nanoTime() < deadline) {
+      batch.clear();
+      buffer.drainTo(batch, 64);
+      for (long[] item : batch) {
+        // Then each producer's items arrive in the order it offered them
+        assertThat(item[1]).isEqualTo(nextPerProducer[(int) item[0]]++);
+      }
+      received += batch.size();
+    }
+    executor.shutdown();
+
+    // Then
+    assertThat(received).isEqualTo(producers * perProducer);
+    assertThat(buffer.size()).isZero();
+  }
+}
@@ -0,0 +1,178 @@
+package ch.insurance.api.audit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionOperations;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import ch.insurance.api.config.AuditProperties;
+import ch.insurance.api.config.AuditProperties.Backpressure;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class AuditTrailTest {
+
+  @TempDir Path spillDirectory;
+
+  private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+  private final List<Object[]> inserted = Collections.synchronizedList(new ArrayList<>());
+  private AuditTrail auditTrail;
+
+  @AfterEach
+  void tearDown() throws Exception {
+    if (auditTrail != null) {
+      auditTrail.stop();
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private AuditTrail auditTrail(int capacity, Backpressure backpressure) {
+    doAnswer(
+            invocation -> {
+              inserted.addAll(invocation.getArgument(1, List.class));
+              return new int[0];
+            })
+        .when(jdbcTemplate)
+        .batchUpdate(eq(AuditTrail.INSERT_SQL), anyList());
+    AuditProperties properties = new AuditProperties();
+    properties.setCapacity(capacity);
+    properties.setBackpressure(backpressure);
+    properties.setBlockTimeout(Duration.ofMillis(20));
+    properties.setPollInterval(Duration.ofMillis(1));
+    properties.setSpillDirectory(spillDirectory);
+    auditTrail =
+        new AuditTrail(
+            jdbcTemplate,
+            TransactionOperations.withoutTransaction(),
+            new ObjectMapper(),
+            properties,
+            registry);
+    return auditTrail;
+  }
+
+  private static AuditEvent event(long id) {
+    return new AuditEvent(
+        Instant.parse("2024-01-01T10:00:00Z"),
+        "alice",
+        AuditAction.UPDATE,
+        "Contract",
+        id,
+        Map.of("costAmount", new BigDecimal("1500.50")),
+        Map.of("costAmount", new BigDecimal("42.00")));
+  }
+
+  private double count(String name) {
+    return registry.get(name).counter().count();
+  }
+
+  private void awaitInserted(int rows) throws InterruptedException {
+    long deadline = System.currentTimeMillis() + 10_000;
+    while (inserted.size() < rows && System.currentTimeMillis() < deadline) {
+      Thread.sleep(5);
+    }
+  }
+
+  @Test
+  void stop_ShouldWriteQueuedRecordsBeforeReturning() throws Exception {
+    // Given
+    AuditTrail trail = auditTrail(16, Backpressure.BLOCK);
+    for (long id = 1; id <= 5; id++) {
+      trail.record(event(id));
+    }
+
+    // When
+    trail.start();
+    trail.stop();
+
+    // Then
+    assertThat(inserted).hasSize(5);
+    assertThat(inserted.get(0))
+        .containsExactly(
+            Timestamp.from(Instant.parse("2024-01-01T10:00:00Z")),
+            "alice",
+            "UPDATE",
+            "Contract",
+            1L,
+            "{\"costAmount\":1500.50}",
+            "{\"costAmount\":42.00}");
+    assertThat(count("insurance.audit.written")).isEqualTo(5);
+    assertThat(trail.queued()).isZero();
+  }
+
+  @Test
+  void record_WhenFullAndPolicyIsDrop_ShouldDropRecord() {
+    // Given
+    AuditTrail trail = auditTrail(2, Backpressure.DROP);
+
+    // When
+    for (long id = 1; id <= 3; id++) {
+      trail.record(event(id));
+    }
+
+    // Then
+    assertThat(trail.queued()).isEqualTo(2);
+    assertThat(count("insurance.audit.dropped")).isEqualTo(1);
+    assertThat(registry.get("insurance.audit.queue.depth").gauge().value()).isEqualTo(2);
+  }
+
+  @Test
+  void record_WhenFullAndPolicyIsBlock_ShouldDropAfterTimeout() {
+    // Given no writer is draining the buffer
+    AuditTrail trail = auditTrail(2, Backpressure.BLOCK);
+    trail.record(event(1));
+    trail.record(event(2));
+
+    // When
+    trail.record(event(3));
+
+    // Then
+    assertThat(count("insurance.audit.blocked")).isEqualTo(1);
+    assertThat(count("insurance.audit.dropped")).isEqualTo(1);
+  }
+
+  @Test
+  void record_WhenFullAndPolicyIsSpill_ShouldReplaySpilledRecordsOnceDrained() throws Exception {
+    // Given
+    AuditTrail trail = auditTrail(2, Backpressure.SPILL);
+    for (long id = 1; id <= 3; id++) {
+      trail.record(event(id));
+    }
+    assertThat(count("insurance.audit.spilled")).isEqualTo(1);
+
+    // When
+    trail.start();
+    awaitInserted(3);
+    trail.stop();
+
+    // Then
+    assertThat(inserted).extracting(row -> row[4]).containsExactlyInAnyOrder(1L, 2L, 3L);
+    Object[] replayed = inserted.stream().filter(row -> row[4].equals(3L)).findFirst().get();
+    assertThat(replayed[1]).isEqualTo("alice");
+    assertThat(replayed[5]).isEqualTo("{\"costAmount\":1500.50}");
+    assertThat(replayed[6]).isEqualTo("{\"costAmount\":42.00}");
+    try (Stream<Path> files = Files.list(spillDirectory)) {
+      assertThat(files).isEmpty();
+    }
+  }
+}
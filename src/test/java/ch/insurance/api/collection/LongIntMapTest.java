@@ -0,0 +1,34 @@
+package ch.insurance.api.collection;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+
+class LongIntMapTest {
+
+  @Test
+  void put_ShouldKeepEveryKeyAcrossResizes() {
+    // Given
+    LongIntMap map = new LongIntMap(1);
+
+    // When
+    for (int i = 0; i < 10_000; i++) {
+      map.put(i * 7L - 3, i);
+    }
+    map.put(-3, 42);
+
+    // Then
+    assertThat(map.size()).isEqualTo(10_000);
+    assertThat(map.get(-3)).isEqualTo(42);
+    assertThat(map.get(9_999 * 7L - 3)).isEqualTo(9_999);
+    assertThat(map.get(5)).isEqualTo(LongIntMap.MISSING);
+    assertThat(map.get(0)).isEqualTo(LongIntMap.MISSING);
+  }
+
+  @Test
+  void put_WhenKeyIsTheEmptyMarker_ShouldThrow() {
+    assertThatThrownBy(() -> new LongIntMap(16).put(Long.MIN_VALUE, 1))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+}
@@ -0,0 +1,95 @@
+package ch.insurance.api.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.SpringProxy;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+import org.springframework.core.DecoratingProxy;
+import org.springframework.data.projection.TargetAware;
+
+import ch.insurance.api.domain.Company;
+import ch.insurance.api.domain.Person;
+import ch.insurance.api.dto.ContractRepricingItem;
+import ch.insurance.api.exception.ErrorResponse;
+import ch.insurance.api.logging.SamplingTurboFilter;
+import ch.insurance.api.repository.ClientEmailView;
+
+class NativeHintsConfigTest {
+
+  private RuntimeHints hints;
+
+  @BeforeEach
+  void setUp() {
+    hints = new RuntimeHints();
+    new NativeHintsConfig.InsuranceRuntimeHints().registerHints(hints, getClass().getClassLoader());
+  }
+
+  @Test
+  void registerHints_ShouldExposeClientSubclassesToHibernate() {
+    // Then
+    assertThat(
+            RuntimeHintsPredicates.reflection()
+                .onType(Person.class)
+                .withMemberCategories(
+                    MemberCategory.DECLARED_FIELDS, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS))
+        .accepts(hints);
+    assertThat(
+            RuntimeHintsPredicates.reflection()
+                .onType(Company.class)
+                .withMemberCategories(
+                    MemberCategory.DECLARED_FIELDS, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS))
+        .accepts(hints);
+  }
+
+  @Test
+  void registerHints_ShouldBindJsonTypesReadOutsideControllers() {
+    // Then
+    assertThat(
+            RuntimeHintsPredicates.reflection()
+                .onMethod(ContractRepricingItem.class, "setCostAmount"))
+        .accepts(hints);
+    assertThat(RuntimeHintsPredicates.reflection().onMethod(ErrorResponse.class, "getMessage"))
+        .accepts(hints);
+  }
+
+  @Test
+  void registerHints_ShouldRegisterProjectionProxy() {
+    // Then
+    assertThat(
+            RuntimeHintsPredicates.proxies()
+                .forInterfaces(
+                    ClientEmailView.class,
+                    TargetAware.class,
+                    SpringProxy.class,
+                    DecoratingProxy.class))
+        .accepts(hints);
+  }
+
+  @Test
+  void registerHints_ShouldRegisterStatementTimingProxies() {
+    // Then
+    assertThat(RuntimeHintsPredicates.proxies().forInterfaces(Connection.class)).accepts(hints);
+    assertThat(RuntimeHintsPredicates.proxies().forInterfaces(PreparedStatement.class))
+        .accepts(hints);
+  }
+
+  @Test
+  void registerHints_ShouldLetLogbackConfigureLoggingClasses() {
+    // Then
+    assertThat(RuntimeHintsPredicates.reflection().onMethod(SamplingTurboFilter.class, "setRate"))
+        .accepts(hints);
+  }
+
+  @Test
+  void registerHints_ShouldRegisterJdbcDrivers() {
+    // Then
+    assertThat(RuntimeHintsPredicates.reflection().onType(org.h2.Driver.class)).accepts(hints);
+  }
+}
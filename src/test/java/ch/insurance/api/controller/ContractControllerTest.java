@@ -26,6 +26,7 @@ import ch.insurance.api.TestUtils;
 import ch.insurance.api.domain.Client;
 import ch.insurance.api.dto.ContractResponse;
 import ch.insurance.api.exception.ResourceNotFoundException;
+import ch.insurance.api.service.ContractBatchWriter;
 import ch.insurance.api.service.ContractService;
 
 @ExtendWith(MockitoExtension.class)
@@ -35,6 +36,8 @@ class ContractControllerTest {
 
   @Mock private ContractService contractService;
 
+  @Mock private ContractBatchWriter contractBatchWriter;
+
   @InjectMocks private ContractController contractController;
 
   @BeforeEach
@@ -0,0 +1,185 @@
+package ch.insurance.api.datasource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import ch.insurance.api.service.SingleFlight;
+
+// Two in-memory H2 databases stand in for the primary and its replicas; each one answers with
+// its own name so the test can tell where a query was routed.
+class ReplicaRoutingDataSourceTest {
+
+  private ReplicaRoutingDataSource routingDataSource;
+
+  private JdbcTemplate jdbcTemplate;
+
+  private TransactionTemplate readWrite;
+
+  private TransactionTemplate readOnly;
+
+  @BeforeEach
+  void setUp() {
+    withRouting(List.of(database("replica-a")));
+  }
+
+  @AfterEach
+  void tearDown() {
+    ReplicaRoutingContext.clear();
+  }
+
+  @Test
+  void getConnection_WhenTransactionIsReadOnly_ShouldUseReplica() {
+    assertThat(whoAnswers(readOnly)).isEqualTo("replica-a");
+  }
+
+  @Test
+  void getConnection_WhenTransactionWrites_ShouldUsePrimary() {
+    assertThat(whoAnswers(readWrite)).isEqualTo("primary");
+  }
+
+  @Test
+  void getConnection_WhenPrimaryForced_ShouldUsePrimaryForReads() {
+    // Given
+    ReplicaRoutingContext.forcePrimary();
+
+    // When & Then
+    assertThat(whoAnswers(readOnly)).isEqualTo("primary");
+  }
+
+  @Test
+  void getConnection_WhenSeveralReplicas_ShouldRoundRobin() {
+    // Given
+    withRouting(List.of(database("replica-a"), database("replica-b")));
+
+    // When
+    String first = whoAnswers(readOnly);
+    String second = whoAnswers(readOnly);
+
+    // Then
+    assertThat(List.of(first, second)).containsExactlyInAnyOrder("replica-a", "replica-b");
+  }
+
+  @Test
+  void getConnection_WhenReplicaUnreachable_ShouldFallBackToPrimaryAndExcludeIt() {
+    // Given
+    withRouting(List.of(new DriverManagerDataSource("jdbc:h2:tcp://localhost:1/unreachable")));
+
+    // When
+    String answer = whoAnswers(readOnly);
+
+    // Then
+    assertThat(answer).isEqualTo("primary");
+    assertThat(routingDataSource.getHealthyReplicaCount()).isZero();
+  }
+
+  @Test
+  void checkReplicas_WhenReplicaRecovers_ShouldPutItBackInRotation() {
+    // Given
+    withRouting(List.of(database("replica-a")));
+    routingDataSource.checkReplicas();
+
+    // When & Then
+    assertThat(routingDataSource.getHealthyReplicaCount()).isEqualTo(1);
+    assertThat(whoAnswers(readOnly)).isEqualTo("replica-a");
+  }
+
+  @Test
+  void singleFlight_WhenPrimaryForcedDuringReplicaLoad_ShouldNotShareTheStaleResult()
+      throws Exception {
+    // Given a write the replica has not caught up with, and a load of the same key in flight on it
+    readWrite.executeWithoutResult(status -> jdbcTemplate.update("UPDATE node SET name = 'new'"));
+    SingleFlight<Long, String> singleFlight = new SingleFlight<>(readOnly);
+    CountDownLatch loading = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+
+    try {
+      Future<String> replicaLoad =
+          executor.submit(
+              () ->
+                  singleFlight.execute(
+                      1L,
+                      () -> {
+                        String name = currentName();
+                        loading.countDown();
+                        await(release);
+                        return name;
+                      }));
+      loading.await();
+
+      // When the writer reads its own write back
+      Future<String> primaryLoad =
+          executor.submit(
+              () -> {
+                ReplicaRoutingContext.forcePrimary();
+                try {
+                  return singleFlight.execute(1L, this::currentName);
+                } finally {
+                  ReplicaRoutingContext.clear();
+                }
+              });
+
+      // Then
+      assertThat(primaryLoad.get(5, TimeUnit.SECONDS)).isEqualTo("new");
+      release.countDown();
+      assertThat(replicaLoad.get(5, TimeUnit.SECONDS)).isEqualTo("replica-a");
+    } finally {
+      release.countDown();
+      executor.shutdownNow();
+    }
+  }
+
+  private void withRouting(List<DataSource> replicas) {
+    routingDataSource = new ReplicaRoutingDataSource(database("primary"), replicas);
+    DataSource dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+    DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+    jdbcTemplate = new JdbcTemplate(dataSource);
+    readWrite = new TransactionTemplate(transactionManager);
+    readOnly = new TransactionTemplate(transactionManager);
+    readOnly.setReadOnly(true);
+  }
+
+  private String whoAnswers(TransactionTemplate transaction) {
+    return transaction.execute(status -> currentName());
+  }
+
+  private String currentName() {
+    return jdbcTemplate.queryForObject("SELECT name FROM node", String.class);
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static DataSource database(String name) {
+    DriverManagerDataSource dataSource =
+        new DriverManagerDataSource("jdbc:h2:mem:routing-" + name + ";DB_CLOSE_DELAY=-1");
+    JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+    jdbc.execute("CREATE TABLE IF NOT EXISTS node (name VARCHAR(32))");
+    jdbc.update("DELETE FROM node");
+    jdbc.update("INSERT INTO node (name) VALUES (?)", name);
+    return dataSource;
+  }
+}
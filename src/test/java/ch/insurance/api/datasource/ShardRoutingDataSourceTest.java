@@ -0,0 +1,122 @@
+package ch.insurance.api.datasource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// Three in-memory H2 databases, each answering with its own name.
+class ShardRoutingDataSourceTest {
+
+  private ShardRoutingDataSource routingDataSource;
+
+  private JdbcTemplate jdbcTemplate;
+
+  private TransactionTemplate transaction;
+
+  @BeforeEach
+  void setUp() {
+    routingDataSource =
+        new ShardRoutingDataSource(
+            List.of(database("shard-0"), database("shard-1"), database("shard-2")));
+    DataSource dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+    jdbcTemplate = new JdbcTemplate(dataSource);
+    transaction = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+  }
+
+  @AfterEach
+  void tearDown() {
+    ShardContext.set(null);
+  }
+
+  @Test
+  void getConnection_ShouldFollowShardContextAndDefaultToFirstShard() {
+    assertThat(whoAnswers()).isEqualTo("shard-0");
+
+    ShardContext.set(2);
+
+    assertThat(whoAnswers()).isEqualTo("shard-2");
+  }
+
+  @Test
+  void transaction_ShouldStayOnShardOfItsFirstStatement() {
+    // When
+    List<String> answers =
+        transaction.execute(
+            status -> {
+              ShardContext.set(1);
+              String first = whoAnswers();
+              ShardContext.set(2);
+              return List.of(first, whoAnswers());
+            });
+
+    // Then
+    assertThat(answers).containsExactly("shard-1", "shard-1");
+  }
+
+  @Test
+  void shardOf_ShouldMapIdsModuloShardCount() {
+    assertThat(routingDataSource.shardOf(3)).isZero();
+    assertThat(routingDataSource.shardOf(7)).isEqualTo(1);
+    assertThat(routingDataSource.shardOf(11)).isEqualTo(2);
+  }
+
+  @Test
+  void interleaveIds_ShouldMakeEachShardGenerateItsOwnIds() {
+    // Given
+    JdbcTemplate shard = new JdbcTemplate(routingDataSource.shard(1));
+    shard.execute("DROP TABLE IF EXISTS items");
+    shard.execute(
+        "CREATE TABLE items (id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, x INT)");
+    shard.update("INSERT INTO items (id, x) VALUES (4, 0)");
+
+    // When
+    ShardSchemaInitializer.interleaveIds(shard, "items", 1, 3);
+    shard.update("INSERT INTO items (x) VALUES (1)");
+    shard.update("INSERT INTO items (x) VALUES (2)");
+
+    // Then
+    assertThat(shard.queryForList("SELECT id FROM items ORDER BY id", Long.class))
+        .containsExactly(4L, 7L, 10L);
+  }
+
+  @Test
+  void interleaveIds_WhenRowBelongsToAnotherShard_ShouldFail() {
+    // Given
+    JdbcTemplate shard = new JdbcTemplate(routingDataSource.shard(0));
+    shard.execute("DROP TABLE IF EXISTS items");
+    shard.execute(
+        "CREATE TABLE items (id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, x INT)");
+    shard.update("INSERT INTO items (x) VALUES (1)");
+
+    // When & Then
+    assertThatThrownBy(() -> ShardSchemaInitializer.interleaveIds(shard, "items", 0, 3))
+        .isInstanceOf(IllegalStateException.class)
+        .hasMessageContaining("ids of other shards");
+  }
+
+  private String whoAnswers() {
+    return jdbcTemplate.queryForObject("SELECT name FROM node", String.class);
+  }
+
+  private static DataSource database(String name) {
+    DriverManagerDataSource dataSource =
+        new DriverManagerDataSource("jdbc:h2:mem:sharding-" + name + ";DB_CLOSE_DELAY=-1");
+    JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+    jdbc.execute("CREATE TABLE IF NOT EXISTS node (name VARCHAR(32))");
+    jdbc.update("DELETE FROM node");
+    jdbc.update("INSERT INTO node (name) VALUES (?)", name);
+    return dataSource;
+  }
+}
@@ -0,0 +1,91 @@
+package ch.insurance.api.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import ch.insurance.api.TestUtils;
+import ch.insurance.api.dto.ClientUpdateRequest;
+import ch.insurance.api.dto.PersonRequest;
+
+// Not @Transactional: records are handed to the audit writer after commit.
+class AuditIntegrationTest extends IntegrationTestBase {
+
+  @Autowired private JdbcTemplate jdbcTemplate;
+
+  @Test
+  void clientWrites_ShouldBeAuditedWithActorAndStates() throws Exception {
+    // Given
+    PersonRequest person = TestUtils.createPersonRequest();
+    person.setEmail(UUID.randomUUID() + "@example.com");
+    String created =
+        mockMvc
+            .perform(
+                post("/api/clients/persons")
+                    .header("X-Actor", "alice")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(person)))
+            .andExpect(status().isCreated())
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+    long clientId = objectMapper.readTree(created).get("id").asLong();
+    ClientUpdateRequest update = new ClientUpdateRequest();
+    update.setLastName("Audited");
+
+    // When
+    mockMvc
+        .perform(
+            put("/api/clients/{id}", clientId)
+                .header("X-Actor", "bob")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(update)))
+        .andExpect(status().isOk());
+    mockMvc.perform(delete("/api/clients/{id}", clientId)).andExpect(status().isNoContent());
+
+    // Then
+    List<Map<String, Object>> rows = awaitAuditRows(clientId, 3);
+    assertThat(rows)
+        .extracting(row -> row.get("ACTION"))
+        .containsExactly("CREATE", "UPDATE", "DELETE");
+    assertThat(rows)
+        .extracting(row -> row.get("ACTOR"))
+        .containsExactly("alice", "bob", "anonymous");
+    assertThat(rows.get(0).get("BEFORE_STATE")).isNull();
+    assertThat(
+            objectMapper
+                .readTree((String) rows.get(1).get("BEFORE_STATE"))
+                .get("lastName")
+                .asText())
+        .isEqualTo(person.getLastName());
+    assertThat(
+            objectMapper.readTree((String) rows.get(1).get("AFTER_STATE")).get("lastName").asText())
+        .isEqualTo("Audited");
+    assertThat(rows.get(2).get("AFTER_STATE")).isNull();
+  }
+
+  private List<Map<String, Object>> awaitAuditRows(long clientId, int expected)
+      throws InterruptedException {
+    long deadline = System.currentTimeMillis() + 10_000;
+    while (true) {
+      List<Map<String, Object>> rows =
+          jdbcTemplate.queryForList(
+              "SELECT action, actor, before_state, after_state FROM audit_log"
+                  + " WHERE entity_type = 'Client' AND entity_id = ? ORDER BY id",
+              clientId);
+      if (rows.size() >= expected || System.currentTimeMillis() > deadline) {
+        return rows;
+      }
+      Thread.sleep(20);
+    }
+  }
+}
@@ -0,0 +1,86 @@
+package ch.insurance.api.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+import ch.insurance.api.TestUtils;
+import ch.insurance.api.domain.BulkJob;
+import ch.insurance.api.dto.BulkJobRequest;
+import ch.insurance.api.dto.BulkJobResponse;
+import ch.insurance.api.dto.PersonRequest;
+
+// Not @Transactional: the job runs on its own worker thread and must see committed rows.
+class BulkJobControllerIntegrationTest extends IntegrationTestBase {
+
+  @Test
+  void submitJob_ShouldProcessItemsAndReportFailures() throws Exception {
+    // Given
+    PersonRequest valid = TestUtils.createPersonRequest();
+    valid.setEmail("bulk-" + UUID.randomUUID() + "@example.com");
+    PersonRequest invalid = TestUtils.createPersonRequest();
+    invalid.setEmail("not-an-email");
+
+    BulkJobRequest request =
+        BulkJobRequest.builder()
+            .jobType(BulkJob.JobType.PERSON_IMPORT)
+            .chunkSize(1)
+            .items(List.of(objectMapper.valueToTree(valid), objectMapper.valueToTree(invalid)))
+            .build();
+
+    // When
+    String body =
+        mockMvc
+            .perform(
+                post("/api/jobs")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(request)))
+            .andExpect(status().isAccepted())
+            .andExpect(header().exists("Location"))
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+    Long jobId = objectMapper.readValue(body, BulkJobResponse.class).getId();
+
+    // Then
+    BulkJobResponse job = awaitCompletion(jobId);
+    assertThat(job.getStatus()).isEqualTo("COMPLETED");
+    assertThat(job.getProcessedItems()).isEqualTo(2);
+    assertThat(job.getFailedItems()).isEqualTo(1);
+
+    mockMvc
+        .perform(get("/api/jobs/{jobId}/errors", jobId))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()").value(1))
+        .andExpect(jsonPath("$[0].itemIndex").value(1));
+  }
+
+  @Test
+  void getJob_WhenJobDoesNotExist_ShouldReturnNotFound() throws Exception {
+    mockMvc.perform(get("/api/jobs/{jobId}", Long.MAX_VALUE)).andExpect(status().isNotFound());
+  }
+
+  private BulkJobResponse awaitCompletion(Long jobId) throws Exception {
+    for (int attempt = 0; attempt < 100; attempt++) {
+      String body =
+          mockMvc
+              .perform(get("/api/jobs/{jobId}", jobId))
+              .andExpect(status().isOk())
+              .andReturn()
+              .getResponse()
+              .getContentAsString();
+      BulkJobResponse job = objectMapper.readValue(body, BulkJobResponse.class);
+      if (BulkJob.JobStatus.valueOf(job.getStatus()).isTerminal()) {
+        return job;
+      }
+      Thread.sleep(50);
+    }
+    throw new AssertionError("Job " + jobId + " did not finish in time");
+  }
+}
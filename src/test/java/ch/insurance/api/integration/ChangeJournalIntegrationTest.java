@@ -0,0 +1,131 @@
+package ch.insurance.api.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import ch.insurance.api.TestUtils;
+import ch.insurance.api.dto.ClientUpdateRequest;
+import ch.insurance.api.dto.ContractCostUpdateRequest;
+import ch.insurance.api.dto.PersonRequest;
+import ch.insurance.api.journal.ChangeJournal;
+import ch.insurance.api.journal.ChangeRecord;
+import ch.insurance.api.journal.ChangeType;
+
+// Not @Transactional: records are appended after commit.
+@TestPropertySource(
+    properties = {"insurance.journal.enabled=true", "insurance.journal.directory=target/journal"})
+class ChangeJournalIntegrationTest extends IntegrationTestBase {
+
+  @Autowired private ChangeJournal changeJournal;
+
+  @Test
+  void readChanges_ShouldReturnCommittedWritesInOrder() throws Exception {
+    // Given
+    long offset = changeJournal.endOffset();
+    PersonRequest person = TestUtils.createPersonRequest();
+    person.setEmail(UUID.randomUUID() + "@example.com");
+    long clientId = idOf(post("/api/clients/persons"), person);
+    long contractId =
+        idOf(
+            post("/api/clients/{clientId}/contracts", clientId), TestUtils.createContractRequest());
+    mockMvc
+        .perform(
+            put("/api/contracts/{contractId}/cost", contractId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(
+                    objectMapper.writeValueAsString(
+                        new ContractCostUpdateRequest(new BigDecimal("42.00")))))
+        .andExpect(status().isOk());
+    mockMvc
+        .perform(delete("/api/contracts/{contractId}", contractId))
+        .andExpect(status().is2xxSuccessful());
+    ClientUpdateRequest update = new ClientUpdateRequest();
+    update.setLastName("Journaled");
+    mockMvc
+        .perform(
+            put("/api/clients/{id}", clientId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(update)))
+        .andExpect(status().isOk());
+    // Rejected, so never journaled
+    mockMvc
+        .perform(
+            post("/api/clients/persons")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(person)))
+        .andExpect(status().isConflict());
+
+    // When
+    MockHttpServletResponse response =
+        mockMvc
+            .perform(get("/api/changes").param("offset", Long.toString(offset)))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_OCTET_STREAM))
+            .andReturn()
+            .getResponse();
+
+    // Then
+    List<ChangeRecord> records =
+        ChangeRecord.decode(offset, ByteBuffer.wrap(response.getContentAsByteArray()));
+    assertThat(records)
+        .extracting(ChangeRecord::type)
+        .containsExactly(
+            ChangeType.CLIENT_CREATED,
+            ChangeType.CONTRACT_CREATED,
+            ChangeType.CONTRACT_UPDATED,
+            ChangeType.CONTRACT_ENDED,
+            ChangeType.CLIENT_UPDATED);
+    assertThat(records)
+        .extracting(ChangeRecord::entityId)
+        .containsExactly(clientId, contractId, contractId, contractId, clientId);
+    JsonNode updatedClient = objectMapper.readTree(records.get(4).payload());
+    assertThat(updatedClient.get("lastName").asText()).isEqualTo("Journaled");
+    assertThat(objectMapper.readTree(records.get(2).payload()).get("costAmount").decimalValue())
+        .isEqualByComparingTo("42.00");
+    assertThat(response.getHeader("Journal-Next-Offset"))
+        .isEqualTo(Long.toString(changeJournal.endOffset()));
+  }
+
+  @Test
+  void readChanges_WhenOffsetIsInsideRecord_ShouldReturnBadRequest() throws Exception {
+    // Given
+    PersonRequest person = TestUtils.createPersonRequest();
+    person.setEmail(UUID.randomUUID() + "@example.com");
+    long offset = changeJournal.endOffset();
+    idOf(post("/api/clients/persons"), person);
+
+    // When & Then
+    mockMvc
+        .perform(get("/api/changes").param("offset", Long.toString(offset + 1)))
+        .andExpect(status().isBadRequest());
+  }
+
+  private long idOf(MockHttpServletRequestBuilder request, Object body) throws Exception {
+    String json =
+        mockMvc
+            .perform(
+                request
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(body)))
+            .andExpect(status().isCreated())
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+    return objectMapper.readTree(json).get("id").asLong();
+  }
+}
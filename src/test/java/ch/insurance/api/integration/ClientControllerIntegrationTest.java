@@ -4,10 +4,12 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 import java.time.LocalDate;
+import java.util.UUID;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.MediaType;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -16,6 +18,7 @@ import ch.insurance.api.TestUtils;
 import ch.insurance.api.domain.Client;
 import ch.insurance.api.domain.Person;
 import ch.insurance.api.dto.ClientUpdateRequest;
+import ch.insurance.api.dto.CompanyRequest;
 import ch.insurance.api.dto.PersonRequest;
 import ch.insurance.api.repository.ClientRepository;
 
@@ -72,6 +75,35 @@ class ClientControllerIntegrationTest extends IntegrationTestBase {
         .andExpect(jsonPath("$.message").exists());
   }
 
+  @Test
+  void getUnknownPath_ShouldReturnNotFoundInsteadOfServerError() throws Exception {
+    mockMvc
+        .perform(get("/api/wp-login.php"))
+        .andExpect(status().isNotFound())
+        .andExpect(jsonPath("$.path").value("/api/wp-login.php"));
+  }
+
+  @Test
+  void getClient_WhenIdIsNotANumber_ShouldReturnBadRequest() throws Exception {
+    mockMvc
+        .perform(get("/api/clients/abc"))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.message").value("Invalid value for parameter 'id'"));
+  }
+
+  @Test
+  void getClientsByIds_ShouldReturnOneItemPerId() throws Exception {
+    Person person = clientRepository.save(TestUtils.createTestSavedPerson());
+
+    mockMvc
+        .perform(get("/api/clients").param("ids", person.getId() + ",999999"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()").value(2))
+        .andExpect(jsonPath("$[0].status").value(200))
+        .andExpect(jsonPath("$[0].data.firstName").value("John"))
+        .andExpect(jsonPath("$[1].status").value(404));
+  }
+
   @Test
   void updateClient_ShouldReturnUpdatedClient() throws Exception {
     // Given
@@ -124,4 +156,72 @@ class ClientControllerIntegrationTest extends IntegrationTestBase {
     // Verify deletion
     mockMvc.perform(get("/api/clients/{id}", clientId)).andExpect(status().isNotFound());
   }
+
+  @Test
+  void createPerson_WhenEmailAlreadyUsed_ShouldReturnConflict() throws Exception {
+    // Given
+    Person existing = TestUtils.createTestSavedPerson();
+    existing.setEmail("taken-" + UUID.randomUUID() + "@example.com");
+    clientRepository.save(existing);
+    PersonRequest request = TestUtils.createPersonRequest();
+    request.setEmail(existing.getEmail());
+
+    // When Then
+    mockMvc
+        .perform(
+            post("/api/clients/persons")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+        .andExpect(status().isConflict());
+  }
+
+  // Committed on purpose: the email filter only learns about emails once their insert commits
+  @Test
+  @Transactional(propagation = Propagation.NOT_SUPPORTED)
+  void getClientByEmail_ShouldReturnClientOrNotFound() throws Exception {
+    // Given
+    PersonRequest request = TestUtils.createPersonRequest();
+    request.setEmail("lookup-" + UUID.randomUUID() + "@example.com");
+    mockMvc
+        .perform(
+            post("/api/clients/persons")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+        .andExpect(status().isCreated());
+
+    // When Then
+    mockMvc
+        .perform(get("/api/clients/by-email").param("email", request.getEmail()))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.email").value(request.getEmail()));
+    mockMvc
+        .perform(get("/api/clients/by-email").param("email", "missing-" + request.getEmail()))
+        .andExpect(status().isNotFound());
+  }
+
+  // Committed on purpose: the search index only picks up clients once their insert commits
+  @Test
+  @Transactional(propagation = Propagation.NOT_SUPPORTED)
+  void searchClients_ShouldFindCreatedCompanyByNamePrefix() throws Exception {
+    // Given
+    String suffix = UUID.randomUUID().toString().substring(0, 8);
+    CompanyRequest request = TestUtils.createCompanyRequest();
+    request.setClientType("COMPANY");
+    request.setCompanyName("Searchable Holding " + suffix);
+    request.setEmail("search-" + suffix + "@example.com");
+    mockMvc
+        .perform(
+            post("/api/clients/companies")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+        .andExpect(status().isCreated());
+
+    // When Then
+    mockMvc
+        .perform(get("/api/clients/search").param("q", "searchable " + suffix.substring(0, 5)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[0].name").value(request.getCompanyName()))
+        .andExpect(jsonPath("$[0].clientType").value("COMPANY"));
+    mockMvc.perform(get("/api/clients/search").param("q", "x")).andExpect(status().isBadRequest());
+  }
 }
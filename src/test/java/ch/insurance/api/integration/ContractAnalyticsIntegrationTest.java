@@ -0,0 +1,160 @@
+package ch.insurance.api.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import ch.insurance.api.TestUtils;
+import ch.insurance.api.dto.CompanyRequest;
+import ch.insurance.api.dto.ContractCostUpdateRequest;
+import ch.insurance.api.dto.ContractRequest;
+import ch.insurance.api.dto.PersonRequest;
+
+// Not @Transactional: the columns follow writes after commit. Other tests share the database, so
+// only differences are asserted.
+class ContractAnalyticsIntegrationTest extends IntegrationTestBase {
+
+  private static final LocalDate START = LocalDate.of(2090, 3, 1);
+
+  @Test
+  void analytics_ShouldFollowCommittedContractWrites() throws Exception {
+    // Given
+    LocalDate day = START.plusDays(1);
+    JsonNode totalsBefore = readAsOf("/api/analytics/contracts/totals", day);
+    JsonNode dailyBefore = dailyTotals();
+    PersonRequest person = TestUtils.createPersonRequest();
+    person.setEmail(UUID.randomUUID() + "@example.com");
+    long personId = idOf(post("/api/clients/persons"), person);
+    CompanyRequest company = TestUtils.createCompanyRequest();
+    company.setEmail(UUID.randomUUID() + "@example.com");
+    company.setClientType("COMPANY");
+    company.setCompanyName("Analytics AG");
+    long companyId = idOf(post("/api/clients/companies"), company);
+
+    // When
+    long contractId = idOf(post("/api/clients/{clientId}/contracts", personId), contract("100.00"));
+    idOf(post("/api/clients/{clientId}/contracts", companyId), contract("250.50"));
+    mockMvc
+        .perform(
+            put("/api/contracts/{contractId}/cost", contractId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(
+                    objectMapper.writeValueAsString(
+                        new ContractCostUpdateRequest(new BigDecimal("120.00")))))
+        .andExpect(status().isOk());
+
+    // Then
+    JsonNode totals = readAsOf("/api/analytics/contracts/totals", day);
+    assertThat(difference(totals, totalsBefore, "PERSON", "activeContracts"))
+        .isEqualByComparingTo("1");
+    assertThat(difference(totals, totalsBefore, "PERSON", "totalCost"))
+        .isEqualByComparingTo("120.00");
+    assertThat(difference(totals, totalsBefore, "COMPANY", "totalCost"))
+        .isEqualByComparingTo("250.50");
+
+    // The contracts run from the 1st to the 3rd, exclusive
+    JsonNode daily = dailyTotals();
+    assertThat(daily).hasSize(4);
+    assertThat(daily.get(0).get("date").asText()).isEqualTo("2090-02-28");
+    for (int i = 0; i < 4; i++) {
+      BigDecimal added =
+          daily
+              .get(i)
+              .get("totalCost")
+              .decimalValue()
+              .subtract(dailyBefore.get(i).get("totalCost").decimalValue());
+      assertThat(added).isEqualByComparingTo(i == 1 || i == 2 ? "370.50" : "0");
+    }
+
+    JsonNode distribution = readAsOf("/api/analytics/contracts/cost-distribution", day);
+    long bucketed = 0;
+    for (JsonNode bucket : distribution.get("buckets")) {
+      bucketed += bucket.get("contracts").asLong();
+    }
+    assertThat(bucketed).isEqualTo(distribution.get("activeContracts").asLong()).isPositive();
+  }
+
+  @Test
+  void getDailyTotals_WhenRangeIsReversed_ShouldReturnBadRequest() throws Exception {
+    mockMvc
+        .perform(
+            get("/api/analytics/contracts/daily-totals")
+                .param("from", "2024-02-01")
+                .param("to", "2024-01-01"))
+        .andExpect(status().isBadRequest());
+    mockMvc
+        .perform(get("/api/analytics/contracts/cost-distribution").param("buckets", "0"))
+        .andExpect(status().isBadRequest());
+  }
+
+  private static ContractRequest contract(String cost) {
+    return ContractRequest.builder()
+        .startDate(START)
+        .endDate(START.plusDays(2))
+        .costAmount(new BigDecimal(cost))
+        .build();
+  }
+
+  private JsonNode dailyTotals() throws Exception {
+    String json =
+        mockMvc
+            .perform(
+                get("/api/analytics/contracts/daily-totals")
+                    .param("from", START.minusDays(1).toString())
+                    .param("to", START.plusDays(2).toString()))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+    return objectMapper.readTree(json);
+  }
+
+  private JsonNode readAsOf(String path, LocalDate date) throws Exception {
+    String json =
+        mockMvc
+            .perform(get(path).param("date", date.toString()))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+    return objectMapper.readTree(json);
+  }
+
+  private static BigDecimal difference(
+      JsonNode after, JsonNode before, String clientType, String field) {
+    return valueOf(after, clientType, field).subtract(valueOf(before, clientType, field));
+  }
+
+  private static BigDecimal valueOf(JsonNode totals, String clientType, String field) {
+    for (JsonNode entry : totals) {
+      if (entry.get("clientType").asText().equals(clientType)) {
+        return entry.get(field).decimalValue();
+      }
+    }
+    throw new AssertionError("No totals for " + clientType);
+  }
+
+  private long idOf(MockHttpServletRequestBuilder request, Object body) throws Exception {
+    String json =
+        mockMvc
+            .perform(
+                request
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(body)))
+            .andExpect(status().isCreated())
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+    return objectMapper.readTree(json).get("id").asLong();
+  }
+}
@@ -0,0 +1,105 @@
+package ch.insurance.api.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+import ch.insurance.api.TestUtils;
+import ch.insurance.api.domain.Contract;
+import ch.insurance.api.domain.Person;
+import ch.insurance.api.repository.ArchivedContractRepository;
+import ch.insurance.api.repository.ClientRepository;
+import ch.insurance.api.repository.ContractRepository;
+import ch.insurance.api.service.ContractArchiver;
+
+// Not @Transactional: each chunk commits on its own. A chunk size of 2 forces several chunks.
+@TestPropertySource(properties = "insurance.contracts.archive.chunk-size=2")
+class ContractArchiveIntegrationTest extends IntegrationTestBase {
+
+  private static final LocalDate LONG_AGO = LocalDate.now().minusYears(3);
+
+  @Autowired private ContractArchiver contractArchiver;
+
+  @Autowired private ClientRepository clientRepository;
+
+  @Autowired private ContractRepository contractRepository;
+
+  @Autowired private ArchivedContractRepository archivedContractRepository;
+
+  @Test
+  void archiveEndedBefore_ShouldMoveOnlyExpiredContractsInChunks() {
+    // Given
+    Person person = savePerson();
+    List<Long> expired =
+        List.of(
+            saveContract(person, LONG_AGO).getId(),
+            saveContract(person, LONG_AGO).getId(),
+            saveContract(person, LONG_AGO).getId());
+    Long active = saveContract(person, LocalDate.now().plusYears(1)).getId();
+    // Loaded into the second-level cache, which must not keep answering for the moved rows
+    contractRepository.findById(expired.get(0));
+
+    // When
+    int moved = contractArchiver.archiveEndedBefore(LocalDate.now().minusYears(1));
+
+    // Then
+    assertThat(moved).isGreaterThanOrEqualTo(3);
+    assertThat(contractRepository.findAllById(expired)).isEmpty();
+    assertThat(contractRepository.findById(expired.get(0))).isEmpty();
+    assertThat(archivedContractRepository.findAllById(expired)).hasSize(3);
+    assertThat(contractRepository.findById(active)).isPresent();
+    assertThat(contractArchiver.archiveEndedBefore(LocalDate.now().minusYears(1))).isZero();
+  }
+
+  @Test
+  void reads_ShouldFallThroughToArchive() throws Exception {
+    // Given
+    Person person = savePerson();
+    Contract contract = TestUtils.createTestContract(person);
+    contract.setStartDate(LONG_AGO.minusYears(1));
+    contract.setEndDate(LONG_AGO);
+    Long contractId = contractRepository.save(contract).getId();
+    contractArchiver.archiveEndedBefore(LocalDate.now().minusYears(1));
+
+    // When Then
+    mockMvc
+        .perform(get("/api/contracts/{contractId}", contractId))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.endDate").value(LONG_AGO.toString()));
+    mockMvc
+        .perform(get("/api/contracts").param("ids", contractId.toString()))
+        .andExpect(jsonPath("$[0].status").value(200));
+    mockMvc
+        .perform(
+            get("/api/clients/{clientId}/contracts", person.getId())
+                .param("asOf", LONG_AGO.minusMonths(6).toString()))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()").value(1))
+        .andExpect(jsonPath("$[0].id").value(contractId));
+    mockMvc
+        .perform(get("/api/clients/{clientId}/contracts", person.getId()))
+        .andExpect(jsonPath("$.length()").value(0));
+  }
+
+  private Contract saveContract(Person person, LocalDate endDate) {
+    Contract contract = TestUtils.createTestContract(person);
+    contract.setStartDate(endDate.minusYears(1));
+    contract.setEndDate(endDate);
+    return contractRepository.save(contract);
+  }
+
+  private Person savePerson() {
+    Person person = TestUtils.createTestSavedPerson();
+    person.setEmail(UUID.randomUUID() + "@example.com");
+    return clientRepository.save(person);
+  }
+}
@@ -1,6 +1,7 @@
 package ch.insurance.api.integration;
 
 import static ch.insurance.api.TestUtils.createTestSavedPerson;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
@@ -14,12 +15,16 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.MediaType;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.fasterxml.jackson.databind.JsonSerializer;
+
 import ch.insurance.api.TestUtils;
 import ch.insurance.api.domain.Client;
 import ch.insurance.api.domain.Contract;
 import ch.insurance.api.domain.Person;
 import ch.insurance.api.dto.ContractCostUpdateRequest;
 import ch.insurance.api.dto.ContractRequest;
+import ch.insurance.api.dto.ContractResponse;
+import ch.insurance.api.json.ResponseSerializers;
 import ch.insurance.api.repository.ClientRepository;
 import ch.insurance.api.repository.ContractRepository;
 
@@ -116,6 +121,59 @@ class ContractControllerIntegrationTest extends IntegrationTestBase {
         .andExpect(jsonPath("$.activeContractsCount").value(2));
   }
 
+  @Test
+  void getTotalCosts_ShouldReturnOneItemPerClient() throws Exception {
+    // Given
+    Client client = clientRepository.findById(clientId).orElseThrow();
+    Contract active = TestUtils.createTestContract(client);
+    active.setCostAmount(new BigDecimal("1000.00"));
+    contractRepository.save(active);
+    Contract ended = TestUtils.createTestContract(client);
+    ended.setEndDate(LocalDate.now().minusDays(1));
+    contractRepository.save(ended);
+
+    Person withoutContracts = createTestSavedPerson();
+    withoutContracts.setEmail("no.contracts@example.com");
+    Long idleClientId = clientRepository.save(withoutContracts).getId();
+
+    // When Then
+    mockMvc
+        .perform(
+            get("/api/contracts/total-costs")
+                .param("clientIds", clientId + "," + idleClientId + ",999999"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()").value(3))
+        .andExpect(jsonPath("$[0].data.clientId").value(clientId))
+        .andExpect(jsonPath("$[0].data.totalCost").value(1000.00))
+        .andExpect(jsonPath("$[0].data.activeContractsCount").value(1))
+        .andExpect(jsonPath("$[1].data.totalCost").value(0))
+        .andExpect(jsonPath("$[1].data.activeContractsCount").value(0))
+        .andExpect(jsonPath("$[2].status").value(404))
+        .andExpect(jsonPath("$[2].data").doesNotExist());
+  }
+
+  @Test
+  void getContractsByIds_ShouldReturnFoundAndMissingItems() throws Exception {
+    // Given
+    Client client = clientRepository.findById(clientId).orElseThrow();
+    Long contractId = contractRepository.save(TestUtils.createTestContract(client)).getId();
+
+    // When Then
+    mockMvc
+        .perform(get("/api/contracts").param("ids", "999999", contractId.toString()))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[0].id").value(999999))
+        .andExpect(jsonPath("$[0].status").value(404))
+        .andExpect(jsonPath("$[0].error").value("Contract not found with id: 999999"))
+        .andExpect(jsonPath("$[1].status").value(200))
+        .andExpect(jsonPath("$[1].data.clientId").value(clientId));
+  }
+
+  @Test
+  void getContractsByIds_WithoutIds_ShouldReturnBadRequest() throws Exception {
+    mockMvc.perform(get("/api/contracts")).andExpect(status().isBadRequest());
+  }
+
   @Test
   void getContract_WhenContractExists_ShouldReturnContract() throws Exception {
     // Given
@@ -134,4 +192,14 @@ class ContractControllerIntegrationTest extends IntegrationTestBase {
         .andExpect(jsonPath("$.id").value(contract.getId()))
         .andExpect(jsonPath("$.clientId").value(clientId));
   }
+
+  @Test
+  void objectMapper_ShouldWriteContractsWithGeneratedSerializer() throws Exception {
+    // When
+    JsonSerializer<Object> serializer =
+        objectMapper.getSerializerProviderInstance().findValueSerializer(ContractResponse.class);
+
+    // Then
+    assertThat(serializer).isInstanceOf(ResponseSerializers.ContractResponseSerializer.class);
+  }
 }
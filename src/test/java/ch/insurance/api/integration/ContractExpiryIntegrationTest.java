@@ -0,0 +1,90 @@
+package ch.insurance.api.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import ch.insurance.api.TestUtils;
+import ch.insurance.api.domain.ContractStatus;
+import ch.insurance.api.domain.Person;
+import ch.insurance.api.repository.ClientRepository;
+import ch.insurance.api.repository.ContractRepository;
+import ch.insurance.api.service.ContractExpirySweeper;
+
+// Not @Transactional: the sweeper and the API commit on their own.
+class ContractExpiryIntegrationTest extends IntegrationTestBase {
+
+  @Autowired private ContractExpirySweeper contractExpirySweeper;
+
+  @Autowired private ClientRepository clientRepository;
+
+  @Autowired private ContractRepository contractRepository;
+
+  @Autowired private JdbcTemplate jdbcTemplate;
+
+  @Test
+  void expireEndedBy_WhenEndDatePassed_ShouldFlipStatusAndKeepTotalsExact() throws Exception {
+    // Given a contract that ran out with time, which no write path has touched since
+    Person person = savePerson();
+    Long contractId = contractRepository.save(TestUtils.createTestContract(person)).getId();
+    Long activeId = contractRepository.save(TestUtils.createTestContract(person)).getId();
+    jdbcTemplate.update(
+        "UPDATE contracts SET end_date = ? WHERE id = ?",
+        Date.valueOf(LocalDate.now().minusDays(1)),
+        contractId);
+    assertThat(statusOf(contractId)).isEqualTo(ContractStatus.ACTIVE.name());
+
+    // Then before the sweep the end date check already excludes it
+    mockMvc
+        .perform(get("/api/clients/{clientId}/contracts/total-cost", person.getId()))
+        .andExpect(jsonPath("$.activeContractsCount").value(1));
+
+    // When
+    int flipped = contractExpirySweeper.expireEndedBy(LocalDate.now());
+
+    // Then
+    assertThat(flipped).isGreaterThanOrEqualTo(1);
+    assertThat(statusOf(contractId)).isEqualTo(ContractStatus.EXPIRED.name());
+    assertThat(statusOf(activeId)).isEqualTo(ContractStatus.ACTIVE.name());
+    mockMvc
+        .perform(get("/api/clients/{clientId}/contracts", person.getId()))
+        .andExpect(jsonPath("$.length()").value(1))
+        .andExpect(jsonPath("$[0].id").value(activeId));
+  }
+
+  @Test
+  void deleteContract_ShouldMarkContractExpiredWithoutWaitingForSweep() throws Exception {
+    // Given
+    Person person = savePerson();
+    Long contractId = contractRepository.save(TestUtils.createTestContract(person)).getId();
+
+    // When
+    mockMvc
+        .perform(delete("/api/contracts/{contractId}", contractId))
+        .andExpect(status().is2xxSuccessful());
+
+    // Then
+    assertThat(statusOf(contractId)).isEqualTo(ContractStatus.EXPIRED.name());
+  }
+
+  private String statusOf(Long contractId) {
+    return jdbcTemplate.queryForObject(
+        "SELECT status FROM contracts WHERE id = ?", String.class, contractId);
+  }
+
+  private Person savePerson() {
+    Person person = TestUtils.createTestSavedPerson();
+    person.setEmail(UUID.randomUUID() + "@example.com");
+    return clientRepository.save(person);
+  }
+}
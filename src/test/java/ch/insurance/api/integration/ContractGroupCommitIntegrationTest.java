@@ -0,0 +1,132 @@
+package ch.insurance.api.integration;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+
+import ch.insurance.api.TestUtils;
+import ch.insurance.api.domain.Person;
+import ch.insurance.api.dto.ContractRequest;
+import ch.insurance.api.dto.ContractResponse;
+import ch.insurance.api.exception.ResourceNotFoundException;
+import ch.insurance.api.repository.ClientRepository;
+import ch.insurance.api.repository.ContractRepository;
+import ch.insurance.api.service.ContractBatchWriter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Not @Transactional: callers inside a transaction bypass the group commit on purpose.
+@TestPropertySource(
+    properties = {
+      "insurance.contracts.group-commit.enabled=true",
+      "insurance.contracts.group-commit.max-delay=50ms"
+    })
+class ContractGroupCommitIntegrationTest extends IntegrationTestBase {
+
+  @Autowired private ContractBatchWriter contractBatchWriter;
+
+  @Autowired private ClientRepository clientRepository;
+
+  @Autowired private ContractRepository contractRepository;
+
+  @Autowired private MeterRegistry meterRegistry;
+
+  @Test
+  void createContract_WhenCalledConcurrently_ShouldCommitInGroupsAndAnswerEachCaller()
+      throws Exception {
+    // Given
+    Long clientId = savePerson();
+    int callers = 20;
+    long batchesBefore = batchCount();
+
+    List<Callable<ContractResponse>> tasks = new ArrayList<>();
+    for (int i = 0; i < callers; i++) {
+      ContractRequest request = TestUtils.createContractRequest();
+      request.setCostAmount(request.getCostAmount().add(BigDecimal.valueOf(i)));
+      tasks.add(() -> contractBatchWriter.createContract(clientId, request));
+    }
+
+    // When
+    List<ContractResponse> responses = new ArrayList<>();
+    try (ExecutorService executor = Executors.newFixedThreadPool(callers)) {
+      for (Future<ContractResponse> future : executor.invokeAll(tasks)) {
+        responses.add(future.get());
+      }
+    }
+
+    // Then
+    assertThat(responses).extracting(ContractResponse::getId).doesNotContainNull().hasSize(callers);
+    assertThat(responses).extracting(ContractResponse::getId).doesNotHaveDuplicates();
+    assertThat(contractRepository.findByClientId(clientId)).hasSize(callers);
+    assertThat(batchCount() - batchesBefore).isLessThan(callers);
+    for (int i = 0; i < callers; i++) {
+      assertThat(
+              contractRepository.findById(responses.get(i).getId()).orElseThrow().getCostAmount())
+          .isEqualByComparingTo(responses.get(i).getCostAmount());
+    }
+  }
+
+  @Test
+  void createContract_WhenOneRequestInGroupIsInvalid_ShouldOnlyFailThatRequest() throws Exception {
+    // Given
+    Long clientId = savePerson();
+    ContractRequest valid = TestUtils.createContractRequest();
+    ContractRequest invalid = TestUtils.createContractRequest();
+    invalid.setEndDate(invalid.getStartDate().minusDays(1));
+
+    // When
+    Future<ContractResponse> ok;
+    Future<ContractResponse> badDates;
+    Future<ContractResponse> unknownClient;
+    try (ExecutorService executor = Executors.newFixedThreadPool(3)) {
+      ok = executor.submit(() -> contractBatchWriter.createContract(clientId, valid));
+      badDates = executor.submit(() -> contractBatchWriter.createContract(clientId, invalid));
+      unknownClient = executor.submit(() -> contractBatchWriter.createContract(-1L, valid));
+    }
+
+    // Then
+    assertThat(ok.get().getId()).isNotNull();
+    assertThatThrownBy(badDates::get).hasCauseInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(unknownClient::get).hasCauseInstanceOf(ResourceNotFoundException.class);
+  }
+
+  @Test
+  void createContract_ThroughApi_ShouldReturnCreatedContract() throws Exception {
+    // Given
+    Long clientId = savePerson();
+
+    // When Then
+    mockMvc
+        .perform(
+            post("/api/clients/{clientId}/contracts", clientId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(TestUtils.createContractRequest())))
+        .andExpect(status().isCreated())
+        .andExpect(jsonPath("$.id").isNumber())
+        .andExpect(jsonPath("$.clientId").value(clientId))
+        .andExpect(jsonPath("$.createdAt").exists());
+  }
+
+  private Long savePerson() {
+    Person person = TestUtils.createTestSavedPerson();
+    person.setEmail("group-" + UUID.randomUUID() + "@example.com");
+    return clientRepository.save(person).getId();
+  }
+
+  private long batchCount() {
+    return meterRegistry.summary("insurance.contracts.group_commit.batch.size").count();
+  }
+}
@@ -0,0 +1,94 @@
+package ch.insurance.api.integration;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.transaction.annotation.Transactional;
+
+import ch.insurance.api.TestUtils;
+import ch.insurance.api.dto.ClientResponse;
+import ch.insurance.api.dto.PersonRequest;
+import ch.insurance.api.web.IdempotencyFilter;
+
+@Transactional
+class IdempotencyIntegrationTest extends IntegrationTestBase {
+
+  @Test
+  void createPerson_WhenRetriedWithSameKey_ShouldReplayOriginalResponse() throws Exception {
+    // Given
+    PersonRequest request = TestUtils.createPersonRequest();
+    String body = objectMapper.writeValueAsString(request);
+    String key = "retry-" + System.nanoTime();
+
+    String original =
+        mockMvc
+            .perform(
+                post("/api/clients/persons")
+                    .header(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, key)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(body))
+            .andExpect(status().isCreated())
+            .andExpect(header().doesNotExist(IdempotencyFilter.REPLAYED_HEADER))
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+    Long clientId = objectMapper.readValue(original, ClientResponse.class).getId();
+
+    // When Then
+    mockMvc
+        .perform(
+            post("/api/clients/persons")
+                .header(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, key)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body))
+        .andExpect(status().isCreated())
+        .andExpect(header().string(IdempotencyFilter.REPLAYED_HEADER, "true"))
+        .andExpect(jsonPath("$.id").value(clientId));
+  }
+
+  @Test
+  void createPerson_WhenKeyReusedWithDifferentBody_ShouldReturnUnprocessableEntity()
+      throws Exception {
+    // Given
+    PersonRequest request = TestUtils.createPersonRequest();
+    String key = "reuse-" + System.nanoTime();
+    mockMvc
+        .perform(
+            post("/api/clients/persons")
+                .header(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, key)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+        .andExpect(status().isCreated());
+
+    request.setFirstName("Jane");
+
+    // When Then
+    mockMvc
+        .perform(
+            post("/api/clients/persons")
+                .header(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, key)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+        .andExpect(status().isUnprocessableEntity())
+        .andExpect(jsonPath("$.status").value(422));
+  }
+
+  @Test
+  void createPerson_WhenBodyExceedsMaxBodySize_ShouldReturnPayloadTooLarge() throws Exception {
+    // Given
+    PersonRequest request = TestUtils.createPersonRequest();
+    request.setLastName("x".repeat(70 * 1024));
+
+    // When Then
+    mockMvc
+        .perform(
+            post("/api/clients/persons")
+                .header(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, "large-" + System.nanoTime())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+        .andExpect(status().isPayloadTooLarge())
+        .andExpect(jsonPath("$.status").value(413));
+  }
+}
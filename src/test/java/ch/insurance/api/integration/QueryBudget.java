@@ -0,0 +1,63 @@
+package ch.insurance.api.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import ch.insurance.api.querycount.QueryCount;
+import ch.insurance.api.web.QueryCountFilter;
+
+/**
+ * Fails a MockMvc request that went over the statements, entity loads or lazy initializations
+ * declared for its endpoint, as counted by {@link QueryCountFilter}. Lazy initializations default
+ * to none, so a new N+1 over an association fails even when the statement budget has slack:
+ *
+ * <pre>
+ * mockMvc.perform(get(...)).andExpect(QueryBudget.statements(2).entityLoads(10));
+ * </pre>
+ */
+public final class QueryBudget implements ResultMatcher {
+
+  private final int statements;
+  private int entityLoads = Integer.MAX_VALUE;
+  private int lazyInitializations;
+
+  private QueryBudget(int statements) {
+    this.statements = statements;
+  }
+
+  public static QueryBudget statements(int max) {
+    return new QueryBudget(max);
+  }
+
+  public QueryBudget entityLoads(int max) {
+    this.entityLoads = max;
+    return this;
+  }
+
+  public QueryBudget lazyInitializations(int max) {
+    this.lazyInitializations = max;
+    return this;
+  }
+
+  public static QueryCount countOf(MvcResult result) {
+    Object count = result.getRequest().getAttribute(QueryCountFilter.QUERY_COUNT_ATTRIBUTE);
+    assertThat(count).as("query count, is insurance.query-count enabled?").isNotNull();
+    return (QueryCount) count;
+  }
+
+  @Override
+  public void match(MvcResult result) {
+    QueryCount count = countOf(result);
+    String request =
+        result.getRequest().getMethod() + " " + result.getRequest().getRequestURI() + ": " + count;
+    assertThat(count.statements()).as("statements of " + request).isLessThanOrEqualTo(statements);
+    assertThat(count.entityLoads())
+        .as("entity loads of " + request)
+        .isLessThanOrEqualTo(entityLoads);
+    assertThat(count.lazyInitializations())
+        .as("lazy initializations of " + request)
+        .isLessThanOrEqualTo(lazyInitializations);
+  }
+}
@@ -0,0 +1,120 @@
+package ch.insurance.api.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.util.UUID;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import ch.insurance.api.TestUtils;
+import ch.insurance.api.domain.Contract;
+import ch.insurance.api.dto.PersonRequest;
+import ch.insurance.api.querycount.QueryCount;
+import ch.insurance.api.querycount.QueryCounter;
+import ch.insurance.api.web.QueryCountFilter;
+
+// Not @Transactional: a test transaction would serve the entities from its persistence context
+// and hide the statements and lazy loads a real request runs.
+class QueryCountIntegrationTest extends IntegrationTestBase {
+
+  @Autowired private EntityManagerFactory entityManagerFactory;
+
+  @Test
+  void getActiveContracts_ShouldNotLoadClientPerContract() throws Exception {
+    // Given
+    long clientId = createClient();
+    for (int i = 0; i < 5; i++) {
+      createContract(clientId);
+    }
+
+    // When Then
+    mockMvc
+        .perform(get("/api/clients/{clientId}/contracts", clientId))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()").value(5))
+        .andExpect(QueryBudget.statements(2).entityLoads(5))
+        .andExpect(header().exists(QueryCountFilter.QUERY_COUNT_HEADER))
+        .andExpect(header().string(QueryCountFilter.LAZY_LOAD_COUNT_HEADER, "0"));
+  }
+
+  @Test
+  void createContract_ShouldCountStatementsOfRequest() throws Exception {
+    // Given
+    long clientId = createClient();
+
+    // When
+    MvcResult result =
+        mockMvc
+            .perform(
+                post("/api/clients/{clientId}/contracts", clientId)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(TestUtils.createContractRequest())))
+            .andExpect(status().isCreated())
+            .andReturn();
+
+    // Then
+    QueryCount count = QueryBudget.countOf(result);
+    assertThat(count.statements()).isPositive();
+    assertThat(result.getResponse().getHeader(QueryCountFilter.QUERY_COUNT_HEADER))
+        .isEqualTo(Integer.toString(count.statements()));
+  }
+
+  @Test
+  void contract_ShouldCountClientProxyInitializationButNotToStringOrHashCode() throws Exception {
+    // Given
+    long contractId = createContract(createClient());
+    EntityManager entityManager = entityManagerFactory.createEntityManager();
+    QueryCounter.begin();
+    try {
+      Contract contract = entityManager.find(Contract.class, contractId);
+
+      // When
+      contract.toString();
+      contract.hashCode();
+      QueryCount beforeAccess = QueryCounter.current();
+      contract.getClient().getEmail();
+
+      // Then
+      assertThat(beforeAccess.lazyInitializations()).isZero();
+      assertThat(QueryCounter.current().lazyInitializations()).isEqualTo(1);
+      assertThat(QueryCounter.current().entityLoads()).isGreaterThanOrEqualTo(2);
+    } finally {
+      QueryCounter.end();
+      entityManager.close();
+    }
+  }
+
+  private long createClient() throws Exception {
+    PersonRequest person = TestUtils.createPersonRequest();
+    person.setEmail(UUID.randomUUID() + "@example.com");
+    return idOf(post("/api/clients/persons"), person);
+  }
+
+  private long createContract(long clientId) throws Exception {
+    return idOf(
+        post("/api/clients/{clientId}/contracts", clientId), TestUtils.createContractRequest());
+  }
+
+  private long idOf(MockHttpServletRequestBuilder request, Object body) throws Exception {
+    String json =
+        mockMvc
+            .perform(
+                request
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(body)))
+            .andExpect(status().isCreated())
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+    return objectMapper.readTree(json).get("id").asLong();
+  }
+}
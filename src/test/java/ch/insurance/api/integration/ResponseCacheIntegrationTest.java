@@ -0,0 +1,128 @@
+package ch.insurance.api.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+
+import ch.insurance.api.TestUtils;
+import ch.insurance.api.domain.Contract;
+import ch.insurance.api.domain.Person;
+import ch.insurance.api.dto.ClientUpdateRequest;
+import ch.insurance.api.dto.ContractCostUpdateRequest;
+import ch.insurance.api.repository.ClientRepository;
+import ch.insurance.api.repository.ContractRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Not @Transactional: entries are invalidated after commit.
+class ResponseCacheIntegrationTest extends IntegrationTestBase {
+
+  @Autowired private ClientRepository clientRepository;
+
+  @Autowired private ContractRepository contractRepository;
+
+  @Autowired private MeterRegistry meterRegistry;
+
+  @Test
+  void getClient_WhenReadAgain_ShouldServeIdenticalBytesFromCache() throws Exception {
+    // Given
+    Long clientId = savePerson().getId();
+    byte[] rendered = getBytes("/api/clients/{id}", clientId);
+    double hits = hits("client");
+
+    // When
+    byte[] cached = getBytes("/api/clients/{id}", clientId);
+
+    // Then
+    assertThat(cached).isEqualTo(rendered);
+    assertThat(hits("client")).isEqualTo(hits + 1);
+  }
+
+  @Test
+  void getClient_AfterUpdate_ShouldReturnUpdatedClient() throws Exception {
+    // Given
+    Long clientId = savePerson().getId();
+    getBytes("/api/clients/{id}", clientId);
+    ClientUpdateRequest update = new ClientUpdateRequest();
+    update.setLastName("Updated");
+
+    // When
+    mockMvc
+        .perform(
+            put("/api/clients/{id}", clientId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(update)))
+        .andExpect(status().isOk());
+
+    // Then
+    mockMvc
+        .perform(get("/api/clients/{id}", clientId))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.lastName").value("Updated"));
+  }
+
+  @Test
+  void getContract_AfterCostUpdateAndTermination_ShouldReturnCurrentContract() throws Exception {
+    // Given
+    Person person = savePerson();
+    Long contractId = contractRepository.save(TestUtils.createTestContract(person)).getId();
+    getBytes("/api/contracts/{contractId}", contractId);
+    getBytes("/api/contracts/{contractId}", contractId);
+
+    // When
+    mockMvc
+        .perform(
+            put("/api/contracts/{contractId}/cost", contractId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(
+                    objectMapper.writeValueAsString(
+                        new ContractCostUpdateRequest(new BigDecimal("42.00")))))
+        .andExpect(status().isOk());
+
+    // Then
+    mockMvc
+        .perform(get("/api/contracts/{contractId}", contractId))
+        .andExpect(jsonPath("$.costAmount").value(42.00));
+
+    // When
+    mockMvc
+        .perform(delete("/api/contracts/{contractId}", contractId))
+        .andExpect(status().is2xxSuccessful());
+
+    // Then
+    Contract ended = contractRepository.findById(contractId).orElseThrow();
+    mockMvc
+        .perform(get("/api/contracts/{contractId}", contractId))
+        .andExpect(jsonPath("$.endDate").value(ended.getEndDate().toString()));
+  }
+
+  private byte[] getBytes(String path, Long id) throws Exception {
+    return mockMvc
+        .perform(get(path, id))
+        .andExpect(status().isOk())
+        .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+        .andReturn()
+        .getResponse()
+        .getContentAsByteArray();
+  }
+
+  private double hits(String resource) {
+    return meterRegistry
+        .get("insurance.response_cache.hits")
+        .tag("resource", resource)
+        .counter()
+        .count();
+  }
+
+  private Person savePerson() {
+    Person person = TestUtils.createTestSavedPerson();
+    person.setEmail(UUID.randomUUID() + "@example.com");
+    return clientRepository.save(person);
+  }
+}
@@ -0,0 +1,128 @@
+package ch.insurance.api.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import jakarta.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import ch.insurance.api.TestUtils;
+import ch.insurance.api.domain.Contract;
+import ch.insurance.api.domain.Person;
+import ch.insurance.api.repository.ClientRepository;
+import ch.insurance.api.repository.ContractRepository;
+import ch.insurance.api.service.CacheInvalidation;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Not @Transactional: cache hits only happen across transactions.
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.cache.use_query_cache=true")
+class SecondLevelCacheIntegrationTest extends IntegrationTestBase {
+
+  @Autowired private ClientRepository clientRepository;
+
+  @Autowired private ContractRepository contractRepository;
+
+  @Autowired private CacheInvalidation cacheInvalidation;
+
+  @Autowired private JdbcTemplate jdbcTemplate;
+
+  @Autowired private TransactionTemplate transactionTemplate;
+
+  @Autowired private EntityManagerFactory entityManagerFactory;
+
+  @Autowired private MeterRegistry meterRegistry;
+
+  private Statistics statistics;
+
+  @BeforeEach
+  void clearStatistics() {
+    statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    statistics.clear();
+  }
+
+  @Test
+  void findById_WhenClientAlreadyLoaded_ShouldBeServedFromCacheWithoutSql() {
+    // Given
+    Long clientId = savePerson().getId();
+    clientRepository.findById(clientId);
+    long statements = statistics.getPrepareStatementCount();
+
+    // When
+    Person cached = (Person) clientRepository.findById(clientId).orElseThrow();
+
+    // Then
+    assertThat(cached.getFirstName()).isEqualTo("John");
+    assertThat(statistics.getPrepareStatementCount()).isEqualTo(statements);
+    assertThat(statistics.getDomainDataRegionStatistics("clients").getHitCount()).isPositive();
+    assertThat(meterRegistry.find("hibernate.second.level.cache.requests").meters()).isNotEmpty();
+  }
+
+  @Test
+  void findActiveContractsByClientId_ShouldCacheResultsUntilContractsChange() {
+    // Given
+    Person person = savePerson();
+    contractRepository.save(TestUtils.createTestContract(person));
+    activeContracts(person.getId());
+
+    // When
+    List<Contract> cached = activeContracts(person.getId());
+
+    // Then
+    assertThat(cached).hasSize(1);
+    assertThat(statistics.getQueryRegionStatistics("active-contracts").getHitCount()).isEqualTo(1);
+
+    // When: a plain JDBC insert that Hibernate cannot see
+    transactionTemplate.executeWithoutResult(
+        status -> {
+          cacheInvalidation.invalidateQueriesOnCompletion("contracts");
+          jdbcTemplate.update(
+              "INSERT INTO contracts (client_id, start_date, cost_amount, last_modified_date,"
+                  + " created_at) VALUES (?, ?, ?, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)",
+              person.getId(),
+              LocalDate.now(),
+              new BigDecimal("10.00"));
+        });
+
+    // Then
+    assertThat(activeContracts(person.getId())).hasSize(2);
+  }
+
+  @Test
+  void
+      findActiveContractsByClientId_WhenContractUpdatedThroughHibernate_ShouldNotServeStaleResult() {
+    // Given
+    Person person = savePerson();
+    Contract contract = contractRepository.save(TestUtils.createTestContract(person));
+    activeContracts(person.getId());
+
+    // When
+    contract.setEndDate(LocalDate.now().minusDays(1));
+    contractRepository.save(contract);
+
+    // Then
+    assertThat(activeContracts(person.getId())).isEmpty();
+  }
+
+  private List<Contract> activeContracts(Long clientId) {
+    return transactionTemplate.execute(
+        status -> contractRepository.findActiveContractsByClientId(clientId, LocalDate.now()));
+  }
+
+  private Person savePerson() {
+    Person person = TestUtils.createTestSavedPerson();
+    person.setEmail("cache-" + UUID.randomUUID() + "@example.com");
+    return clientRepository.save(person);
+  }
+}
@@ -0,0 +1,236 @@
+package ch.insurance.api.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import ch.insurance.api.TestUtils;
+import ch.insurance.api.datasource.ShardRoutingDataSource;
+import ch.insurance.api.dto.ContractRequest;
+import ch.insurance.api.dto.PersonRequest;
+import ch.insurance.api.service.Shards;
+
+// Three embedded H2 databases as shards. Not @Transactional: a transaction stays on one shard.
+// The JCache manager behind the second-level cache is shared by every context in the JVM, and
+// contexts cached by earlier tests hold entities with the same ids from another database.
+@TestPropertySource(
+    properties = {
+      "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+      "insurance.datasource.sharding.enabled=true",
+      "insurance.datasource.sharding.shards[0].url=jdbc:h2:mem:shard0;DB_CLOSE_DELAY=-1",
+      "insurance.datasource.sharding.shards[0].username=sa",
+      "insurance.datasource.sharding.shards[1].url=jdbc:h2:mem:shard1;DB_CLOSE_DELAY=-1",
+      "insurance.datasource.sharding.shards[1].username=sa",
+      "insurance.datasource.sharding.shards[2].url=jdbc:h2:mem:shard2;DB_CLOSE_DELAY=-1",
+      "insurance.datasource.sharding.shards[2].username=sa"
+    })
+class ShardingIntegrationTest extends IntegrationTestBase {
+
+  @Autowired private ShardRoutingDataSource shardRoutingDataSource;
+
+  @Autowired private Shards shards;
+
+  @Test
+  void clientsAndContracts_ShouldSpreadOverShardsAndStayTogether() throws Exception {
+    // Given
+    List<Long> clientIds = new ArrayList<>();
+    for (int shard = 0; shard < 3; shard++) {
+      clientIds.add(createPerson(emailOnShard(shard)).get("id").asLong());
+    }
+
+    // When
+    List<Long> contractIds = new ArrayList<>();
+    for (Long clientId : clientIds) {
+      contractIds.add(createContract(clientId, "100.00"));
+      createContract(clientId, "50.00");
+    }
+
+    // Then every shard received one client, and each contract sits on its client's shard
+    assertThat(clientIds.stream().map(shardRoutingDataSource::shardOf).distinct()).hasSize(3);
+    for (int i = 0; i < clientIds.size(); i++) {
+      int shard = shardRoutingDataSource.shardOf(clientIds.get(i));
+      assertThat(shardRoutingDataSource.shardOf(contractIds.get(i))).isEqualTo(shard);
+      assertThat(countOn(shard, "contracts", clientIds.get(i))).isEqualTo(2);
+      mockMvc
+          .perform(get("/api/clients/{clientId}/contracts/total-cost", clientIds.get(i)))
+          .andExpect(jsonPath("$.totalCost").value(150.00));
+      mockMvc
+          .perform(get("/api/contracts/{contractId}", contractIds.get(i)))
+          .andExpect(jsonPath("$.clientId").value(clientIds.get(i)));
+    }
+  }
+
+  @Test
+  void crossShardReads_ShouldFanOutAndMerge() throws Exception {
+    // Given
+    String email = uniqueEmail();
+    List<Long> clientIds = new ArrayList<>();
+    clientIds.add(createPerson(email).get("id").asLong());
+    clientIds.add(createPerson(uniqueEmail()).get("id").asLong());
+    clientIds.add(createPerson(uniqueEmail()).get("id").asLong());
+    for (Long clientId : clientIds) {
+      createContract(clientId, "10.00");
+    }
+    String ids = clientIds.stream().map(String::valueOf).reduce((a, b) -> a + "," + b).get();
+
+    // When & Then
+    mockMvc
+        .perform(get("/api/clients").param("ids", ids + ",999999"))
+        .andExpect(jsonPath("$.length()").value(4))
+        .andExpect(jsonPath("$[0].id").value(clientIds.get(0)))
+        .andExpect(jsonPath("$[2].status").value(200))
+        .andExpect(jsonPath("$[3].status").value(404));
+    mockMvc
+        .perform(get("/api/contracts/total-costs").param("clientIds", ids))
+        .andExpect(jsonPath("$[0].data.totalCost").value(10.00))
+        .andExpect(jsonPath("$[1].data.totalCost").value(10.00))
+        .andExpect(jsonPath("$[2].data.totalCost").value(10.00));
+    mockMvc
+        .perform(get("/api/clients/by-email").param("email", email))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.id").value(clientIds.get(0)));
+
+    JsonNode all =
+        objectMapper.readTree(
+            mockMvc.perform(get("/api/clients")).andReturn().getResponse().getContentAsString());
+    List<Long> listed = new ArrayList<>();
+    all.forEach(client -> listed.add(client.get("id").asLong()));
+    assertThat(listed).containsAll(clientIds);
+  }
+
+  @Test
+  void createPerson_WhenEmailExistsOnAnotherShard_ShouldReturnConflict() throws Exception {
+    // Given
+    String email = uniqueEmail();
+    createPerson(email);
+
+    PersonRequest request = TestUtils.createPersonRequest();
+    request.setEmail(email);
+
+    // When & Then the check asks every shard, not only the one the new client would go to
+    mockMvc
+        .perform(
+            post("/api/clients/persons")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+        .andExpect(status().isConflict());
+  }
+
+  @Test
+  void createPerson_WhenSameEmailIsCreatedConcurrently_ShouldKeepOnlyOne() throws Exception {
+    // Given
+    String email = uniqueEmail();
+    PersonRequest request = TestUtils.createPersonRequest();
+    request.setEmail(email);
+    String body = objectMapper.writeValueAsString(request);
+    int callers = 6;
+    CountDownLatch start = new CountDownLatch(1);
+    ExecutorService executor = Executors.newFixedThreadPool(callers);
+
+    try {
+      // When
+      List<Future<Integer>> statuses = new ArrayList<>();
+      for (int i = 0; i < callers; i++) {
+        statuses.add(
+            executor.submit(
+                () -> {
+                  start.await();
+                  return mockMvc
+                      .perform(
+                          post("/api/clients/persons")
+                              .contentType(MediaType.APPLICATION_JSON)
+                              .content(body))
+                      .andReturn()
+                      .getResponse()
+                      .getStatus();
+                }));
+      }
+      start.countDown();
+
+      // Then every create but one is refused, and the email exists on one shard only
+      List<Integer> results = new ArrayList<>();
+      for (Future<Integer> status : statuses) {
+        results.add(status.get(30, TimeUnit.SECONDS));
+      }
+      assertThat(results).containsOnlyOnce(201).containsOnly(201, 409);
+      long stored = 0;
+      for (int shard = 0; shard < 3; shard++) {
+        stored +=
+            new JdbcTemplate(shardRoutingDataSource.shard(shard))
+                .queryForObject("SELECT COUNT(*) FROM clients WHERE email = ?", Long.class, email);
+      }
+      assertThat(stored).isEqualTo(1);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private JsonNode createPerson(String email) throws Exception {
+    PersonRequest request = TestUtils.createPersonRequest();
+    request.setEmail(email);
+    String body =
+        mockMvc
+            .perform(
+                post("/api/clients/persons")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(request)))
+            .andExpect(status().isCreated())
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+    return objectMapper.readTree(body);
+  }
+
+  private Long createContract(Long clientId, String cost) throws Exception {
+    ContractRequest request = ContractRequest.builder().costAmount(new BigDecimal(cost)).build();
+    String body =
+        mockMvc
+            .perform(
+                post("/api/clients/{clientId}/contracts", clientId)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(request)))
+            .andExpect(status().isCreated())
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+    return objectMapper.readTree(body).get("id").asLong();
+  }
+
+  private long countOn(int shard, String table, Long clientId) {
+    return new JdbcTemplate(shardRoutingDataSource.shard(shard))
+        .queryForObject(
+            "SELECT COUNT(*) FROM " + table + " WHERE client_id = ?", Long.class, clientId);
+  }
+
+  private String emailOnShard(int shard) {
+    String email;
+    do {
+      email = uniqueEmail();
+    } while (shards.shardForEmail(email) != shard);
+    return email;
+  }
+
+  private static String uniqueEmail() {
+    return UUID.randomUUID() + "@example.com";
+  }
+}
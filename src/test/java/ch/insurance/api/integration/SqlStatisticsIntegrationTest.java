@@ -0,0 +1,48 @@
+package ch.insurance.api.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import ch.insurance.api.TestUtils;
+import ch.insurance.api.dto.PersonRequest;
+
+class SqlStatisticsIntegrationTest extends IntegrationTestBase {
+
+  @Test
+  void sqlstats_ShouldReportStatementsRunByRequests() throws Exception {
+    // Given
+    mockMvc.perform(delete("/actuator/sqlstats")).andExpect(status().is2xxSuccessful());
+    PersonRequest person = TestUtils.createPersonRequest();
+    person.setEmail(UUID.randomUUID() + "@example.com");
+    mockMvc
+        .perform(
+            post("/api/clients/persons")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(person)))
+        .andExpect(status().isCreated());
+
+    // When
+    String json =
+        mockMvc
+            .perform(get("/actuator/sqlstats"))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+
+    // Then
+    JsonNode report = objectMapper.readTree(json);
+    assertThat(report.get("executions").asLong()).isPositive();
+    assertThat(report.get("mostFrequent"))
+        .extracting(shape -> shape.get("sql").asText())
+        .anyMatch(sql -> sql.startsWith("insert into clients"));
+  }
+}
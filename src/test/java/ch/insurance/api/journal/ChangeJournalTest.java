@@ -0,0 +1,259 @@
+package ch.insurance.api.journal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ChangeJournalTest {
+
+  // Room for three records of the 20-byte payloads below
+  private static final int SEGMENT = 3 * (ChangeJournal.HEADER_SIZE + 20);
+
+  @TempDir Path directory;
+
+  private final AtomicLong clock = new AtomicLong(1_000_000L);
+  private final List<ChangeJournal> opened = new ArrayList<>();
+
+  @AfterEach
+  void tearDown() throws Exception {
+    for (ChangeJournal journal : opened) {
+      journal.close();
+    }
+  }
+
+  private ChangeJournal journal(long maxBytes, Duration retention) throws Exception {
+    ChangeJournal journal =
+        new ChangeJournal(
+            directory, SEGMENT, maxBytes, retention, new SimpleMeterRegistry(), clock::get);
+    opened.add(journal);
+    return journal;
+  }
+
+  private ChangeJournal journal() throws Exception {
+    return journal(SEGMENT * 100L, Duration.ofDays(1));
+  }
+
+  private static byte[] payload(long id) {
+    return String.format("{\"id\":%-13d}", id).getBytes(StandardCharsets.UTF_8);
+  }
+
+  private static List<ChangeRecord> readAll(ChangeJournal journal, long offset, int maxBytes)
+      throws Exception {
+    List<ChangeRecord> records = new ArrayList<>();
+    while (offset < journal.endOffset()) {
+      try (ChangeJournal.Slice slice = journal.read(offset, maxBytes)) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        slice.transferTo(Channels.newChannel(out));
+        assertThat(out.size()).isEqualTo(slice.length());
+        records.addAll(ChangeRecord.decode(offset, ByteBuffer.wrap(out.toByteArray())));
+        offset = slice.nextOffset();
+      }
+    }
+    return records;
+  }
+
+  @Test
+  void read_ShouldReturnAppendedRecordsInOrder() throws Exception {
+    // Given
+    ChangeJournal journal = journal();
+    long first = journal.append(ChangeType.CLIENT_CREATED, 1L, payload(1));
+    clock.addAndGet(5);
+    long second = journal.append(ChangeType.CLIENT_DELETED, 1L, new byte[0]);
+
+    // When
+    List<ChangeRecord> records = readAll(journal, journal.startOffset(), 1024);
+
+    // Then
+    assertThat(records).hasSize(2);
+    assertThat(records.get(0).offset()).isEqualTo(first);
+    assertThat(records.get(0).type()).isEqualTo(ChangeType.CLIENT_CREATED);
+    assertThat(records.get(0).entityId()).isEqualTo(1L);
+    assertThat(records.get(0).timestamp()).isEqualTo(1_000_000L);
+    assertThat(records.get(0).payload()).isEqualTo(payload(1));
+    assertThat(records.get(1).offset()).isEqualTo(second);
+    assertThat(records.get(1).type()).isEqualTo(ChangeType.CLIENT_DELETED);
+    assertThat(records.get(1).payload()).isEmpty();
+    assertThat(journal.endOffset()).isEqualTo(2L * ChangeJournal.HEADER_SIZE + 20);
+  }
+
+  @Test
+  void read_WithMaxBytes_ShouldStopAtRecordBoundary() throws Exception {
+    // Given
+    ChangeJournal journal = journal();
+    journal.append(ChangeType.CONTRACT_CREATED, 1L, payload(1));
+    journal.append(ChangeType.CONTRACT_CREATED, 2L, payload(2));
+
+    // When one and a half records fit
+    try (ChangeJournal.Slice slice = journal.read(0L, (ChangeJournal.HEADER_SIZE + 20) * 3 / 2);
+        ChangeJournal.Slice tooSmall = journal.read(0L, 1);
+        ChangeJournal.Slice caughtUp = journal.read(journal.endOffset(), 1024)) {
+
+      // Then
+      assertThat(slice.length()).isEqualTo(ChangeJournal.HEADER_SIZE + 20);
+      assertThat(slice.nextOffset()).isEqualTo(ChangeJournal.HEADER_SIZE + 20);
+      assertThat(tooSmall.length()).isEqualTo(ChangeJournal.HEADER_SIZE + 20);
+      assertThat(caughtUp.length()).isZero();
+      assertThat(caughtUp.nextOffset()).isEqualTo(journal.endOffset());
+    }
+  }
+
+  @Test
+  void append_WhenSegmentIsFull_ShouldRollOverWithContinuousOffsets() throws Exception {
+    // Given
+    ChangeJournal journal = journal();
+
+    // When
+    for (long id = 1; id <= 7; id++) {
+      journal.append(ChangeType.CONTRACT_UPDATED, id, payload(id));
+    }
+
+    // Then
+    assertThat(journal.segmentCount()).isEqualTo(3);
+    assertThat(readAll(journal, 0L, 1024))
+        .extracting(ChangeRecord::entityId)
+        .containsExactly(1L, 2L, 3L, 4L, 5L, 6L, 7L);
+    try (Stream<Path> files = Files.list(directory)) {
+      assertThat(files.map(path -> path.getFileName().toString()).sorted())
+          .containsExactly(
+              "00000000000000000000.journal",
+              String.format("%020d.journal", SEGMENT),
+              String.format("%020d.journal", 2 * SEGMENT));
+    }
+    assertThat(Files.size(directory.resolve("00000000000000000000.journal"))).isEqualTo(SEGMENT);
+  }
+
+  @Test
+  void append_WhenRecordExceedsSegment_ShouldThrow() throws Exception {
+    ChangeJournal journal = journal();
+
+    assertThatThrownBy(() -> journal.append(ChangeType.CLIENT_UPDATED, 1L, new byte[SEGMENT]))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThat(journal.endOffset()).isZero();
+  }
+
+  @Test
+  void enforceRetention_ShouldDeleteOldestSegmentsBeyondMaxSize() throws Exception {
+    // Given a journal holding at most two segments
+    ChangeJournal journal = journal(2L * SEGMENT, Duration.ofDays(1));
+
+    // When
+    for (long id = 1; id <= 9; id++) {
+      journal.append(ChangeType.CONTRACT_UPDATED, id, payload(id));
+    }
+    journal.enforceRetention();
+
+    // Then
+    assertThat(journal.startOffset()).isEqualTo(SEGMENT);
+    assertThat(readAll(journal, journal.startOffset(), 1024))
+        .extracting(ChangeRecord::entityId)
+        .containsExactly(4L, 5L, 6L, 7L, 8L, 9L);
+    assertThatThrownBy(() -> journal.read(0L, 1024))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("outside the journal");
+  }
+
+  @Test
+  void enforceRetention_ShouldDeleteSegmentsPastRetentionButKeepActiveOne() throws Exception {
+    // Given
+    ChangeJournal journal = journal(SEGMENT * 100L, Duration.ofMinutes(1));
+    for (long id = 1; id <= 4; id++) {
+      journal.append(ChangeType.CONTRACT_UPDATED, id, payload(id));
+    }
+
+    // When
+    clock.addAndGet(Duration.ofMinutes(2).toMillis());
+    journal.enforceRetention();
+
+    // Then
+    assertThat(journal.segmentCount()).isEqualTo(1);
+    assertThat(journal.startOffset()).isEqualTo(SEGMENT);
+    assertThat(readAll(journal, journal.startOffset(), 1024))
+        .extracting(ChangeRecord::entityId)
+        .containsExactly(4L);
+  }
+
+  @Test
+  void enforceRetention_WhenSegmentIsBeingRead_ShouldDeleteItOnceTheReadIsDone() throws Exception {
+    // Given a slice still open on the oldest segment
+    ChangeJournal journal = journal(2L * SEGMENT, Duration.ofDays(1));
+    journal.append(ChangeType.CONTRACT_UPDATED, 1L, payload(1));
+    ChangeJournal.Slice slice = journal.read(0L, 1024);
+    for (long id = 2; id <= 9; id++) {
+      journal.append(ChangeType.CONTRACT_UPDATED, id, payload(id));
+    }
+    Path oldest = directory.resolve("00000000000000000000.journal");
+
+    // When
+    journal.enforceRetention();
+
+    // Then the slice can still be sent, and only closing it deletes the file
+    assertThat(journal.startOffset()).isEqualTo(SEGMENT);
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    slice.transferTo(Channels.newChannel(out));
+    assertThat(ChangeRecord.decode(0L, ByteBuffer.wrap(out.toByteArray())))
+        .extracting(ChangeRecord::entityId)
+        .containsExactly(1L);
+    assertThat(oldest).exists();
+    slice.close();
+    assertThat(oldest).doesNotExist();
+    assertThatThrownBy(() -> journal.read(0L, 1024))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("outside the journal");
+  }
+
+  @Test
+  void read_WhenOffsetIsInsideRecord_ShouldThrow() throws Exception {
+    ChangeJournal journal = journal();
+    journal.append(ChangeType.CLIENT_CREATED, 1L, payload(1));
+
+    assertThatThrownBy(() -> journal.read(3L, 1024))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("not the start of a record");
+  }
+
+  @Test
+  void recover_ShouldContinueAfterLastIntactRecord() throws Exception {
+    // Given five records, the last one torn by a crash
+    ChangeJournal journal = journal();
+    for (long id = 1; id <= 5; id++) {
+      journal.append(ChangeType.CLIENT_UPDATED, id, payload(id));
+    }
+    long tornOffset = journal.endOffset() - (ChangeJournal.HEADER_SIZE + 20);
+    journal.close();
+    opened.remove(journal);
+    try (FileChannel channel =
+        FileChannel.open(
+            directory.resolve(String.format("%020d.journal", SEGMENT)), StandardOpenOption.WRITE)) {
+      channel.write(ByteBuffer.wrap(new byte[] {0x7f}), tornOffset - SEGMENT + 30);
+    }
+
+    // When
+    ChangeJournal reopened = journal();
+    long next = reopened.append(ChangeType.CLIENT_DELETED, 6L, new byte[0]);
+
+    // Then
+    assertThat(next).isEqualTo(tornOffset);
+    assertThat(readAll(reopened, 0L, 1024))
+        .extracting(ChangeRecord::entityId)
+        .containsExactly(1L, 2L, 3L, 4L, 6L);
+  }
+}
@@ -0,0 +1,159 @@
+package ch.insurance.api.json;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import ch.insurance.api.dto.ClientResponse;
+import ch.insurance.api.dto.ClientSearchResult;
+import ch.insurance.api.dto.ContractResponse;
+
+class ResponseSerializersTest {
+
+  // Same settings as spring.jackson in application.yml
+  private final JsonMapper reflective = mapper().build();
+
+  private final JsonMapper generated =
+      mapper()
+          .addModule(
+              new SimpleModule()
+                  .addSerializer(new ResponseSerializers.ContractResponseSerializer())
+                  .addSerializer(new ResponseSerializers.ClientResponseSerializer())
+                  .addSerializer(new ResponseSerializers.ClientSearchResultSerializer()))
+          .build();
+
+  private static JsonMapper.Builder mapper() {
+    return JsonMapper.builder()
+        .addModule(new JavaTimeModule())
+        .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+        .serializationInclusion(JsonInclude.Include.NON_NULL);
+  }
+
+  @Test
+  void serialize_WhenContractsAreComplete_ShouldMatchBeanSerializer() throws Exception {
+    // Given
+    List<ContractResponse> contracts =
+        List.of(
+            ContractResponse.builder()
+                .id(1L)
+                .clientId(7L)
+                .startDate(LocalDate.of(2024, 1, 1))
+                .endDate(LocalDate.of(2025, 12, 31))
+                .costAmount(new BigDecimal("2500.00"))
+                .createdAt(LocalDateTime.of(2024, 1, 1, 9, 30, 15, 123_456_000))
+                .build(),
+            ContractResponse.builder()
+                .id(2L)
+                .clientId(7L)
+                .startDate(LocalDate.of(2024, 2, 1))
+                .costAmount(new BigDecimal("1E+3"))
+                .build());
+
+    // When & Then
+    assertThat(generated.writeValueAsString(contracts))
+        .isEqualTo(reflective.writeValueAsString(contracts));
+  }
+
+  @Test
+  void serialize_WhenClientIsPersonOrCompany_ShouldMatchBeanSerializer() throws Exception {
+    // Given
+    ClientResponse person =
+        ClientResponse.builder()
+            .id(1L)
+            .clientType("PERSON")
+            .email("jane@example.com")
+            .phone("+41211234567")
+            .createdAt(LocalDateTime.of(2024, 1, 1, 9, 30))
+            .updatedAt(LocalDateTime.of(2024, 3, 1, 10, 0, 1))
+            .firstName("Jane")
+            .lastName("Doe \"Quoted\"")
+            .birthDate(LocalDate.of(1990, 1, 15))
+            .build();
+    ClientResponse company =
+        ClientResponse.builder()
+            .id(2L)
+            .clientType("COMPANY")
+            .email("info@acme.ch")
+            .phone("+41211234567")
+            .companyName("Acme Sàrl")
+            .companyIdentifier("ACM-123")
+            .build();
+
+    // When & Then
+    assertThat(generated.writeValueAsString(List.of(person, company)))
+        .isEqualTo(reflective.writeValueAsString(List.of(person, company)));
+  }
+
+  @Test
+  void serialize_WhenSearchResult_ShouldMatchBeanSerializer() throws Exception {
+    // Given
+    ClientSearchResult result =
+        ClientSearchResult.builder()
+            .id(3L)
+            .clientType("PERSON")
+            .name("Jane Doe")
+            .email("jane@example.com")
+            .score(1.75)
+            .build();
+
+    // When & Then
+    assertThat(generated.writeValueAsString(result))
+        .isEqualTo(reflective.writeValueAsString(result));
+  }
+
+  @Test
+  void serialize_WhenDatesHaveEdgeValues_ShouldMatchJavaTimeSerializers() throws Exception {
+    // Given
+    List<ContractResponse> contracts =
+        List.of(
+            contract(LocalDate.of(1, 2, 3), LocalDateTime.of(2024, 1, 1, 0, 0)),
+            contract(
+                LocalDate.of(2024, 12, 31), LocalDateTime.of(2024, 1, 1, 23, 59, 59, 120_000_000)),
+            contract(LocalDate.of(9999, 1, 1), LocalDateTime.of(2024, 1, 1, 1, 2, 3, 1)),
+            contract(LocalDate.of(10_000, 1, 1), LocalDateTime.of(-1, 1, 1, 1, 2, 3, 999_999_999)));
+
+    // When & Then
+    assertThat(generated.writeValueAsString(contracts))
+        .isEqualTo(reflective.writeValueAsString(contracts));
+  }
+
+  @Test
+  void serialize_WhenMapperWritesTimestamps_ShouldFollowMapperSettings() throws Exception {
+    // Given
+    List<ContractResponse> contracts =
+        List.of(contract(LocalDate.of(2024, 2, 29), LocalDateTime.of(2024, 1, 1, 9, 30, 15)));
+
+    // When & Then
+    assertThat(
+            generated
+                .writer()
+                .with(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .writeValueAsString(contracts))
+        .isEqualTo(
+            reflective
+                .writer()
+                .with(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .writeValueAsString(contracts));
+  }
+
+  private static ContractResponse contract(LocalDate startDate, LocalDateTime createdAt) {
+    return ContractResponse.builder()
+        .id(1L)
+        .clientId(7L)
+        .startDate(startDate)
+        .costAmount(BigDecimal.TEN)
+        .createdAt(createdAt)
+        .build();
+  }
+}
@@ -0,0 +1,209 @@
+package ch.insurance.api.json;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class SerializedResponseCacheTest {
+
+  private static final int SLAB = 8 * 1024;
+
+  private static final Duration TTL = Duration.ofMinutes(1);
+
+  private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+
+  private SerializedResponseCache<String> cache(long maxBytes, Duration quarantine) {
+    return new SerializedResponseCache<>(
+        "client",
+        true,
+        new ObjectMapper().writerFor(String.class),
+        maxBytes,
+        SLAB,
+        TTL,
+        quarantine,
+        new SimpleMeterRegistry(),
+        clock::get);
+  }
+
+  private static String body(long id) {
+    return "client-" + id + "-" + "x".repeat(80);
+  }
+
+  private static String written(SerializedResponseCache<String> cache, long id) throws Exception {
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    return cache.writeTo(id, response) ? response.getContentAsString() : null;
+  }
+
+  @Test
+  void writeTo_WhenCached_ShouldWriteSerializedJson() throws Exception {
+    // Given
+    SerializedResponseCache<String> cache = cache(SLAB, Duration.ZERO);
+    cache.put(1L, 1L, cache.loadStamp(), body(1));
+
+    // When
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    boolean hit = cache.writeTo(1L, response);
+
+    // Then
+    assertThat(hit).isTrue();
+    assertThat(response.getStatus()).isEqualTo(200);
+    assertThat(response.getContentType()).isEqualTo("application/json");
+    assertThat(response.getContentAsString()).isEqualTo("\"" + body(1) + "\"");
+    assertThat(response.getContentLength()).isEqualTo(body(1).length() + 2);
+  }
+
+  @Test
+  void writeTo_WhenNotCached_ShouldLeaveResponseUntouched() throws Exception {
+    // Given
+    SerializedResponseCache<String> cache = cache(SLAB, Duration.ZERO);
+
+    // When
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    boolean hit = cache.writeTo(1L, response);
+
+    // Then
+    assertThat(hit).isFalse();
+    assertThat(response.getContentAsByteArray()).isEmpty();
+    assertThat(response.getContentType()).isNull();
+  }
+
+  @Test
+  void invalidate_ShouldDropEntryAndRejectLoadsThatStartedBefore() throws Exception {
+    // Given
+    SerializedResponseCache<String> cache = cache(SLAB, Duration.ZERO);
+    cache.put(1L, 1L, cache.loadStamp(), body(1));
+    clock.addAndGet(10);
+    long stampBeforeWrite = cache.loadStamp();
+    clock.addAndGet(10);
+
+    // When
+    cache.invalidate(1L);
+    cache.put(1L, 1L, stampBeforeWrite, "stale");
+
+    // Then
+    assertThat(written(cache, 1L)).isNull();
+    clock.addAndGet(10);
+    cache.put(1L, 2L, cache.loadStamp(), "fresh");
+    assertThat(written(cache, 1L)).isEqualTo("\"fresh\"");
+  }
+
+  @Test
+  void put_WithinQuarantineAfterInvalidation_ShouldNotCache() throws Exception {
+    // Given
+    SerializedResponseCache<String> cache = cache(SLAB, Duration.ofSeconds(2));
+    cache.invalidate(1L);
+
+    // When
+    clock.addAndGet(Duration.ofSeconds(1).toNanos());
+    cache.put(1L, 1L, cache.loadStamp(), "maybe from a lagging replica");
+
+    // Then
+    assertThat(written(cache, 1L)).isNull();
+    clock.addAndGet(Duration.ofSeconds(2).toNanos());
+    cache.put(1L, 1L, cache.loadStamp(), "settled");
+    assertThat(written(cache, 1L)).isEqualTo("\"settled\"");
+  }
+
+  @Test
+  void writeTo_WhenEntryOutlivedItsTtl_ShouldMissAndAcceptTheSameVersionAgain() throws Exception {
+    // Given an entry another instance's write never invalidated here
+    SerializedResponseCache<String> cache = cache(SLAB, Duration.ZERO);
+    cache.put(1L, 5L, cache.loadStamp(), "stale");
+
+    // When
+    clock.addAndGet(TTL.toNanos());
+
+    // Then
+    assertThat(written(cache, 1L)).isNull();
+    cache.put(1L, 5L, cache.loadStamp(), "reloaded");
+    assertThat(written(cache, 1L)).isEqualTo("\"reloaded\"");
+    assertThat(cache.size()).isEqualTo(1);
+  }
+
+  @Test
+  void put_WithOlderVersion_ShouldKeepNewerDocument() throws Exception {
+    // Given
+    SerializedResponseCache<String> cache = cache(SLAB, Duration.ZERO);
+    cache.put(1L, 5L, cache.loadStamp(), "version 5");
+
+    // When
+    cache.put(1L, 4L, cache.loadStamp(), "version 4");
+
+    // Then
+    assertThat(written(cache, 1L)).isEqualTo("\"version 5\"");
+    cache.put(1L, 6L, cache.loadStamp(), "version 6");
+    assertThat(written(cache, 1L)).isEqualTo("\"version 6\"");
+    assertThat(cache.size()).isEqualTo(1);
+  }
+
+  @Test
+  void put_WhenSlabsAreFull_ShouldEvictUnreferencedEntryFirst() throws Exception {
+    // Given a single slab of 64 chunks of 128 bytes, all in use
+    SerializedResponseCache<String> cache = cache(SLAB, Duration.ZERO);
+    for (long id = 1; id <= 64; id++) {
+      cache.put(id, 1L, cache.loadStamp(), body(id));
+    }
+    assertThat(written(cache, 1L)).isNotNull();
+
+    // When
+    cache.put(65L, 1L, cache.loadStamp(), body(65));
+
+    // Then id 1 was read since, so its neighbour goes instead
+    assertThat(cache.size()).isEqualTo(64);
+    assertThat(written(cache, 1L)).isNotNull();
+    assertThat(written(cache, 2L)).isNull();
+    assertThat(written(cache, 65L)).isEqualTo("\"" + body(65) + "\"");
+    assertThat(cache.offHeapBytes()).isEqualTo(SLAB);
+  }
+
+  @Test
+  void put_WhenNoSlabLeftForSizeClass_ShouldSkipDocument() throws Exception {
+    // Given
+    SerializedResponseCache<String> cache = cache(SLAB, Duration.ZERO);
+    cache.put(1L, 1L, cache.loadStamp(), body(1));
+
+    // When
+    cache.put(2L, 1L, cache.loadStamp(), "y".repeat(1000));
+    cache.put(3L, 1L, cache.loadStamp(), "z".repeat(9000));
+
+    // Then
+    assertThat(written(cache, 2L)).isNull();
+    assertThat(written(cache, 3L)).isNull();
+    assertThat(written(cache, 1L)).isNotNull();
+  }
+
+  @Test
+  void versionOf_ShouldOrderByModificationTime() {
+    LocalDateTime modifiedAt = LocalDateTime.of(2024, 1, 1, 10, 0, 0, 1);
+
+    assertThat(SerializedResponseCache.versionOf(null)).isZero();
+    assertThat(SerializedResponseCache.versionOf(modifiedAt))
+        .isLessThan(SerializedResponseCache.versionOf(modifiedAt.plusNanos(1)));
+  }
+
+  @Test
+  void constructor_WhenSlabSizeIsNotChunkAligned_ShouldThrow() {
+    assertThatThrownBy(
+            () ->
+                new SerializedResponseCache<>(
+                    "client",
+                    true,
+                    new ObjectMapper().writerFor(String.class),
+                    SLAB * 4L,
+                    SLAB + 1,
+                    TTL,
+                    Duration.ZERO,
+                    new SimpleMeterRegistry()))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+}
@@ -0,0 +1,55 @@
+package ch.insurance.api.logging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.event.KeyValuePair;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.LoggingEvent;
+
+class JsonLogEncoderTest {
+
+  private final LoggerContext context = new LoggerContext();
+  private final JsonLogEncoder encoder = new JsonLogEncoder();
+
+  @Test
+  void encode_ShouldWriteOneJsonObjectPerLine() throws Exception {
+    // Given
+    LoggingEvent event =
+        new LoggingEvent(
+            "test",
+            context.getLogger("ch.insurance.api.web.RequestLoggingFilter"),
+            Level.WARN,
+            "GET {} failed",
+            new IllegalStateException("boom"),
+            new Object[] {"/api/clients/1"});
+    event.setTimeStamp(1_704_103_200_000L);
+    event.setMDCPropertyMap(Map.of("traceId", "abc"));
+    event.addKeyValuePair(new KeyValuePair("status", 500));
+    event.addKeyValuePair(new KeyValuePair("slow", true));
+
+    // When
+    String line = new String(encoder.encode(event), StandardCharsets.UTF_8);
+
+    // Then
+    assertThat(line).endsWith("\n").doesNotContain("\n{");
+    JsonNode json = new ObjectMapper().readTree(line);
+    assertThat(json.get("timestamp").asText()).isEqualTo("2024-01-01T10:00:00Z");
+    assertThat(json.get("level").asText()).isEqualTo("WARN");
+    assertThat(json.get("logger").asText()).isEqualTo("ch.insurance.api.web.RequestLoggingFilter");
+    assertThat(json.get("message").asText()).isEqualTo("GET /api/clients/1 failed");
+    assertThat(json.get("traceId").asText()).isEqualTo("abc");
+    assertThat(json.get("status").isNumber()).isTrue();
+    assertThat(json.get("status").asInt()).isEqualTo(500);
+    assertThat(json.get("slow").asBoolean()).isTrue();
+    assertThat(json.get("exception").asText()).contains("IllegalStateException: boom");
+  }
+}
@@ -0,0 +1,65 @@
+package ch.insurance.api.logging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+
+class SamplingTurboFilterTest {
+
+  private final LoggerContext context = new LoggerContext();
+  private final Logger sql = context.getLogger("org.hibernate.SQL");
+  private SamplingTurboFilter filter;
+
+  @BeforeEach
+  void setUp() {
+    filter = new SamplingTurboFilter();
+    filter.setLoggerPrefix("org.hibernate.SQL");
+    filter.setRate(4);
+    filter.start();
+  }
+
+  private int passed(Logger logger, Level level, int events) {
+    int passed = 0;
+    for (int i = 0; i < events; i++) {
+      if (filter.decide(null, logger, level, "select 1", null, null) == FilterReply.NEUTRAL) {
+        passed++;
+      }
+    }
+    return passed;
+  }
+
+  @Test
+  void decide_ShouldPassOneEventInRate() {
+    // When Then
+    assertThat(passed(sql, Level.DEBUG, 100)).isEqualTo(25);
+  }
+
+  @Test
+  void decide_ShouldAlwaysPassWarningsAndOtherLoggers() {
+    // When Then
+    assertThat(passed(sql, Level.WARN, 10)).isEqualTo(10);
+    assertThat(passed(sql, Level.ERROR, 10)).isEqualTo(10);
+    assertThat(passed(context.getLogger("ch.insurance.api"), Level.DEBUG, 10)).isEqualTo(10);
+  }
+
+  @Test
+  void decide_WhenCheckingWhetherEnabled_ShouldNotSample() {
+    // When
+    for (int i = 0; i < 3; i++) {
+      assertThat(filter.decide(null, sql, Level.DEBUG, null, null, null))
+          .isEqualTo(FilterReply.NEUTRAL);
+    }
+
+    // Then the checks did not use up the sample
+    assertThat(filter.decide(null, sql, Level.DEBUG, "select 1", null, null))
+        .isEqualTo(FilterReply.NEUTRAL);
+    assertThat(filter.decide(null, sql, Level.DEBUG, "select 1", null, null))
+        .isEqualTo(FilterReply.DENY);
+  }
+}
@@ -0,0 +1,71 @@
+package ch.insurance.api.money;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.math.BigDecimal;
+
+import org.junit.jupiter.api.Test;
+
+class MoneyTest {
+
+  @Test
+  void conversions_ShouldBeExactBothWays() {
+    assertThat(Money.toMinor(new BigDecimal("1500.50"))).isEqualTo(150_050);
+    assertThat(Money.toMinor(new BigDecimal("42"))).isEqualTo(4_200);
+    assertThat(Money.toMinor(new BigDecimal("1.5000"))).isEqualTo(150);
+    assertThat(Money.toAmount(150_050)).isEqualTo(new BigDecimal("1500.50"));
+    assertThat(Money.toAmount(-1)).isEqualTo(new BigDecimal("-0.01"));
+  }
+
+  @Test
+  void toMinor_WhenAmountCannotBeHeldExactly_ShouldThrow() {
+    assertThatThrownBy(() -> Money.toMinor(new BigDecimal("0.001")))
+        .isInstanceOf(ArithmeticException.class);
+    assertThatThrownBy(() -> Money.toMinor(new BigDecimal("100000000000000000")))
+        .isInstanceOf(ArithmeticException.class);
+  }
+
+  @Test
+  void arithmetic_WhenResultOverflows_ShouldThrow() {
+    assertThat(Money.add(1_00, 2_50)).isEqualTo(3_50);
+    assertThat(Money.subtract(1_00, 2_50)).isEqualTo(-1_50);
+    assertThat(Money.multiply(1_25, 4)).isEqualTo(5_00);
+    assertThatThrownBy(() -> Money.add(Long.MAX_VALUE, 1)).isInstanceOf(ArithmeticException.class);
+    assertThatThrownBy(() -> Money.subtract(Long.MIN_VALUE, 1))
+        .isInstanceOf(ArithmeticException.class);
+    assertThatThrownBy(() -> Money.multiply(Long.MAX_VALUE / 2, 3))
+        .isInstanceOf(ArithmeticException.class);
+  }
+
+  @Test
+  void sumFits_ShouldBoundEverySumOfTheGivenTerms() {
+    assertThat(Money.sumFits(0, Long.MAX_VALUE)).isTrue();
+    assertThat(Money.sumFits(2, Long.MAX_VALUE / 2)).isTrue();
+    assertThat(Money.sumFits(2, Long.MAX_VALUE / 2 + 1)).isFalse();
+    assertThat(Money.sumFits(50_000_000, 100_000_000_000L)).isTrue();
+  }
+
+  @Test
+  void moneySum_ShouldCountAndTotalWithoutWrappingAround() {
+    // Given
+    MoneySum sum = new MoneySum();
+    MoneySum other = new MoneySum();
+    other.add(2_50);
+
+    // When
+    sum.add(1_00);
+    sum.add(other);
+    sum.adjust(-1_00, -1);
+
+    // Then
+    assertThat(sum.count()).isEqualTo(1);
+    assertThat(sum.total()).isEqualTo(2_50);
+    assertThat(sum.toAmount()).isEqualTo(new BigDecimal("2.50"));
+    sum.add(Long.MAX_VALUE - 2_50);
+    assertThatThrownBy(() -> sum.add(1)).isInstanceOf(ArithmeticException.class);
+    assertThat(sum.total()).isEqualTo(Long.MAX_VALUE);
+    sum.reset();
+    assertThat(sum.count()).isZero();
+  }
+}
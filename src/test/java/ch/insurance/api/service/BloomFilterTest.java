@@ -0,0 +1,54 @@
+package ch.insurance.api.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class BloomFilterTest {
+
+  @Test
+  void mightContain_WhenValueWasAdded_ShouldAlwaysReturnTrue() {
+    // Given
+    BloomFilter filter = new BloomFilter(10_000, 0.01);
+
+    // When
+    for (int i = 0; i < 10_000; i++) {
+      filter.put("client-" + i + "@example.com");
+    }
+
+    // Then
+    for (int i = 0; i < 10_000; i++) {
+      assertThat(filter.mightContain("client-" + i + "@example.com")).isTrue();
+    }
+  }
+
+  @Test
+  void mightContain_WhenFilledToCapacity_ShouldStayNearConfiguredFalsePositiveRate() {
+    // Given
+    BloomFilter filter = new BloomFilter(10_000, 0.01);
+    for (int i = 0; i < 10_000; i++) {
+      filter.put("client-" + i + "@example.com");
+    }
+
+    // When
+    int falsePositives = 0;
+    for (int i = 0; i < 100_000; i++) {
+      if (filter.mightContain("other-" + i + "@example.com")) {
+        falsePositives++;
+      }
+    }
+
+    // Then
+    assertThat(falsePositives / 100_000d).isLessThan(0.02);
+  }
+
+  @Test
+  void constructor_ShouldDeriveSizeAndHashCountFromTargetRate() {
+    // When
+    BloomFilter filter = new BloomFilter(1_000_000, 0.01);
+
+    // Then: about 9.6 bits and 7 hashes per element for a 1% rate
+    assertThat(filter.getBitCount()).isBetween(9_500_000L, 9_700_000L);
+    assertThat(filter.getHashCount()).isEqualTo(7);
+  }
+}
@@ -0,0 +1,250 @@
+package ch.insurance.api.service;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+
+import jakarta.validation.Validation;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import ch.insurance.api.TestUtils;
+import ch.insurance.api.config.BulkJobProperties;
+import ch.insurance.api.domain.BulkJob;
+import ch.insurance.api.domain.BulkJobError;
+import ch.insurance.api.dto.BulkJobRequest;
+import ch.insurance.api.dto.BulkJobResponse;
+import ch.insurance.api.dto.PersonRequest;
+import ch.insurance.api.exception.ResourceNotFoundException;
+import ch.insurance.api.repository.BulkJobErrorRepository;
+import ch.insurance.api.repository.BulkJobRepository;
+
+class BulkJobServiceTest {
+
+  private static final Long JOB_ID = 42L;
+
+  @Mock private BulkJobRepository bulkJobRepository;
+
+  @Mock private BulkJobErrorRepository bulkJobErrorRepository;
+
+  @Mock private ClientService clientService;
+
+  @Mock private ContractService contractService;
+
+  @Mock private ExecutorService bulkJobExecutor;
+
+  @Mock private PlatformTransactionManager transactionManager;
+
+  private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+  private BulkJobService bulkJobService;
+
+  @BeforeEach
+  void setUp() {
+    MockitoAnnotations.openMocks(this);
+    bulkJobService =
+        new BulkJobService(
+            bulkJobRepository,
+            bulkJobErrorRepository,
+            clientService,
+            contractService,
+            new Shards(null, TransactionOperations.withoutTransaction(), 1),
+            new TransactionTemplate(transactionManager),
+            bulkJobExecutor,
+            new BulkJobProperties(),
+            objectMapper,
+            Validation.buildDefaultValidatorFactory().getValidator());
+    when(bulkJobRepository.claim(eq(JOB_ID), any(), any(), any())).thenReturn(1);
+    when(bulkJobRepository.renewLease(eq(JOB_ID), any(), any())).thenReturn(1);
+    when(bulkJobRepository.recordProgress(eq(JOB_ID), any(), anyInt(), anyInt(), any()))
+        .thenReturn(1);
+  }
+
+  @Test
+  void submitJob_ShouldPersistPendingJobAndScheduleIt() {
+    // Given
+    BulkJobRequest request =
+        BulkJobRequest.builder()
+            .jobType(BulkJob.JobType.PERSON_IMPORT)
+            .items(List.of(toJson(TestUtils.createPersonRequest())))
+            .build();
+    when(bulkJobRepository.save(any(BulkJob.class)))
+        .thenAnswer(
+            invocation -> {
+              BulkJob job = invocation.getArgument(0);
+              job.setId(JOB_ID);
+              return job;
+            });
+
+    // When
+    BulkJobResponse response = bulkJobService.submitJob(request);
+
+    // Then
+    assertThat(response.getId()).isEqualTo(JOB_ID);
+    assertThat(response.getStatus()).isEqualTo("PENDING");
+    assertThat(response.getTotalItems()).isEqualTo(1);
+    assertThat(response.getChunkSize()).isEqualTo(100);
+    verify(bulkJobExecutor).execute(any(Runnable.class));
+  }
+
+  @Test
+  void runJob_WhenAllItemsValid_ShouldCommitOneProgressUpdatePerChunk() {
+    // Given
+    PersonRequest person = TestUtils.createPersonRequest();
+    givenJob(job(BulkJob.JobType.PERSON_IMPORT, 2, 0, person, person, person));
+
+    // When
+    bulkJobService.runJob(JOB_ID);
+
+    // Then
+    verify(clientService, times(3)).createPerson(any(PersonRequest.class));
+    verify(bulkJobRepository).recordProgress(eq(JOB_ID), any(), eq(2), eq(0), any());
+    verify(bulkJobRepository).recordProgress(eq(JOB_ID), any(), eq(1), eq(0), any());
+    verify(bulkJobRepository).complete(eq(JOB_ID), any(), eq(BulkJob.JobStatus.COMPLETED), any());
+    verify(bulkJobErrorRepository, never()).save(any());
+  }
+
+  @Test
+  void runJob_WhenItemInvalid_ShouldRecordItemErrorAndKeepValidItems() {
+    // Given
+    PersonRequest valid = TestUtils.createPersonRequest();
+    PersonRequest invalid = TestUtils.createPersonRequest();
+    invalid.setLastName(null);
+    givenJob(job(BulkJob.JobType.PERSON_IMPORT, 10, 0, valid, invalid));
+
+    // When
+    bulkJobService.runJob(JOB_ID);
+
+    // Then
+    ArgumentCaptor<BulkJobError> error = ArgumentCaptor.forClass(BulkJobError.class);
+    verify(bulkJobErrorRepository).save(error.capture());
+    assertThat(error.getValue().getItemIndex()).isEqualTo(1);
+    assertThat(error.getValue().getMessage()).contains("lastName");
+    verify(bulkJobRepository).recordProgress(eq(JOB_ID), any(), eq(1), eq(0), any());
+    verify(bulkJobRepository).recordProgress(eq(JOB_ID), any(), eq(1), eq(1), any());
+    verify(bulkJobRepository).complete(eq(JOB_ID), any(), eq(BulkJob.JobStatus.COMPLETED), any());
+  }
+
+  @Test
+  void runJob_WhenRestarted_ShouldResumeAfterLastCommittedChunk() {
+    // Given
+    PersonRequest person = TestUtils.createPersonRequest();
+    givenJob(job(BulkJob.JobType.PERSON_IMPORT, 2, 2, person, person, person));
+
+    // When
+    bulkJobService.runJob(JOB_ID);
+
+    // Then
+    verify(clientService, times(1)).createPerson(any(PersonRequest.class));
+    verify(bulkJobRepository).recordProgress(eq(JOB_ID), any(), eq(1), eq(0), any());
+  }
+
+  @Test
+  void runJob_WhenCancelRequested_ShouldStopBeforeNextChunk() {
+    // Given
+    PersonRequest person = TestUtils.createPersonRequest();
+    givenJob(job(BulkJob.JobType.PERSON_IMPORT, 1, 0, person, person));
+    when(bulkJobRepository.isCancelRequested(JOB_ID)).thenReturn(false, true);
+
+    // When
+    bulkJobService.runJob(JOB_ID);
+
+    // Then
+    verify(clientService, times(1)).createPerson(any(PersonRequest.class));
+    verify(bulkJobRepository).complete(eq(JOB_ID), any(), eq(BulkJob.JobStatus.CANCELLED), any());
+  }
+
+  @Test
+  void runJob_WhenJobAlreadyFinished_ShouldDoNothing() {
+    // Given
+    when(bulkJobRepository.claim(eq(JOB_ID), any(), any(), any())).thenReturn(0);
+
+    // When
+    bulkJobService.runJob(JOB_ID);
+
+    // Then
+    verify(bulkJobRepository, never()).findById(any());
+    verifyNoInteractions(clientService);
+  }
+
+  @Test
+  void runJob_WhenLeaseIsTakenOver_ShouldStopWithoutFinishingTheJob() {
+    // Given
+    PersonRequest person = TestUtils.createPersonRequest();
+    givenJob(job(BulkJob.JobType.PERSON_IMPORT, 1, 0, person, person));
+    when(bulkJobRepository.renewLease(eq(JOB_ID), any(), any())).thenReturn(1, 0);
+
+    // When
+    bulkJobService.runJob(JOB_ID);
+
+    // Then
+    verify(clientService, times(1)).createPerson(any(PersonRequest.class));
+    verify(bulkJobRepository, never()).complete(any(), any(), any(), any());
+  }
+
+  @Test
+  void runJob_WhenLeaseIsLostDuringChunk_ShouldRollBackWithoutReplayingOrFinishing() {
+    // Given
+    PersonRequest person = TestUtils.createPersonRequest();
+    givenJob(job(BulkJob.JobType.PERSON_IMPORT, 2, 0, person, person));
+    when(bulkJobRepository.recordProgress(eq(JOB_ID), any(), anyInt(), anyInt(), any()))
+        .thenReturn(0);
+
+    // When
+    bulkJobService.runJob(JOB_ID);
+
+    // Then the chunk is not replayed item by item, and no error is recorded
+    verify(clientService, times(2)).createPerson(any(PersonRequest.class));
+    verify(transactionManager).rollback(any());
+    verify(bulkJobErrorRepository, never()).save(any());
+    verify(bulkJobRepository, never()).complete(any(), any(), any(), any());
+  }
+
+  @Test
+  void cancelJob_WhenJobDoesNotExist_ShouldThrowResourceNotFoundException() {
+    // Given
+    when(bulkJobRepository.findById(999L)).thenReturn(Optional.empty());
+
+    // When & Then
+    assertThatThrownBy(() -> bulkJobService.cancelJob(999L))
+        .isInstanceOf(ResourceNotFoundException.class);
+  }
+
+  private void givenJob(BulkJob job) {
+    when(bulkJobRepository.findById(JOB_ID)).thenReturn(Optional.of(job));
+  }
+
+  private BulkJob job(BulkJob.JobType jobType, int chunkSize, int processedItems, Object... items) {
+    try {
+      return BulkJob.builder()
+          .id(JOB_ID)
+          .jobType(jobType)
+          .status(BulkJob.JobStatus.RUNNING)
+          .payload(objectMapper.writeValueAsString(items))
+          .totalItems(items.length)
+          .chunkSize(chunkSize)
+          .processedItems(processedItems)
+          .build();
+    } catch (Exception e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private JsonNode toJson(Object value) {
+    return objectMapper.valueToTree(value);
+  }
+}
@@ -0,0 +1,162 @@
+package ch.insurance.api.service;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionOperations;
+
+import ch.insurance.api.config.ClientSearchProperties;
+import ch.insurance.api.domain.Client;
+import ch.insurance.api.domain.Company;
+import ch.insurance.api.domain.Person;
+import ch.insurance.api.dto.ClientSearchResult;
+import ch.insurance.api.repository.ClientRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ClientSearchIndexTest {
+
+  private final Shards shards = new Shards(null, TransactionOperations.withoutTransaction(), 1);
+
+  private ClientRepository clientRepository;
+  private ClientSearchIndex index;
+
+  @BeforeEach
+  void setUp() {
+    clientRepository = mock(ClientRepository.class);
+    index =
+        new ClientSearchIndex(
+            clientRepository, shards, new ClientSearchProperties(), new SimpleMeterRegistry());
+  }
+
+  @Test
+  void search_WhenQueryIsPrefix_ShouldRankExactTokenMatchesFirst() {
+    // Given
+    index.index(person(1L, "Anna", "Muller", "anna@example.com"));
+    index.index(person(2L, "Hans", "Mullerson", "hans@example.com"));
+    index.index(person(3L, "Peter", "Meier", "peter@example.com"));
+
+    // When
+    List<ClientSearchResult> prefix = index.search("mull", null);
+    List<ClientSearchResult> exact = index.search("muller", null);
+
+    // Then
+    assertThat(prefix).extracting(ClientSearchResult::getId).containsExactlyInAnyOrder(1L, 2L);
+    assertThat(exact).extracting(ClientSearchResult::getId).startsWith(1L);
+    assertThat(exact.get(0).getName()).isEqualTo("Anna Muller");
+  }
+
+  @Test
+  void search_WhenQueryHasTypoOrAccents_ShouldStillMatch() {
+    // Given
+    index.index(company(1L, "Zürich Versicherungen", "CHE-101", "info@zurich.example"));
+
+    // When Then
+    assertThat(index.search("zurich versicherung", null))
+        .extracting(ClientSearchResult::getId)
+        .containsExactly(1L);
+    assertThat(index.search("versicherumgen", null))
+        .extracting(ClientSearchResult::getId)
+        .containsExactly(1L);
+    assertThat(index.search("che-101", null)).hasSize(1);
+  }
+
+  @Test
+  void search_WhenClientUpdatedOrRemoved_ShouldReflectLatestState() {
+    // Given
+    index.index(person(1L, "Anna", "Muller", "anna@example.com"));
+    index.index(person(1L, "Anna", "Keller", "anna@example.com"));
+    index.index(person(2L, "Hans", "Muller", "hans@example.com"));
+
+    // When
+    index.remove(2L);
+
+    // Then
+    assertThat(index.search("muller", null)).isEmpty();
+    assertThat(index.search("keller", null))
+        .extracting(ClientSearchResult::getId)
+        .containsExactly(1L);
+    assertThat(index.getDocumentCount()).isEqualTo(1);
+  }
+
+  @Test
+  void search_AfterManyUpdates_ShouldCompactAndKeepResults() {
+    // Given
+    for (int round = 0; round < 5; round++) {
+      for (long id = 1; id <= 1000; id++) {
+        index.index(person(id, "First" + round, "Last" + id, "client" + id + "@example.com"));
+      }
+    }
+
+    // When
+    List<ClientSearchResult> results = index.search("last42", 5);
+
+    // Then
+    assertThat(index.getDocumentCount()).isEqualTo(1000);
+    assertThat(results.get(0).getId()).isEqualTo(42L);
+    assertThat(results.get(0).getName()).isEqualTo("First4 Last42");
+  }
+
+  @Test
+  void search_ShouldHonourLimit() {
+    // Given
+    for (long id = 1; id <= 50; id++) {
+      index.index(person(id, "Maria", "Rossi", "maria" + id + "@example.com"));
+    }
+
+    // When Then
+    assertThat(index.search("maria", 10)).hasSize(10);
+    assertThat(index.search("maria", 1000)).hasSize(50);
+  }
+
+  @Test
+  void search_WhenQueryTooShort_ShouldThrowIllegalArgumentException() {
+    assertThatThrownBy(() -> index.search("a", null)).isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void rebuild_ShouldLoadClientsPageByPage() {
+    // Given
+    ClientSearchProperties properties = new ClientSearchProperties();
+    properties.setRebuildPageSize(2);
+    index = new ClientSearchIndex(clientRepository, shards, properties, new SimpleMeterRegistry());
+    when(clientRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any()))
+        .thenReturn(
+            List.of(
+                person(1L, "Anna", "Muller", "anna@example.com"),
+                company(2L, "Acme", "CHE-1", "acme@example.com")));
+    when(clientRepository.findByIdGreaterThanOrderByIdAsc(eq(2L), any()))
+        .thenReturn(List.of(person(3L, "Hans", "Meier", "hans@example.com")));
+
+    // When
+    index.rebuild();
+
+    // Then
+    assertThat(index.getDocumentCount()).isEqualTo(3);
+    assertThat(index.search("acme", null).get(0).getClientType()).isEqualTo("COMPANY");
+  }
+
+  private static Person person(Long id, String firstName, String lastName, String email) {
+    return Person.builder()
+        .id(id)
+        .clientType(Client.ClientType.PERSON)
+        .firstName(firstName)
+        .lastName(lastName)
+        .email(email)
+        .build();
+  }
+
+  private static Company company(Long id, String name, String identifier, String email) {
+    return Company.builder()
+        .id(id)
+        .clientType(Client.ClientType.COMPANY)
+        .companyName(name)
+        .companyIdentifier(identifier)
+        .email(email)
+        .build();
+  }
+}
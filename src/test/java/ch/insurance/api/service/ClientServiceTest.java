@@ -2,30 +2,42 @@ package ch.insurance.api.service;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.LongStream;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.transaction.support.TransactionOperations;
 
 import ch.insurance.api.TestUtils;
+import ch.insurance.api.config.BatchReadProperties;
 import ch.insurance.api.domain.Client;
 import ch.insurance.api.domain.Company;
 import ch.insurance.api.domain.Person;
+import ch.insurance.api.dto.BatchItem;
 import ch.insurance.api.dto.ClientResponse;
 import ch.insurance.api.dto.ClientUpdateRequest;
 import ch.insurance.api.dto.CompanyRequest;
+import ch.insurance.api.dto.ContractResponse;
 import ch.insurance.api.dto.PersonRequest;
+import ch.insurance.api.exception.DuplicateResourceException;
 import ch.insurance.api.exception.ResourceNotFoundException;
+import ch.insurance.api.journal.ChangeType;
+import ch.insurance.api.json.SerializedResponseCache;
 import ch.insurance.api.repository.ClientRepository;
 import ch.insurance.api.repository.ContractRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 class ClientServiceTest {
 
@@ -35,11 +47,41 @@ class ClientServiceTest {
 
   @Mock private ContractRepository contractRepository;
 
-  @InjectMocks private ClientService clientService;
+  @Spy private SingleFlight<Long, ClientResponse> clientByIdSingleFlight = new SingleFlight<>();
 
+  @Mock private ClientEmailIndex clientEmailIndex;
+
+  @Mock private ClientSearchIndex clientSearchIndex;
+
+  @Spy
+  private MissingIdCache missingClientIds =
+      new MissingIdCache("client", true, Duration.ofSeconds(5), 1_000, new SimpleMeterRegistry());
+
+  @Mock private SerializedResponseCache<ClientResponse> clientResponseCache;
+
+  @Mock private SerializedResponseCache<ContractResponse> contractResponseCache;
+
+  @Mock private ChangeRecorder changeRecorder;
+
+  private ClientService clientService;
+
+  // Built by hand: constructor injection cannot tell the two response caches apart by type
   @BeforeEach
   void setUp() {
     MockitoAnnotations.openMocks(this);
+    clientService =
+        new ClientService(
+            clientRepository,
+            contractRepository,
+            clientByIdSingleFlight,
+            clientEmailIndex,
+            clientSearchIndex,
+            missingClientIds,
+            clientResponseCache,
+            contractResponseCache,
+            new BatchReadProperties(),
+            new Shards(null, TransactionOperations.withoutTransaction(), 1),
+            changeRecorder);
   }
 
   @Test
@@ -71,6 +113,63 @@ class ClientServiceTest {
     assertNotNull(response.getUpdatedAt(), "Updated date should be set");
   }
 
+  @Test
+  void createPerson_WhenEmailAlreadyUsed_ShouldThrowDuplicateResourceException() {
+    // Given
+    PersonRequest request = TestUtils.createPersonRequest();
+    when(clientEmailIndex.exists(request.getEmail())).thenReturn(true);
+
+    // When & Then
+    assertThrows(
+        DuplicateResourceException.class,
+        () -> clientService.createPerson(request),
+        "Should reject an email that is already used");
+    verify(clientRepository, never()).save(any());
+  }
+
+  @Test
+  void createPerson_ShouldRegisterEmailInIndex() {
+    // Given
+    PersonRequest request = TestUtils.createPersonRequest();
+    Person savedPerson = TestUtils.createTestSavedPerson();
+    savedPerson.setId(1L);
+    when(clientRepository.save(any(Person.class))).thenReturn(savedPerson);
+
+    // When
+    clientService.createPerson(request);
+
+    // Then
+    verify(clientEmailIndex).add(request.getEmail());
+  }
+
+  @Test
+  void getClientByEmail_WhenFilterRulesEmailOut_ShouldNotQueryDatabase() {
+    // Given
+    when(clientEmailIndex.mightExist("nobody@example.com")).thenReturn(false);
+
+    // When & Then
+    assertThrows(
+        ResourceNotFoundException.class,
+        () -> clientService.getClientByEmail("nobody@example.com"),
+        "Should throw ResourceNotFoundException for an unknown email");
+    verifyNoInteractions(clientRepository);
+  }
+
+  @Test
+  void getClientByEmail_WhenClientExists_ShouldReturnClientResponse() {
+    // Given
+    Person person = TestUtils.createTestSavedPerson();
+    person.setId(1L);
+    when(clientEmailIndex.mightExist(person.getEmail())).thenReturn(true);
+    when(clientRepository.findByEmail(person.getEmail())).thenReturn(Optional.of(person));
+
+    // When
+    ClientResponse response = clientService.getClientByEmail(person.getEmail());
+
+    // Then
+    assertEquals(1L, response.getId(), "Response ID should match the stored client");
+  }
+
   @Test
   void getClientById_WhenClientExists_ShouldReturnClientResponse() {
     // Given
@@ -87,6 +186,7 @@ class ClientServiceTest {
     assertNotNull(response, "Response should not be null");
     assertEquals(clientId, response.getId(), "Response ID should match the requested ID");
     assertEquals("PERSON", response.getClientType(), "Client type should be PERSON");
+    verify(clientResponseCache).put(eq(clientId), anyLong(), anyLong(), eq(response));
   }
 
   @Test
@@ -102,6 +202,50 @@ class ClientServiceTest {
         "Should throw ResourceNotFoundException when client doesn't exist");
   }
 
+  @Test
+  void getClientById_WhenIdWasJustMissing_ShouldNotQueryDatabaseAgain() {
+    // Given
+    Long nonExistentClientId = 998L;
+    when(clientRepository.findById(nonExistentClientId)).thenReturn(Optional.empty());
+    assertThrows(
+        ResourceNotFoundException.class, () -> clientService.getClientById(nonExistentClientId));
+
+    // When & Then
+    assertThrows(
+        ResourceNotFoundException.class, () -> clientService.getClientById(nonExistentClientId));
+    verify(clientRepository, times(1)).findById(nonExistentClientId);
+  }
+
+  @Test
+  void getClientsByIds_ShouldReturnOneItemPerDistinctIdInRequestOrder() {
+    // Given
+    Person person = TestUtils.createTestSavedPerson();
+    person.setId(2L);
+    when(clientRepository.findAllById(List.of(2L, 7L))).thenReturn(List.of(person));
+
+    // When
+    List<BatchItem<ClientResponse>> items = clientService.getClientsByIds(List.of(2L, 7L, 2L));
+
+    // Then
+    assertEquals(2, items.size(), "Duplicate ids should be answered once");
+    assertEquals(200, items.get(0).getStatus());
+    assertEquals(2L, items.get(0).getData().getId());
+    assertEquals(7L, items.get(1).getId());
+    assertEquals(404, items.get(1).getStatus());
+    assertEquals("Client not found with id: 7", items.get(1).getError());
+    verify(clientRepository, times(1)).findAllById(any());
+  }
+
+  @Test
+  void getClientsByIds_WhenTooManyIds_ShouldThrowIllegalArgumentException() {
+    // Given
+    List<Long> ids = LongStream.rangeClosed(1, 101).boxed().toList();
+
+    // When & Then
+    assertThrows(IllegalArgumentException.class, () -> clientService.getClientsByIds(ids));
+    verifyNoInteractions(clientRepository);
+  }
+
   @Test
   void getAllClients_ShouldReturnListOfClients() {
     // Given
@@ -156,6 +300,7 @@ class ClientServiceTest {
         updateRequest.getLastName(), response.getLastName(), "Last name should be updated");
     assertEquals(updateRequest.getEmail(), response.getEmail(), "Email should be updated");
     assertEquals(updateRequest.getPhone(), response.getPhone(), "Phone should be updated");
+    verify(clientResponseCache).invalidate(clientId);
   }
 
   @Test
@@ -176,6 +321,9 @@ class ClientServiceTest {
     // Then
     verify(contractRepository, times(1)).findByClientId(clientId);
     verify(clientRepository, times(1)).delete(person);
+    verify(clientResponseCache).invalidate(clientId);
+    verify(changeRecorder)
+        .record(eq(ChangeType.CLIENT_DELETED), eq(clientId), any(ClientResponse.class), isNull());
   }
 
   @Test
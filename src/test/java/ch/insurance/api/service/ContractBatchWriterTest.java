@@ -0,0 +1,109 @@
+package ch.insurance.api.service;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import ch.insurance.api.TestUtils;
+import ch.insurance.api.config.ContractGroupCommitProperties;
+import ch.insurance.api.dto.ContractResponse;
+import ch.insurance.api.exception.ServiceUnavailableException;
+import ch.insurance.api.repository.ClientRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ContractBatchWriterTest {
+
+  private final ClientRepository clientRepository = mock(ClientRepository.class);
+
+  private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+
+  private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+
+  private final CountDownLatch writing = new CountDownLatch(1);
+
+  private final CountDownLatch release = new CountDownLatch(1);
+
+  private ContractBatchWriter writer;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    ContractGroupCommitProperties properties = new ContractGroupCommitProperties();
+    properties.setEnabled(true);
+    properties.setMaxDelay(Duration.ofMillis(1));
+    properties.setTimeout(Duration.ofMillis(200));
+    writer =
+        new ContractBatchWriter(
+            mock(ContractService.class),
+            clientRepository,
+            jdbcTemplate,
+            transactionTemplate,
+            mock(CacheInvalidation.class),
+            mock(MissingIdCache.class),
+            new Shards(null, TransactionOperations.withoutTransaction(), 1),
+            mock(ChangeRecorder.class),
+            properties,
+            new SimpleMeterRegistry());
+
+    when(transactionTemplate.execute(any()))
+        .thenAnswer(
+            invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    // The first batch stalls until released, so later requests stay queued
+    when(clientRepository.findExistingIds(anyCollection()))
+        .thenAnswer(
+            invocation -> {
+              writing.countDown();
+              release.await();
+              return List.of(1L);
+            });
+    when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenReturn(List.of(100L));
+    writer.start();
+  }
+
+  @AfterEach
+  void tearDown() throws Exception {
+    release.countDown();
+    writer.stop();
+  }
+
+  @Test
+  void createContract_WhenTimedOut_ShouldWithdrawQueuedRequestButAwaitOneBeingWritten()
+      throws Exception {
+    // Given a request the writer has taken and is stuck on
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      Future<ContractResponse> taken =
+          executor.submit(() -> writer.createContract(1L, TestUtils.createContractRequest()));
+      assertThat(writing.await(5, TimeUnit.SECONDS)).isTrue();
+
+      // When a second request times out still queued behind it
+      assertThatThrownBy(() -> writer.createContract(1L, TestUtils.createContractRequest()))
+          .isInstanceOf(ServiceUnavailableException.class);
+      release.countDown();
+
+      // Then the taken one outlives its timeout and gets its contract, and only it is written
+      assertThat(taken.get(5, TimeUnit.SECONDS).getId()).isEqualTo(100L);
+      writer.stop();
+      verify(jdbcTemplate, times(1)).execute(any(ConnectionCallback.class));
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+}
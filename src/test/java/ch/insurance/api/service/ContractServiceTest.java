@@ -3,9 +3,11 @@ package ch.insurance.api.service;
 import static org.assertj.core.api.Assertions.*;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -13,20 +15,30 @@ import java.util.Optional;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.transaction.support.TransactionOperations;
 
 import ch.insurance.api.TestUtils;
+import ch.insurance.api.config.BatchReadProperties;
+import ch.insurance.api.domain.ArchivedContract;
 import ch.insurance.api.domain.Client;
 import ch.insurance.api.domain.Contract;
+import ch.insurance.api.dto.BatchItem;
 import ch.insurance.api.dto.ContractCostUpdateRequest;
 import ch.insurance.api.dto.ContractRequest;
 import ch.insurance.api.dto.ContractResponse;
 import ch.insurance.api.dto.TotalCostResponse;
 import ch.insurance.api.exception.ResourceNotFoundException;
+import ch.insurance.api.journal.ChangeType;
+import ch.insurance.api.json.SerializedResponseCache;
+import ch.insurance.api.repository.ArchivedContractRepository;
 import ch.insurance.api.repository.ClientRepository;
 import ch.insurance.api.repository.ContractRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 class ContractServiceTest {
 
@@ -51,6 +63,13 @@ class ContractServiceTest {
     verify(contractRepository).save(any(Contract.class));
     assertThat(contract.getEndDate()).isEqualTo(today);
     assertThat(contract.getLastModifiedDate()).isNotNull();
+    verify(contractResponseCache).invalidate(contractId);
+    ArgumentCaptor<Object> before = ArgumentCaptor.forClass(Object.class);
+    ArgumentCaptor<Object> after = ArgumentCaptor.forClass(Object.class);
+    verify(changeRecorder)
+        .record(eq(ChangeType.CONTRACT_ENDED), eq(contractId), before.capture(), after.capture());
+    assertThat(((ContractResponse) before.getValue()).getEndDate()).isNotEqualTo(today);
+    assertThat(((ContractResponse) after.getValue()).getEndDate()).isEqualTo(today);
   }
 
   @Test
@@ -70,8 +89,28 @@ class ContractServiceTest {
 
   @Mock private ContractRepository contractRepository;
 
+  @Mock private ArchivedContractRepository archivedContractRepository;
+
   @Mock private ClientRepository clientRepository;
 
+  @Spy private SingleFlight<Long, TotalCostResponse> totalCostSingleFlight = new SingleFlight<>();
+
+  @Spy
+  private MissingIdCache missingClientIds =
+      new MissingIdCache("client", true, Duration.ofSeconds(5), 1_000, new SimpleMeterRegistry());
+
+  @Spy
+  private MissingIdCache missingContractIds =
+      new MissingIdCache("contract", true, Duration.ofSeconds(5), 1_000, new SimpleMeterRegistry());
+
+  @Mock private SerializedResponseCache<ContractResponse> contractResponseCache;
+
+  @Spy private BatchReadProperties batchReadProperties = new BatchReadProperties();
+
+  @Spy private Shards shards = new Shards(null, TransactionOperations.withoutTransaction(), 1);
+
+  @Mock private ChangeRecorder changeRecorder;
+
   @InjectMocks private ContractService contractService;
 
   @BeforeEach
@@ -126,6 +165,7 @@ class ContractServiceTest {
     assertNotNull(response);
     assertEquals(0, updateRequest.getCostAmount().compareTo(response.getCostAmount()));
     verify(contractRepository, times(1)).save(any(Contract.class));
+    verify(contractResponseCache).invalidate(contractId);
   }
 
   @Test
@@ -176,6 +216,97 @@ class ContractServiceTest {
     assertEquals(expectedCount, response.getActiveContractsCount());
   }
 
+  @Test
+  void getTotalCosts_ShouldReportUnknownClientsPerItem() {
+    // Given
+    TotalCostResponse known = new TotalCostResponse(1L, new BigDecimal("3000.00"), 2L);
+    when(contractRepository.sumActiveContractsCostByClientIds(
+            eq(List.of(1L, 999L)), any(LocalDate.class)))
+        .thenReturn(List.of(known));
+
+    // When
+    List<BatchItem<TotalCostResponse>> items = contractService.getTotalCosts(List.of(1L, 999L));
+
+    // Then
+    assertThat(items).extracting(BatchItem::getStatus).containsExactly(200, 404);
+    assertThat(items.get(0).getData()).isEqualTo(known);
+    assertThat(items.get(1).getError()).isEqualTo("Client not found with id: 999");
+    verify(clientRepository, never()).existsById(any());
+  }
+
+  @Test
+  void getContract_WhenArchived_ShouldReadArchiveTable() {
+    // Given
+    Long contractId = 42L;
+    ArchivedContract archived =
+        ArchivedContract.builder()
+            .id(contractId)
+            .clientId(7L)
+            .startDate(LocalDate.of(2019, 1, 1))
+            .endDate(LocalDate.of(2020, 1, 1))
+            .costAmount(new BigDecimal("100.00"))
+            .lastModifiedDate(LocalDateTime.of(2020, 1, 1, 0, 0))
+            .createdAt(LocalDateTime.of(2019, 1, 1, 0, 0))
+            .archivedAt(LocalDateTime.now())
+            .build();
+    when(contractRepository.findById(contractId)).thenReturn(Optional.empty());
+    when(archivedContractRepository.findById(contractId)).thenReturn(Optional.of(archived));
+
+    // When
+    ContractResponse response = contractService.getContract(contractId);
+
+    // Then
+    assertEquals(contractId, response.getId());
+    assertEquals(7L, response.getClientId());
+    assertEquals(LocalDate.of(2020, 1, 1), response.getEndDate());
+  }
+
+  @Test
+  void getContractsActiveOn_WhenDateIsToday_ShouldNotQueryArchive() {
+    // Given
+    Long clientId = 1L;
+    when(clientRepository.existsById(clientId)).thenReturn(true);
+    when(contractRepository.findContractsActiveOn(clientId, LocalDate.now())).thenReturn(List.of());
+
+    // When
+    contractService.getContractsActiveOn(clientId, LocalDate.now());
+
+    // Then
+    verifyNoInteractions(archivedContractRepository);
+  }
+
+  @Test
+  void getContractsActiveOn_WhenContractIsArchivedBetweenReads_ShouldReturnItOnce() {
+    // Given a contract read from both tables, and one only found in the archive
+    Long clientId = 1L;
+    LocalDate asOf = LocalDate.of(2020, 6, 1);
+    Contract live = TestUtils.createTestContract(TestUtils.createTestSavedPerson());
+    live.setId(42L);
+    when(clientRepository.existsById(clientId)).thenReturn(true);
+    when(contractRepository.findContractsActiveOn(clientId, asOf)).thenReturn(List.of(live));
+    when(archivedContractRepository.findContractsActiveOn(clientId, asOf))
+        .thenReturn(List.of(archived(42L), archived(43L)));
+
+    // When
+    List<ContractResponse> contracts = contractService.getContractsActiveOn(clientId, asOf);
+
+    // Then
+    assertThat(contracts).extracting(ContractResponse::getId).containsExactly(42L, 43L);
+  }
+
+  private static ArchivedContract archived(Long id) {
+    return ArchivedContract.builder()
+        .id(id)
+        .clientId(1L)
+        .startDate(LocalDate.of(2019, 1, 1))
+        .endDate(LocalDate.of(2021, 1, 1))
+        .costAmount(new BigDecimal("100.00"))
+        .lastModifiedDate(LocalDateTime.of(2020, 1, 1, 0, 0))
+        .createdAt(LocalDateTime.of(2019, 1, 1, 0, 0))
+        .archivedAt(LocalDateTime.now())
+        .build();
+  }
+
   @Test
   void createContract_WithInvalidClient_ShouldThrowException() {
     // Given
@@ -0,0 +1,158 @@
+package ch.insurance.api.service;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import ch.insurance.api.config.IdempotencyProperties;
+import ch.insurance.api.exception.IdempotencyException;
+
+class IdempotencyServiceTest {
+
+  private InMemoryIdempotencyStore store;
+
+  private IdempotencyService idempotencyService;
+
+  @BeforeEach
+  void setUp() {
+    store = new InMemoryIdempotencyStore(2);
+    IdempotencyProperties properties = new IdempotencyProperties();
+    properties.setInFlightTimeout(Duration.ofSeconds(5));
+    idempotencyService = new IdempotencyService(store, properties);
+  }
+
+  @Test
+  void execute_WhenKeyRepeated_ShouldReplayFirstResponse() {
+    // Given
+    AtomicInteger executions = new AtomicInteger();
+
+    // When
+    IdempotencyService.Outcome first =
+        idempotencyService.execute("k1", "fp", expiresAt -> created(executions, expiresAt));
+    IdempotencyService.Outcome second =
+        idempotencyService.execute("k1", "fp", expiresAt -> created(executions, expiresAt));
+
+    // Then
+    assertThat(executions).hasValue(1);
+    assertThat(first.replayed()).isFalse();
+    assertThat(second.replayed()).isTrue();
+    assertThat(second.response().body()).isEqualTo(first.response().body());
+  }
+
+  @Test
+  void execute_WhenKeyReusedWithDifferentBody_ShouldReject() {
+    // Given
+    idempotencyService.execute("k1", "fp-1", expiresAt -> created(new AtomicInteger(), expiresAt));
+
+    // When & Then
+    assertThatThrownBy(
+            () ->
+                idempotencyService.execute(
+                    "k1", "fp-2", expiresAt -> created(new AtomicInteger(), expiresAt)))
+        .isInstanceOf(IdempotencyException.class)
+        .extracting("status")
+        .isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY);
+  }
+
+  @Test
+  void execute_WhenFirstExecutionFails_ShouldNotStoreResponse() {
+    // Given
+    AtomicInteger executions = new AtomicInteger();
+
+    // When
+    idempotencyService.execute(
+        "k1",
+        "fp",
+        expiresAt -> {
+          executions.incrementAndGet();
+          return new StoredResponse("fp", 400, null, null, new byte[0], expiresAt);
+        });
+    idempotencyService.execute("k1", "fp", expiresAt -> created(executions, expiresAt));
+
+    // Then
+    assertThat(executions).hasValue(2);
+  }
+
+  @Test
+  void execute_WhenDuplicatesInFlight_ShouldCoalesceOntoFirstExecution() throws Exception {
+    // Given
+    AtomicInteger executions = new AtomicInteger();
+    CountDownLatch firstStarted = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    try {
+      Future<IdempotencyService.Outcome> first =
+          executor.submit(
+              () ->
+                  idempotencyService.execute(
+                      "k1",
+                      "fp",
+                      expiresAt -> {
+                        firstStarted.countDown();
+                        release.await();
+                        return created(executions, expiresAt);
+                      }));
+      firstStarted.await();
+
+      // When
+      Future<IdempotencyService.Outcome> duplicate =
+          executor.submit(
+              () ->
+                  idempotencyService.execute(
+                      "k1", "fp", expiresAt -> created(executions, expiresAt)));
+      Thread.sleep(50);
+      release.countDown();
+
+      // Then
+      assertThat(first.get().replayed()).isFalse();
+      assertThat(duplicate.get().replayed()).isTrue();
+      assertThat(executions).hasValue(1);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  void inMemoryStore_WhenFull_ShouldEvictLeastRecentlyUsedKey() {
+    // Given
+    Instant expiresAt = Instant.now().plusSeconds(60);
+    store.save("a", new StoredResponse("fp", 201, null, null, new byte[0], expiresAt));
+    store.save("b", new StoredResponse("fp", 201, null, null, new byte[0], expiresAt));
+    store.find("a");
+
+    // When
+    store.save("c", new StoredResponse("fp", 201, null, null, new byte[0], expiresAt));
+
+    // Then
+    assertThat(store.size()).isEqualTo(2);
+    assertThat(store.find("a")).isPresent();
+    assertThat(store.find("b")).isEmpty();
+  }
+
+  @Test
+  void inMemoryStore_WhenEntryExpired_ShouldForgetIt() {
+    // Given
+    store.save(
+        "a", new StoredResponse("fp", 201, null, null, new byte[0], Instant.now().minusSeconds(1)));
+
+    // When & Then
+    assertThat(store.find("a")).isEmpty();
+  }
+
+  private static StoredResponse created(AtomicInteger executions, Instant expiresAt) {
+    int execution = executions.incrementAndGet();
+    return new StoredResponse(
+        "fp", 201, "application/json", null, ("{\"id\":" + execution + "}").getBytes(), expiresAt);
+  }
+}
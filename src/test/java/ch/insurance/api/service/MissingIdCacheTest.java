@@ -0,0 +1,93 @@
+package ch.insurance.api.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class MissingIdCacheTest {
+
+  private final AtomicLong clock = new AtomicLong();
+
+  private MissingIdCache cache(int maxEntries) {
+    return new MissingIdCache(
+        "client", true, Duration.ofSeconds(5), maxEntries, new SimpleMeterRegistry(), clock::get);
+  }
+
+  @Test
+  void isKnownMissing_WhenMarkedWithinTtl_ShouldReturnTrue() {
+    // Given
+    MissingIdCache cache = cache(100);
+    cache.markMissing(42L, cache.version(42L));
+
+    // When
+    clock.addAndGet(Duration.ofSeconds(4).toNanos());
+
+    // Then
+    assertThat(cache.isKnownMissing(42L)).isTrue();
+    assertThat(cache.isKnownMissing(43L)).isFalse();
+  }
+
+  @Test
+  void isKnownMissing_WhenTtlElapsed_ShouldReturnFalseAndForgetId() {
+    // Given
+    MissingIdCache cache = cache(100);
+    cache.markMissing(42L, cache.version(42L));
+
+    // When
+    clock.addAndGet(Duration.ofSeconds(6).toNanos());
+
+    // Then
+    assertThat(cache.isKnownMissing(42L)).isFalse();
+    assertThat(cache.size()).isZero();
+  }
+
+  @Test
+  void invalidate_WhenIdIsCreated_ShouldForgetIt() {
+    // Given
+    MissingIdCache cache = cache(100);
+    cache.markMissing(42L, cache.version(42L));
+
+    // When
+    cache.invalidate(42L);
+
+    // Then
+    assertThat(cache.isKnownMissing(42L)).isFalse();
+  }
+
+  @Test
+  void markMissing_WhenIdWasCreatedDuringLookup_ShouldNotRecordIt() {
+    // Given
+    MissingIdCache cache = cache(100);
+    long version = cache.version(42L);
+
+    // When
+    cache.invalidate(42L);
+    cache.markMissing(42L, version);
+
+    // Then
+    assertThat(cache.isKnownMissing(42L)).isFalse();
+  }
+
+  @Test
+  void markMissing_WhenFull_ShouldOnlyAcceptAfterExpiredEntriesAreSwept() {
+    // Given
+    MissingIdCache cache = cache(2);
+    cache.markMissing(1L, cache.version(1L));
+    cache.markMissing(2L, cache.version(2L));
+
+    // When
+    cache.markMissing(3L, cache.version(3L));
+    clock.addAndGet(Duration.ofSeconds(6).toNanos());
+    cache.markMissing(4L, cache.version(4L));
+
+    // Then
+    assertThat(cache.isKnownMissing(3L)).isFalse();
+    assertThat(cache.isKnownMissing(4L)).isTrue();
+    assertThat(cache.size()).isEqualTo(1);
+  }
+}
@@ -0,0 +1,121 @@
+package ch.insurance.api.service;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionOperations;
+
+import ch.insurance.api.exception.ResourceNotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class SingleFlightTest {
+
+  private SimpleMeterRegistry registry;
+
+  private SingleFlight<Long, String> singleFlight;
+
+  @BeforeEach
+  void setUp() {
+    registry = new SimpleMeterRegistry();
+    singleFlight = new SingleFlight<>("test", TransactionOperations.withoutTransaction(), registry);
+  }
+
+  @Test
+  void execute_WhenConcurrentCallersShareKey_ShouldLoadOnce() throws Exception {
+    // Given
+    int callers = 8;
+    AtomicInteger loads = new AtomicInteger();
+    CountDownLatch loading = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    ExecutorService executor = Executors.newFixedThreadPool(callers);
+
+    try {
+      List<Future<String>> results = new ArrayList<>();
+      results.add(
+          executor.submit(
+              () ->
+                  singleFlight.execute(
+                      1L,
+                      () -> {
+                        loads.incrementAndGet();
+                        loading.countDown();
+                        await(release);
+                        return "client-1";
+                      })));
+      loading.await();
+
+      // When
+      for (int i = 1; i < callers; i++) {
+        results.add(
+            executor.submit(
+                () ->
+                    singleFlight.execute(
+                        1L,
+                        () -> {
+                          loads.incrementAndGet();
+                          return "client-1";
+                        })));
+      }
+      while (registry.get("insurance.singleflight.coalesced").functionCounter().count()
+          < callers - 1) {
+        Thread.sleep(5);
+      }
+      release.countDown();
+
+      // Then
+      for (Future<String> result : results) {
+        assertThat(result.get()).isEqualTo("client-1");
+      }
+      assertThat(loads).hasValue(1);
+      assertThat(singleFlight.coalescingRatio()).isEqualTo((callers - 1) / (double) callers);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  void execute_WhenCallsDoNotOverlap_ShouldLoadEachTime() {
+    // Given
+    AtomicInteger loads = new AtomicInteger();
+
+    // When
+    singleFlight.execute(1L, () -> "a" + loads.incrementAndGet());
+    String second = singleFlight.execute(1L, () -> "a" + loads.incrementAndGet());
+
+    // Then
+    assertThat(second).isEqualTo("a2");
+    assertThat(singleFlight.coalescingRatio()).isZero();
+  }
+
+  @Test
+  void execute_WhenLoaderFails_ShouldPropagateAndForgetKey() {
+    // When & Then
+    assertThatThrownBy(
+            () ->
+                singleFlight.execute(
+                    1L,
+                    () -> {
+                      throw new ResourceNotFoundException("Client", 1L);
+                    }))
+        .isInstanceOf(ResourceNotFoundException.class);
+    assertThat(singleFlight.execute(1L, () -> "loaded")).isEqualTo("loaded");
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException(e);
+    }
+  }
+}
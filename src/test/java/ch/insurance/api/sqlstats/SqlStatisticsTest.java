@@ -0,0 +1,177 @@
+package ch.insurance.api.sqlstats;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+import ch.insurance.api.config.SqlStatisticsProperties;
+import ch.insurance.api.sqlstats.SqlStatisticsReport.Execution;
+import ch.insurance.api.sqlstats.SqlStatisticsReport.Shape;
+
+class SqlStatisticsTest {
+
+  private static final long MILLISECOND = 1_000_000;
+  private static final Object[] NO_PARAMETERS = new Object[0];
+
+  private final Clock clock = Clock.fixed(Instant.parse("2024-01-01T10:00:00Z"), ZoneOffset.UTC);
+
+  private SqlStatistics statistics(int topK, int trackedStatements) {
+    SqlStatisticsProperties properties = new SqlStatisticsProperties();
+    properties.setTopK(topK);
+    properties.setTrackedStatements(trackedStatements);
+    properties.setSlowThreshold(Duration.ofMillis(100));
+    properties.setCaptureParameters(true);
+    properties.setMaxParameterLength(5);
+    return new SqlStatistics(properties, clock);
+  }
+
+  private static void record(SqlStatistics statistics, String sql, int times) {
+    for (int i = 0; i < times; i++) {
+      statistics.record(sql, MILLISECOND, NO_PARAMETERS, 0);
+    }
+  }
+
+  @Test
+  void normalize_ShouldReplaceLiteralsAndCollapseInLists() {
+    // When
+    String shape =
+        SqlShapes.normalize(
+            "select c1_0.id from contracts c1_0\n  where c1_0.client_id in (?, ?, ?)"
+                + " and c1_0.cost_amount > 10.50 and c1_0.status = 'ACTIVE' fetch first 5 rows");
+
+    // Then
+    assertThat(shape)
+        .isEqualTo(
+            "select c1_0.id from contracts c1_0 where c1_0.client_id in (...)"
+                + " and c1_0.cost_amount > ? and c1_0.status = ? fetch first ? rows");
+  }
+
+  @Test
+  void record_ShouldAggregateExecutionsOfSameShape() {
+    // Given
+    SqlStatistics statistics = statistics(5, 10);
+
+    // When
+    statistics.record("select * from clients where id = 1", 2 * MILLISECOND, NO_PARAMETERS, 0);
+    statistics.record("select * from clients where id = 2", 4 * MILLISECOND, NO_PARAMETERS, 0);
+    statistics.record("delete from clients", 10 * MILLISECOND, NO_PARAMETERS, 0);
+
+    // Then
+    SqlStatisticsReport report = statistics.report();
+    assertThat(report.executions()).isEqualTo(3);
+    Shape select = report.mostFrequent().get(0);
+    assertThat(select.sql()).isEqualTo("select * from clients where id = ?");
+    assertThat(select.count()).isEqualTo(2);
+    assertThat(select.totalMillis()).isEqualTo(6.0);
+    assertThat(select.meanMillis()).isEqualTo(3.0);
+    assertThat(select.maxMillis()).isEqualTo(4.0);
+    assertThat(report.mostTime()).extracting(Shape::sql).first().isEqualTo("delete from clients");
+  }
+
+  @Test
+  void record_WhenSlow_ShouldKeepRenderedParameters() {
+    // Given
+    SqlStatistics statistics = statistics(2, 10);
+    Object[] parameters = {
+      null, 42L, "alice@example.com", new byte[3], null, LocalDate.of(2024, 1, 1)
+    };
+
+    // When
+    statistics.record("select 1", 1 * MILLISECOND, parameters, 5);
+    statistics.record("select 2", 150 * MILLISECOND, parameters, 5);
+    statistics.record("select 3", 120 * MILLISECOND, parameters, 5);
+
+    // Then
+    SqlStatisticsReport report = statistics.report();
+    assertThat(report.slowest()).extracting(Execution::millis).containsExactly(150.0, 120.0);
+    assertThat(report.slowest().get(0).parameters())
+        .containsExactly("42", "alice...", "<3 bytes>", "null", "2024-...");
+    assertThat(report.slowest().get(0).at()).isEqualTo(clock.instant());
+    Shape fast =
+        report.mostFrequent().stream().filter(s -> s.sql().equals("select ?")).findFirst().get();
+    assertThat(fast.count()).isEqualTo(3);
+    assertThat(fast.slowSample().millis()).isEqualTo(120.0);
+  }
+
+  @Test
+  void record_WhenTableIsFull_ShouldReplaceLeastFrequentShape() {
+    // Given
+    SqlStatistics statistics = statistics(2, 2);
+    record(statistics, "insert into a values (?)", 5);
+    record(statistics, "insert into b values (?)", 1);
+
+    // When
+    record(statistics, "insert into c values (?)", 1);
+
+    // Then
+    assertThat(statistics.report().mostFrequent())
+        .extracting(Shape::sql, Shape::count, Shape::countError)
+        .containsExactly(
+            tuple("insert into a values (?)", 5L, 0L), tuple("insert into c values (?)", 2L, 1L));
+  }
+
+  @Test
+  void record_WhenCalledConcurrently_ShouldCountEveryExecution() throws Exception {
+    // Given
+    SqlStatistics statistics = statistics(3, 10);
+    int threads = 8;
+    int perThread = 5_000;
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+    // When
+    try {
+      List<Future<?>> done = new ArrayList<>();
+      for (int t = 0; t < threads; t++) {
+        long nanos = (t + 1) * MILLISECOND;
+        done.add(
+            executor.submit(
+                () -> {
+                  for (int i = 0; i < perThread; i++) {
+                    statistics.record(
+                        "select * from clients where id = " + i, nanos, NO_PARAMETERS, 0);
+                  }
+                }));
+      }
+      for (Future<?> future : done) {
+        future.get();
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    // Then
+    SqlStatisticsReport report = statistics.report();
+    assertThat(report.executions()).isEqualTo(threads * perThread);
+    assertThat(report.mostFrequent().get(0).count()).isEqualTo(threads * perThread);
+    assertThat(report.mostFrequent().get(0).maxMillis()).isEqualTo(8.0);
+    assertThat(report.slowest()).extracting(Execution::millis).containsExactly(8.0, 8.0, 8.0);
+  }
+
+  @Test
+  void reset_ShouldForgetEverything() {
+    // Given
+    SqlStatistics statistics = statistics(2, 2);
+    record(statistics, "select 1", 3);
+
+    // When
+    statistics.reset();
+
+    // Then
+    SqlStatisticsReport report = statistics.report();
+    assertThat(report.executions()).isZero();
+    assertThat(report.mostFrequent()).isEmpty();
+    assertThat(report.slowest()).isEmpty();
+  }
+}
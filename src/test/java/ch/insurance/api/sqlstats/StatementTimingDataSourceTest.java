@@ -0,0 +1,90 @@
+package ch.insurance.api.sqlstats;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.sql.Types;
+import java.time.Duration;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+
+import ch.insurance.api.config.SqlStatisticsProperties;
+import ch.insurance.api.sqlstats.SqlStatisticsReport.Shape;
+
+class StatementTimingDataSourceTest {
+
+  private final JdbcDataSource h2 = new JdbcDataSource();
+
+  private SqlStatistics statistics(Duration slowThreshold) {
+    SqlStatisticsProperties properties = new SqlStatisticsProperties();
+    properties.setSlowThreshold(slowThreshold);
+    properties.setCaptureParameters(true);
+    return new SqlStatistics(properties);
+  }
+
+  @Test
+  void getConnection_ShouldRecordEveryExecutedStatement() throws Exception {
+    // Given
+    h2.setURL("jdbc:h2:mem:timing-record;DB_CLOSE_DELAY=-1");
+    SqlStatistics statistics = statistics(Duration.ofHours(1));
+    StatementTimingDataSource dataSource = new StatementTimingDataSource(h2, statistics);
+
+    // When
+    try (Connection connection = dataSource.getConnection();
+        Statement statement = connection.createStatement()) {
+      statement.execute("create table items (id bigint, name varchar(20))");
+      try (PreparedStatement insert =
+          connection.prepareStatement("insert into items values (?, ?)")) {
+        for (long id = 1; id <= 3; id++) {
+          insert.setLong(1, id);
+          insert.setString(2, "item " + id);
+          insert.executeUpdate();
+        }
+      }
+      statement.executeQuery("select count(*) from items where id > 1").close();
+    }
+
+    // Then
+    SqlStatisticsReport report = statistics.report();
+    assertThat(report.executions()).isEqualTo(5);
+    assertThat(report.mostFrequent())
+        .extracting(Shape::sql, Shape::count)
+        .contains(
+            tuple("insert into items values (?, ?)", 3L),
+            tuple("select count(*) from items where id > ?", 1L));
+  }
+
+  @Test
+  void getConnection_WhenStatementIsSlow_ShouldKeepItsBindValues() throws Exception {
+    // Given every execution counts as slow
+    h2.setURL("jdbc:h2:mem:timing-slow;DB_CLOSE_DELAY=-1");
+    SqlStatistics statistics = statistics(Duration.ZERO);
+    StatementTimingDataSource dataSource = new StatementTimingDataSource(h2, statistics);
+
+    // When
+    try (Connection connection = dataSource.getConnection();
+        PreparedStatement query = connection.prepareStatement("select ?, ?")) {
+      query.setInt(1, 7);
+      query.setNull(2, Types.VARCHAR);
+      query.executeQuery().close();
+    }
+
+    // Then
+    assertThat(statistics.report().slowest().get(0).parameters()).containsExactly("7", "null");
+  }
+
+  @Test
+  void unwrap_ShouldReachUnderlyingDataSource() throws Exception {
+    // Given
+    StatementTimingDataSource dataSource =
+        new StatementTimingDataSource(h2, statistics(Duration.ofHours(1)));
+
+    // When Then
+    assertThat(dataSource.isWrapperFor(JdbcDataSource.class)).isTrue();
+    assertThat(dataSource.unwrap(JdbcDataSource.class)).isSameAs(h2);
+  }
+}
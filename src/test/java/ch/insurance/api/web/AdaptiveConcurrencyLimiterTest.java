@@ -0,0 +1,109 @@
+package ch.insurance.api.web;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import ch.insurance.api.config.ConcurrencyLimitProperties;
+
+class AdaptiveConcurrencyLimiterTest {
+
+  private static final long UPDATE_INTERVAL_NANOS =
+      new ConcurrencyLimitProperties.Limit().getUpdateInterval().toNanos();
+
+  private final AtomicLong clock = new AtomicLong();
+
+  private AdaptiveConcurrencyLimiter limiter;
+
+  @BeforeEach
+  void setUp() {
+    limiter =
+        new AdaptiveConcurrencyLimiter(
+            new ConcurrencyLimitProperties.Limit(10, 2, 100), clock::get);
+  }
+
+  @Test
+  void tryAcquire_WhenLimitReached_ShouldReject() {
+    // Given
+    for (int i = 0; i < 10; i++) {
+      assertThat(limiter.tryAcquire()).isPresent();
+    }
+
+    // When & Then
+    assertThat(limiter.tryAcquire()).isEmpty();
+    assertThat(limiter.getInFlight()).isEqualTo(10);
+  }
+
+  @Test
+  void release_WhenLatencyStaysAtBaseline_ShouldGrowLimit() {
+    // When
+    runSaturatedRounds(20, 10_000_000L);
+
+    // Then
+    assertThat(limiter.getLimit()).isGreaterThan(10);
+  }
+
+  @Test
+  void release_WhenLatencyRisesAboveBaseline_ShouldShrinkLimit() {
+    // Given
+    runSaturatedRounds(20, 10_000_000L);
+    int limitAtBaseline = limiter.getLimit();
+
+    // When
+    runSaturatedRounds(10, 80_000_000L);
+
+    // Then
+    assertThat(limiter.getLimit()).isLessThan(limitAtBaseline);
+    assertThat(limiter.getBaselineRttMillis()).isGreaterThanOrEqualTo(10);
+  }
+
+  @Test
+  void release_WhenDropped_ShouldBackOffOncePerWindow() {
+    // Given
+    List<AdaptiveConcurrencyLimiter.Permit> permits = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      permits.add(limiter.tryAcquire().orElseThrow());
+    }
+
+    // When
+    permits.forEach(permit -> permit.release(true));
+    int limitWithinWindow = limiter.getLimit();
+    clock.addAndGet(UPDATE_INTERVAL_NANOS);
+    limiter.tryAcquire().orElseThrow().release(true);
+
+    // Then
+    assertThat(limitWithinWindow).isEqualTo(10);
+    assertThat(limiter.getLimit()).isEqualTo(9);
+    assertThat(limiter.getInFlight()).isZero();
+  }
+
+  @Test
+  void release_WhenLightlyLoaded_ShouldKeepLimit() {
+    // When
+    for (int i = 0; i < 50; i++) {
+      AdaptiveConcurrencyLimiter.Permit permit = limiter.tryAcquire().orElseThrow();
+      clock.addAndGet(10_000_000L);
+      permit.release(false);
+    }
+
+    // Then
+    assertThat(limiter.getLimit()).isEqualTo(10);
+  }
+
+  private void runSaturatedRounds(int rounds, long rttNanos) {
+    for (int round = 0; round < rounds; round++) {
+      List<AdaptiveConcurrencyLimiter.Permit> permits = new ArrayList<>();
+      limiter.tryAcquire().ifPresent(permits::add);
+      while (permits.size() < limiter.getLimit()) {
+        limiter.tryAcquire().ifPresent(permits::add);
+      }
+      clock.addAndGet(rttNanos);
+      permits.forEach(permit -> permit.release(false));
+    }
+  }
+}
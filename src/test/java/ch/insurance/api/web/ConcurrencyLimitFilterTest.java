@@ -0,0 +1,130 @@
+package ch.insurance.api.web;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import ch.insurance.api.config.ConcurrencyLimitProperties;
+import ch.insurance.api.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ConcurrencyLimitFilterTest {
+
+  private SimpleMeterRegistry registry;
+
+  private ConcurrencyLimitFilter filter;
+
+  @BeforeEach
+  void setUp() {
+    ConcurrencyLimitProperties properties = new ConcurrencyLimitProperties();
+    properties.setRead(new ConcurrencyLimitProperties.Limit(1, 1, 1));
+    registry = new SimpleMeterRegistry();
+    filter =
+        new ConcurrencyLimitFilter(
+            properties, new ObjectMapper().findAndRegisterModules(), registry);
+  }
+
+  @Test
+  void doFilter_WhenReadLimitExhausted_ShouldRejectWithRetryAfter() throws Exception {
+    // Given a read request that is still holding the only read permit
+    AtomicReference<MockHttpServletResponse> nested = new AtomicReference<>();
+    MockFilterChain holdingChain =
+        new MockFilterChain() {
+          @Override
+          public void doFilter(ServletRequest request, ServletResponse response)
+              throws IOException, ServletException {
+            MockHttpServletResponse second = new MockHttpServletResponse();
+            filter.doFilter(get("/api/clients/1"), second, new MockFilterChain());
+            nested.set(second);
+          }
+        };
+
+    // When
+    filter.doFilter(get("/api/clients/1"), new MockHttpServletResponse(), holdingChain);
+
+    // Then
+    assertThat(nested.get().getStatus()).isEqualTo(503);
+    assertThat(nested.get().getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+    assertThat(registry.get("insurance.limiter.rejected").tag("type", "read").counter().count())
+        .isEqualTo(1);
+  }
+
+  @Test
+  void doFilter_WhenWriteWhileReadsSaturated_ShouldUseSeparateLimit() throws Exception {
+    // Given
+    AtomicReference<MockHttpServletResponse> nested = new AtomicReference<>();
+    MockFilterChain holdingChain =
+        new MockFilterChain() {
+          @Override
+          public void doFilter(ServletRequest request, ServletResponse response)
+              throws IOException, ServletException {
+            MockHttpServletResponse write = new MockHttpServletResponse();
+            MockHttpServletRequest post =
+                new MockHttpServletRequest("POST", "/api/clients/persons");
+            filter.doFilter(post, write, new MockFilterChain());
+            nested.set(write);
+          }
+        };
+
+    // When
+    filter.doFilter(get("/api/clients/1"), new MockHttpServletResponse(), holdingChain);
+
+    // Then
+    assertThat(nested.get().getStatus()).isEqualTo(200);
+    assertThat(filter.getReadLimiter().getInFlight()).isZero();
+    assertThat(filter.getWriteLimiter().getInFlight()).isZero();
+  }
+
+  @Test
+  void doFilter_WhenPathOutsideApi_ShouldNotLimit() throws Exception {
+    // Given
+    MockHttpServletResponse response = new MockHttpServletResponse();
+
+    // When
+    filter.doFilter(get("/actuator/health"), response, new MockFilterChain());
+
+    // Then
+    assertThat(response.getStatus()).isEqualTo(200);
+    assertThat(filter.getReadLimiter().getBaselineRttMillis()).isZero();
+  }
+
+  @Test
+  void isOverload_ShouldOnlyCountTimeouts() {
+    assertThat(
+            ConcurrencyLimitFilter.isOverload(
+                new CannotGetJdbcConnectionException(
+                    "Pool exhausted", new SQLTransientConnectionException("timeout"))))
+        .isTrue();
+    assertThat(
+            ConcurrencyLimitFilter.isOverload(
+                new ServiceUnavailableException("Queue backed up", new TimeoutException())))
+        .isTrue();
+    assertThat(ConcurrencyLimitFilter.isOverload(new ServiceUnavailableException("Loading")))
+        .isFalse();
+    assertThat(ConcurrencyLimitFilter.isOverload(new IllegalStateException("Bug"))).isFalse();
+    assertThat(ConcurrencyLimitFilter.isOverload(null)).isFalse();
+  }
+
+  private static MockHttpServletRequest get(String uri) {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+    request.setRequestURI(uri);
+    return request;
+  }
+}
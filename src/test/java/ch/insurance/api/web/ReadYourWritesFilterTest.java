@@ -0,0 +1,76 @@
+package ch.insurance.api.web;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import ch.insurance.api.config.ReplicaRoutingProperties;
+import ch.insurance.api.datasource.ReplicaRoutingContext;
+
+class ReadYourWritesFilterTest {
+
+  private ReadYourWritesFilter filter;
+
+  @BeforeEach
+  void setUp() {
+    ReplicaRoutingProperties properties = new ReplicaRoutingProperties();
+    properties.setReadYourWritesWindow(Duration.ofSeconds(2));
+    filter = new ReadYourWritesFilter(properties);
+  }
+
+  @Test
+  void doFilter_WhenWrite_ShouldReturnLastWriteHeader() throws Exception {
+    // Given
+    MockHttpServletResponse response = new MockHttpServletResponse();
+
+    // When
+    filter.doFilter(
+        new MockHttpServletRequest("POST", "/api/clients/persons"), response, (req, res) -> {});
+
+    // Then
+    assertThat(response.getHeader(ReadYourWritesFilter.LAST_WRITE_HEADER)).isNotBlank();
+  }
+
+  @Test
+  void doFilter_WhenReadShortlyAfterWrite_ShouldPinToPrimary() throws Exception {
+    // Given
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/clients/1");
+    request.addHeader(
+        ReadYourWritesFilter.LAST_WRITE_HEADER, Long.toString(System.currentTimeMillis()));
+    AtomicBoolean pinned = new AtomicBoolean();
+
+    // When
+    filter.doFilter(
+        request,
+        new MockHttpServletResponse(),
+        (req, res) -> pinned.set(ReplicaRoutingContext.isPrimaryForced()));
+
+    // Then
+    assertThat(pinned).isTrue();
+    assertThat(ReplicaRoutingContext.isPrimaryForced()).isFalse();
+  }
+
+  @Test
+  void doFilter_WhenLastWriteOutsideWindow_ShouldAllowReplica() throws Exception {
+    // Given
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/clients/1");
+    request.addHeader(
+        ReadYourWritesFilter.LAST_WRITE_HEADER, Long.toString(System.currentTimeMillis() - 5000));
+    AtomicBoolean pinned = new AtomicBoolean();
+
+    // When
+    filter.doFilter(
+        request,
+        new MockHttpServletResponse(),
+        (req, res) -> pinned.set(ReplicaRoutingContext.isPrimaryForced()));
+
+    // Then
+    assertThat(pinned).isFalse();
+  }
+}
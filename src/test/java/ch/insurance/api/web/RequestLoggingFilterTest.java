@@ -0,0 +1,84 @@
+package ch.insurance.api.web;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import ch.insurance.api.config.RequestLogProperties;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+
+class RequestLoggingFilterTest {
+
+  private final Logger logger = (Logger) LoggerFactory.getLogger(RequestLoggingFilter.class);
+  private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+  private final RequestLogProperties properties = new RequestLogProperties();
+  private RequestLoggingFilter filter;
+
+  @BeforeEach
+  void setUp() {
+    appender.start();
+    logger.addAppender(appender);
+    properties.setSlowThreshold(Duration.ofMillis(50));
+    filter = new RequestLoggingFilter(properties);
+  }
+
+  @AfterEach
+  void tearDown() {
+    logger.detachAppender(appender);
+  }
+
+  @Test
+  void doFilter_ShouldLogRequestOutcomeAtInfo() throws Exception {
+    // When
+    filter.doFilter(
+        new MockHttpServletRequest("GET", "/api/clients/1"),
+        new MockHttpServletResponse(),
+        (req, res) -> {});
+
+    // Then
+    ILoggingEvent event = appender.list.get(0);
+    assertThat(event.getLevel()).isEqualTo(Level.INFO);
+    assertThat(event.getFormattedMessage()).startsWith("GET /api/clients/1 200 in ");
+    assertThat(event.getMDCPropertyMap())
+        .containsKeys(RequestLoggingFilter.MDC_KEYS.toArray(String[]::new))
+        .containsEntry("status", "200");
+    assertThat(MDC.getCopyOfContextMap()).isNullOrEmpty();
+  }
+
+  @Test
+  void doFilter_WhenServerErrorOrSlow_ShouldLogAtWarn() throws Exception {
+    // When
+    MockHttpServletResponse failed = new MockHttpServletResponse();
+    filter.doFilter(
+        new MockHttpServletRequest("POST", "/api/clients/persons"),
+        failed,
+        (req, res) -> failed.setStatus(503));
+    filter.doFilter(
+        new MockHttpServletRequest("GET", "/api/clients"),
+        new MockHttpServletResponse(),
+        (req, res) -> sleep(60));
+
+    // Then
+    assertThat(appender.list).extracting(ILoggingEvent::getLevel).containsOnly(Level.WARN);
+    assertThat(appender.list.get(1).getFormattedMessage()).endsWith("(slow)");
+  }
+
+  private static void sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}